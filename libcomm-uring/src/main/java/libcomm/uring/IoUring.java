@@ -0,0 +1,273 @@
+package libcomm.uring;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.VarHandle;
+
+import commons.util.PrintUtils;
+
+/**
+ * Anillo de io_uring sobre la memoria compartida con el núcleo, sin
+ * liburing: las estructuras se mapean con <code>mmap</code> y se leen y
+ * escriben con la API FFM. Las entradas de envío (SQE) se preparan en local y
+ * se entregan todas juntas en una sola llamada
+ * {@link #submitAndWait(int)}, que además espera completados; estos se
+ * recogen con {@link #reap(CompletionHandler)}.
+ * <p>
+ * No es seguro entre hilos: sólo debe usarlo el hilo del bucle de eventos.
+ * </p>
+ * <p>
+ * 19/10/2026 18:41:37
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+final class IoUring implements AutoCloseable {
+
+	/** Operación de lectura de un descriptor. */
+	static final byte OP_READ = 22;
+
+	/** Operación de envío por socket. */
+	static final byte OP_SEND = 26;
+
+	/** Operación de recepción por socket. */
+	static final byte OP_RECV = 27;
+
+	/* Flag de io_uring_enter para esperar completados. */
+	private static final int ENTER_GETEVENTS = 1;
+
+	/* Desplazamientos de mmap de cada zona del anillo. */
+	private static final long OFF_SQ_RING = 0L;
+	private static final long OFF_CQ_RING = 0x8000000L;
+	private static final long OFF_SQES = 0x10000000L;
+
+	/* Tamaños de las estructuras io_uring_params, io_uring_sqe e io_uring_cqe. */
+	private static final int PARAMS_SIZE = 120;
+	private static final int SQE_SIZE = 64;
+	private static final int CQE_SIZE = 16;
+
+	/* Desplazamientos dentro de io_uring_params de io_sqring_offsets e io_cqring_offsets. */
+	private static final int PARAMS_SQ_OFF = 40;
+	private static final int PARAMS_CQ_OFF = 80;
+
+	/**
+	 * Recibe cada operación completada.
+	 */
+	@FunctionalInterface
+	interface CompletionHandler {
+		/**
+		 * Operación completada.
+		 *
+		 * @param userData
+		 *            Dato de usuario indicado al preparar la operación.
+		 * @param result
+		 *            Resultado: bytes transferidos o <code>-errno</code>.
+		 */
+		void complete(long userData, int result);
+	}
+
+	/* Descriptor del anillo. */
+	private final int ringFd;
+
+	/* Zonas mapeadas: anillo de envío, anillo de completados y entradas de envío. */
+	private final MemorySegment sqRing;
+	private final MemorySegment cqRing;
+	private final MemorySegment sqes;
+
+	/* Desplazamientos en el anillo de envío. */
+	private final long sqHead;
+	private final long sqTail;
+	private final long sqArray;
+	private final int sqMask;
+	private final int sqEntries;
+
+	/* Desplazamientos en el anillo de completados. */
+	private final long cqHead;
+	private final long cqTail;
+	private final long cqes;
+	private final int cqMask;
+
+	/* Entradas preparadas (local) y entregadas al núcleo. */
+	private int preparedTail;
+	private int publishedTail;
+
+	/**
+	 * Constructor de clase. Crea el anillo y mapea sus zonas.
+	 *
+	 * @param entries
+	 *            Número de entradas de envío, potencia de dos.
+	 * @throws IOException
+	 *             si el núcleo no soporta io_uring o no lo permite.
+	 */
+	IoUring(final int entries) throws IOException {
+		final int sqArrayOffset;
+		final int cqesOffset;
+		final int cqEntries;
+		final int sqMaskOffset;
+		final int cqMaskOffset;
+		try (final Arena arena = Arena.ofConfined()) {
+			final MemorySegment params = arena.allocate(PARAMS_SIZE, 8);
+			this.ringFd = LibC.ioUringSetup(entries, params);
+			this.sqEntries = params.get(JAVA_INT, 0);
+			cqEntries = params.get(JAVA_INT, 4);
+			this.sqHead = params.get(JAVA_INT, PARAMS_SQ_OFF);
+			this.sqTail = params.get(JAVA_INT, PARAMS_SQ_OFF + 4);
+			sqMaskOffset = params.get(JAVA_INT, PARAMS_SQ_OFF + 8);
+			sqArrayOffset = params.get(JAVA_INT, PARAMS_SQ_OFF + 24);
+			this.cqHead = params.get(JAVA_INT, PARAMS_CQ_OFF);
+			this.cqTail = params.get(JAVA_INT, PARAMS_CQ_OFF + 4);
+			cqMaskOffset = params.get(JAVA_INT, PARAMS_CQ_OFF + 8);
+			cqesOffset = params.get(JAVA_INT, PARAMS_CQ_OFF + 20);
+			this.sqArray = sqArrayOffset;
+			this.cqes = cqesOffset;
+		}
+
+		MemorySegment sq = null;
+		MemorySegment cq = null;
+		try {
+			sq = LibC.mmap(sqArrayOffset + (long) sqEntries * Integer.BYTES, ringFd, OFF_SQ_RING);
+			cq = LibC.mmap(cqesOffset + (long) cqEntries * CQE_SIZE, ringFd, OFF_CQ_RING);
+			this.sqes = LibC.mmap((long) sqEntries * SQE_SIZE, ringFd, OFF_SQES);
+		} catch (final IOException e) {
+			if (sq != null) {
+				LibC.munmap(sq);
+			}
+			if (cq != null) {
+				LibC.munmap(cq);
+			}
+			LibC.close(ringFd);
+			throw e;
+		}
+		this.sqRing = sq;
+		this.cqRing = cq;
+		this.sqMask = sqRing.get(JAVA_INT, sqMaskOffset);
+		this.cqMask = cqRing.get(JAVA_INT, cqMaskOffset);
+		this.preparedTail = this.publishedTail = sqRing.get(JAVA_INT, sqTail);
+	}
+
+	/**
+	 * Prepara una operación, que se entregará al núcleo en el siguiente
+	 * {@link #submitAndWait(int)}. Si no quedan entradas libres se entregan
+	 * antes las ya preparadas.
+	 *
+	 * @param opcode
+	 *            Operación.
+	 * @param fd
+	 *            Descriptor sobre el que se opera.
+	 * @param address
+	 *            Dirección de memoria del buffer.
+	 * @param length
+	 *            Longitud del buffer.
+	 * @param opFlags
+	 *            Flags de la operación, por ejemplo <code>MSG_NOSIGNAL</code>.
+	 * @param userData
+	 *            Dato devuelto con el completado.
+	 * @throws IOException
+	 *             si no se pueden entregar las operaciones pendientes.
+	 */
+	void prepare(final byte opcode, final int fd, final long address, final int length, final int opFlags,
+			final long userData) throws IOException {
+		if (preparedTail - acquire(sqRing, sqHead) >= sqEntries) {
+			submitAndWait(0);
+			if (preparedTail - acquire(sqRing, sqHead) >= sqEntries) {
+				throw new IOException("Anillo de envío io_uring lleno");
+			}
+		}
+		final int index = preparedTail & sqMask;
+		final long sqe = (long) index * SQE_SIZE;
+		sqes.asSlice(sqe, SQE_SIZE).fill((byte) 0);
+		sqes.set(JAVA_BYTE, sqe, opcode);
+		sqes.set(JAVA_INT, sqe + 4, fd);
+		sqes.set(JAVA_LONG, sqe + 8, opcode == OP_READ ? -1L : 0L);
+		sqes.set(JAVA_LONG, sqe + 16, address);
+		sqes.set(JAVA_INT, sqe + 24, length);
+		sqes.set(JAVA_INT, sqe + 28, opFlags);
+		sqes.set(JAVA_LONG, sqe + 32, userData);
+		sqRing.set(JAVA_INT, sqArray + (long) index * Integer.BYTES, index);
+		preparedTail++;
+	}
+
+	/**
+	 * Entrega al núcleo las operaciones preparadas y, si se indica, espera a
+	 * que se complete un número mínimo de operaciones. Todo en una sola
+	 * llamada al sistema.
+	 *
+	 * @param minComplete
+	 *            Completados a esperar, 0 para no esperar.
+	 * @throws IOException
+	 *             en caso de error de io_uring_enter.
+	 */
+	void submitAndWait(final int minComplete) throws IOException {
+		final int toSubmit = preparedTail - publishedTail;
+		if (toSubmit == 0 && minComplete == 0) {
+			return;
+		}
+		release(sqRing, sqTail, preparedTail);
+		publishedTail = preparedTail;
+
+		final int result = LibC.ioUringEnter(ringFd, toSubmit, minComplete, minComplete > 0 ? ENTER_GETEVENTS : 0);
+		if (result < 0 && result != -LibC.EINTR && result != -LibC.EAGAIN && result != -LibC.EBUSY) {
+			throw new IOException(PrintUtils.format("io_uring_enter: errno %s", -result));
+		}
+	}
+
+	/**
+	 * Recoge las operaciones completadas.
+	 *
+	 * @param handler
+	 *            Receptor de cada completado.
+	 * @return Número de completados recogidos.
+	 */
+	int reap(final CompletionHandler handler) {
+		int head = cqRing.get(JAVA_INT, cqHead);
+		final int tail = acquire(cqRing, cqTail);
+		int count = 0;
+		while (head != tail) {
+			final long cqe = cqes + (long) (head & cqMask) * CQE_SIZE;
+			final long userData = cqRing.get(JAVA_LONG, cqe);
+			final int result = cqRing.get(JAVA_INT, cqe + 8);
+			head++;
+			count++;
+			handler.complete(userData, result);
+		}
+		release(cqRing, cqHead, head);
+		return count;
+	}
+
+	/**
+	 * Obtiene el número de entradas de envío del anillo.
+	 *
+	 * @return Entradas de envío.
+	 */
+	int getEntries() {
+		return sqEntries;
+	}
+
+	/** Libera las zonas mapeadas y cierra el anillo. */
+	@Override
+	public void close() {
+		LibC.munmap(sqes);
+		LibC.munmap(cqRing);
+		LibC.munmap(sqRing);
+		LibC.close(ringFd);
+	}
+
+	/* Lectura con semántica acquire de un índice que escribe el núcleo. */
+	private static int acquire(final MemorySegment ring, final long offset) {
+		final int value = ring.get(JAVA_INT, offset);
+		VarHandle.acquireFence();
+		return value;
+	}
+
+	/* Escritura con semántica release de un índice que lee el núcleo. */
+	private static void release(final MemorySegment ring, final long offset, final int value) {
+		VarHandle.releaseFence();
+		ring.set(JAVA_INT, offset, value);
+	}
+}
@@ -0,0 +1,309 @@
+package libcomm.uring;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+
+import commons.util.PrintUtils;
+
+/**
+ * Llamadas a la biblioteca C del sistema mediante la API de funciones y
+ * memoria externas (FFM). Sólo incluye lo necesario para el transporte
+ * io_uring: sockets, <code>mmap</code>, <code>eventfd</code> y la llamada
+ * genérica <code>syscall</code> para <code>io_uring_setup</code> e
+ * <code>io_uring_enter</code>, que no tienen envoltorio en libc.
+ * <p>
+ * Cada llamada que falla lanza una {@link IOException} con el
+ * <code>errno</code> capturado justo tras la llamada.
+ * </p>
+ * <p>
+ * 19/10/2026 18:20:15
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+final class LibC {
+
+	static final int AF_INET = 2;
+	static final int AF_INET6 = 10;
+	static final int SOCK_STREAM = 1;
+	static final int SOL_SOCKET = 1;
+	static final int SO_REUSEADDR = 2;
+	static final int SO_SNDTIMEO = 21;
+	static final int IPPROTO_TCP = 6;
+	static final int TCP_NODELAY = 1;
+	static final int SHUT_RDWR = 2;
+	static final int MSG_NOSIGNAL = 0x4000;
+
+	static final int ENOENT = 2;
+	static final int EINTR = 4;
+	static final int EAGAIN = 11;
+	static final int EBUSY = 16;
+	static final int ECONNREFUSED = 111;
+
+	static final int PROT_READ = 0x1;
+	static final int PROT_WRITE = 0x2;
+	static final int MAP_SHARED = 0x1;
+	static final int MAP_POPULATE = 0x8000;
+
+	static final int EFD_CLOEXEC = 0x80000;
+
+	/* Número de la llamada io_uring_setup, igual en x86_64 y aarch64. */
+	static final long SYS_IO_URING_SETUP = 425L;
+
+	/* Número de la llamada io_uring_enter, igual en x86_64 y aarch64. */
+	static final long SYS_IO_URING_ENTER = 426L;
+
+	private static final Linker LINKER = Linker.nativeLinker();
+
+	private static final SymbolLookup LIBC = LINKER.defaultLookup();
+
+	/* Estado capturado tras cada llamada, del que se lee errno. */
+	private static final StructLayout CAPTURE_LAYOUT = Linker.Option.captureStateLayout();
+
+	private static final long ERRNO_OFFSET = CAPTURE_LAYOUT.byteOffset(PathElement.groupElement("errno"));
+
+	/* Zona de captura de errno de cada hilo. */
+	private static final ThreadLocal<MemorySegment> CAPTURE =
+		ThreadLocal.withInitial(() -> Arena.ofAuto().allocate(CAPTURE_LAYOUT));
+
+	private static final MethodHandle SOCKET = downcall("socket",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT));
+
+	private static final MethodHandle SETSOCKOPT = downcall("setsockopt",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+
+	private static final MethodHandle BIND = downcall("bind",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+
+	private static final MethodHandle LISTEN = downcall("listen",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT));
+
+	private static final MethodHandle ACCEPT = downcall("accept",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS, ADDRESS));
+
+	private static final MethodHandle CONNECT = downcall("connect",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+
+	private static final MethodHandle SHUTDOWN = downcall("shutdown",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT));
+
+	private static final MethodHandle CLOSE = downcall("close",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+
+	private static final MethodHandle EVENTFD = downcall("eventfd",
+		FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT));
+
+	private static final MethodHandle WRITE = downcall("write",
+		FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, JAVA_LONG));
+
+	private static final MethodHandle MMAP = downcall("mmap",
+		FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG));
+
+	private static final MethodHandle MUNMAP = downcall("munmap",
+		FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG));
+
+	/* syscall(número, ...) con los argumentos variables de io_uring_setup. */
+	private static final MethodHandle SYSCALL_SETUP = downcall("syscall",
+		FunctionDescriptor.of(JAVA_LONG, JAVA_LONG, JAVA_LONG, ADDRESS), Linker.Option.firstVariadicArg(1));
+
+	/* syscall(número, ...) con los argumentos variables de io_uring_enter. */
+	private static final MethodHandle SYSCALL_ENTER = downcall("syscall",
+		FunctionDescriptor.of(JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, ADDRESS, JAVA_LONG),
+		Linker.Option.firstVariadicArg(1));
+
+	/* Clase de utilidades, no instanciable. */
+	private LibC() {
+	}
+
+	static int socket(final int domain, final int type, final int protocol) throws IOException {
+		try {
+			return check("socket", (int) SOCKET.invokeExact(capture(), domain, type, protocol));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("socket", t);
+		}
+	}
+
+	static void setsockopt(final int fd, final int level, final int name, final MemorySegment value) throws IOException {
+		try {
+			check("setsockopt", (int) SETSOCKOPT.invokeExact(capture(), fd, level, name, value, (int) value.byteSize()));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("setsockopt", t);
+		}
+	}
+
+	static void bind(final int fd, final MemorySegment address) throws IOException {
+		try {
+			check("bind", (int) BIND.invokeExact(capture(), fd, address, (int) address.byteSize()));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("bind", t);
+		}
+	}
+
+	static void listen(final int fd, final int backlog) throws IOException {
+		try {
+			check("listen", (int) LISTEN.invokeExact(capture(), fd, backlog));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("listen", t);
+		}
+	}
+
+	static int accept(final int fd) throws IOException {
+		try {
+			return check("accept", (int) ACCEPT.invokeExact(capture(), fd, MemorySegment.NULL, MemorySegment.NULL));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("accept", t);
+		}
+	}
+
+	/* Conecta un socket. Devuelve 0 si conecta o el errno si falla, para poder reintentar. */
+	static int connect(final int fd, final MemorySegment address) throws IOException {
+		try {
+			final int result = (int) CONNECT.invokeExact(capture(), fd, address, (int) address.byteSize());
+			return result == 0 ? 0 : errno();
+		} catch (final Throwable t) {
+			throw failure("connect", t);
+		}
+	}
+
+	/* Cierra la lectura y escritura de un socket, ignorando errores. Despierta a quien espere en él. */
+	static void shutdown(final int fd) {
+		try {
+			final int ignored = (int) SHUTDOWN.invokeExact(capture(), fd, SHUT_RDWR);
+		} catch (final Throwable t) {
+			/* se ignora */
+		}
+	}
+
+	/* Cierra un descriptor, ignorando errores. */
+	static void close(final int fd) {
+		if (fd < 0) {
+			return;
+		}
+		try {
+			final int ignored = (int) CLOSE.invokeExact(capture(), fd);
+		} catch (final Throwable t) {
+			/* se ignora */
+		}
+	}
+
+	static int eventfd() throws IOException {
+		try {
+			return check("eventfd", (int) EVENTFD.invokeExact(capture(), 0, EFD_CLOEXEC));
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("eventfd", t);
+		}
+	}
+
+	/* Escribe en un descriptor. Devuelve los bytes escritos o -errno. */
+	static long write(final int fd, final MemorySegment buffer) {
+		try {
+			final long result = (long) WRITE.invokeExact(capture(), fd, buffer, buffer.byteSize());
+			return result >= 0 ? result : -errno();
+		} catch (final Throwable t) {
+			return -EINTR;
+		}
+	}
+
+	static MemorySegment mmap(final long length, final int fd, final long offset) throws IOException {
+		try {
+			final MemorySegment address = (MemorySegment) MMAP.invokeExact(capture(), MemorySegment.NULL, length,
+				PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, fd, offset);
+			if (address.address() == -1L) {
+				throw new IOException(PrintUtils.format("mmap: errno %s", errno()));
+			}
+			return address.reinterpret(length);
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("mmap", t);
+		}
+	}
+
+	static void munmap(final MemorySegment segment) {
+		try {
+			final int ignored = (int) MUNMAP.invokeExact(capture(), segment, segment.byteSize());
+		} catch (final Throwable t) {
+			/* se ignora */
+		}
+	}
+
+	static int ioUringSetup(final int entries, final MemorySegment params) throws IOException {
+		try {
+			final long result = (long) SYSCALL_SETUP.invokeExact(capture(), SYS_IO_URING_SETUP, (long) entries, params);
+			return check("io_uring_setup", (int) result);
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw failure("io_uring_setup", t);
+		}
+	}
+
+	/* Envía y espera completados. Devuelve las entradas enviadas o -errno. */
+	static int ioUringEnter(final int ringFd, final int toSubmit, final int minComplete, final int flags) {
+		try {
+			final long result = (long) SYSCALL_ENTER.invokeExact(capture(), SYS_IO_URING_ENTER, (long) ringFd,
+				(long) toSubmit, (long) minComplete, (long) flags, MemorySegment.NULL, 0L);
+			return result >= 0 ? (int) result : -errno();
+		} catch (final Throwable t) {
+			return -EINTR;
+		}
+	}
+
+	/* Obtiene la zona de captura de errno del hilo actual. */
+	private static MemorySegment capture() {
+		return CAPTURE.get();
+	}
+
+	/* Obtiene el errno capturado en la última llamada del hilo actual. */
+	private static int errno() {
+		return capture().get(JAVA_INT, ERRNO_OFFSET);
+	}
+
+	/* Comprueba el resultado de una llamada que devuelve -1 en caso de error. */
+	private static int check(final String call, final int result) throws IOException {
+		if (result < 0) {
+			throw new IOException(PrintUtils.format("%s: errno %s", call, errno()));
+		}
+		return result;
+	}
+
+	/* Error inesperado invocando una función nativa. */
+	private static IOException failure(final String call, final Throwable t) {
+		return new IOException(PrintUtils.format("Error invocando '%s'", call), t);
+	}
+
+	/* Crea el enlace a una función de libc capturando errno. */
+	private static MethodHandle downcall(final String name, final FunctionDescriptor descriptor,
+			final Linker.Option... options) {
+		final Linker.Option[] all = new Linker.Option[options.length + 1];
+		all[0] = Linker.Option.captureCallState("errno");
+		System.arraycopy(options, 0, all, 1, options.length);
+		final MemorySegment symbol = LIBC.find(name)
+			.orElseThrow(() -> new UnsatisfiedLinkError(PrintUtils.format("Función '%s' no encontrada en libc", name)));
+		return LINKER.downcallHandle(symbol, descriptor, all);
+	}
+}
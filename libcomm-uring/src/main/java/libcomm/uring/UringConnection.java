@@ -0,0 +1,284 @@
+package libcomm.uring;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Conexión establecida sobre el bucle io_uring: un descriptor de entrada y
+ * otro de salida, como en el transporte de sockets.
+ * <p>
+ * Siempre hay una recepción pendiente en el anillo sobre el descriptor de
+ * entrada, y como mucho un envío en curso sobre el de salida. Los mensajes
+ * que se envían mientras tanto se acumulan y se agrupan en el buffer de
+ * escritura, de forma que muchos mensajes pequeños salen en un único envío.
+ * Los envíos parciales se completan con nuevos envíos del resto.
+ * </p>
+ * <p>
+ * Salvo {@link #send(byte[])} y {@link #close()}, que encolan tareas en el
+ * bucle, todos los métodos se ejecutan en el hilo del bucle.
+ * </p>
+ * <p>
+ * 19/10/2026 19:20:48
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+final class UringConnection {
+
+	/* Tamaño de los buffers de lectura y escritura. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/* Bucle de eventos. */
+	private final UringLoop loop;
+
+	/* Capa a quien notificar recepción y desconexión. */
+	private final UringLayer layer;
+
+	/* Descriptores de entrada y salida. */
+	private final int inputFd;
+	private final int outputFd;
+
+	/* Memoria nativa de la conexión, se libera cuando no quedan operaciones en curso. */
+	private final Arena arena;
+	private final MemorySegment readBuffer;
+	private final MemorySegment writeBuffer;
+
+	/* Mensajes pendientes de enviar, de cualquier hilo. */
+	private final Queue<byte[]> outbound;
+
+	/* Indica si hay una tarea de envío encolada en el bucle. */
+	private final AtomicBoolean flushScheduled;
+
+	/* Mensaje del que sólo se ha copiado una parte al buffer de escritura, y bytes copiados. */
+	private byte[] partial;
+	private int partialOffset;
+
+	/* Bytes del buffer de escritura ya enviados y bytes totales a enviar. */
+	private int writeOffset;
+	private int writeLength;
+
+	/* Identificador en el bucle, 0 si no está registrada. */
+	private long id;
+
+	/* Operaciones en curso. */
+	private boolean receiving;
+	private boolean sending;
+
+	/* Indica si la conexión está cerrada, local o remotamente. */
+	private boolean closed;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param loop
+	 *            Bucle de eventos.
+	 * @param layer
+	 *            Capa a quien notificar.
+	 * @param inputFd
+	 *            Descriptor de entrada, ya conectado.
+	 * @param outputFd
+	 *            Descriptor de salida, ya conectado.
+	 */
+	UringConnection(final UringLoop loop, final UringLayer layer, final int inputFd, final int outputFd) {
+		this.loop = loop;
+		this.layer = layer;
+		this.inputFd = inputFd;
+		this.outputFd = outputFd;
+		this.arena = Arena.ofShared();
+		this.readBuffer = arena.allocate(BUFFER_SIZE, Long.BYTES);
+		this.writeBuffer = arena.allocate(BUFFER_SIZE, Long.BYTES);
+		this.outbound = new ConcurrentLinkedQueue<>();
+		this.flushScheduled = new AtomicBoolean(Boolean.FALSE);
+	}
+
+	/**
+	 * Registra la conexión en el bucle y arma la primera recepción.
+	 */
+	void start() {
+		loop.execute(() -> {
+			id = loop.register(this);
+			receive();
+		});
+	}
+
+	/**
+	 * Encola un mensaje para enviar. Se puede llamar desde cualquier hilo.
+	 *
+	 * @param bytes
+	 *            Bytes del mensaje.
+	 */
+	void send(final byte[] bytes) {
+		outbound.offer(bytes);
+		if (!flushScheduled.getAndSet(Boolean.TRUE)) {
+			loop.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Cierra la conexión por desconexión local, sin notificar desconexión
+	 * remota. Se puede llamar desde cualquier hilo.
+	 */
+	void close() {
+		loop.execute(() -> {
+			if (!closed) {
+				closed = true;
+				LibC.shutdown(inputFd);
+				LibC.shutdown(outputFd);
+				releaseIfIdle();
+			}
+		});
+	}
+
+	/**
+	 * Cierra la conexión porque el bucle se detiene por un error,
+	 * notificando desconexión remota.
+	 */
+	void abort() {
+		receiving = false;
+		sending = false;
+		failed("bucle io_uring detenido");
+	}
+
+	/**
+	 * Procesa el completado de una operación de la conexión.
+	 *
+	 * @param opcode
+	 *            Operación completada.
+	 * @param result
+	 *            Resultado: bytes transferidos o <code>-errno</code>.
+	 */
+	void complete(final byte opcode, final int result) {
+		if (opcode == IoUring.OP_RECV) {
+			receiving = false;
+			received(result);
+		} else if (opcode == IoUring.OP_SEND) {
+			sending = false;
+			sent(result);
+		}
+		releaseIfIdle();
+	}
+
+	/* Completada una recepción. */
+	private void received(final int result) {
+		if (closed) {
+			return;
+		}
+		if (result > 0) {
+			final byte[] bytes = readBuffer.asSlice(0, result).toArray(ValueLayout.JAVA_BYTE);
+			receive();
+			layer.received(bytes);
+		} else if (result == -LibC.EINTR || result == -LibC.EAGAIN) {
+			receive();
+		} else {
+			failed(result == 0 ? "fin de datos" : PrintUtils.format("errno %s", -result));
+		}
+	}
+
+	/* Completado un envío, total o parcial. */
+	private void sent(final int result) {
+		if (closed) {
+			return;
+		}
+		if (result > 0) {
+			writeOffset += result;
+		} else if (result != -LibC.EINTR && result != -LibC.EAGAIN) {
+			failed(PrintUtils.format("errno %s", -result));
+			return;
+		}
+		if (writeOffset < writeLength) {
+			submitWrite();
+		} else {
+			fillAndSubmit();
+		}
+	}
+
+	/* Tarea de envío: agrupa los mensajes pendientes si no hay un envío en curso. */
+	private void flush() {
+		flushScheduled.set(Boolean.FALSE);
+		if (!closed && !sending) {
+			fillAndSubmit();
+		}
+	}
+
+	/* Copia al buffer de escritura los mensajes pendientes que quepan y los envía. */
+	private void fillAndSubmit() {
+		int length = 0;
+		while (length < BUFFER_SIZE) {
+			if (partial == null) {
+				partial = outbound.poll();
+				partialOffset = 0;
+				if (partial == null) {
+					break;
+				}
+			}
+			final int count = Math.min(partial.length - partialOffset, BUFFER_SIZE - length);
+			MemorySegment.copy(partial, partialOffset, writeBuffer, ValueLayout.JAVA_BYTE, length, count);
+			length += count;
+			partialOffset += count;
+			if (partialOffset == partial.length) {
+				partial = null;
+			}
+		}
+		writeOffset = 0;
+		writeLength = length;
+		if (length > 0) {
+			submitWrite();
+		}
+	}
+
+	/* Prepara el envío de lo que queda en el buffer de escritura. */
+	private void submitWrite() {
+		try {
+			loop.prepare(id, IoUring.OP_SEND, outputFd, writeBuffer.asSlice(writeOffset, writeLength - writeOffset),
+				LibC.MSG_NOSIGNAL);
+			sending = true;
+		} catch (final IOException e) {
+			failed(e.getMessage());
+		}
+	}
+
+	/* Prepara una recepción en el buffer de lectura. */
+	private void receive() {
+		try {
+			loop.prepare(id, IoUring.OP_RECV, inputFd, readBuffer, 0);
+			receiving = true;
+		} catch (final IOException e) {
+			failed(e.getMessage());
+		}
+	}
+
+	/* Error o fin de datos: se cierra la conexión y se notifica desconexión remota. */
+	private void failed(final String reason) {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		Log.debug(this, PrintUtils.format("Cerrada conexión io_uring '%s': %s", id, reason));
+		LibC.shutdown(inputFd);
+		LibC.shutdown(outputFd);
+		releaseIfIdle();
+		layer.remoteDisconnected(this);
+	}
+
+	/* Libera descriptores y memoria cuando la conexión está cerrada y sin operaciones en curso. */
+	private void releaseIfIdle() {
+		if (!closed || receiving || sending || !arena.scope().isAlive()) {
+			return;
+		}
+		loop.unregister(id);
+		LibC.close(inputFd);
+		LibC.close(outputFd);
+		arena.close();
+		outbound.clear();
+		partial = null;
+	}
+}
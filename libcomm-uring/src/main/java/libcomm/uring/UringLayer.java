@@ -0,0 +1,372 @@
+package libcomm.uring;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.ILayerCommands;
+import libcomm.layer.ILayerObserver;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.ThreadUtils;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Transporte sobre io_uring (Linux 5.6 o superior), alternativa a la capa de
+ * sockets NIO con el mismo comportamiento: dos conexiones, de salida y de
+ * entrada, la misma espera de conexión y las mismas notificaciones de error y
+ * desconexión.
+ * <p>
+ * El establecimiento de la conexión se hace en un hilo propio con llamadas
+ * bloqueantes de libc. Una vez conectada, las lecturas y escrituras de todas
+ * las conexiones las hace el bucle compartido {@link UringLoop}, que las
+ * entrega al núcleo por lotes; los bytes recibidos se notifican desde el hilo
+ * del bucle.
+ * </p>
+ * <p>
+ * 19/10/2026 19:44:05
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class UringLayer implements ILayerCommands<IBytes> {
+
+	/* Milisegundos entre intentos del cliente si el servidor rechaza la conexión. */
+	private static final long REFUSED_RETRY_MILLIS = 100L;
+
+	/* Conexiones pendientes de aceptar en el servidor. */
+	private static final int LISTEN_BACKLOG = 50;
+
+	/* Familia de los sockets de dominio Unix y longitud máxima de su ruta. */
+	private static final int AF_UNIX = 1;
+	private static final int UNIX_PATH_MAX = 108;
+
+	/* Contexto de la conexión. */
+	private final ConnectionContext context;
+
+	/* Observador a quien notifica la capa. */
+	private final ILayerObserver<IBytes> observer;
+
+	/* Modo cliente o servidor. */
+	private final ConnectionMode mode;
+
+	/* Hilo que establece la conexión, null si no está conectando. */
+	private volatile Thread connectionThread;
+
+	/* Descriptor del socket servidor mientras espera clientes, -1 si no hay. */
+	private volatile int listenFd = -1;
+
+	/* Conexión establecida, null si no hay conexión. */
+	private volatile UringConnection connection;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param context
+	 *            Contexto de la conexión.
+	 * @param observer
+	 *            Observador a quien notificar los eventos de conexión y
+	 *            desconexión, y recepción de mensajes.
+	 */
+	public UringLayer(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		this.context = context;
+		this.observer = observer;
+		this.mode = context.getConnectionMode();
+	}
+
+	/**
+	 * Indica si el sistema permite usar io_uring: núcleo Linux con io_uring
+	 * habilitado y acceso nativo permitido a la JVM.
+	 *
+	 * @return <code>true</code> si se puede usar este transporte.
+	 */
+	public static boolean isSupported() {
+		try {
+			UringLoop.get();
+			return true;
+		} catch (final IOException | RuntimeException | LinkageError e) {
+			Log.debug(UringLayer.class, PrintUtils.format("io_uring no disponible: %s", e.getMessage()));
+			return false;
+		}
+	}
+
+	@Override
+	public void connect() {
+		Log.debug(this, getText("Iniciando conexión io_uring '%s'", context.printConnection()));
+		synchronized (this) {
+			if (connectionThread != null || connection != null) {
+				final String error = getText("No se puede conectar '%s', ya existe una conexión activa", context.printConnection());
+				observer.error(error, new CommunicationException(CommErrorType.CONNECTION_ERROR, error));
+				return;
+			}
+			connectionThread = ThreadUtils.newThread(this::establish, getThreadName(), context.isVirtualThreads());
+			connectionThread.start();
+		}
+	}
+
+	@Override
+	public void disconnect() {
+		Log.debug(this, getText("Iniciando desconexión io_uring '%s'", context.printConnection()));
+		final UringConnection __connection;
+		synchronized (this) {
+			if (connectionThread == null && connection == null) {
+				return;
+			}
+			if (connectionThread != null) {
+				connectionThread.interrupt();
+				connectionThread = null;
+				final int fd = listenFd;
+				if (fd >= 0) {
+					LibC.shutdown(fd); /* despierta al hilo bloqueado en accept */
+				}
+			}
+			__connection = connection;
+			connection = null;
+		}
+
+		if (__connection != null) {
+			__connection.close();
+		}
+		observer.disconnected();
+	}
+
+	@Override
+	public void send(final IBytes message) {
+		final UringConnection __connection = connection;
+		if (__connection == null) {
+			Log.error(this, getText("Conexión io_uring no establecida, no se puede enviar '%s'", message));
+			return;
+		}
+
+		final byte[] bytes = message != null ? message.getBytes() : null;
+		if (bytes != null && bytes.length > 0) {
+			__connection.send(bytes);
+		}
+	}
+
+	/* Bytes recibidos, en el hilo del bucle. */
+	void received(final byte[] bytes) {
+		try {
+			observer.receive(() -> bytes);
+		} catch (final Throwable t) {
+			Log.error(this, getText("Error al procesar mensaje '%s'", PrintUtils.print(bytes)), t);
+		}
+	}
+
+	/*
+	 * Desconexión remota o error de la conexión, en el hilo del bucle. Se
+	 * notifica en otro hilo para no detener el bucle, pues el observador puede
+	 * reconectar en la propia notificación.
+	 */
+	void remoteDisconnected(final UringConnection closed) {
+		synchronized (this) {
+			if (connection != closed) {
+				return;
+			}
+			connection = null;
+		}
+		final Thread notifier = ThreadUtils.newThread(() -> {
+			Log.error(this, getText("Desconexión inesperada de '%s'", context.printConnection()));
+			observer.disconnected(new CommunicationException(CommErrorType.REMOTE_DISCONNECTION));
+		}, PrintUtils.format("Desconexión %s", getThreadName()), context.isVirtualThreads());
+		notifier.start();
+	}
+
+	/* Hilo de conexión: conecta cliente o servidor y registra la conexión en el bucle. */
+	private void establish() {
+		final int[] fds = { -1, -1 };
+		CommunicationException failure = null;
+		boolean established = false;
+		try (final Arena arena = Arena.ofConfined()) {
+			final UringLoop loop = UringLoop.get();
+			final MemorySegment address = address(arena);
+			if (ConnectionMode.SERVER.equals(mode)) {
+				acceptClient(arena, address, fds);
+			} else {
+				connectToServer(arena, address, fds);
+			}
+
+			synchronized (this) {
+				if (connectionThread == Thread.currentThread()) {
+					connectionThread = null;
+					connection = new UringConnection(loop, this, fds[0], fds[1]);
+					connection.start();
+					fds[0] = fds[1] = -1;
+					established = true;
+				}
+			}
+		} catch (final CommunicationException e) {
+			failure = e;
+		} catch (final IOException | RuntimeException e) {
+			failure = new CommunicationException(CommErrorType.CONNECTION_ERROR, e);
+		} finally {
+			LibC.close(fds[0]);
+			LibC.close(fds[1]);
+		}
+
+		if (established) {
+			Log.debug(this, getText("Establecida conexión io_uring '%s'", context.printConnection()));
+			observer.connected();
+			return;
+		}
+
+		synchronized (this) {
+			if (connectionThread != Thread.currentThread()) {
+				return; /* desconectados mientras se conectaba, ya notificado */
+			}
+			connectionThread = null;
+		}
+		final String error = getText("Error durante espera de conexión '%s'", context.printConnection());
+		Log.error(this, error, failure);
+		observer.error(error, failure);
+		observer.disconnected();
+	}
+
+	/* Cliente: conecta primero la salida y después la entrada, reintentando hasta agotar el tiempo. */
+	private void connectToServer(final Arena arena, final MemorySegment address, final int[] fds)
+			throws IOException, CommunicationException {
+		final long deadline = System.currentTimeMillis() + context.getConnectionTimeout();
+		fds[1] = connectSocket(arena, address, deadline);
+		fds[0] = connectSocket(arena, address, deadline);
+	}
+
+	/* Conecta un socket, reintentando mientras el servidor lo rechace. */
+	private int connectSocket(final Arena arena, final MemorySegment address, final long deadline)
+			throws IOException, CommunicationException {
+		while (true) {
+			final int fd = openSocket(arena, address);
+			final long remaining = deadline - System.currentTimeMillis();
+			setSendTimeout(arena, fd, Math.max(remaining, 1L));
+			final int errno = LibC.connect(fd, address);
+			if (errno == 0) {
+				return fd;
+			}
+			LibC.close(fd);
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CommunicationException(CommErrorType.CONNECTION_ERROR, "Conexión interrumpida");
+			}
+			final long left = deadline - System.currentTimeMillis();
+			if (left <= 0 || (errno != LibC.ECONNREFUSED && errno != LibC.EINTR && errno != LibC.ENOENT)) {
+				throw errno == LibC.ECONNREFUSED || left <= 0
+					? new CommunicationException(CommErrorType.CONNECTION_ERROR, new CommunicationException(CommErrorType.TIMEOUT))
+					: new CommunicationException(CommErrorType.CONNECTION_ERROR, PrintUtils.format("connect: errno %s", errno));
+			}
+			try {
+				TimeUnit.MILLISECONDS.sleep(Math.min(REFUSED_RETRY_MILLIS, left));
+			} catch (final InterruptedException e) {
+				throw new CommunicationException(CommErrorType.CONNECTION_ERROR, "Conexión interrumpida", e);
+			}
+		}
+	}
+
+	/* Servidor: acepta primero la entrada y después la salida, y deja de escuchar. */
+	private void acceptClient(final Arena arena, final MemorySegment address, final int[] fds) throws IOException {
+		final String unixPath = context.getUnixSocketPath();
+		final int fd = openSocket(arena, address);
+		listenFd = fd;
+		try {
+			final MemorySegment one = arena.allocate(JAVA_INT);
+			one.set(JAVA_INT, 0, 1);
+			if (unixPath != null) {
+				Files.deleteIfExists(Paths.get(unixPath));
+			} else {
+				LibC.setsockopt(fd, LibC.SOL_SOCKET, LibC.SO_REUSEADDR, one);
+			}
+			LibC.bind(fd, address);
+			LibC.listen(fd, LISTEN_BACKLOG);
+			fds[0] = LibC.accept(fd);
+			fds[1] = LibC.accept(fd);
+		} finally {
+			listenFd = -1;
+			LibC.close(fd);
+			if (unixPath != null) {
+				Files.deleteIfExists(Paths.get(unixPath));
+			}
+		}
+	}
+
+	/* Abre un socket de la familia de la dirección, con TCP_NODELAY si es TCP. */
+	private static int openSocket(final Arena arena, final MemorySegment address) throws IOException {
+		final int family = address.get(JAVA_SHORT, 0);
+		final int fd = LibC.socket(family, LibC.SOCK_STREAM, 0);
+		if (family != AF_UNIX) {
+			final MemorySegment one = arena.allocate(JAVA_INT);
+			one.set(JAVA_INT, 0, 1);
+			try {
+				LibC.setsockopt(fd, LibC.IPPROTO_TCP, LibC.TCP_NODELAY, one);
+			} catch (final IOException e) {
+				LibC.close(fd);
+				throw e;
+			}
+		}
+		return fd;
+	}
+
+	/* Limita la espera de connect al tiempo de conexión restante (struct timeval). */
+	private static void setSendTimeout(final Arena arena, final int fd, final long millis) throws IOException {
+		final MemorySegment timeval = arena.allocate(2 * Long.BYTES, Long.BYTES);
+		timeval.set(JAVA_LONG, 0, millis / 1000L);
+		timeval.set(JAVA_LONG, Long.BYTES, (millis % 1000L) * 1000L);
+		LibC.setsockopt(fd, LibC.SOL_SOCKET, LibC.SO_SNDTIMEO, timeval);
+	}
+
+	/* Construye la dirección de conexión: socket Unix, IPv4 o IPv6 del host (cliente) o cualquiera (servidor). */
+	private MemorySegment address(final Arena arena) throws IOException {
+		final String unixPath = context.getUnixSocketPath();
+		if (unixPath != null) {
+			final byte[] path = unixPath.getBytes(StandardCharsets.UTF_8);
+			if (path.length >= UNIX_PATH_MAX) {
+				throw new IOException(PrintUtils.format("Ruta de socket Unix demasiado larga '%s'", unixPath));
+			}
+			final MemorySegment sockaddr = arena.allocate(2 + UNIX_PATH_MAX, 2);
+			sockaddr.set(JAVA_SHORT, 0, (short) AF_UNIX);
+			MemorySegment.copy(path, 0, sockaddr, JAVA_BYTE, 2, path.length);
+			return sockaddr;
+		}
+
+		final InetAddress host = ConnectionMode.SERVER.equals(mode) ? null : InetAddress.getByName(context.getHost());
+		final short port = Short.reverseBytes((short) context.getPort()); /* orden de red */
+		if (host instanceof Inet6Address) {
+			final MemorySegment sockaddr = arena.allocate(28, 4);
+			sockaddr.set(JAVA_SHORT, 0, (short) LibC.AF_INET6);
+			sockaddr.set(JAVA_SHORT, 2, port);
+			MemorySegment.copy(host.getAddress(), 0, sockaddr, JAVA_BYTE, 8, 16);
+			sockaddr.set(JAVA_INT, 24, ((Inet6Address) host).getScopeId());
+			return sockaddr;
+		}
+		final MemorySegment sockaddr = arena.allocate(16, 4);
+		sockaddr.set(JAVA_SHORT, 0, (short) LibC.AF_INET);
+		sockaddr.set(JAVA_SHORT, 2, port);
+		if (host != null) {
+			MemorySegment.copy(host.getAddress(), 0, sockaddr, JAVA_BYTE, 4, 4);
+		}
+		return sockaddr;
+	}
+
+	/* Obtiene el nombre de los hilos de la conexión. */
+	private String getThreadName() {
+		return PrintUtils.format("%s (%s, io_uring:%s)", context.getConnectionName(), mode, context.getPort());
+	}
+
+	/* Devuelve el texto facilitado con sus parámetros y siempre precedido del modo de conexión. */
+	private String getText(final String message, final Object... params) {
+		return PrintUtils.format("[%s] %s", mode, PrintUtils.format(message, params));
+	}
+}
@@ -0,0 +1,240 @@
+package libcomm.uring;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Bucle de eventos io_uring compartido por todas las conexiones de la JVM.
+ * Un único hilo prepara las lecturas y escrituras de todas las conexiones,
+ * las entrega al núcleo en una sola llamada al sistema junto con la espera de
+ * completados, y procesa los completados recibidos.
+ * <p>
+ * Los demás hilos no tocan el anillo: encolan tareas con
+ * {@link #execute(Runnable)}, que el bucle ejecuta antes de cada entrega. Si
+ * el bucle está esperando completados se le despierta escribiendo en un
+ * <code>eventfd</code> que tiene siempre una lectura pendiente en el anillo.
+ * </p>
+ * <p>
+ * 19/10/2026 19:02:11
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+final class UringLoop implements Runnable {
+
+	/* Entradas del anillo de envío. */
+	private static final int RING_ENTRIES = 256;
+
+	/* Identificador de las operaciones del eventfd de aviso. */
+	private static final long WAKEUP_ID = 0L;
+
+	/* Bucle compartido, null si no se ha creado o ha terminado por error. */
+	private static UringLoop instance;
+
+	/* Anillo io_uring, sólo usado desde el hilo del bucle. */
+	private final IoUring ring;
+
+	/* Descriptor eventfd con el que se despierta al bucle. */
+	private final int wakeupFd;
+
+	/* Buffer de la lectura del eventfd (8 bytes) y de la escritura de aviso. */
+	private final MemorySegment wakeupRead;
+	private final MemorySegment wakeupWrite;
+
+	/* Tareas pendientes de ejecutar en el hilo del bucle. */
+	private final Queue<Runnable> tasks;
+
+	/* Conexiones registradas por identificador, sólo usado desde el hilo del bucle. */
+	private final Map<Long, UringConnection> connections;
+
+	/* Indica si el bucle está, o va a estar, esperando completados. */
+	private volatile boolean sleeping;
+
+	/* Siguiente identificador de conexión. */
+	private long nextId;
+
+	/* Hilo del bucle. */
+	private final Thread thread;
+
+	/* Constructor, crea el anillo y el eventfd. */
+	private UringLoop() throws IOException {
+		this.ring = new IoUring(RING_ENTRIES);
+		try {
+			this.wakeupFd = LibC.eventfd();
+		} catch (final IOException e) {
+			ring.close();
+			throw e;
+		}
+		final Arena arena = Arena.ofShared();
+		this.wakeupRead = arena.allocate(Long.BYTES, Long.BYTES);
+		this.wakeupWrite = arena.allocate(Long.BYTES, Long.BYTES);
+		wakeupWrite.set(ValueLayout.JAVA_LONG, 0L, 1L);
+		this.tasks = new ConcurrentLinkedQueue<>();
+		this.connections = new HashMap<>();
+		this.nextId = WAKEUP_ID + 1;
+		this.thread = new Thread(this, "io_uring");
+		thread.setDaemon(Boolean.TRUE);
+		thread.setPriority(Thread.MAX_PRIORITY);
+	}
+
+	/**
+	 * Obtiene el bucle compartido, creándolo la primera vez.
+	 *
+	 * @return Bucle de eventos.
+	 * @throws IOException
+	 *             si el sistema no permite usar io_uring.
+	 */
+	static synchronized UringLoop get() throws IOException {
+		if (instance == null) {
+			instance = new UringLoop();
+			instance.thread.start();
+		}
+		return instance;
+	}
+
+	/**
+	 * Ejecuta una tarea en el hilo del bucle, tras las ya encoladas.
+	 *
+	 * @param task
+	 *            Tarea a ejecutar.
+	 */
+	void execute(final Runnable task) {
+		tasks.offer(task);
+		if (sleeping && Thread.currentThread() != thread) {
+			LibC.write(wakeupFd, wakeupWrite);
+		}
+	}
+
+	/**
+	 * Registra una conexión en el bucle. Sólo desde el hilo del bucle.
+	 *
+	 * @param connection
+	 *            Conexión a registrar.
+	 * @return Identificador de la conexión en los datos de usuario de sus
+	 *         operaciones.
+	 */
+	long register(final UringConnection connection) {
+		final long id = nextId++;
+		connections.put(id, connection);
+		return id;
+	}
+
+	/**
+	 * Elimina una conexión del bucle. Sólo desde el hilo del bucle.
+	 *
+	 * @param id
+	 *            Identificador de la conexión.
+	 */
+	void unregister(final long id) {
+		connections.remove(id);
+	}
+
+	/**
+	 * Prepara una operación de una conexión. Sólo desde el hilo del bucle.
+	 *
+	 * @param id
+	 *            Identificador de la conexión.
+	 * @param opcode
+	 *            Operación.
+	 * @param fd
+	 *            Descriptor.
+	 * @param buffer
+	 *            Buffer de la operación.
+	 * @param opFlags
+	 *            Flags de la operación.
+	 * @throws IOException
+	 *             si no se puede preparar.
+	 */
+	void prepare(final long id, final byte opcode, final int fd, final MemorySegment buffer, final int opFlags)
+			throws IOException {
+		ring.prepare(opcode, fd, buffer.address(), (int) buffer.byteSize(), opFlags, userData(id, opcode));
+	}
+
+	@Override
+	public void run() {
+		Log.info(this, PrintUtils.format("Iniciado bucle io_uring con %s entradas", ring.getEntries()));
+		try {
+			ring.prepare(IoUring.OP_READ, wakeupFd, wakeupRead.address(), Long.BYTES, 0, userData(WAKEUP_ID, IoUring.OP_READ));
+			while (true) {
+				runTasks();
+				sleeping = true;
+				if (tasks.isEmpty()) {
+					ring.submitAndWait(1);
+				} else {
+					ring.submitAndWait(0);
+				}
+				sleeping = false;
+				ring.reap(this::complete);
+			}
+		} catch (final Throwable t) {
+			Log.fatal(this, "Error en el bucle io_uring, se cierran sus conexiones", t);
+			stop();
+		}
+	}
+
+	/* Ejecuta las tareas encoladas. */
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (final Throwable t) {
+				Log.error(this, "Error ejecutando tarea en el bucle io_uring", t);
+			}
+		}
+	}
+
+	/* Procesa un completado. */
+	private void complete(final long userData, final int result) {
+		final long id = userData >>> 8;
+		final byte opcode = (byte) userData;
+		if (id == WAKEUP_ID) {
+			try {
+				ring.prepare(IoUring.OP_READ, wakeupFd, wakeupRead.address(), Long.BYTES, 0, userData);
+			} catch (final IOException e) {
+				throw new IllegalStateException("No se puede rearmar el aviso del bucle io_uring", e);
+			}
+			return;
+		}
+
+		final UringConnection connection = connections.get(id);
+		if (connection != null) {
+			try {
+				connection.complete(opcode, result);
+			} catch (final Throwable t) {
+				Log.error(this, PrintUtils.format("Error procesando completado de la conexión '%s'", id), t);
+			}
+		}
+	}
+
+	/* Detiene el bucle tras un error: libera las conexiones para que se notifique su desconexión. */
+	private void stop() {
+		synchronized (UringLoop.class) {
+			if (instance == this) {
+				instance = null;
+			}
+		}
+		for (final UringConnection connection : new ArrayList<>(connections.values())) {
+			connection.abort();
+		}
+		connections.clear();
+		LibC.close(wakeupFd);
+		ring.close();
+	}
+
+	/* Datos de usuario de una operación: identificador de conexión y operación. */
+	private static long userData(final long id, final byte opcode) {
+		return (id << 8) | (opcode & 0xFF);
+	}
+}
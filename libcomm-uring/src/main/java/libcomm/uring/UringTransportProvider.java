@@ -0,0 +1,34 @@
+package libcomm.uring;
+
+import libcomm.context.ConnectionContext;
+import libcomm.layer.ILayerCommands;
+import libcomm.layer.ILayerObserver;
+import libcomm.layer.ITransportProvider;
+import libcomm.message.rfc1006.IBytes;
+
+/**
+ * Proveedor del transporte io_uring: {@link UringLayer}. Se registra como
+ * servicio al añadir este módulo al classpath y se elige con
+ * <code>transport=uring</code>.
+ * <p>
+ * 19/10/2026 20:05:32
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class UringTransportProvider implements ITransportProvider {
+
+	/** Nombre del transporte. */
+	public static final String NAME = "uring";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ILayerCommands<IBytes> create(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		return new UringLayer(context, observer);
+	}
+}
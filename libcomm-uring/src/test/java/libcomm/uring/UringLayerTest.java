@@ -0,0 +1,171 @@
+package libcomm.uring;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.ILayerObserver;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.BufferUtils;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import commons.log.ConfigureLog;
+import commons.log.LogSystem;
+import commons.util.PrintUtils;
+
+/**
+ * Tests del transporte io_uring: conexión, envío por lotes en ambos sentidos
+ * y desconexión remota. Se omiten si el sistema no permite usar io_uring.
+ * <p>
+ * 19/10/2026 20:18:50
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class UringLayerTest {
+
+	/* Puerto de las pruebas. */
+	private static final int PORT = 10102;
+
+	/* Espera máxima de cada evento. */
+	private static final long WAIT_SECONDS = 10L;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+		Assume.assumeTrue("io_uring no disponible", UringLayer.isSupported());
+	}
+
+	/**
+	 * Conecta cliente y servidor, envía muchos mensajes pequeños en ambos
+	 * sentidos, comprueba que llegan completos y en orden, y desconecta el
+	 * servidor.
+	 *
+	 * @throws Exception
+	 *             en caso de error.
+	 */
+	@Test
+	public void transmissionTest() throws Exception {
+		final Recorder server = new Recorder();
+		final Recorder client = new Recorder();
+		final UringLayer serverLayer = new UringLayer(context("uring-server", ConnectionMode.SERVER), server);
+		final UringLayer clientLayer = new UringLayer(context("uring-client", ConnectionMode.CLIENT), client);
+
+		serverLayer.connect();
+		clientLayer.connect();
+		Assert.assertEquals("Conectado servidor", "connected", server.next());
+		Assert.assertEquals("Conectado cliente", "connected", client.next());
+
+		final byte[] clientBytes = send(clientLayer, 1000);
+		final byte[] serverBytes = send(serverLayer, 1000);
+		Assert.assertArrayEquals("Recibidos en servidor", clientBytes, server.awaitBytes(clientBytes.length));
+		Assert.assertArrayEquals("Recibidos en cliente", serverBytes, client.awaitBytes(serverBytes.length));
+
+		serverLayer.disconnect();
+		Assert.assertEquals("Desconectado servidor", "disconnected", server.next());
+		Assert.assertEquals("Desconexión remota en cliente", CommErrorType.REMOTE_DISCONNECTION.toString(), client.next());
+	}
+
+	/**
+	 * El cliente sin servidor notifica timeout y desconexión.
+	 *
+	 * @throws Exception
+	 *             en caso de error.
+	 */
+	@Test
+	public void timeoutTest() throws Exception {
+		final Recorder client = new Recorder();
+		final UringLayer clientLayer = new UringLayer(context("uring-client", ConnectionMode.CLIENT), client);
+
+		clientLayer.connect();
+		Assert.assertEquals("Error de conexión", CommErrorType.CONNECTION_ERROR.toString(), client.next());
+		Assert.assertEquals("Desconectado cliente", "disconnected", client.next());
+	}
+
+	/* Envía mensajes numerados y devuelve la concatenación de todos ellos. */
+	private static byte[] send(final UringLayer layer, final int count) {
+		final ByteArrayOutputStream all = new ByteArrayOutputStream();
+		for (int i = 0; i < count; i++) {
+			final byte[] bytes = PrintUtils.format("mensaje-%s;", i).getBytes();
+			all.write(bytes, 0, bytes.length);
+			layer.send(BufferUtils.getIBytes(bytes));
+		}
+		return all.toByteArray();
+	}
+
+	/* Contexto de prueba con el modo indicado. */
+	private static ConnectionContext context(final String name, final ConnectionMode mode) throws CommunicationException {
+		final Properties properties = new Properties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_NAME, name);
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_HOST, "localhost");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_PORT, String.valueOf(PORT));
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_TIMEOUT_MILLIS, "2000");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_MODE, mode.toString());
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLING_TSAP, "SG-to-SCF");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLED_TSAP, "SCF-to-SG");
+		return ConnectionContext.createContext(properties);
+	}
+
+	/* Observador que registra eventos y bytes recibidos. */
+	private static class Recorder implements ILayerObserver<IBytes> {
+
+		private final LinkedBlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+		private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+		@Override
+		public void receive(final IBytes message) {
+			synchronized (received) {
+				final byte[] bytes = message.getBytes();
+				received.write(bytes, 0, bytes.length);
+				received.notifyAll();
+			}
+		}
+
+		@Override
+		public void connected() {
+			events.add("connected");
+		}
+
+		@Override
+		public void disconnected() {
+			events.add("disconnected");
+		}
+
+		@Override
+		public void disconnected(final CommunicationException cause) {
+			events.add(cause.getErrorType().toString());
+		}
+
+		@Override
+		public void error(final String error, final CommunicationException cause) {
+			events.add(cause.getErrorType().toString());
+		}
+
+		/* Siguiente evento, null si no llega a tiempo. */
+		String next() throws InterruptedException {
+			return events.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+		}
+
+		/* Espera a recibir al menos los bytes indicados. */
+		byte[] awaitBytes(final int length) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_SECONDS);
+			synchronized (received) {
+				while (received.size() < length && System.currentTimeMillis() < deadline) {
+					received.wait(100L);
+				}
+				return received.toByteArray();
+			}
+		}
+	}
+}
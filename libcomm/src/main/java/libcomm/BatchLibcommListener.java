@@ -0,0 +1,40 @@
+package libcomm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Listener que recibe los mensajes por bloques en lugar de uno a uno, por
+ * ejemplo para confirmar en una sola transacción todos los mensajes de un
+ * bloque. El notificador agrupa los mensajes recibidos consecutivos que ya
+ * estén pendientes, hasta un máximo y esperando opcionalmente a que lleguen
+ * más. Un evento de conexión, desconexión o error cierra el bloque en curso,
+ * de forma que se respeta el orden entre mensajes y el resto de eventos.
+ * <p>
+ * 20/10/2026 01:34:08
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public interface BatchLibcommListener<M> extends LibcommListener<M> {
+
+	/**
+	 * Notifica un bloque de mensajes recibidos, en orden de llegada.
+	 * 
+	 * @param messages
+	 *            Mensajes recibidos, al menos uno.
+	 */
+	void receivedBatch (List<M> messages);
+
+	/**
+	 * Notifica un único mensaje recibido como un bloque de un mensaje.
+	 * 
+	 * @param message
+	 *            Mensaje recibido.
+	 */
+	@Override
+	default void received (final M message) {
+		receivedBatch(Collections.singletonList(message));
+	}
+}
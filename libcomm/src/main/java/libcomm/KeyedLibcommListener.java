@@ -0,0 +1,26 @@
+package libcomm;
+
+/**
+ * Listener que decide la clave por la que se reparten los mensajes recibidos
+ * entre los hilos de notificación, cuando hay varios configurados. Los
+ * mensajes con la misma clave se notifican en orden de llegada y en el mismo
+ * hilo; los de claves distintas, en paralelo.
+ * <p>
+ * 20/10/2026 02:06:51
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public interface KeyedLibcommListener<M> extends LibcommListener<M> {
+
+	/**
+	 * Obtiene la clave de un mensaje recibido.
+	 * 
+	 * @param message
+	 *            Mensaje recibido.
+	 * @return Clave del mensaje. Los mensajes sin clave, null, se notifican
+	 *         todos en un mismo hilo.
+	 */
+	Object key (M message);
+}
@@ -1,25 +1,52 @@
 package libcomm;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 import libcomm.connection.ConnectionState;
+import libcomm.connection.ReconnectScheduler;
 import libcomm.context.ConnectionContext;
+import libcomm.event.Event;
 import libcomm.event.EventNotifier;
 import libcomm.event.EventType;
+import libcomm.event.Flow;
 import libcomm.exception.CommErrorType;
 import libcomm.exception.CommunicationException;
+import libcomm.exception.MalformedMessageException;
 import libcomm.layer.AbstractLayer;
 import libcomm.layer.ILayerCommands;
 import libcomm.layer.message.MessageLayer;
 import libcomm.message.Message;
+import libcomm.message.rfc1006.IBytes;
 import libcomm.util.ErrorUtils;
 import libcomm.util.MessageUtils;
+import libcomm.util.RingBuffer;
 
 import commons.log.Log;
-import commons.util.Constants;
 import commons.util.PrintUtils;
 
 /**
  * Controla la conexión, envío y recepción de mensajes y desconexión de libcomm.
- * 
+ * <p>
+ * El estado de la conexión se mantiene en una referencia atómica y sus
+ * transiciones se hacen por comparación e intercambio, de forma que el envío y
+ * la recepción de cada mensaje sólo leen el estado, sin bloquearse, y varios
+ * hilos pueden enviar a la vez. Sólo las órdenes de conexión y desconexión a
+ * las capas inferiores se serializan entre sí.
+ * </p>
  * <p>
  * 10/01/2016 19:10:36
  * </p>
@@ -40,14 +67,45 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	/* Contexto de la conexión. */
 	private final ConnectionContext context;
 	
-	/* Objeto para bloqueo y sincronización. */
+	/* Serializa las órdenes de conexión y desconexión a las capas inferiores. */
 	private final Object lock;
 
 	/* Comandos a las capas inferiores. Enviará mensajes. */
 	private final ILayerCommands<Message<?>> command;
 	
 	/* Estado actual de la conexión. */
-	private volatile ConnectionState connectionState;
+	private final AtomicReference<ConnectionState> connectionState;
+
+	/*
+	 * Futuros de los mensajes enviados con sendAsync pendientes de AK. Los mensajes no redefinen equals, por lo que
+	 * cada futuro se asocia a la instancia concreta del mensaje enviado: la misma instancia no puede volver a enviarse
+	 * con sendAsync mientras su futuro esté pendiente.
+	 */
+	private final ConcurrentMap<Message<?>, CompletableFuture<Message<?>>> pendingAcks;
+	
+	/* Mensajes recibidos pendientes de extraer en recepción por consulta, null si se notifican al listener. */
+	private final RingBuffer<Message<?>> pulled;
+
+	/* Hilo de recepción detenido con la cola de recepción por consulta llena, null si no hay ninguno. */
+	private volatile Thread puller;
+
+	/* Hilos detenidos esperando a que no quede ningún mensaje en curso. */
+	private final Queue<Thread> quiescenceWaiters;
+
+	/* Mensajes enviados mientras se conecta, pendientes de enviar al completarse la conexión. */
+	private final ArrayDeque<Message<?>> held;
+
+	/* Máximo de mensajes retenidos mientras se conecta, 0 si no se retienen. */
+	private final int heldCapacity;
+
+	/* Indica si los mensajes enviados se retienen hasta completar la conexión. */
+	private volatile boolean holding;
+
+	/* Sincroniza la retención de mensajes con su envío al completarse la conexión. */
+	private final Object heldLock;
+
+	/* Planificador de los intentos de reconexión tras una caída. */
+	private final ReconnectScheduler reconnect;
 	
 	/**
 	 * Constructor de clase.
@@ -59,12 +117,23 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	 */
 	public LibcommHandler (final LibcommListener<Message<?>> listener, final ConnectionContext context) {
 		this.notifier = new EventNotifier<>(
-			PrintUtils.format(EVENT_NOTIFIER_FORMAT, context.getConnectionName(), context.getConnectionMode()), listener
+			PrintUtils.format(EVENT_NOTIFIER_FORMAT, context.getConnectionName(), context.getConnectionMode()), listener,
+			context, Message::getKey
 		);
 		this.context = context;
 		this.command = new MessageLayer(context, this);
 		this.lock = new Object();
-		setConnectionState(ConnectionState.DISCONNECTED);
+		this.connectionState = new AtomicReference<>(ConnectionState.DISCONNECTED);
+		this.pendingAcks = new ConcurrentHashMap<>();
+		this.pulled = context.isReceivePull() ? new RingBuffer<>(context.getInboundHighWatermark()) : null;
+		this.heldCapacity = context.getConnectingBufferMessages();
+		this.held = new ArrayDeque<>(Math.min(heldCapacity, 1024));
+		this.heldLock = new Object();
+		this.quiescenceWaiters = new ConcurrentLinkedQueue<>();
+		this.reconnect = new ReconnectScheduler(context.printConnection(), context.getReconnectInitialMillis(), 
+			context.getReconnectMaxMillis(), context.getReconnectJitterPercent(), context.getReconnectAttempts(), 
+			context.isReconnectImmediate(), this::connect
+		);
 	}
 
 	/** Establece la conexión. */
@@ -74,18 +143,19 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 		CommunicationException error = null;
 		try {
 			synchronized (lock) {
-				if (!allowsConnection()) {
-					final Boolean updateState = !ConnectionState.CONNECTING.equals(connectionState);
+				final ConnectionState previous = transition(state -> ConnectionState.allowsConnection(state), ConnectionState.CONNECTING);
+				if (!ConnectionState.allowsConnection(previous)) {
+					final Boolean updateState = !ConnectionState.CONNECTING.equals(previous);
 					notifyError(CommErrorType.CONNECTION_ERROR, 
 						"No se permite intento de conexión '%s'. Estado actual de la conexión '%s'", 
-						updateState, context.printConnection(), getConnectionState());
+						updateState, context.printConnection(), previous);
 					return;
 				}
-				setConnectionState(ConnectionState.CONNECTING);
 				
 				if (!notifier.isRunning()) {
 					notifier.start();
 				}
+				startHolding();
 				command.connect();
 			}
 		} catch (final Exception e) {
@@ -95,6 +165,7 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 			notifyError(CommErrorType.CONNECTION_ERROR, "No se ha conseguido establecer la conexión '%s'", 
 				context.printConnection()
 			);
+			reconnectOrStop(reconnect.isRetrying());
 		}
 	}
 
@@ -104,16 +175,17 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	@Override
 	public void disconnect() {
 		Log.info(this, PrintUtils.format("Iniciando desconexión %s", context.printConnection()));
+		reconnect.reset();
 		CommunicationException error = null;
 		try {
 			synchronized(lock) {
-				if (!allowsDisconnection()) {
+				final ConnectionState previous = transition(state -> ConnectionState.allowsDisconnection(state), ConnectionState.DISCONNECTING);
+				if (!ConnectionState.allowsDisconnection(previous)) {
 					notifyError(CommErrorType.DISCONNECTION_ERROR, 
 						"No se permite desconectar '%s' en el estado actual de la conexión '%s'. Se ignora el intento de desconexión",
-						context.printConnection(), getConnectionState());
+						context.printConnection(), previous);
 					return;
 				}
-				setConnectionState(ConnectionState.DISCONNECTING);
 				command.disconnect();
 			}
 		} catch (final Exception e) {
@@ -126,18 +198,51 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 		}
 	}
 
-	/** Envía un mensaje {@link Message}. */
+	/**
+	 * Cierra el manejador: cancela la reconexión, corta la conexión si no está
+	 * desconectado y cierra los diarios y el desbordamiento, liberando sus
+	 * ficheros e hilos. El notificador se detiene al notificarse la
+	 * desconexión, o aquí si ya estaba desconectado. Una conexión posterior
+	 * vuelve a abrirlos.
+	 */
+	@Override
+	public void close() {
+		Log.info(this, PrintUtils.format("Cerrando %s", context.printConnection()));
+		reconnect.reset();
+		if (!ConnectionState.DISCONNECTED.equals(getConnectionState())) {
+			disconnect();
+		} else if (notifier.isRunning()) {
+			notifier.stop();
+		}
+		synchronized (lock) {
+			command.close();
+		}
+	}
+
+	/**
+	 * Envía un mensaje {@link Message}. Si la cola de salida está llena y su
+	 * política es rechazar, el mensaje no se envía y se notifica un error de
+	 * control de flujo. Con desbordamiento configurado, los mensajes enviados
+	 * con la conexión caída se retienen hasta que se restablezca. Con
+	 * retención durante la conexión configurada, los mensajes enviados
+	 * mientras se conecta se envían en cuanto se complete.
+	 */
 	@Override
 	public void send(final Message<?> message) {
 		CommunicationException error = null;
 		try {
-			synchronized(lock) {
-				if (!isConnected()) {
-					notifyError(CommErrorType.SENDING, "No se pueden enviar mensaje '%s'. Desconectado.", message);
-				}
-				Log.info(this, PrintUtils.format("Enviando mensaje '%s'", message));
-				MessageUtils.check(message);
-				command.send(message);
+			if (holding && hold(Collections.<Message<?>>singletonList(message)) >= 0) {
+				return;
+			}
+			if (!isConnected() && context.getSpillDir() == null) {
+				notifyError(CommErrorType.SENDING, "No se pueden enviar mensaje '%s'. Desconectado.", message);
+			}
+			Log.info(this, PrintUtils.format("Enviando mensaje '%s'", message));
+			MessageUtils.check(message);
+			if (!command.offer(message)) {
+				notifyError(CommErrorType.FLOW_CONTROL, 
+					"Cola de salida llena, se rechaza mensaje '%s'", Boolean.FALSE, message
+				);
 			}
 		} catch (final Exception e) {
 			error = new CommunicationException(CommErrorType.SENDING, e);
@@ -147,17 +252,443 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 		}
 	}
 
-	/** Notificación de mensaje recibido. Se informa al listener. */
+	/**
+	 * Envía varios mensajes {@link Message} de una vez, en orden. Sus números
+	 * de secuencia se reservan juntos, se registran juntos en espera de AK y
+	 * se codifican en bloques que llegan al socket cada uno en una sola
+	 * escritura. Si la cola de salida rechaza parte de ellos, se notifica un
+	 * único error de control de flujo y los rechazados no se envían.
+	 */
 	@Override
-	public void receive(final Message<?> message) {
-		synchronized(lock) {
-			if (!isConnected()) {
-				notifyError(
-					CommErrorType.COMMUNICATION_ERROR, "No se puede recibir mensaje '%s'. Desconectado.", message
+	public void send(final Collection<Message<?>> messages) {
+		if (messages == null || messages.isEmpty()) {
+			return;
+		}
+		CommunicationException error = null;
+		try {
+			if (holding && hold(new ArrayList<>(messages)) >= 0) {
+				return;
+			}
+			if (!isConnected() && context.getSpillDir() == null) {
+				notifyError(CommErrorType.SENDING, "No se pueden enviar '%s' mensajes. Desconectado.", messages.size());
+			}
+			Log.info(this, PrintUtils.format("Enviando bloque de '%s' mensajes", messages.size()));
+			final List<Message<?>> batch = new ArrayList<>(messages);
+			for (final Message<?> message : batch) {
+				MessageUtils.check(message);
+			}
+			final int accepted = command.offer(batch);
+			if (accepted < batch.size()) {
+				notifyError(CommErrorType.FLOW_CONTROL, 
+					"Cola de salida llena, se rechazan '%s' de '%s' mensajes a partir de '%s'", Boolean.FALSE, 
+					batch.size() - accepted, batch.size(), batch.get(accepted)
+				);
+			}
+		} catch (final Exception e) {
+			error = new CommunicationException(CommErrorType.SENDING, e);
+		}
+		if (error != null) {
+			notifyError(CommErrorType.SENDING, error, "Error enviando bloque de '%s' mensajes", messages.size());
+		}
+	}
+
+	/**
+	 * Envía un mensaje {@link Message} y devuelve un futuro que se completa con
+	 * el propio mensaje al recibir su AK. Se completa excepcionalmente si no se
+	 * está conectado, si la cola de salida rechaza el mensaje, si no se recibe
+	 * su AK tras el máximo de intentos o si se pierde la conexión antes de
+	 * recibirlo, o si la misma instancia del mensaje ya se envió con sendAsync
+	 * y aún espera su AK. Los errores sólo se notifican a través del futuro,
+	 * no al listener. Con AK deshabilitado el futuro se completa en cuanto se
+	 * acepta el mensaje. A diferencia de {@link #send(Message)}, con la
+	 * conexión caída el mensaje no se retiene aunque haya desbordamiento
+	 * configurado.
+	 */
+	@Override
+	public CompletableFuture<Message<?>> sendAsync(final Message<?> message) {
+		final CompletableFuture<Message<?>> future = new CompletableFuture<>();
+		if (!isConnected()) {
+			future.completeExceptionally(CommunicationException.createException(CommErrorType.SENDING, 
+				PrintUtils.format("No se puede enviar mensaje '%s'. Desconectado.", message), context, null));
+			return future;
+		}
+		
+		final boolean awaitAk = context.isAKEnabled();
+		/* se registra antes de enviarlo, el AK podría llegar antes de volver de offer */
+		if (awaitAk && pendingAcks.putIfAbsent(message, future) != null) {
+			future.completeExceptionally(CommunicationException.createException(CommErrorType.SENDING, 
+				PrintUtils.format("No se puede enviar mensaje '%s'. Ya enviado y pendiente de AK.", message), context, null));
+			return future;
+		}
+		try {
+			Log.info(this, PrintUtils.format("Enviando mensaje '%s'", message));
+			MessageUtils.check(message);
+			if (!command.offer(message)) {
+				failPendingAck(message, future, CommunicationException.createException(CommErrorType.FLOW_CONTROL, 
+					PrintUtils.format("Cola de salida llena, se rechaza mensaje '%s'", message), context, null));
+			} else if (!awaitAk) {
+				future.complete(message);
+			}
+		} catch (final Exception e) {
+			failPendingAck(message, future, CommunicationException.createException(CommErrorType.SENDING, 
+				PrintUtils.format("Error enviando mensaje '%s'", message), context, e));
+		}
+		return future;
+	}
+
+	/* Empieza a retener los mensajes enviados hasta completar la conexión, si está configurado. */
+	private void startHolding() {
+		if (heldCapacity > 0) {
+			holding = true;
+		}
+	}
+
+	/*
+	 * Retiene mensajes enviados mientras se conecta, en orden y hasta el máximo configurado; los que no caben se 
+	 * rechazan con un error de control de flujo. Devuelve los mensajes retenidos, o -1 si ya no se retienen y deben 
+	 * enviarse.
+	 */
+	private int hold(final List<Message<?>> messages) throws MalformedMessageException {
+		for (final Message<?> message : messages) {
+			MessageUtils.check(message);
+		}
+		synchronized (heldLock) {
+			if (!holding) {
+				return -1;
+			}
+			int accepted = 0;
+			for (final Message<?> message : messages) {
+				if (held.size() >= heldCapacity) {
+					notifyError(CommErrorType.FLOW_CONTROL, 
+						"Retención durante la conexión llena, se rechazan '%s' mensajes a partir de '%s'", Boolean.FALSE, 
+						messages.size() - accepted, message
+					);
+					break;
+				}
+				held.add(message);
+				accepted++;
+			}
+			Log.debug(this, PrintUtils.format("Conectando '%s', se retienen '%s' mensajes", 
+				context.printConnection(), accepted)
+			);
+			return accepted;
+		}
+	}
+
+	/*
+	 * Envía de una vez, y antes que ningún mensaje posterior, los mensajes retenidos mientras se conectaba. Se llama 
+	 * al completarse la conexión. Se deja de retener después de ofrecerlos: un envío concurrente que los adelantaría 
+	 * espera en hold() a que terminen de ofrecerse.
+	 */
+	private void releaseHeld() {
+		if (!holding) {
+			return;
+		}
+		synchronized (heldLock) {
+			try {
+				if (!held.isEmpty()) {
+					offerHeld();
+				}
+			} finally {
+				holding = false;
+			}
+		}
+	}
+
+	/* Ofrece los mensajes retenidos a la cola de salida, notificando los rechazados. */
+	private void offerHeld() {
+		final List<Message<?>> batch = new ArrayList<>(held);
+		held.clear();
+		Log.info(this, PrintUtils.format("Conectado '%s', se envían '%s' mensajes retenidos", 
+			context.printConnection(), batch.size())
+		);
+		try {
+			final int accepted = command.offer(batch);
+			if (accepted < batch.size()) {
+				notifyError(CommErrorType.FLOW_CONTROL, 
+					"Cola de salida llena, se rechazan '%s' de '%s' mensajes retenidos a partir de '%s'", Boolean.FALSE, 
+					batch.size() - accepted, batch.size(), batch.get(accepted)
 				);
 			}
+		} catch (final Exception e) {
+			notifyError(CommErrorType.SENDING, e, Boolean.FALSE, "Error enviando '%s' mensajes retenidos", 
+				batch.size()
+			);
+		}
+	}
+
+	/* Descarta con error los mensajes retenidos mientras se conectaba, si la conexión no llega a completarse. */
+	private void dropHeld() {
+		if (!holding) {
+			return;
+		}
+		synchronized (heldLock) {
+			holding = false;
+			if (!held.isEmpty()) {
+				notifyError(CommErrorType.SENDING, 
+					"No se ha completado la conexión '%s', se descartan '%s' mensajes retenidos a partir de '%s'", 
+					Boolean.FALSE, context.printConnection(), held.size(), held.peek()
+				);
+				held.clear();
+				wakeQuiescenceWaiters();
+			}
+		}
+	}
+
+	/* Retira el futuro de un mensaje y lo completa con error. */
+	private void failPendingAck(final Message<?> message, final CompletableFuture<Message<?>> future, 
+			final CommunicationException cause) {
+		pendingAcks.remove(message, future);
+		future.completeExceptionally(cause);
+	}
+
+	/* Completa con error los futuros de todos los mensajes pendientes de AK. */
+	private void failPendingAcks(final CommunicationException cause) {
+		for (final Message<?> message : pendingAcks.keySet()) {
+			final CompletableFuture<Message<?>> future = pendingAcks.remove(message);
+			if (future != null) {
+				future.completeExceptionally(cause);
+			}
+		}
+	}
+
+	/** Notificación de mensaje confirmado por su AK. Completa su futuro, si se envió con sendAsync. */
+	@Override
+	public void acknowledged(final Message<?> message) {
+		final CompletableFuture<Message<?>> future = pendingAcks.remove(message);
+		if (future != null) {
+			future.complete(message);
+		}
+	}
+
+	/**
+	 * Notificación de mensaje descartado de la cola de salida llena. Completa
+	 * su futuro con error si se envió con sendAsync; si no, se notifica un
+	 * error de control de flujo al listener.
+	 */
+	@Override
+	public void dropped(final IBytes message) {
+		final CompletableFuture<Message<?>> future = pendingAcks.remove(message);
+		if (future != null) {
+			future.completeExceptionally(CommunicationException.createException(CommErrorType.FLOW_CONTROL, 
+				PrintUtils.format("Cola de salida llena, se descarta mensaje '%s'", message), context, null));
+		} else {
+			notifyError(CommErrorType.FLOW_CONTROL, "Cola de salida llena, se descarta mensaje '%s'", Boolean.FALSE, message);
+		}
+	}
+
+	/** Notificación de mensaje sin AK. Completa su futuro con error, si se envió con sendAsync. */
+	@Override
+	public void unacknowledged(final Message<?> message, final CommunicationException cause) {
+		final CompletableFuture<Message<?>> future = pendingAcks.remove(message);
+		if (future != null) {
+			future.completeExceptionally(cause);
+		}
+	}
+
+	/**
+	 * Obtiene el número de mensajes en la cola de salida pendientes de
+	 * escribirse en la conexión, para que los productores puedan regular su
+	 * ritmo de envío. Con procesamiento en línea no hay cola y es siempre 0.
+	 * 
+	 * @return Mensajes pendientes de envío.
+	 */
+	@Override
+	public int getQueueDepth() {
+		final int heldSize;
+		synchronized (heldLock) {
+			heldSize = held.size();
+		}
+		return command.getQueueDepth() + heldSize;
+	}
+
+	/**
+	 * Obtiene el número de mensajes enviados pendientes de AK.
+	 * 
+	 * @return Mensajes sin confirmar.
+	 */
+	@Override
+	public int getUnacknowledged() {
+		return command.getUnacknowledged();
+	}
+
+	/**
+	 * Indica si no queda ningún mensaje en curso: ni en la cola de salida o
+	 * retenido con la conexión caída, ni escribiéndose en el socket, ni
+	 * pendiente de AK.
+	 * 
+	 * @return <code>true</code> si no hay mensajes en curso.
+	 */
+	public boolean isQuiescent() {
+		return getQueueDepth() == 0 && command.getUnacknowledged() == 0;
+	}
+
+	/**
+	 * Espera a que no quede ningún mensaje en curso, como mucho el tiempo
+	 * indicado. Deja de esperar si se pierde la conexión, ya que entonces los
+	 * mensajes en curso no avanzan. El hilo queda detenido sin consultar
+	 * periódicamente: se le despierta cuando se vacía la cola de salida, se
+	 * confirma el último AK pendiente o se pierde la conexión.
+	 * 
+	 * @param timeout
+	 *            Tiempo máximo de espera.
+	 * @param unit
+	 *            Unidad del tiempo de espera.
+	 * @return <code>true</code> si no quedan mensajes en curso,
+	 *         <code>false</code> si se agota el tiempo o se pierde la
+	 *         conexión antes.
+	 * @throws InterruptedException
+	 *             si se interrumpe la espera.
+	 */
+	public boolean awaitQuiescence(final long timeout, final TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		final Thread current = Thread.currentThread();
+		quiescenceWaiters.add(current); /* antes de comprobar, para no perder el aviso */
+		try {
+			while (!isQuiescent()) {
+				final long remaining = deadline - System.nanoTime();
+				if (ConnectionState.DISCONNECTED.equals(getConnectionState()) || remaining <= 0) {
+					return false;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+			return true;
+		} finally {
+			quiescenceWaiters.remove(current);
+		}
+	}
+
+	/* Despierta a los hilos que esperan a que no quede ningún mensaje en curso, para que lo comprueben. */
+	private void wakeQuiescenceWaiters() {
+		if (quiescenceWaiters.isEmpty()) {
+			return;
+		}
+		for (final Thread waiter : quiescenceWaiters) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	/** Notificación de que pueden no quedar mensajes en curso. Despierta a quien espera en awaitQuiescence. */
+	@Override
+	public void drained() {
+		wakeQuiescenceWaiters();
+	}
+
+	/**
+	 * Espera sin límite de tiempo a que se escriban y confirmen todos los
+	 * mensajes enviados, por ejemplo antes de desconectar de forma ordenada.
+	 * Deja de esperar si se pierde la conexión.
+	 * 
+	 * @return <code>true</code> si no quedan mensajes en curso,
+	 *         <code>false</code> si se pierde la conexión antes.
+	 * @throws InterruptedException
+	 *             si se interrumpe la espera.
+	 */
+	public boolean flush() throws InterruptedException {
+		return awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Notificación de mensaje recibido. Se informa al listener o, en
+	 * recepción por consulta, se deja en la cola para extraerlo.
+	 */
+	@Override
+	public void receive(final Message<?> message) {
+		if (!isConnected()) {
+			notifyError(
+				CommErrorType.COMMUNICATION_ERROR, "No se puede recibir mensaje '%s'. Desconectado.", message
+			);
+		}
+		if (pulled != null) {
+			pull(message);
+		} else {
+			this.notifier.addEvent(EventType.MESSAGE_RECEIVED, message);
+		}
+	}
+
+	/*
+	 * Deja un mensaje recibido en la cola de recepción por consulta. Si está llena, el hilo de recepción se detiene 
+	 * hasta que la aplicación extraiga mensajes, se desconecte o se detenga el hilo; entre tanto se acumulan los 
+	 * mensajes leídos y la marca de agua de entrada detiene la lectura del socket. Se registra antes de reintentar, de 
+	 * forma que la aplicación no pueda extraer sin verlo y despertarlo.
+	 */
+	private void pull(final Message<?> message) {
+		if (pulled.offer(message)) {
+			return;
+		}
+		puller = Thread.currentThread();
+		try {
+			while (!pulled.offer(message)) {
+				if (ConnectionState.DISCONNECTED.equals(getConnectionState()) || Thread.currentThread().isInterrupted()) {
+					Log.error(this, PrintUtils.format("Cola de recepción llena y desconectado, se descarta '%s'", message));
+					return;
+				}
+				LockSupport.park(this); /* cola llena */
+			}
+		} finally {
+			puller = null;
+		}
+	}
+
+	/* Despierta al hilo de recepción detenido con la cola de recepción por consulta llena, si lo hay. */
+	private void wakePuller() {
+		final Thread __puller = puller;
+		if (__puller != null) {
+			LockSupport.unpark(__puller);
+		}
+	}
+
+	/**
+	 * Extrae hasta un máximo de mensajes recibidos, en orden de llegada, y se
+	 * los pasa a un consumidor en el hilo que llama. No espera: si no hay
+	 * mensajes pendientes vuelve sin extraer ninguno. Sólo con recepción por
+	 * consulta.
+	 * 
+	 * @param max
+	 *            Máximo de mensajes a extraer.
+	 * @param consumer
+	 *            Consumidor de cada mensaje extraído.
+	 * @return Mensajes extraídos.
+	 * @throws IllegalStateException
+	 *             si los mensajes se notifican al listener.
+	 */
+	public int poll(final int max, final Consumer<? super Message<?>> consumer) {
+		checkPull();
+		int count = 0;
+		Message<?> message;
+		while (count < max && (message = pulled.poll()) != null) {
+			wakePuller();
+			consumer.accept(message);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Extrae todos los mensajes recibidos pendientes, en orden de llegada, y
+	 * los añade a una colección. No espera. Sólo con recepción por consulta.
+	 * 
+	 * @param messages
+	 *            Colección a la que añadir los mensajes extraídos.
+	 * @return Mensajes extraídos.
+	 * @throws IllegalStateException
+	 *             si los mensajes se notifican al listener.
+	 */
+	public int drainTo(final Collection<? super Message<?>> messages) {
+		return poll(Integer.MAX_VALUE, messages::add);
+	}
+
+	/* Comprueba que la recepción es por consulta. */
+	private void checkPull() {
+		if (pulled == null) {
+			throw new IllegalStateException(PrintUtils.format(
+				"Recepción por consulta no configurada en '%s'. Los mensajes se notifican al listener", 
+				context.printConnection())
+			);
 		}
-		this.notifier.addEvent(EventType.MESSAGE_RECEIVED, message);
 	}
 
 	/**
@@ -167,22 +698,39 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 		return ConnectionState.CONNECTED.equals(getConnectionState());
 	}
 	
-	/** Notificación de conexión. Se informa al listener. */
+	/**
+	 * Notificación de conexión. Se informa al listener. Sólo se completa la
+	 * conexión si se estaba conectando; en otro estado (por ejemplo, si se ha
+	 * desconectado entre tanto) se ignora.
+	 */
 	@Override
 	public void connected() {
-		setConnectionState(ConnectionState.CONNECTED);
+		final ConnectionState previous = transition(ConnectionState.CONNECTING::equals, ConnectionState.CONNECTED);
+		if (!ConnectionState.CONNECTING.equals(previous)) {
+			Log.info(this, PrintUtils.format("Se ignora conexión '%s' en estado '%s'", 
+				context.printConnection(), previous)
+			);
+			return;
+		}
+		reconnect.reset();
 		Log.info(this, PrintUtils.format("Conectado '%s'", context.printConnection()));
+		releaseHeld();
 		this.notifier.addEvent(EventType.CONNECTED, context);
 	}
 
-	/** Notificación de desconexión. Se informa al listener. */
+	/**
+	 * Notificación de desconexión. Se informa al listener. Si se trata de un
+	 * intento de reconexión fallido, se programa el siguiente.
+	 */
 	@Override
 	public void disconnected() {
 		setDisconnection();
+		failPendingAcks(CommunicationException.createException(CommErrorType.COMMUNICATION_ERROR, 
+			PrintUtils.format("Desconectado '%s' antes de recibir AK", context.printConnection()), context, null));
 		
 		Log.info(this, PrintUtils.format("Desconectado '%s'", context.printConnection()));
 		this.notifier.addEvent(EventType.DISCONNECTED, context);
-		this.notifier.stop(); 
+		reconnectOrStop(reconnect.isRetrying());
 	}
 
 	/**
@@ -193,6 +741,8 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	@Override
 	public void disconnected(final CommunicationException cause) {
 		final ConnectionState previousState = setDisconnection();
+		failPendingAcks(CommunicationException.createException(CommErrorType.COMMUNICATION_ERROR, 
+			PrintUtils.format("Desconectado '%s' antes de recibir AK", context.printConnection()), context, cause));
 
 		Log.error(this, PrintUtils.format("Desconectado '%s' con error", context.printConnection()), cause);
 		this.notifier.addEvent(EventType.ERROR, cause);
@@ -201,29 +751,33 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 		/* Aparte de log, sirve para reinicia el estado interrupted en caso de haberse interrumpido. */
 		Log.debug(this, PrintUtils.format("Hilo interrumpido en %s: %s", context.getConnectionMode(), Thread.interrupted()));
 		
-		if (canReconnect(previousState, cause)) {
-			final int waitSeconds = 1;
-			Log.debug(this, PrintUtils.format("Estado anterior a la desconexión con error: %s. Intentando reconectar tras %ss...",
-				previousState, waitSeconds)
-			);
-			
-			try {
-				Thread.sleep(waitSeconds * Constants.SECOND);
-			} catch (InterruptedException e) {
-				Log.error(this, "Hilo interrumpido inesperadamente mientras se esperaba reconectar", e);
+		Log.debug(this, PrintUtils.format("Estado anterior a la desconexión con error: %s", previousState));
+		reconnectOrStop(canReconnect(previousState, cause));
+	}
+	
+	/*
+	 * Programa un intento de reconexión, sin esperar en el hilo que notifica la desconexión. Si no se debe reconectar o 
+	 * no quedan intentos, descarta los mensajes retenidos y detiene el notificador.
+	 */
+	private void reconnectOrStop(final boolean reconnecting) {
+		if (reconnecting) {
+			startHolding(); /* se retiene también durante la espera para reconectar */
+			if (reconnect.schedule()) {
+				return;
 			}
-			connect();
-		} else {
-			this.notifier.stop(); 
 		}
+		reconnect.reset();
+		dropHeld();
+		this.notifier.stop(); 
 	}
 	
 	/* Establece si se puede reconectar tras una desconexión o se debe permanecer desconectado. Para poder reconectar el 
-	 * estado anterior debe ser CONECTADO, y no haberse tratado de algún error fatal declarado en CommErrorType#FATAL_ERRORS.
+	 * estado anterior debe ser CONECTADO, o estar reintentando la reconexión, y no haberse tratado de algún error fatal 
+	 * declarado en CommErrorType#FATAL_ERRORS.
 	 */
 	private boolean canReconnect(final ConnectionState state, final CommunicationException cause) {
-		if (!ConnectionState.CONNECTED.equals(state)) {
-			return false; /* El unico estado previo que permite reconexión es CONECTADO */
+		if (!ConnectionState.CONNECTED.equals(state) && !reconnect.isRetrying()) {
+			return false; /* Sólo se reconecta si estaba CONECTADO o ya se estaba reconectando */
 		}
 		
 		return !ErrorUtils.findErrorType(cause, CommErrorType.FATAL_ERRORS);
@@ -231,11 +785,9 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 
 	/* Establece el estado desconectado y devuelve el estado previo. */
 	private ConnectionState setDisconnection() {
-		final ConnectionState previous;
-		synchronized (lock) {
-			previous = connectionState;
-			setConnectionState(ConnectionState.DISCONNECTED);
-		}
+		final ConnectionState previous = connectionState.getAndSet(ConnectionState.DISCONNECTED);
+		wakePuller();
+		wakeQuiescenceWaiters();
 		return previous;
 	}
 
@@ -274,48 +826,53 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	}
 	
 	/**
-	 * Devuelve el parámetro indicado.
-	 * @return parámetro connectionState a devolver.
+	 * Obtiene el publicador de mensajes recibidos, alternativa al listener
+	 * para consumirlos a ritmo propio: mientras un suscriptor no pida más
+	 * mensajes, se detiene la notificación y, al llenarse la cola de entrada,
+	 * la lectura del socket. Los mensajes se publican tras notificarse al
+	 * listener.
+	 * 
+	 * @return Publicador de mensajes recibidos.
 	 */
-	@Override
-	public ConnectionState getConnectionState() {
-		return connectionState;
+	public Flow.Publisher<Message<?>> messages() {
+		return notifier.getMessagePublisher();
 	}
 
 	/**
-	 * Establece el estado de la conexión.
-	 * @param connectionState Parámetro a establecer en connectionState.
+	 * Obtiene el publicador de eventos de conexión, desconexión y error. Los
+	 * eventos sin demanda se guardan sin detener la notificación ni la
+	 * recepción; si un suscriptor acumula demasiados, se cancela su
+	 * suscripción con error.
+	 * 
+	 * @return Publicador de eventos.
 	 */
-	private void setConnectionState(final ConnectionState connectionState) {
-		synchronized (lock) {
-			this.connectionState = connectionState;	
-		}
+	public Flow.Publisher<Event<?>> events() {
+		return notifier.getEventPublisher();
 	}
 	
 	/**
-	 * Indica si se permite conectar en función del estado actual de la
-	 * conexión.
-	 * 
-	 * @return <code>true</code> si se permite conectar, <code>false</code> en
-	 *         caso contrario.
+	 * Devuelve el parámetro indicado.
+	 * @return parámetro connectionState a devolver.
 	 */
-	private boolean allowsConnection() {
-		synchronized (lock) {
-			return ConnectionState.allowsConnection(connectionState);
-		}
+	@Override
+	public ConnectionState getConnectionState() {
+		return connectionState.get();
 	}
-	
-	/**
-	 * Indica si se permite desconectar en función del estado actual de la
-	 * conexión.
-	 * 
-	 * @return <code>true</code> si se permite desconectar, <code>false</code> en
-	 *         caso contrario.
+
+	/*
+	 * Cambia atómicamente al estado destino si el estado actual lo permite y
+	 * devuelve el estado previo, haya cambiado o no. Reintenta si otro hilo
+	 * cambia el estado entre la lectura y el intercambio.
 	 */
-	private boolean allowsDisconnection() {
-		synchronized (lock) {
-			return ConnectionState.allowsDisconnection(connectionState);
-		}
+	private ConnectionState transition(final Predicate<ConnectionState> allowed, final ConnectionState target) {
+		ConnectionState current;
+		do {
+			current = connectionState.get();
+			if (!allowed.test(current)) {
+				return current;
+			}
+		} while (!connectionState.compareAndSet(current, target));
+		return current;
 	}
 	
 	/*
@@ -325,11 +882,15 @@ public class LibcommHandler extends AbstractLayer<Message<?>, Message<?>>
 	 * conectándose o desconectándose, el estado pasaría a desconectado.
 	 */
 	private void updateStateWhenError () {
-		synchronized (lock) {
-			if (ConnectionState.CONNECTING.equals(connectionState) 
-					|| ConnectionState.DISCONNECTING.equals(connectionState)) {
-				this.connectionState = ConnectionState.DISCONNECTED;
-				Log.error(this, PrintUtils.format("Error provoca cambio a estado '%s'", connectionState));
+		final ConnectionState previous = transition(
+			state -> ConnectionState.CONNECTING.equals(state) || ConnectionState.DISCONNECTING.equals(state),
+			ConnectionState.DISCONNECTED
+		);
+		if (ConnectionState.CONNECTING.equals(previous) || ConnectionState.DISCONNECTING.equals(previous)) {
+			Log.error(this, PrintUtils.format("Error provoca cambio a estado '%s'", ConnectionState.DISCONNECTED));
+			wakeQuiescenceWaiters();
+			if (!reconnect.isRetrying()) { /* si se reintenta, los retenidos esperan al siguiente intento */
+				dropHeld();
 			}
 		}
 	}
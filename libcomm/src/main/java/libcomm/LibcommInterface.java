@@ -1,5 +1,8 @@
 package libcomm;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import libcomm.connection.ConnectionState;
 import libcomm.message.Message;
 
@@ -33,6 +36,42 @@ public interface LibcommInterface<M> {
 	 */
 	void send (M message);
 	
+	/**
+	 * Envía varios mensajes {@link Message} de una vez, en orden. Por defecto
+	 * equivale a llamar a {@link #send(Object)} para cada uno.
+	 * 
+	 * @param messages
+	 *            Mensajes.
+	 */
+	default void send (final Collection<M> messages) {
+		for (final M message : messages) {
+			send(message);
+		}
+	}
+	
+	/**
+	 * Envía un mensaje {@link Message} y devuelve un futuro que se completa
+	 * con el propio mensaje cuando se recibe su AK, o excepcionalmente con una
+	 * {@link libcomm.exception.CommunicationException} si no llega a enviarse
+	 * o a confirmarse. Por defecto equivale a {@link #send(Object)} y el
+	 * futuro se completa en cuanto se envía, sin esperar confirmación.
+	 * 
+	 * @param message
+	 *            Mensaje.
+	 * @return Futuro que se completa al confirmarse el mensaje.
+	 */
+	default CompletableFuture<M> sendAsync (final M message) {
+		send(message);
+		return CompletableFuture.completedFuture(message);
+	}
+	
+	/**
+	 * Libera los recursos que se mantienen entre conexiones, como ficheros
+	 * abiertos o hilos. Por defecto no hay ninguno que liberar.
+	 */
+	default void close() {
+	}
+	
 	/**
 	 * Devuelve el estado de la conexión: conectado, desconectado, conectando...
 	 * @return Estado de conexión
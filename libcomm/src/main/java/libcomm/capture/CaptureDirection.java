@@ -0,0 +1,49 @@
+package libcomm.capture;
+
+/**
+ * Sentido de los bytes capturados, visto desde la conexión que captura.
+ * <p>
+ * 19/10/2026 15:02:11
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public enum CaptureDirection {
+	/** Bytes recibidos del sistema remoto. */
+	INBOUND ((byte) 'I'),
+	/** Bytes enviados al sistema remoto. */
+	OUTBOUND ((byte) 'O');
+
+	/* Código con el que se escribe en el fichero de captura. */
+	private final byte code;
+
+	private CaptureDirection(final byte code) {
+		this.code = code;
+	}
+
+	/**
+	 * Obtiene el código con el que se escribe en el fichero de captura.
+	 *
+	 * @return Código del sentido.
+	 */
+	byte getCode() {
+		return code;
+	}
+
+	/**
+	 * Obtiene el sentido correspondiente a un código del fichero de captura.
+	 *
+	 * @param code
+	 *            Código leído.
+	 * @return Sentido, <code>null</code> si el código no es válido.
+	 */
+	static CaptureDirection fromCode(final byte code) {
+		for (final CaptureDirection direction : values()) {
+			if (direction.code == code) {
+				return direction;
+			}
+		}
+		return null;
+	}
+}
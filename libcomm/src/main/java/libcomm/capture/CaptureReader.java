@@ -0,0 +1,111 @@
+package libcomm.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import libcomm.connection.ConnectionMode;
+
+import commons.util.PrintUtils;
+
+/**
+ * Lee una captura de tráfico escrita por {@link CaptureWriter}.
+ * <p>
+ * 19/10/2026 15:31:06
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class CaptureReader implements Closeable {
+
+	/* Flujo de lectura. */
+	private final DataInputStream in;
+
+	/* Modo de la conexión capturada. */
+	private final ConnectionMode mode;
+
+	/* Instante relativo del último registro leído, nanosegundos. */
+	private long nanos;
+
+	/**
+	 * Constructor de clase. Abre el fichero y valida su cabecera.
+	 *
+	 * @param file
+	 *            Fichero de captura.
+	 * @throws IOException
+	 *             en caso de error o si el fichero no es una captura válida.
+	 */
+	public CaptureReader(final File file) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			final int magic = in.readInt();
+			final byte version = in.readByte();
+			if (magic != CaptureWriter.MAGIC || version != CaptureWriter.VERSION) {
+				throw new IOException(PrintUtils.format("'%s' no es un fichero de captura válido", file));
+			}
+			this.mode = in.readByte() == 'C' ? ConnectionMode.CLIENT : ConnectionMode.SERVER;
+		} catch (final IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Obtiene el modo de la conexión capturada.
+	 *
+	 * @return Modo de la conexión capturada, cliente o servidor.
+	 */
+	public ConnectionMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Lee el siguiente registro.
+	 *
+	 * @return Registro leído, <code>null</code> al llegar al final de la
+	 *         captura.
+	 * @throws IOException
+	 *             en caso de error o de registro corrupto.
+	 */
+	public CaptureRecord next() throws IOException {
+		final int code = in.read();
+		if (code < 0) {
+			return null;
+		}
+		final CaptureDirection direction = CaptureDirection.fromCode((byte) code);
+		if (direction == null) {
+			throw new IOException(PrintUtils.format("Sentido de registro no válido '%s'", code));
+		}
+		try {
+			nanos += readVarLong(in);
+			final byte[] bytes = new byte[(int) readVarLong(in)];
+			in.readFully(bytes);
+			return new CaptureRecord(direction, nanos, bytes);
+		} catch (final EOFException e) {
+			return null; /* registro incompleto al final, captura interrumpida */
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/* Lee un entero de longitud variable escrito por CaptureWriter. */
+	private static long readVarLong(final DataInputStream stream) throws IOException {
+		long value = 0;
+		int shift = 0;
+		int current;
+		do {
+			current = stream.readUnsignedByte();
+			value |= (long) (current & 0x7F) << shift;
+			shift += 7;
+		} while ((current & 0x80) != 0 && shift < Long.SIZE);
+		return value;
+	}
+}
@@ -0,0 +1,73 @@
+package libcomm.capture;
+
+import commons.util.PrintUtils;
+
+/**
+ * Registro de una captura: bytes que han atravesado la capa de sockets, con su
+ * sentido y el instante, en nanosegundos desde el inicio de la captura.
+ * <p>
+ * 19/10/2026 15:04:37
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class CaptureRecord {
+
+	/* Sentido de los bytes. */
+	private final CaptureDirection direction;
+
+	/* Nanosegundos desde el inicio de la captura. */
+	private final long nanos;
+
+	/* Bytes capturados. */
+	private final byte[] bytes;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param direction
+	 *            Sentido de los bytes.
+	 * @param nanos
+	 *            Nanosegundos desde el inicio de la captura.
+	 * @param bytes
+	 *            Bytes capturados.
+	 */
+	CaptureRecord(final CaptureDirection direction, final long nanos, final byte[] bytes) {
+		this.direction = direction;
+		this.nanos = nanos;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Obtiene el sentido de los bytes.
+	 *
+	 * @return Sentido de los bytes.
+	 */
+	public CaptureDirection getDirection() {
+		return direction;
+	}
+
+	/**
+	 * Obtiene el instante del registro.
+	 *
+	 * @return Nanosegundos desde el inicio de la captura.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Obtiene los bytes capturados.
+	 *
+	 * @return Bytes capturados.
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		return PrintUtils.format("%s +%sns %s bytes", direction, nanos, bytes != null ? bytes.length : 0);
+	}
+}
@@ -0,0 +1,263 @@
+package libcomm.capture;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import libcomm.connection.ConnectionMode;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Reproduce una captura de tráfico actuando como el sistema remoto de la
+ * conexión capturada. Si se capturó un cliente, el reproductor espera
+ * conexiones como servidor; si se capturó un servidor, conecta como cliente.
+ * Los canales se establecen en el mismo orden que la librería: el cliente
+ * conecta primero su canal de salida y el servidor acepta primero su canal de
+ * entrada.
+ * <p>
+ * Una vez conectado escribe los registros de entrada de la captura (lo que la
+ * conexión capturada recibió) respetando sus tiempos, a la velocidad indicada:
+ * <code>1</code> para tiempo real, <code>N</code> para N veces más rápido o un
+ * valor menor o igual que cero para la máxima velocidad posible. Los bytes que
+ * envía la librería se leen y se descartan, contándolos.
+ * </p>
+ * <p>
+ * Permite así dirigir un {@link libcomm.LibcommHandler} real con tráfico de
+ * producción, de forma repetible, para pruebas de rendimiento y latencia.
+ * </p>
+ * <p>
+ * 19/10/2026 15:52:24
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class CaptureReplayer implements Closeable {
+
+	/* Milisegundos entre intentos de conexión en modo cliente. */
+	private static final long RETRY_MILLIS = 100L;
+
+	/* Tamaño del buffer de lectura de los bytes enviados por la librería. */
+	private static final int DRAIN_BUFFER_SIZE = 64 * 1024;
+
+	/* Fichero de captura. */
+	private final File file;
+
+	/* Velocidad de reproducción, menor o igual que cero para la máxima. */
+	private final double speed;
+
+	/* Bytes recibidos de la librería. */
+	private final AtomicLong receivedBytes;
+
+	/* Canal por el que se escribe a la librería. */
+	private SocketChannel output;
+
+	/* Canal por el que se lee de la librería. */
+	private SocketChannel input;
+
+	/* Hilo que lee y descarta lo que envía la librería. */
+	private Thread drainThread;
+
+	/* Registros escritos. */
+	private long replayedRecords;
+
+	/* Bytes escritos. */
+	private long replayedBytes;
+
+	/* Nanosegundos que ha durado la reproducción. */
+	private long elapsedNanos;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param file
+	 *            Fichero de captura.
+	 * @param speed
+	 *            Velocidad de reproducción: <code>1</code> tiempo real,
+	 *            <code>N</code> N veces más rápido, menor o igual que cero
+	 *            máxima velocidad.
+	 */
+	public CaptureReplayer(final File file, final double speed) {
+		this.file = file;
+		this.speed = speed;
+		this.receivedBytes = new AtomicLong();
+	}
+
+	/**
+	 * Conecta con la librería y reproduce la captura. Vuelve cuando se han
+	 * escrito todos los registros de entrada; los canales siguen abiertos
+	 * hasta llamar a {@link #close()}.
+	 *
+	 * @param host
+	 *            Host de la librería, sólo si el reproductor actúa como
+	 *            cliente.
+	 * @param port
+	 *            Puerto de la librería, o puerto de escucha si el
+	 *            reproductor actúa como servidor.
+	 * @param timeoutMillis
+	 *            Milisegundos máximos para establecer la conexión en modo
+	 *            cliente.
+	 * @throws IOException
+	 *             en caso de error de conexión, escritura o lectura de la
+	 *             captura.
+	 */
+	public void replay(final String host, final int port, final long timeoutMillis) throws IOException {
+		try (final CaptureReader reader = new CaptureReader(file)) {
+			if (ConnectionMode.CLIENT.equals(reader.getMode())) {
+				accept(port);
+			} else {
+				connect(new InetSocketAddress(host, port), timeoutMillis);
+			}
+			startDrain();
+
+			Log.info(this, PrintUtils.format("Reproduciendo captura '%s' a velocidad %s", file, 
+				speed > 0 ? speed : "máxima"));
+			long firstNanos = -1;
+			final long start = System.nanoTime();
+			CaptureRecord record;
+			while ((record = reader.next()) != null) {
+				if (!CaptureDirection.INBOUND.equals(record.getDirection())) {
+					continue;
+				}
+				if (firstNanos < 0) {
+					firstNanos = record.getNanos();
+				}
+				if (speed > 0) {
+					waitUntil(start + (long) ((record.getNanos() - firstNanos) / speed));
+				}
+				write(record.getBytes());
+			}
+			elapsedNanos = System.nanoTime() - start;
+			Log.info(this, PrintUtils.format("Reproducidos %s registro(s), %s bytes en %s ms", 
+				replayedRecords, replayedBytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+		}
+	}
+
+	/* Espera como servidor: el primer canal aceptado es el de entrada, el segundo el de salida. */
+	private void accept(final int port) throws IOException {
+		try (final ServerSocketChannel server = ServerSocketChannel.open()) {
+			server.socket().setReuseAddress(Boolean.TRUE);
+			server.socket().bind(new InetSocketAddress(port));
+			input = server.accept();
+			output = server.accept();
+		}
+	}
+
+	/* Conecta como cliente: primero el canal de salida, después el de entrada. */
+	private void connect(final InetSocketAddress address, final long timeoutMillis) throws IOException {
+		final long deadline = System.currentTimeMillis() + timeoutMillis;
+		output = connectChannel(address, deadline);
+		input = connectChannel(address, deadline);
+	}
+
+	/* Conecta un canal, reintentando hasta que el servidor acepte o se agote el tiempo. */
+	private static SocketChannel connectChannel(final InetSocketAddress address, final long deadline) 
+			throws IOException {
+		while (true) {
+			try {
+				return SocketChannel.open(address);
+			} catch (final IOException e) {
+				if (System.currentTimeMillis() >= deadline) {
+					throw e;
+				}
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_MILLIS));
+			}
+		}
+	}
+
+	/* Arranca el hilo que lee y descarta los bytes enviados por la librería. */
+	private void startDrain() {
+		final SocketChannel channel = input;
+		drainThread = new Thread(() -> {
+			final ByteBuffer buffer = ByteBuffer.allocate(DRAIN_BUFFER_SIZE);
+			try {
+				int read;
+				while ((read = channel.read(buffer)) >= 0) {
+					receivedBytes.addAndGet(read);
+					buffer.clear();
+				}
+			} catch (final IOException e) {
+				Log.debug(CaptureReplayer.class, PrintUtils.format("Fin de lectura en reproductor: %s", e.getMessage()));
+			}
+		}, PrintUtils.format("Replay-Drain [%s]", file.getName()));
+		drainThread.setDaemon(Boolean.TRUE);
+		drainThread.start();
+	}
+
+	/* Escribe todos los bytes de un registro. */
+	private void write(final byte[] bytes) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			output.write(buffer);
+		}
+		replayedRecords++;
+		replayedBytes += bytes.length;
+	}
+
+	/* Espera hasta un instante, según System.nanoTime(). */
+	private static void waitUntil(final long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	/**
+	 * Obtiene el número de registros escritos a la librería.
+	 *
+	 * @return Registros escritos.
+	 */
+	public long getReplayedRecords() {
+		return replayedRecords;
+	}
+
+	/**
+	 * Obtiene el número de bytes escritos a la librería.
+	 *
+	 * @return Bytes escritos.
+	 */
+	public long getReplayedBytes() {
+		return replayedBytes;
+	}
+
+	/**
+	 * Obtiene el número de bytes recibidos de la librería hasta el momento.
+	 *
+	 * @return Bytes recibidos.
+	 */
+	public long getReceivedBytes() {
+		return receivedBytes.get();
+	}
+
+	/**
+	 * Obtiene la duración de la reproducción.
+	 *
+	 * @return Nanosegundos desde el primer hasta el último registro escrito.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/** Cierra los canales con la librería. */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (output != null) {
+				output.close();
+			}
+		} finally {
+			if (input != null) {
+				input.close();
+			}
+		}
+	}
+}
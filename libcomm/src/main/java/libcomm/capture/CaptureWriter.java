@@ -0,0 +1,135 @@
+package libcomm.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import libcomm.connection.ConnectionMode;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Escribe una captura de tráfico en un fichero binario compacto.
+ * <p>
+ * El fichero comienza con una cabecera: la marca {@value #MAGIC} (int), la
+ * versión (byte) y el modo de la conexión capturada (byte, <code>C</code> o
+ * <code>S</code>). A continuación cada registro se compone del sentido (byte,
+ * <code>I</code> u <code>O</code>), los nanosegundos transcurridos desde el
+ * registro anterior y la longitud de los bytes, ambos como enteros de longitud
+ * variable (7 bits por byte), seguidos de los bytes capturados.
+ * </p>
+ * <p>
+ * 19/10/2026 15:10:52
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class CaptureWriter implements Closeable {
+
+	/** Marca inicial de los ficheros de captura, "LCAP". */
+	public static final int MAGIC = 0x4C434150;
+
+	/** Versión del formato. */
+	public static final byte VERSION = 1;
+
+	/* Tamaño del buffer de escritura. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/* Flujo de escritura. */
+	private final DataOutputStream out;
+
+	/* Fichero de captura. */
+	private final File file;
+
+	/* Instante del primer registro, nanosegundos. */
+	private long startNanos;
+
+	/* Instante relativo del último registro escrito, nanosegundos. */
+	private long lastNanos;
+
+	/* Número de registros escritos. */
+	private long records;
+
+	/**
+	 * Constructor de clase. Crea el fichero de captura, sobrescribiéndolo si
+	 * existe.
+	 *
+	 * @param file
+	 *            Fichero de captura.
+	 * @param mode
+	 *            Modo de la conexión capturada.
+	 * @throws IOException
+	 *             en caso de error creando el fichero.
+	 */
+	public CaptureWriter(final File file, final ConnectionMode mode) throws IOException {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException(PrintUtils.format("No se puede crear el directorio '%s'", parent));
+		}
+		this.file = file;
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+		this.startNanos = -1;
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeByte(ConnectionMode.CLIENT.equals(mode) ? 'C' : 'S');
+		Log.info(this, PrintUtils.format("Iniciada captura de tráfico en '%s'", file));
+	}
+
+	/**
+	 * Escribe un registro.
+	 *
+	 * @param direction
+	 *            Sentido de los bytes.
+	 * @param nanoTime
+	 *            Instante, según {@link System#nanoTime()}.
+	 * @param bytes
+	 *            Bytes capturados.
+	 * @throws IOException
+	 *             en caso de error escribiendo.
+	 */
+	public synchronized void write(final CaptureDirection direction, final long nanoTime, final byte[] bytes)
+			throws IOException {
+		if (startNanos < 0) {
+			startNanos = nanoTime;
+		}
+		final long nanos = Math.max(nanoTime - startNanos, lastNanos);
+		out.writeByte(direction.getCode());
+		writeVarLong(out, nanos - lastNanos);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+		lastNanos = nanos;
+		records++;
+	}
+
+	/**
+	 * Vuelca a disco los registros pendientes.
+	 *
+	 * @throws IOException
+	 *             en caso de error escribiendo.
+	 */
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	/** Cierra la captura, volcando antes los registros pendientes. */
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+		Log.info(this, PrintUtils.format("Finalizada captura de tráfico en '%s', %s registro(s)", file, records));
+	}
+
+	/* Escribe un entero no negativo de longitud variable, 7 bits por byte, el bit alto indica que hay más bytes. */
+	private static void writeVarLong(final DataOutputStream stream, final long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			stream.writeByte((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		stream.writeByte((int) remaining);
+	}
+}
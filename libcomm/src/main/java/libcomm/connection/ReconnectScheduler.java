@@ -0,0 +1,178 @@
+package libcomm.connection;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Planificador de intentos de reconexión tras una caída. Cada intento se
+ * ejecuta en el hilo de un temporizador propio, de forma que el hilo que
+ * notifica la caída (selector, temporizador de AK...) no espera.
+ * <p>
+ * El temporizador se crea con el primer intento y se cancela al reiniciar la
+ * cuenta, de forma que no queda ningún hilo vivo entre caídas.
+ * </p>
+ * <p>
+ * La espera antes de cada intento parte de una espera inicial y se duplica en
+ * cada intento fallido hasta un máximo. Opcionalmente, se reduce al azar un
+ * porcentaje de cada espera, para que varios clientes no reconecten a la vez,
+ * y el primer intento se realiza sin esperar.
+ * </p>
+ * <p>
+ * 20/10/2026 04:12:06
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ReconnectScheduler {
+
+	/* Nombre del temporizador. */
+	private static final String NAME = "Reconnect-Timer [%s]";
+
+	/* Nombre de la conexión, para el temporizador y el log. */
+	private final String name;
+
+	/* Milisegundos de espera antes del primer intento. */
+	private final long initialMillis;
+
+	/* Máximo de milisegundos de espera entre intentos. */
+	private final long maxMillis;
+
+	/* Porcentaje de cada espera que se reduce al azar. */
+	private final int jitterPercent;
+
+	/* Máximo de intentos, 0 sin límite. */
+	private final int attempts;
+
+	/* Indica si el primer intento se realiza sin esperar. */
+	private final boolean immediate;
+
+	/* Intento de reconexión. */
+	private final Runnable reconnect;
+
+	/* Temporizador, se crea con el primer intento y se cancela al reiniciar la cuenta. */
+	private Timer timer;
+
+	/* Intento pendiente de ejecutar, null si no hay ninguno. */
+	private TimerTask pending;
+
+	/* Intentos realizados desde la caída, 0 si no se está reconectando. */
+	private int attempt;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param name
+	 *            Nombre de la conexión.
+	 * @param initialMillis
+	 *            Milisegundos de espera antes del primer intento.
+	 * @param maxMillis
+	 *            Máximo de milisegundos de espera entre intentos.
+	 * @param jitterPercent
+	 *            Porcentaje de cada espera que se reduce al azar, entre 0 y
+	 *            100.
+	 * @param attempts
+	 *            Máximo de intentos, 0 sin límite.
+	 * @param immediate
+	 *            Si el primer intento se realiza sin esperar.
+	 * @param reconnect
+	 *            Intento de reconexión.
+	 */
+	public ReconnectScheduler(final String name, final long initialMillis, final long maxMillis,
+			final int jitterPercent, final int attempts, final boolean immediate, final Runnable reconnect) {
+		this.name = name;
+		this.initialMillis = initialMillis;
+		this.maxMillis = maxMillis;
+		this.jitterPercent = jitterPercent;
+		this.attempts = attempts;
+		this.immediate = immediate;
+		this.reconnect = reconnect;
+	}
+
+	/**
+	 * Programa el siguiente intento de reconexión. Si ya se han realizado
+	 * todos los intentos, no se programa y se reinicia la cuenta.
+	 *
+	 * @return <code>true</code> si se ha programado el intento,
+	 *         <code>false</code> si no quedan intentos.
+	 */
+	public synchronized boolean schedule() {
+		if (attempts > 0 && attempt >= attempts) {
+			Log.info(this, PrintUtils.format("Agotados '%s' intentos de reconexión '%s'", attempts, name));
+			reset();
+			return false;
+		}
+		attempt++;
+		final long delay = delay(attempt);
+		Log.debug(this, PrintUtils.format("Intento '%s' de reconexión '%s' tras %sms", attempt, name, delay));
+
+		if (timer == null) {
+			timer = new Timer(PrintUtils.format(NAME, name), Boolean.TRUE);
+		}
+		if (pending != null) {
+			pending.cancel();
+		}
+		pending = new TimerTask() {
+			@Override
+			public void run() {
+				synchronized (ReconnectScheduler.this) {
+					if (pending != this) {
+						return; /* cancelado entre tanto */
+					}
+					pending = null;
+				}
+				reconnect.run();
+			}
+		};
+		timer.schedule(pending, delay);
+		return true;
+	}
+
+	/**
+	 * Cancela el intento pendiente, si lo hay, reinicia la cuenta de intentos
+	 * y cancela el temporizador. Se llama al completarse la conexión, al
+	 * agotarse los intentos o al desconectar voluntariamente.
+	 */
+	public synchronized void reset() {
+		if (pending != null) {
+			pending.cancel();
+			pending = null;
+		}
+		if (timer != null) {
+			timer.cancel(); /* desde el propio temporizador, la tarea en curso termina con normalidad */
+			timer = null;
+		}
+		attempt = 0;
+	}
+
+	/**
+	 * Indica si se está reconectando tras una caída: hay algún intento
+	 * programado o realizado sin que la conexión se haya completado.
+	 *
+	 * @return <code>true</code> si se está reconectando.
+	 */
+	public synchronized boolean isRetrying() {
+		return attempt > 0;
+	}
+
+	/* Obtiene los milisegundos de espera antes del intento indicado, empezando en 1. */
+	long delay(final int attempt) {
+		if (immediate && attempt == 1) {
+			return 0L;
+		}
+		final int doublings = attempt - (immediate ? 2 : 1);
+		long delay = initialMillis;
+		for (int i = 0; i < doublings && delay < maxMillis; i++) {
+			delay *= 2;
+		}
+		delay = Math.min(delay, maxMillis);
+		if (jitterPercent > 0 && delay > 0) {
+			delay -= (long) (delay * jitterPercent / 100d * ThreadLocalRandom.current().nextDouble());
+		}
+		return delay;
+	}
+}
@@ -7,6 +7,8 @@ import libcomm.connection.ConnectionMode;
 import libcomm.connection.IConnection;
 import libcomm.exception.CommErrorType;
 import libcomm.exception.CommunicationException;
+import libcomm.util.OverflowPolicy;
+import libcomm.util.WaitStrategy;
 
 import commons.log.Log;
 import commons.util.PrintUtils;
@@ -17,7 +19,10 @@ import commons.util.PrintUtils;
  * Los datos a configurar son:
  * <ul>
  * <li><code>host</code>, dirección ip o nombre de host de la conexión, sólo
- * necesario en modo cliente. Por defecto <code>localhost</code>.
+ * necesario en modo cliente. Por defecto <code>localhost</code>. Con el
+ * prefijo <code>unix:</code> indica la ruta de un socket de dominio Unix
+ * (Java 16 o superior), tanto en cliente como en servidor, y el puerto se
+ * ignora.
  * <li><code>port</code>, puerto de conexión, por defecto 102.
  * <li><code>name</code>, nombre de la conexión, sólo a efectos identificativos
  * y de log.
@@ -30,6 +35,103 @@ import commons.util.PrintUtils;
  * de conexión local.
  * <li><code>called.tsap</code>, configuración de RFC1006, identifica el punto
  * de conexión remoto.
+ * <li><code>ak.enabled</code>, habilita el envío y espera de AK, por defecto
+ * habilitado.
+ * <li><code>journal.outbound.dir</code>, directorio del diario de mensajes
+ * salientes. Si se configura (y AK está habilitado), los mensajes sin AK
+ * sobreviven a un reinicio y se reenvían al conectar. Por defecto sin diario.
+ * <li><code>journal.inbound.dir</code>, directorio del diario de mensajes
+ * entrantes, para auditoría. Por defecto sin diario.
+ * <li><code>journal.index.interval</code>, el diario de entrada indexa uno de
+ * cada N mensajes, por defecto 64.
+ * <li><code>journal.segment.bytes</code>, tamaño de cada segmento de los
+ * diarios, por defecto 8 MiB.
+ * <li><code>journal.force.millis</code>, milisegundos entre escrituras forzadas
+ * a disco de los diarios, por defecto 100. Con 0 se fuerza tras cada mensaje y
+ * con un valor negativo nunca.
+ * <li><code>capture.file</code>, fichero en el que capturar todo el tráfico
+ * enviado y recibido a nivel de sockets, para reproducirlo después con
+ * {@link libcomm.capture.CaptureReplayer}. Por defecto sin captura.
+ * <li><code>transport</code>, transporte bajo la capa RFC1006:
+ * <code>socket</code> (sockets TCP, por defecto), <code>memory</code>
+ * (cliente y servidor en la misma JVM, emparejados por puerto) o el nombre de
+ * cualquier otro {@link libcomm.layer.ITransportProvider} registrado.
+ * <li><code>threads.virtual</code>, ejecuta en hilos virtuales (Java 21 o
+ * superior) las partes bloqueantes: conexión y espera de cliente, procesadores
+ * de mensajes y notificador de eventos. En una JVM anterior se ignora. Por
+ * defecto <code>false</code>.
+ * <li><code>pipeline.inline</code>, procesamiento en línea: el
+ * troceado RFC1006, la decodificación, el envío de AK y la notificación al
+ * listener se ejecutan en el hilo que lee del socket, y los envíos se escriben
+ * en el canal desde el hilo que envía, sin colas ni cambios de hilo. Reduce la
+ * latencia de recepción a costa de que un listener lento retrase la lectura;
+ * pensado para enlaces críticos en latencia con listeners rápidos. Por defecto
+ * <code>false</code>.
+ * <li><code>wait.strategy</code>, estrategia de espera de los hilos
+ * consumidores (procesadores de mensajes, notificador de eventos y selector)
+ * cuando se quedan sin trabajo: <code>block</code> (se bloquean, por
+ * defecto), <code>yield</code> (ceden la CPU y vuelven a comprobar),
+ * <code>spin</code> (espera activa y después se bloquean) o
+ * <code>busy_spin</code> (espera activa sin fin, ocupa un núcleo por hilo).
+ * Ver {@link WaitStrategy}.
+ * <li><code>wait.spins</code>, iteraciones de espera activa antes de
+ * bloquearse con la estrategia <code>spin</code>, por defecto 1000.
+ * <li><code>queue.outbound.capacity</code>, capacidad de la cola de mensajes
+ * salientes de la conexión, redondeada a potencia de dos. Por defecto 4096.
+ * <li><code>queue.outbound.policy</code>, política al enviar con la cola de
+ * salida llena: <code>block</code> (se espera a que haya hueco, por defecto),
+ * <code>reject</code> (se rechaza el mensaje con un error de control de
+ * flujo) o <code>drop_oldest</code> (se descarta el mensaje más antiguo). Ver
+ * {@link OverflowPolicy}.
+ * <li><code>queue.inbound.high</code>, marca alta de mensajes recibidos
+ * pendientes de procesar o de notificar al listener. Al alcanzarla se deja de
+ * leer del socket, de forma que TCP frena al otro extremo y la memoria queda
+ * acotada. Por defecto 1024.
+ * <li><code>queue.inbound.low</code>, marca baja de mensajes recibidos
+ * pendientes: la lectura se reanuda al bajar de ella. Debe ser menor que la
+ * marca alta. Por defecto 256, o la mitad de la marca alta si es menor.
+ * <li><code>spill.dir</code>, directorio de desbordamiento de mensajes
+ * salientes. Si se configura, los mensajes enviados con la conexión caída no
+ * se descartan: se retienen en memoria y, pasado un umbral, en un fichero
+ * mapeado en memoria, y se envían en orden al restablecerse la conexión (tras
+ * CR/CC). Por defecto sin desbordamiento.
+ * <li><code>spill.memory.messages</code>, mensajes salientes retenidos en
+ * memoria con la conexión caída antes de desbordar a disco, por defecto 1024.
+ * <li><code>listener.batch.size</code>, máximo de mensajes recibidos que se
+ * notifican juntos a un {@link libcomm.BatchLibcommListener}, por defecto 256.
+ * Con otro tipo de listener no se usa.
+ * <li><code>listener.batch.linger.micros</code>, microsegundos que se espera
+ * a que lleguen más mensajes para completar un bloque antes de notificarlo a
+ * un {@link libcomm.BatchLibcommListener}. Por defecto 0: se notifican los que
+ * ya estén pendientes, sin esperar.
+ * <li><code>listener.lanes</code>, hilos que notifican en paralelo los
+ * mensajes recibidos. Cada mensaje se asigna a un hilo según su clave, por
+ * defecto la posición, de forma que los mensajes de una misma clave se
+ * notifican en orden. Por defecto 1: todos los mensajes en un único hilo.
+ * <li><code>receive.pull</code>, recepción por consulta: los mensajes
+ * recibidos no se notifican al listener, sino que quedan en una cola de
+ * capacidad <code>queue.inbound.high</code> de la que los extrae la
+ * aplicación con {@link libcomm.LibcommHandler#poll} o
+ * {@link libcomm.LibcommHandler#drainTo}. El resto de eventos se sigue
+ * notificando. Por defecto <code>false</code>.
+ * <li><code>connecting.buffer.messages</code>, máximo de mensajes enviados
+ * mientras se conecta, o se espera para reconectar, que se retienen en
+ * memoria y se envían en cuanto se completa la conexión (CR/CC). Si no llega
+ * a completarse, se descartan con error. Por defecto 0: se rechazan con error
+ * de envío.
+ * <li><code>reconnect.initial.millis</code>, milisegundos de espera antes de
+ * reconectar tras una caída. Si falla el intento, la espera se duplica en
+ * cada uno de los siguientes. Por defecto 1000.
+ * <li><code>reconnect.max.millis</code>, máximo de milisegundos de espera
+ * entre intentos de reconexión. Por defecto igual a la espera inicial.
+ * <li><code>reconnect.jitter.percent</code>, porcentaje de cada espera que se
+ * reduce al azar, para que varios clientes no reconecten a la vez contra el
+ * mismo servidor. Por defecto 0: la espera es exacta.
+ * <li><code>reconnect.attempts</code>, máximo de intentos de reconexión tras
+ * una caída, 0 sin límite. Por defecto 1.
+ * <li><code>reconnect.immediate</code>, realiza el primer intento de
+ * reconexión sin esperar; la espera inicial se aplica a partir del segundo.
+ * Por defecto <code>false</code>.
  * </ul>
  * <p>
  * 09/01/2016 20:28:42
@@ -111,6 +213,16 @@ public class ConnectionContext implements IConnection {
 		return connectionProperties.getHost();
 	}
 
+	/**
+	 * Obtiene la ruta del socket de dominio Unix, si el host se ha configurado
+	 * como <code>unix:ruta</code>.
+	 * 
+	 * @return Ruta del socket, <code>null</code> si se conecta por TCP.
+	 */
+	public String getUnixSocketPath() {
+		return connectionProperties.getUnixSocketPath();
+	}
+
 	/**
 	 * Obtiene el nombre de la conexión.
 	 * 
@@ -159,6 +271,268 @@ public class ConnectionContext implements IConnection {
 		return connectionProperties.isAKEnabled();
 	}
 	
+	/**
+	 * Obtiene el directorio del diario de mensajes salientes.
+	 * 
+	 * @return Directorio del diario, <code>null</code> si no está configurado.
+	 */
+	public String getOutboundJournalDir() {
+		return connectionProperties.getOutboundJournalDir();
+	}
+
+	/**
+	 * Obtiene el directorio del diario de mensajes entrantes.
+	 * 
+	 * @return Directorio del diario, <code>null</code> si no está configurado.
+	 */
+	public String getInboundJournalDir() {
+		return connectionProperties.getInboundJournalDir();
+	}
+
+	/**
+	 * Obtiene el número de mensajes entre entradas del índice del diario de
+	 * entrada.
+	 * 
+	 * @return Número de mensajes entre entradas del índice.
+	 */
+	public int getJournalIndexInterval() {
+		return connectionProperties.getJournalIndexInterval();
+	}
+
+	/**
+	 * Obtiene el tamaño de cada segmento de los diarios en bytes.
+	 * 
+	 * @return Tamaño de segmento en bytes.
+	 */
+	public int getJournalSegmentBytes() {
+		return connectionProperties.getJournalSegmentBytes();
+	}
+
+	/**
+	 * Obtiene los milisegundos entre escrituras forzadas a disco de los diarios.
+	 * 
+	 * @return Milisegundos entre escrituras forzadas a disco.
+	 */
+	public long getJournalForceMillis() {
+		return connectionProperties.getJournalForceMillis();
+	}
+	
+	/**
+	 * Obtiene el fichero de captura de tráfico.
+	 * 
+	 * @return Fichero de captura, <code>null</code> si no está configurado.
+	 */
+	public String getCaptureFile() {
+		return connectionProperties.getCaptureFile();
+	}
+	
+	/**
+	 * Obtiene el transporte bajo la capa RFC1006.
+	 * 
+	 * @return Nombre del transporte.
+	 */
+	public String getTransport() {
+		return connectionProperties.getTransport();
+	}
+	
+	/**
+	 * Indica si los hilos de la conexión son virtuales (Java 21 o superior).
+	 * 
+	 * @return <code>true</code> si se usan hilos virtuales.
+	 */
+	public boolean isVirtualThreads() {
+		return connectionProperties.isVirtualThreads();
+	}
+	
+	/**
+	 * Indica si el procesamiento es en línea: lo recibido se decodifica y se
+	 * notifica en el hilo que lee del socket, y lo enviado se escribe en el
+	 * hilo que envía.
+	 * 
+	 * @return <code>true</code> si el procesamiento es en línea.
+	 */
+	public boolean isPipelineInline() {
+		return connectionProperties.isPipelineInline();
+	}
+	
+	/**
+	 * Obtiene la estrategia de espera de los hilos consumidores cuando se
+	 * quedan sin trabajo.
+	 * 
+	 * @return Estrategia de espera.
+	 */
+	public WaitStrategy getWaitStrategy() {
+		return connectionProperties.getWaitStrategy();
+	}
+	
+	/**
+	 * Obtiene las iteraciones de espera activa antes de bloquearse, con la
+	 * estrategia {@link WaitStrategy#SPIN}.
+	 * 
+	 * @return Iteraciones de espera activa.
+	 */
+	public int getWaitSpins() {
+		return connectionProperties.getWaitSpins();
+	}
+	
+	/**
+	 * Obtiene la capacidad de la cola de mensajes salientes.
+	 * 
+	 * @return Capacidad de la cola de salida.
+	 */
+	public int getOutboundQueueCapacity() {
+		return connectionProperties.getOutboundQueueCapacity();
+	}
+	
+	/**
+	 * Obtiene la política a aplicar al enviar con la cola de mensajes
+	 * salientes llena.
+	 * 
+	 * @return Política con la cola de salida llena.
+	 */
+	public OverflowPolicy getOutboundQueuePolicy() {
+		return connectionProperties.getOutboundQueuePolicy();
+	}
+	
+	/**
+	 * Obtiene la marca alta de mensajes recibidos pendientes, a partir de la
+	 * que se deja de leer de la conexión.
+	 * 
+	 * @return Marca alta de la cola de entrada.
+	 */
+	public int getInboundHighWatermark() {
+		return connectionProperties.getInboundHighWatermark();
+	}
+	
+	/**
+	 * Obtiene la marca baja de mensajes recibidos pendientes, por debajo de la
+	 * que se reanuda la lectura de la conexión.
+	 * 
+	 * @return Marca baja de la cola de entrada.
+	 */
+	public int getInboundLowWatermark() {
+		return connectionProperties.getInboundLowWatermark();
+	}
+	
+	/**
+	 * Obtiene el directorio de desbordamiento a disco de mensajes salientes
+	 * con la conexión caída.
+	 * 
+	 * @return Directorio de desbordamiento, <code>null</code> si no se retienen
+	 *         mensajes con la conexión caída.
+	 */
+	public String getSpillDir() {
+		return connectionProperties.getSpillDir();
+	}
+	
+	/**
+	 * Obtiene el número de mensajes salientes retenidos en memoria con la
+	 * conexión caída antes de desbordar a disco.
+	 * 
+	 * @return Mensajes retenidos en memoria.
+	 */
+	public int getSpillMemoryMessages() {
+		return connectionProperties.getSpillMemoryMessages();
+	}
+	
+	/**
+	 * Obtiene el máximo de mensajes recibidos que se notifican juntos a un
+	 * listener por bloques.
+	 * 
+	 * @return Máximo de mensajes por bloque.
+	 */
+	public int getListenerBatchSize() {
+		return connectionProperties.getListenerBatchSize();
+	}
+	
+	/**
+	 * Obtiene los microsegundos que se espera a completar un bloque de
+	 * mensajes recibidos antes de notificarlo.
+	 * 
+	 * @return Microsegundos de espera, 0 si no se espera.
+	 */
+	public int getListenerBatchLingerMicros() {
+		return connectionProperties.getListenerBatchLingerMicros();
+	}
+	
+	/**
+	 * Obtiene el número de hilos que notifican en paralelo los mensajes
+	 * recibidos, repartidos por clave.
+	 * 
+	 * @return Hilos de notificación de mensajes, 1 si se notifican en un
+	 *         único hilo.
+	 */
+	public int getListenerLanes() {
+		return connectionProperties.getListenerLanes();
+	}
+	
+	/**
+	 * Indica si los mensajes recibidos se extraen por consulta en lugar de
+	 * notificarse al listener.
+	 * 
+	 * @return <code>true</code> si la recepción es por consulta.
+	 */
+	public boolean isReceivePull() {
+		return connectionProperties.isReceivePull();
+	}
+	
+	/**
+	 * Obtiene el máximo de mensajes enviados mientras se conecta que se
+	 * retienen hasta completar la conexión.
+	 * 
+	 * @return Máximo de mensajes retenidos, 0 si no se retienen.
+	 */
+	public int getConnectingBufferMessages() {
+		return connectionProperties.getConnectingBufferMessages();
+	}
+	
+	/**
+	 * Obtiene los milisegundos de espera antes de reconectar tras una caída.
+	 * 
+	 * @return Milisegundos de espera antes del primer intento.
+	 */
+	public long getReconnectInitialMillis() {
+		return connectionProperties.getReconnectInitialMillis();
+	}
+	
+	/**
+	 * Obtiene el máximo de milisegundos de espera entre intentos de
+	 * reconexión.
+	 * 
+	 * @return Máximo de milisegundos de espera.
+	 */
+	public long getReconnectMaxMillis() {
+		return connectionProperties.getReconnectMaxMillis();
+	}
+	
+	/**
+	 * Obtiene el porcentaje de cada espera entre intentos de reconexión que se
+	 * reduce al azar.
+	 * 
+	 * @return Porcentaje entre 0 y 100.
+	 */
+	public int getReconnectJitterPercent() {
+		return connectionProperties.getReconnectJitterPercent();
+	}
+	
+	/**
+	 * Obtiene el máximo de intentos de reconexión tras una caída.
+	 * 
+	 * @return Máximo de intentos, 0 sin límite.
+	 */
+	public int getReconnectAttempts() {
+		return connectionProperties.getReconnectAttempts();
+	}
+	
+	/**
+	 * Indica si el primer intento de reconexión se realiza sin esperar.
+	 * 
+	 * @return <code>true</code> si se reconecta sin esperar la primera vez.
+	 */
+	public boolean isReconnectImmediate() {
+		return connectionProperties.isReconnectImmediate();
+	}
+	
 	/** Sobrescribe toString mostrando los datos de la conexión. */
 	@Override
 	public String toString() {
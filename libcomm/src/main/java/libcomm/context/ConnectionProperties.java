@@ -6,6 +6,9 @@ import libcomm.connection.ConnectionMode;
 import libcomm.exception.CommErrorType;
 import libcomm.exception.CommunicationException;
 import libcomm.exception.MandatoryContextFailureException;
+import libcomm.layer.TransportFactory;
+import libcomm.util.OverflowPolicy;
+import libcomm.util.WaitStrategy;
 
 import commons.exception.TypeConvertException;
 import commons.log.Log;
@@ -48,6 +51,93 @@ public class ConnectionProperties  {
 
 	/* Clave para AK activado/desactivado */
 	public static final String KEY_CONNECTION_AK_ENABLED = "ak.enabled";
+
+	/* Clave para directorio del diario de mensajes salientes. Cada directorio pertenece a un único manejador vivo. */
+	public static final String KEY_JOURNAL_OUTBOUND_DIR = "journal.outbound.dir";
+
+	/* Clave para directorio del diario de mensajes entrantes. Cada directorio pertenece a un único manejador vivo. */
+	public static final String KEY_JOURNAL_INBOUND_DIR = "journal.inbound.dir";
+
+	/* Clave para número de mensajes entre entradas del índice del diario de entrada */
+	public static final String KEY_JOURNAL_INDEX_INTERVAL = "journal.index.interval";
+
+	/* Clave para tamaño en bytes de cada segmento de los diarios */
+	public static final String KEY_JOURNAL_SEGMENT_BYTES = "journal.segment.bytes";
+
+	/* Clave para milisegundos entre escrituras forzadas a disco de los diarios */
+	public static final String KEY_JOURNAL_FORCE_MILLIS = "journal.force.millis";
+	
+	/* Clave para fichero de captura de tráfico */
+	public static final String KEY_CAPTURE_FILE = "capture.file";
+	
+	/* Prefijo del host para indicar la ruta de un socket de dominio Unix en lugar de host y puerto */
+	public static final String UNIX_SOCKET_PREFIX = "unix:";
+	
+	/* Clave para transporte bajo la capa RFC1006 */
+	public static final String KEY_TRANSPORT = "transport";
+	
+	/* Clave para usar hilos virtuales (Java 21 o superior) */
+	public static final String KEY_THREADS_VIRTUAL = "threads.virtual";
+	
+	/* Clave para procesar y notificar lo recibido en el hilo de lectura del socket */
+	public static final String KEY_PIPELINE_INLINE = "pipeline.inline";
+	
+	/* Clave para estrategia de espera de los hilos consumidores sin trabajo */
+	public static final String KEY_WAIT_STRATEGY = "wait.strategy";
+	
+	/* Clave para iteraciones de espera activa antes de bloquearse, estrategia spin */
+	public static final String KEY_WAIT_SPINS = "wait.spins";
+	
+	/* Clave para capacidad de la cola de mensajes salientes */
+	public static final String KEY_QUEUE_OUTBOUND_CAPACITY = "queue.outbound.capacity";
+	
+	/* Clave para política a aplicar con la cola de mensajes salientes llena */
+	public static final String KEY_QUEUE_OUTBOUND_POLICY = "queue.outbound.policy";
+	
+	/* Clave para marca alta de mensajes entrantes pendientes, a partir de la que se deja de leer */
+	public static final String KEY_QUEUE_INBOUND_HIGH = "queue.inbound.high";
+	
+	/* Clave para marca baja de mensajes entrantes pendientes, por debajo de la que se reanuda la lectura */
+	public static final String KEY_QUEUE_INBOUND_LOW = "queue.inbound.low";
+	
+	/*
+	 * Clave para directorio de desbordamiento a disco de mensajes salientes con la conexión caída. Cada directorio 
+	 * pertenece a un único manejador vivo.
+	 */
+	public static final String KEY_SPILL_DIR = "spill.dir";
+	
+	/* Clave para mensajes salientes retenidos en memoria con la conexión caída antes de desbordar a disco */
+	public static final String KEY_SPILL_MEMORY_MESSAGES = "spill.memory.messages";
+	
+	/* Clave para máximo de mensajes recibidos que se notifican juntos a un listener por bloques */
+	public static final String KEY_LISTENER_BATCH_SIZE = "listener.batch.size";
+	
+	/* Clave para microsegundos que se espera a completar un bloque de mensajes recibidos antes de notificarlo */
+	public static final String KEY_LISTENER_BATCH_LINGER_MICROS = "listener.batch.linger.micros";
+	
+	/* Clave para número de hilos que notifican en paralelo los mensajes recibidos, repartidos por clave */
+	public static final String KEY_LISTENER_LANES = "listener.lanes";
+	
+	/* Clave para recepción por consulta: los mensajes recibidos se extraen en lugar de notificarse al listener */
+	public static final String KEY_RECEIVE_PULL = "receive.pull";
+	
+	/* Clave para máximo de mensajes enviados mientras se conecta que se retienen hasta completar la conexión */
+	public static final String KEY_CONNECTING_BUFFER_MESSAGES = "connecting.buffer.messages";
+	
+	/* Clave para milisegundos de espera antes del primer intento de reconexión tras una caída */
+	public static final String KEY_RECONNECT_INITIAL_MILLIS = "reconnect.initial.millis";
+	
+	/* Clave para máximo de milisegundos de espera entre intentos de reconexión */
+	public static final String KEY_RECONNECT_MAX_MILLIS = "reconnect.max.millis";
+	
+	/* Clave para porcentaje de la espera entre intentos de reconexión que se reduce al azar */
+	public static final String KEY_RECONNECT_JITTER_PERCENT = "reconnect.jitter.percent";
+	
+	/* Clave para máximo de intentos de reconexión tras una caída, 0 sin límite */
+	public static final String KEY_RECONNECT_ATTEMPTS = "reconnect.attempts";
+	
+	/* Clave para realizar el primer intento de reconexión sin esperar */
+	public static final String KEY_RECONNECT_IMMEDIATE = "reconnect.immediate";
 	
 	/* Host por defecto, no es obligatorio porque en modo servidor no es necesario.*/
 	private static final String DEFAULT_CONNECTION_HOST = "localhost";
@@ -63,9 +153,75 @@ public class ConnectionProperties  {
 
 	/* Modo por defecto para AK, activado. */
 	private static final boolean DEFAULT_AK_ENABLED = Boolean.TRUE;
+
+	/* Tamaño por defecto de cada segmento de los diarios, 8 MiB. */
+	private static final int DEFAULT_JOURNAL_SEGMENT_BYTES = 8 * 1024 * 1024;
+
+	/* Milisegundos por defecto entre escrituras forzadas a disco de los diarios. */
+	private static final long DEFAULT_JOURNAL_FORCE_MILLIS = 100L;
+
+	/* Número de mensajes por defecto entre entradas del índice del diario de entrada. */
+	private static final int DEFAULT_JOURNAL_INDEX_INTERVAL = 64;
+
+	/* Por defecto se usan hilos de plataforma. */
+	private static final boolean DEFAULT_THREADS_VIRTUAL = Boolean.FALSE;
+
+	/* Por defecto cada etapa de recepción y envío tiene su propio hilo. */
+	private static final boolean DEFAULT_PIPELINE_INLINE = Boolean.FALSE;
+
+	/* Por defecto los hilos consumidores se bloquean en cuanto se quedan sin trabajo. */
+	private static final String DEFAULT_WAIT_STRATEGY = WaitStrategy.BLOCK.toString();
+
+	/* Iteraciones de espera activa por defecto antes de bloquearse. */
+	private static final int DEFAULT_WAIT_SPINS = 1000;
+
+	/* Capacidad por defecto de la cola de mensajes salientes. */
+	private static final int DEFAULT_QUEUE_OUTBOUND_CAPACITY = 4096;
+
+	/* Por defecto, con la cola de salida llena, quien envía espera a que haya hueco. */
+	private static final String DEFAULT_QUEUE_OUTBOUND_POLICY = OverflowPolicy.BLOCK.toString();
+
+	/* Marca alta por defecto de mensajes entrantes pendientes. */
+	private static final int DEFAULT_QUEUE_INBOUND_HIGH = 1024;
+
+	/* Marca baja por defecto de mensajes entrantes pendientes. */
+	private static final int DEFAULT_QUEUE_INBOUND_LOW = 256;
+
+	/* Mensajes salientes retenidos en memoria por defecto antes de desbordar a disco. */
+	private static final int DEFAULT_SPILL_MEMORY_MESSAGES = 1024;
+
+	/* Máximo por defecto de mensajes recibidos notificados juntos. */
+	private static final int DEFAULT_LISTENER_BATCH_SIZE = 256;
+
+	/* Espera por defecto a completar un bloque de mensajes recibidos: ninguna. */
+	private static final int DEFAULT_LISTENER_BATCH_LINGER_MICROS = 0;
+
+	/* Hilos de notificación de mensajes recibidos por defecto: uno, todos los mensajes en orden de llegada. */
+	private static final int DEFAULT_LISTENER_LANES = 1;
+
+	/* Recepción por consulta por defecto: no, se notifican los mensajes al listener. */
+	private static final boolean DEFAULT_RECEIVE_PULL = Boolean.FALSE;
+
+	/* Mensajes retenidos por defecto mientras se conecta: ninguno, se rechazan con error. */
+	private static final int DEFAULT_CONNECTING_BUFFER_MESSAGES = 0;
+
+	/* Espera por defecto antes de reconectar: un segundo. */
+	private static final long DEFAULT_RECONNECT_INITIAL_MILLIS = 1000L;
+
+	/* Porcentaje de espera al azar por defecto: ninguno, la espera es exacta. */
+	private static final int DEFAULT_RECONNECT_JITTER_PERCENT = 0;
+
+	/* Intentos de reconexión por defecto: uno. */
+	private static final int DEFAULT_RECONNECT_ATTEMPTS = 1;
+
+	/* Primer intento de reconexión sin esperar por defecto: no. */
+	private static final boolean DEFAULT_RECONNECT_IMMEDIATE = Boolean.FALSE;
 	
 	/* Host/ip de conexión, sólo es necesaria en modo cliente. */
 	private String host;
+
+	/* Ruta del socket de dominio Unix, null si se conecta por TCP. */
+	private String unixSocketPath;
 	
 	/* Puerto de conexión. */
 	private int port;
@@ -85,6 +241,83 @@ public class ConnectionProperties  {
 	
 	/* AK activado o desactivado. */
 	private Boolean akEnabled;
+
+	/* Directorio del diario de mensajes salientes, null si no hay diario. */
+	private String outboundJournalDir;
+
+	/* Directorio del diario de mensajes entrantes, null si no hay diario. */
+	private String inboundJournalDir;
+
+	/* Número de mensajes entre entradas del índice del diario de entrada. */
+	private int journalIndexInterval;
+
+	/* Tamaño de cada segmento de los diarios. */
+	private int journalSegmentBytes;
+
+	/* Fichero de captura de tráfico, null si no se captura. */
+	private String captureFile;
+
+	/* Milisegundos entre escrituras forzadas a disco de los diarios. */
+	private long journalForceMillis;
+
+	/* Transporte bajo la capa RFC1006. */
+	private String transport;
+
+	/* Indica si se usan hilos virtuales. */
+	private boolean virtualThreads;
+
+	/* Indica si lo recibido se procesa y notifica en el hilo de lectura. */
+	private boolean pipelineInline;
+
+	/* Estrategia de espera de los hilos consumidores sin trabajo. */
+	private WaitStrategy waitStrategy;
+
+	/* Iteraciones de espera activa antes de bloquearse. */
+	private int waitSpins;
+
+	/* Capacidad de la cola de mensajes salientes. */
+	private int outboundQueueCapacity;
+
+	/* Política con la cola de mensajes salientes llena. */
+	private OverflowPolicy outboundQueuePolicy;
+
+	/* Marcas alta y baja de mensajes entrantes pendientes. */
+	private int inboundHighWatermark;
+	private int inboundLowWatermark;
+
+	/* Directorio de desbordamiento a disco, null si no se retienen mensajes con la conexión caída. */
+	private String spillDir;
+
+	/* Mensajes salientes retenidos en memoria antes de desbordar a disco. */
+	private int spillMemoryMessages;
+
+	/* Máximo de mensajes recibidos notificados juntos y espera a completar cada bloque. */
+	private int listenerBatchSize;
+	private int listenerBatchLingerMicros;
+
+	/* Hilos que notifican en paralelo los mensajes recibidos. */
+	private int listenerLanes;
+
+	/* Indica si los mensajes recibidos se extraen por consulta en lugar de notificarse. */
+	private boolean receivePull;
+
+	/* Máximo de mensajes enviados mientras se conecta que se retienen hasta completar la conexión. */
+	private int connectingBufferMessages;
+
+	/* Milisegundos de espera antes del primer intento de reconexión. */
+	private long reconnectInitialMillis;
+
+	/* Máximo de milisegundos de espera entre intentos de reconexión. */
+	private long reconnectMaxMillis;
+
+	/* Porcentaje de la espera entre intentos de reconexión que se reduce al azar. */
+	private int reconnectJitterPercent;
+
+	/* Máximo de intentos de reconexión tras una caída, 0 sin límite. */
+	private int reconnectAttempts;
+
+	/* Indica si el primer intento de reconexión se realiza sin esperar. */
+	private boolean reconnectImmediate;
 	
 	/**
 	 * Constructor de clase.
@@ -103,10 +336,30 @@ public class ConnectionProperties  {
 		configureMode(properties);
 		configureTSAPs(properties);
 		configureAKEnabled(properties);
+		configureJournal(properties);
+		configureCapture(properties);
+		configureTransport(properties);
+		configureThreads(properties);
+		configurePipeline(properties);
+		configureWait(properties);
+		configureOutboundQueue(properties);
+		configureInboundQueue(properties);
+		configureSpill(properties);
+		configureListenerBatch(properties);
+		configureListenerLanes(properties);
+		configureReceive(properties);
+		configureConnectingBuffer(properties);
+		configureReconnect(properties);
 	}
 
 	private void configureHost(final Properties properties) throws CommunicationException {
 		this.host = getOptionalValue(properties, KEY_CONNECTION_HOST, String.class, DEFAULT_CONNECTION_HOST);
+		if (host.startsWith(UNIX_SOCKET_PREFIX)) {
+			this.unixSocketPath = host.substring(UNIX_SOCKET_PREFIX.length()).trim();
+			if (unixSocketPath.isEmpty()) {
+				throw getMandatoryContextFailureException(KEY_CONNECTION_HOST, host);
+			}
+		}
 	}
 	
 	private void configurePort(final Properties properties) throws CommunicationException {
@@ -146,6 +399,146 @@ public class ConnectionProperties  {
 		this.akEnabled = getOptionalValue(properties, KEY_CONNECTION_AK_ENABLED, Boolean.class, DEFAULT_AK_ENABLED);
 	}
 	
+	private void configureJournal(final Properties properties) throws CommunicationException {
+		this.outboundJournalDir = getOptionalValue(properties, KEY_JOURNAL_OUTBOUND_DIR, String.class, null);
+		this.inboundJournalDir = getOptionalValue(properties, KEY_JOURNAL_INBOUND_DIR, String.class, null);
+		this.journalIndexInterval = 
+			getOptionalValue(properties, KEY_JOURNAL_INDEX_INTERVAL, Integer.class, DEFAULT_JOURNAL_INDEX_INTERVAL);
+		this.journalSegmentBytes = 
+			getOptionalValue(properties, KEY_JOURNAL_SEGMENT_BYTES, Integer.class, DEFAULT_JOURNAL_SEGMENT_BYTES);
+		this.journalForceMillis = 
+			getOptionalValue(properties, KEY_JOURNAL_FORCE_MILLIS, Long.class, DEFAULT_JOURNAL_FORCE_MILLIS);
+	}
+	
+	private void configureCapture(final Properties properties) throws CommunicationException {
+		this.captureFile = getOptionalValue(properties, KEY_CAPTURE_FILE, String.class, null);
+	}
+	
+	private void configureTransport(final Properties properties) throws CommunicationException {
+		this.transport = getOptionalValue(properties, KEY_TRANSPORT, String.class, TransportFactory.DEFAULT_TRANSPORT);
+		if (!TransportFactory.isAvailable(transport)) {
+			throw getMandatoryContextFailureException(KEY_TRANSPORT, transport);
+		}
+	}
+	
+	private void configureThreads(final Properties properties) throws CommunicationException {
+		this.virtualThreads = 
+			getOptionalValue(properties, KEY_THREADS_VIRTUAL, Boolean.class, DEFAULT_THREADS_VIRTUAL);
+	}
+	
+	private void configurePipeline(final Properties properties) throws CommunicationException {
+		this.pipelineInline = 
+			getOptionalValue(properties, KEY_PIPELINE_INLINE, Boolean.class, DEFAULT_PIPELINE_INLINE);
+	}
+	
+	private void configureWait(final Properties properties) throws CommunicationException {
+		final String strategyStr = getOptionalValue(properties, KEY_WAIT_STRATEGY, String.class, DEFAULT_WAIT_STRATEGY);
+		this.waitStrategy = WaitStrategy.getStrategy(strategyStr);
+		if (waitStrategy == null) {
+			throw getMandatoryContextFailureException(KEY_WAIT_STRATEGY, strategyStr);
+		}
+		this.waitSpins = getOptionalValue(properties, KEY_WAIT_SPINS, Integer.class, DEFAULT_WAIT_SPINS);
+		if (waitSpins < 0) {
+			throw getMandatoryContextFailureException(KEY_WAIT_SPINS, String.valueOf(waitSpins));
+		}
+	}
+	
+	private void configureOutboundQueue(final Properties properties) throws CommunicationException {
+		this.outboundQueueCapacity = 
+			getOptionalValue(properties, KEY_QUEUE_OUTBOUND_CAPACITY, Integer.class, DEFAULT_QUEUE_OUTBOUND_CAPACITY);
+		if (outboundQueueCapacity <= 0) {
+			throw getMandatoryContextFailureException(KEY_QUEUE_OUTBOUND_CAPACITY, String.valueOf(outboundQueueCapacity));
+		}
+		final String policyStr = 
+			getOptionalValue(properties, KEY_QUEUE_OUTBOUND_POLICY, String.class, DEFAULT_QUEUE_OUTBOUND_POLICY);
+		this.outboundQueuePolicy = OverflowPolicy.getPolicy(policyStr);
+		if (outboundQueuePolicy == null) {
+			throw getMandatoryContextFailureException(KEY_QUEUE_OUTBOUND_POLICY, policyStr);
+		}
+	}
+	
+	private void configureInboundQueue(final Properties properties) throws CommunicationException {
+		this.inboundHighWatermark = 
+			getOptionalValue(properties, KEY_QUEUE_INBOUND_HIGH, Integer.class, DEFAULT_QUEUE_INBOUND_HIGH);
+		if (inboundHighWatermark <= 0) {
+			throw getMandatoryContextFailureException(KEY_QUEUE_INBOUND_HIGH, String.valueOf(inboundHighWatermark));
+		}
+		this.inboundLowWatermark = getOptionalValue(properties, KEY_QUEUE_INBOUND_LOW, Integer.class, 
+			Math.min(DEFAULT_QUEUE_INBOUND_LOW, inboundHighWatermark / 2));
+		if (inboundLowWatermark < 0 || inboundLowWatermark >= inboundHighWatermark) {
+			throw getMandatoryContextFailureException(KEY_QUEUE_INBOUND_LOW, String.valueOf(inboundLowWatermark));
+		}
+	}
+	
+	private void configureSpill(final Properties properties) throws CommunicationException {
+		this.spillDir = getOptionalValue(properties, KEY_SPILL_DIR, String.class, null);
+		this.spillMemoryMessages = 
+			getOptionalValue(properties, KEY_SPILL_MEMORY_MESSAGES, Integer.class, DEFAULT_SPILL_MEMORY_MESSAGES);
+		if (spillMemoryMessages < 0) {
+			throw getMandatoryContextFailureException(KEY_SPILL_MEMORY_MESSAGES, String.valueOf(spillMemoryMessages));
+		}
+	}
+	
+	private void configureListenerBatch(final Properties properties) throws CommunicationException {
+		this.listenerBatchSize = 
+			getOptionalValue(properties, KEY_LISTENER_BATCH_SIZE, Integer.class, DEFAULT_LISTENER_BATCH_SIZE);
+		if (listenerBatchSize <= 0) {
+			throw getMandatoryContextFailureException(KEY_LISTENER_BATCH_SIZE, String.valueOf(listenerBatchSize));
+		}
+		this.listenerBatchLingerMicros = getOptionalValue(properties, KEY_LISTENER_BATCH_LINGER_MICROS, Integer.class, 
+			DEFAULT_LISTENER_BATCH_LINGER_MICROS);
+		if (listenerBatchLingerMicros < 0) {
+			throw getMandatoryContextFailureException(KEY_LISTENER_BATCH_LINGER_MICROS, 
+				String.valueOf(listenerBatchLingerMicros));
+		}
+	}
+
+	private void configureListenerLanes(final Properties properties) throws CommunicationException {
+		this.listenerLanes = getOptionalValue(properties, KEY_LISTENER_LANES, Integer.class, DEFAULT_LISTENER_LANES);
+		if (listenerLanes <= 0) {
+			throw getMandatoryContextFailureException(KEY_LISTENER_LANES, String.valueOf(listenerLanes));
+		}
+	}
+
+	private void configureReceive(final Properties properties) throws CommunicationException {
+		this.receivePull = getOptionalValue(properties, KEY_RECEIVE_PULL, Boolean.class, DEFAULT_RECEIVE_PULL);
+	}
+
+	private void configureConnectingBuffer(final Properties properties) throws CommunicationException {
+		this.connectingBufferMessages = getOptionalValue(properties, KEY_CONNECTING_BUFFER_MESSAGES, Integer.class, 
+			DEFAULT_CONNECTING_BUFFER_MESSAGES);
+		if (connectingBufferMessages < 0) {
+			throw getMandatoryContextFailureException(KEY_CONNECTING_BUFFER_MESSAGES, 
+				String.valueOf(connectingBufferMessages));
+		}
+	}
+
+	private void configureReconnect(final Properties properties) throws CommunicationException {
+		this.reconnectInitialMillis = getOptionalValue(properties, KEY_RECONNECT_INITIAL_MILLIS, Long.class, 
+			DEFAULT_RECONNECT_INITIAL_MILLIS);
+		if (reconnectInitialMillis < 0) {
+			throw getMandatoryContextFailureException(KEY_RECONNECT_INITIAL_MILLIS, String.valueOf(reconnectInitialMillis));
+		}
+		this.reconnectMaxMillis = 
+			getOptionalValue(properties, KEY_RECONNECT_MAX_MILLIS, Long.class, reconnectInitialMillis);
+		if (reconnectMaxMillis < reconnectInitialMillis) {
+			throw getMandatoryContextFailureException(KEY_RECONNECT_MAX_MILLIS, String.valueOf(reconnectMaxMillis));
+		}
+		this.reconnectJitterPercent = getOptionalValue(properties, KEY_RECONNECT_JITTER_PERCENT, Integer.class, 
+			DEFAULT_RECONNECT_JITTER_PERCENT);
+		if (reconnectJitterPercent < 0 || reconnectJitterPercent > 100) {
+			throw getMandatoryContextFailureException(KEY_RECONNECT_JITTER_PERCENT, 
+				String.valueOf(reconnectJitterPercent));
+		}
+		this.reconnectAttempts = 
+			getOptionalValue(properties, KEY_RECONNECT_ATTEMPTS, Integer.class, DEFAULT_RECONNECT_ATTEMPTS);
+		if (reconnectAttempts < 0) {
+			throw getMandatoryContextFailureException(KEY_RECONNECT_ATTEMPTS, String.valueOf(reconnectAttempts));
+		}
+		this.reconnectImmediate = 
+			getOptionalValue(properties, KEY_RECONNECT_IMMEDIATE, Boolean.class, DEFAULT_RECONNECT_IMMEDIATE);
+	}
+	
 	private <T> T getValue(final Properties properties, final String key, final boolean mandatory, Class<T> clazz) 
 			throws MandatoryContextFailureException, TypeConvertException {
 		final String stringValue = properties.getProperty(key);
@@ -239,4 +632,144 @@ public class ConnectionProperties  {
 	boolean isAKEnabled () {
 		return this.akEnabled;
 	}
-}
+
+	/* Obtiene el directorio del diario de mensajes salientes, null si no está configurado. */
+	String getOutboundJournalDir() {
+		return this.outboundJournalDir;
+	}
+
+	/* Obtiene el directorio del diario de mensajes entrantes, null si no está configurado. */
+	String getInboundJournalDir() {
+		return this.inboundJournalDir;
+	}
+
+	/* Obtiene el número de mensajes entre entradas del índice del diario de entrada. */
+	int getJournalIndexInterval() {
+		return this.journalIndexInterval;
+	}
+
+	/* Obtiene el tamaño de cada segmento de los diarios en bytes. */
+	int getJournalSegmentBytes() {
+		return this.journalSegmentBytes;
+	}
+
+	/* Obtiene los milisegundos entre escrituras forzadas a disco de los diarios. */
+	long getJournalForceMillis() {
+		return this.journalForceMillis;
+	}
+
+	/* Obtiene el fichero de captura de tráfico, null si no está configurado. */
+	String getCaptureFile() {
+		return this.captureFile;
+	}
+
+	/* Obtiene el transporte bajo la capa RFC1006. */
+	String getTransport() {
+		return this.transport;
+	}
+
+	/* Indica si se usan hilos virtuales. */
+	boolean isVirtualThreads() {
+		return this.virtualThreads;
+	}
+
+	/* Indica si lo recibido se procesa y notifica en el hilo de lectura. */
+	boolean isPipelineInline() {
+		return this.pipelineInline;
+	}
+
+	/* Obtiene la estrategia de espera de los hilos consumidores sin trabajo. */
+	WaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	/* Obtiene las iteraciones de espera activa antes de bloquearse. */
+	int getWaitSpins() {
+		return this.waitSpins;
+	}
+
+	/* Obtiene la capacidad de la cola de mensajes salientes. */
+	int getOutboundQueueCapacity() {
+		return this.outboundQueueCapacity;
+	}
+
+	/* Obtiene la política con la cola de mensajes salientes llena. */
+	OverflowPolicy getOutboundQueuePolicy() {
+		return this.outboundQueuePolicy;
+	}
+
+	/* Obtiene la marca alta de mensajes entrantes pendientes. */
+	int getInboundHighWatermark() {
+		return this.inboundHighWatermark;
+	}
+
+	/* Obtiene la marca baja de mensajes entrantes pendientes. */
+	int getInboundLowWatermark() {
+		return this.inboundLowWatermark;
+	}
+
+	/* Obtiene el directorio de desbordamiento a disco, null si no está configurado. */
+	String getSpillDir() {
+		return this.spillDir;
+	}
+
+	/* Obtiene los mensajes salientes retenidos en memoria antes de desbordar a disco. */
+	int getSpillMemoryMessages() {
+		return this.spillMemoryMessages;
+	}
+
+	/* Obtiene el máximo de mensajes recibidos notificados juntos a un listener por bloques. */
+	int getListenerBatchSize() {
+		return this.listenerBatchSize;
+	}
+
+	/* Obtiene los microsegundos de espera a completar un bloque de mensajes recibidos. */
+	int getListenerBatchLingerMicros() {
+		return this.listenerBatchLingerMicros;
+	}
+
+	/* Obtiene el número de hilos que notifican en paralelo los mensajes recibidos. */
+	int getListenerLanes() {
+		return this.listenerLanes;
+	}
+
+	/* Indica si los mensajes recibidos se extraen por consulta en lugar de notificarse al listener. */
+	boolean isReceivePull() {
+		return this.receivePull;
+	}
+
+	/* Obtiene el máximo de mensajes enviados mientras se conecta que se retienen hasta completar la conexión. */
+	int getConnectingBufferMessages() {
+		return this.connectingBufferMessages;
+	}
+
+	/* Obtiene los milisegundos de espera antes del primer intento de reconexión. */
+	long getReconnectInitialMillis() {
+		return this.reconnectInitialMillis;
+	}
+
+	/* Obtiene el máximo de milisegundos de espera entre intentos de reconexión. */
+	long getReconnectMaxMillis() {
+		return this.reconnectMaxMillis;
+	}
+
+	/* Obtiene el porcentaje de la espera entre intentos de reconexión que se reduce al azar. */
+	int getReconnectJitterPercent() {
+		return this.reconnectJitterPercent;
+	}
+
+	/* Obtiene el máximo de intentos de reconexión tras una caída, 0 sin límite. */
+	int getReconnectAttempts() {
+		return this.reconnectAttempts;
+	}
+
+	/* Indica si el primer intento de reconexión se realiza sin esperar. */
+	boolean isReconnectImmediate() {
+		return this.reconnectImmediate;
+	}
+
+	/* Obtiene la ruta del socket de dominio Unix, null si se conecta por TCP. */
+	String getUnixSocketPath() {
+		return this.unixSocketPath;
+	}
+}
\ No newline at end of file
@@ -7,12 +7,16 @@ import commons.util.PrintUtils;
 /**
  * Representa un evento lanzado por la librería de comunicaciones. 
  * <p>
+ * Los eventos de conexión, desconexión y error se publican también a los
+ * suscriptores de {@link EventNotifier#getEventPublisher()}.
+ * </p>
+ * <p>
  * 09/02/2016 00:53:05
  * </p>
  * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
  * @version 1.0
  */
-class Event<T> {
+public class Event<T> {
 	private static final String PRINT_FORMAT = "Evento (%s) '%s', '%s'";
 	private final static AtomicInteger counter = new AtomicInteger(0);
 	
@@ -27,11 +31,22 @@ class Event<T> {
 		count = counter.incrementAndGet();
 	}
 	
-	EventType getType () {
+	/**
+	 * Obtiene el tipo de evento.
+	 * 
+	 * @return Tipo de evento.
+	 */
+	public EventType getType () {
 		return type;
 	}
 
-	T getEvent () {
+	/**
+	 * Obtiene el argumento del evento: el mensaje recibido, el contexto de la
+	 * conexión o el error, según su tipo.
+	 * 
+	 * @return Argumento del evento.
+	 */
+	public T getEvent () {
 		return event;
 	}
 	
@@ -1,12 +1,23 @@
 package libcomm.event;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import libcomm.BatchLibcommListener;
+import libcomm.KeyedLibcommListener;
 import libcomm.LibcommListener;
 import libcomm.connection.IConnection;
+import libcomm.context.ConnectionContext;
 import libcomm.exception.CommunicationException;
+import libcomm.util.ThreadUtils;
+import libcomm.util.WaitStrategy;
 
 import commons.log.Log;
 import commons.util.PrintUtils;
@@ -14,7 +25,40 @@ import commons.util.PrintUtils;
 /**
  * Notificador de eventos. Recoge los mensajes recibidos en una cola
  * sincronizada e informa a un listener de cada uno, según orden de llegada.
- * 
+ * <p>
+ * En modo en línea no hay cola ni hilo: cada evento se notifica al listener
+ * en el mismo hilo que lo añade.
+ * </p>
+ * <p>
+ * Con la cola vacía, el hilo de notificación espera según la
+ * {@link WaitStrategy} configurada antes de bloquearse.
+ * </p>
+ * <p>
+ * Los mensajes recibidos pendientes de notificar están acotados por marcas
+ * alta y baja: al alcanzar la alta, quien añade un mensaje espera hasta que
+ * el listener baje de la baja. Así se detiene el procesador de recepción y,
+ * tras él, la lectura del socket. El resto de eventos nunca espera.
+ * </p>
+ * <p>
+ * Si el listener es un {@link BatchLibcommListener}, los mensajes recibidos
+ * consecutivos se le notifican por bloques: hasta un máximo, esperando
+ * opcionalmente un tiempo a que lleguen más. Cualquier otro evento cierra el
+ * bloque y se notifica después de él.
+ * </p>
+ * <p>
+ * Con varios carriles, el hilo de notificación reparte los mensajes recibidos
+ * entre otros tantos hilos según su clave: los de una misma clave se notifican
+ * en orden y los de claves distintas, en paralelo. Antes de notificar
+ * cualquier otro evento espera a que los carriles terminen los mensajes
+ * anteriores a él. Con carriles, los mensajes se notifican uno a uno.
+ * </p>
+ * <p>
+ * Tras notificar al listener, cada mensaje recibido se publica a los
+ * suscriptores de {@link #getMessagePublisher()} y el resto de eventos a los
+ * de {@link #getEventPublisher()}, respetando su demanda. Sólo los mensajes
+ * esperan a que haya demanda; los eventos se guardan hasta que se pidan, de
+ * forma que un suscriptor de eventos lento no detiene los mensajes.
+ * </p>
  * <p>
  * 09/02/2016 00:59:42
  * </p>
@@ -24,17 +68,129 @@ import commons.util.PrintUtils;
  */
 public class EventNotifier<M> implements Runnable {
 
+	/* Milisegundos máximos de cada espera por hueco, para comprobar si se ha detenido el notificador. */
+	private static final long WATERMARK_WAIT_MILLIS = 100L;
+
+	/* Máximo de eventos sin demanda guardados por suscriptor de eventos, al desbordarse se cancela su suscripción. */
+	private static final int EVENT_SUBSCRIBER_CAPACITY = 1024;
+
 	private final LibcommListener<M> listener;
 	private final BlockingQueue<Event<?>> events;
 	private Thread thread;
 	private final AtomicBoolean running;
 	private final String threadName;
+	private final boolean virtual;
+	private final boolean inline;
+	private final WaitStrategy waitStrategy;
+	private final int waitSpins;
+	private final int highWatermark;
+	private final int lowWatermark;
+	/* Mensajes recibidos pendientes de notificar. */
+	private final AtomicInteger pendingMessages;
+	/* Indica si hay quien espera a bajar de la marca baja. */
+	private volatile boolean throttled;
+	private final Object watermarkLock;
+	/* Listener por bloques, null si el listener recibe los mensajes uno a uno. */
+	private final BatchLibcommListener<M> batchListener;
+	/* Máximo de mensajes por bloque y nanosegundos de espera a completarlo. */
+	private final int batchSize;
+	private final long batchLingerNanos;
+	/* Evento que cerró el último bloque, pendiente de notificar. Sólo lo usa el hilo de notificación. */
+	private Event<?> carried;
+	/* Carriles de notificación de mensajes, null con uno solo: los notifica el propio hilo de notificación. */
+	private final List<Lane> lanes;
+	/* Obtiene la clave de un mensaje para asignarle carril. */
+	private final Function<? super M, ?> keyExtractor;
+	/* Mensajes repartidos a los carriles pendientes de notificar. */
+	private final AtomicInteger laneMessages;
+	private final Object lanesLock;
+	/* Publicadores de mensajes recibidos y del resto de eventos. */
+	private final EventPublisher<M> messagePublisher;
+	private final EventPublisher<Event<?>> eventPublisher;
 
 	public EventNotifier(final String threadName, final LibcommListener<M> listener) {
+		this(threadName, listener, Boolean.FALSE, Boolean.FALSE, WaitStrategy.BLOCK, 0, Integer.MAX_VALUE, 0, 1, 0L, 1,
+			message -> null);
+	}
+
+	/**
+	 * Constructor de clase, configurado según el contexto de la conexión:
+	 * hilos virtuales, procesamiento en línea, estrategia de espera, marcas
+	 * de la cola de entrada, notificación por bloques y carriles.
+	 * 
+	 * @param threadName
+	 *            Nombre del hilo de notificación.
+	 * @param listener
+	 *            Listener a notificar.
+	 * @param context
+	 *            Contexto de la conexión.
+	 * @param keyExtractor
+	 *            Clave de un mensaje para asignarle carril, si el listener no
+	 *            es un {@link KeyedLibcommListener}.
+	 */
+	public EventNotifier(final String threadName, final LibcommListener<M> listener, final ConnectionContext context,
+			final Function<? super M, ?> keyExtractor) {
+		this(threadName, listener, context.isVirtualThreads(), context.isPipelineInline(), context.getWaitStrategy(),
+			context.getWaitSpins(), context.getInboundHighWatermark(), context.getInboundLowWatermark(),
+			context.getListenerBatchSize(), TimeUnit.MICROSECONDS.toNanos(context.getListenerBatchLingerMicros()),
+			context.getListenerLanes(), keyExtractor);
+	}
+
+	@SuppressWarnings("unchecked")
+	private EventNotifier(final String threadName, final LibcommListener<M> listener, final boolean virtual,
+			final boolean inline, final WaitStrategy waitStrategy, final int waitSpins, final int highWatermark,
+			final int lowWatermark, final int batchSize, final long batchLingerNanos, final int laneCount,
+			final Function<? super M, ?> keyExtractor) {
 		this.listener = listener;
 		this.threadName = threadName;
+		this.virtual = virtual;
+		this.inline = inline;
+		this.waitStrategy = waitStrategy;
+		this.waitSpins = waitSpins;
+		this.highWatermark = highWatermark;
+		this.lowWatermark = lowWatermark;
+		this.pendingMessages = new AtomicInteger();
+		this.watermarkLock = new Object();
 		this.events = new LinkedBlockingQueue<Event<?>>();
 		this.running = new AtomicBoolean(Boolean.FALSE);
+		this.batchListener = listener instanceof BatchLibcommListener ? (BatchLibcommListener<M>) listener : null;
+		this.batchSize = batchSize;
+		this.batchLingerNanos = batchLingerNanos;
+		this.keyExtractor = listener instanceof KeyedLibcommListener ? 
+			((KeyedLibcommListener<M>) listener)::key : keyExtractor;
+		this.laneMessages = new AtomicInteger();
+		this.lanesLock = new Object();
+		this.messagePublisher = new EventPublisher<>(PrintUtils.format("%s-messages", threadName), 0);
+		this.eventPublisher = new EventPublisher<>(PrintUtils.format("%s-events", threadName), EVENT_SUBSCRIBER_CAPACITY);
+		if (laneCount > 1 && !inline) {
+			this.lanes = new ArrayList<>(laneCount);
+			for (int i = 0; i < laneCount; i++) {
+				lanes.add(new Lane(PrintUtils.format("%s-%s", threadName, i)));
+			}
+		} else {
+			this.lanes = null;
+		}
+	}
+	
+	/**
+	 * Obtiene el publicador de mensajes recibidos. Mientras algún suscriptor
+	 * no tenga demanda se detiene la notificación y, tras ella, la recepción.
+	 * 
+	 * @return Publicador de mensajes recibidos.
+	 */
+	public Flow.Publisher<M> getMessagePublisher() {
+		return messagePublisher;
+	}
+
+	/**
+	 * Obtiene el publicador de eventos de conexión, desconexión y error. Nunca
+	 * detiene la notificación: los eventos sin demanda se guardan y, si un
+	 * suscriptor acumula demasiados, se cancela su suscripción con error.
+	 * 
+	 * @return Publicador de eventos.
+	 */
+	public Flow.Publisher<Event<?>> getEventPublisher() {
+		return eventPublisher;
 	}
 	
 	/** Arranca el hilo de notificación de eventos. */
@@ -48,21 +204,79 @@ public class EventNotifier<M> implements Runnable {
 			);
 			return;
 		}
+		if (inline) {
+			Log.info(this, PrintUtils.format("Notificación de eventos '%s' en línea, sin hilo", threadName));
+			return;
+		}
 		Log.info(this, PrintUtils.format("Iniciando hilo de notificacion de eventos '%s'", threadName));
-		thread = new Thread(this, threadName);
-		thread.setDaemon(Boolean.TRUE);
-		thread.setPriority(Thread.MAX_PRIORITY);
+		if (lanes != null) {
+			for (final Lane lane : lanes) {
+				lane.start();
+			}
+		}
+		thread = ThreadUtils.newThread(this, threadName, virtual);
 		thread.start();
 	}
 
 	public boolean isRunning() {
+		if (inline) {
+			return running.get();
+		}
 		return thread != null && thread.isAlive() && running.get();
 	}
 	
 	/* Añade un evento de un tipo y con un argumento adjunto. */
-	public synchronized void addEvent(final EventType type, final Object argument) {
-		final Event<Object> event = new Event<>(type, argument);
+	public void addEvent(final EventType type, final Object argument) {
+		if (inline) {
+			notifyInline(new Event<>(type, argument));
+		} else if (EventType.MESSAGE_RECEIVED.equals(type)) {
+			awaitWatermark();
+			queueEvent(new Event<>(type, argument));
+		} else {
+			queueEvent(new Event<>(type, argument));
+		}
+	}
+
+	/* Si los mensajes pendientes alcanzan la marca alta, espera a que bajen de la marca baja o se detenga el notificador. */
+	private void awaitWatermark() {
+		if (pendingMessages.get() < highWatermark) {
+			return;
+		}
+		synchronized (watermarkLock) {
+			throttled = true;
+			Log.debug(this, PrintUtils.format("'%s' mensajes pendientes de notificar en '%s', se espera", 
+				pendingMessages.get(), threadName)
+			);
+			try {
+				while (pendingMessages.get() > lowWatermark && isRunning()) {
+					watermarkLock.wait(WATERMARK_WAIT_MILLIS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				throttled = false;
+			}
+		}
+	}
+
+	/* Descuenta un mensaje notificado y despierta a quien espera si se baja de la marca baja. */
+	private void notified(final Event<?> event) {
+		if (!EventType.MESSAGE_RECEIVED.equals(event.getType())) {
+			return;
+		}
+		if (pendingMessages.decrementAndGet() <= lowWatermark && throttled) {
+			synchronized (watermarkLock) {
+				watermarkLock.notifyAll();
+			}
+		}
+	}
+
+	/* Encola un evento para el hilo de notificación. */
+	private synchronized void queueEvent(final Event<Object> event) {
 		if (isRunning()) {
+			if (EventType.MESSAGE_RECEIVED.equals(event.getType())) {
+				pendingMessages.incrementAndGet();
+			}
 			events.offer(event);
 		} else {
 			Log.error(this, PrintUtils.format("Notificador de eventos no iniciado, no se puede notificar '%s'", event));
@@ -76,11 +290,23 @@ public class EventNotifier<M> implements Runnable {
 			try {
 				/* Esperamos por un evento */
 				Log.debug(this, PrintUtils.format("Esperando evento en %s", threadName));
-				event = events.take();
+				event = nextEvent();
 				if (event == null) {
 					continue; /* no debería ocurrir */
 				}
-				processEvent(event);
+				if (lanes != null) {
+					dispatch(event);
+					continue;
+				}
+				if (batchListener != null && EventType.MESSAGE_RECEIVED.equals(event.getType())) {
+					processBatch(event);
+					continue;
+				}
+				try {
+					processEvent(event);
+				} finally {
+					notified(event);
+				}
 			} catch (InterruptedException e) {
 				thread.interrupt();
 			} catch (Throwable t) {
@@ -88,13 +314,151 @@ public class EventNotifier<M> implements Runnable {
 			}
 		}
 		finalizeEvents();
+		stopLanes();
 		Log.debug(this, "Hilo de notificación de eventos interrumpido. Dejan de procesarse los eventos");
 
 		running.set(Boolean.FALSE);
 	}
 
+	/*
+	 * Obtiene el siguiente evento, esperando según la estrategia configurada. Antes que ninguno, el que cerró el último
+	 * bloque.
+	 */
+	private Event<?> nextEvent() throws InterruptedException {
+		if (carried != null) {
+			final Event<?> next = carried;
+			carried = null;
+			return next;
+		}
+		if (WaitStrategy.BLOCK.equals(waitStrategy)) {
+			return events.take();
+		}
+		int idleCount = 0;
+		Event<?> event;
+		while ((event = events.poll()) == null) {
+			if (thread.isInterrupted()) {
+				throw new InterruptedException();
+			}
+			if (waitStrategy.idle(idleCount++, waitSpins)) {
+				return events.take();
+			}
+		}
+		return event;
+	}
+
+	/*
+	 * Notifica al listener por bloques un mensaje recibido junto con los siguientes mensajes pendientes, hasta el 
+	 * máximo por bloque y esperando a completarlo como mucho el tiempo configurado. Si llega otro tipo de evento, 
+	 * cierra el bloque y se guarda para notificarse a continuación. Si se interrumpe la espera, se notifica el bloque 
+	 * tal como está.
+	 */
+	@SuppressWarnings("unchecked")
+	private void processBatch(final Event<?> first) {
+		final List<Event<?>> batch = new ArrayList<>();
+		batch.add(first);
+		final long deadline = System.nanoTime() + batchLingerNanos;
+		try {
+			while (batch.size() < batchSize) {
+				Event<?> next = events.poll();
+				final long remaining = deadline - System.nanoTime();
+				if (next == null && remaining > 0) {
+					next = events.poll(remaining, TimeUnit.NANOSECONDS);
+				}
+				if (next == null) {
+					break;
+				}
+				if (!EventType.MESSAGE_RECEIVED.equals(next.getType())) {
+					carried = next;
+					break;
+				}
+				batch.add(next);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		final List<M> messages = new ArrayList<>(batch.size());
+		for (final Event<?> event : batch) {
+			messages.add(((Event<M>) event).getEvent());
+		}
+		Log.debug(this, PrintUtils.format("Se notifica bloque de '%s' mensajes", messages.size()));
+		try {
+			batchListener.receivedBatch(messages);
+			messages.forEach(messagePublisher::publish);
+		} finally {
+			batch.forEach(this::notified);
+		}
+	}
+
+	/*
+	 * Reparte un mensaje recibido al carril de su clave. Cualquier otro evento se notifica en el hilo actual tras 
+	 * esperar a que los carriles notifiquen los mensajes anteriores.
+	 */
+	private void dispatch(final Event<?> event) {
+		if (EventType.MESSAGE_RECEIVED.equals(event.getType())) {
+			laneOf(event).add(event);
+			return;
+		}
+		awaitLanes();
+		try {
+			processEvent(event);
+		} finally {
+			notified(event);
+		}
+	}
+
+	/* Obtiene el carril de un mensaje recibido según su clave. */
+	@SuppressWarnings("unchecked")
+	private Lane laneOf(final Event<?> event) {
+		final int hash = Objects.hashCode(keyExtractor.apply(((Event<M>) event).getEvent()));
+		return lanes.get(Math.floorMod(hash ^ (hash >>> 16), lanes.size()));
+	}
+
+	/*
+	 * Espera a que los carriles no tengan mensajes pendientes. Una interrupción no corta la espera, para no adelantar 
+	 * ningún evento a los mensajes anteriores al detener el notificador; se restablece al terminar.
+	 */
+	private void awaitLanes() {
+		boolean interrupted = Thread.interrupted();
+		try {
+			synchronized (lanesLock) {
+				while (laneMessages.get() > 0) {
+					try {
+						lanesLock.wait(WATERMARK_WAIT_MILLIS);
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/* Detiene los carriles tras esperar a que notifiquen los mensajes que les queden. */
+	private void stopLanes() {
+		if (lanes == null) {
+			return;
+		}
+		awaitLanes();
+		for (final Lane lane : lanes) {
+			lane.stop();
+		}
+	}
+
 	/* Finaliza los eventos que quedan en la cola, si es posible. */
 	private synchronized void finalizeEvents() {
+		if (carried != null) {
+			final Event<?> next = carried;
+			carried = null;
+			try {
+				processEvent(next);
+			} catch (Throwable t) {
+				Log.error(this, PrintUtils.format("Error al notificar '%s'", next), t);
+			}
+		}
 		final int eventsToFinalizeCount = events.size();
 		if (eventsToFinalizeCount == 0) {
 			return;
@@ -108,11 +472,20 @@ public class EventNotifier<M> implements Runnable {
 		int lastNotifiedCount = 0;
 		do {
 			lastEvent = events.poll();
-			if (lastEvent != null) {
+			if (lastEvent != null && lanes != null) {
+				try {
+					dispatch(lastEvent);
+				} catch (Throwable t) {
+					Log.error(this, PrintUtils.format("Error al notificar '%s'", lastEvent), t);
+				}
+				lastNotifiedCount++;
+			} else if (lastEvent != null) {
 				try {
 					processEvent(lastEvent);
 				} catch (Throwable t) {
 					Log.error(this, PrintUtils.format("Error al notificar '%s'", lastEvent), t);
+				} finally {
+					notified(lastEvent);
 				}
 				lastNotifiedCount++;
 			}
@@ -124,6 +497,19 @@ public class EventNotifier<M> implements Runnable {
 		);
 	}
 
+	/* Notifica un evento en el hilo actual, sin encolarlo. */
+	private void notifyInline(final Event<Object> event) {
+		if (!isRunning()) {
+			Log.error(this, PrintUtils.format("Notificador de eventos no iniciado, no se puede notificar '%s'", event));
+			return;
+		}
+		try {
+			processEvent(event);
+		} catch (Throwable t) {
+			Log.error(this, PrintUtils.format("Error al notificar '%s'", event), t);
+		}
+	}
+
 	/** Detiene el hilo de notificación de eventos. */
 	public synchronized void stop() {
 		if (!isRunning()) {
@@ -132,6 +518,10 @@ public class EventNotifier<M> implements Runnable {
 			);
 			return;
 		}
+		if (inline) {
+			running.set(Boolean.FALSE);
+			return;
+		}
 		thread.interrupt();
 	}
 
@@ -143,17 +533,82 @@ public class EventNotifier<M> implements Runnable {
 		if (EventType.MESSAGE_RECEIVED.equals(type)) {
 			final Event<M> __event = (Event<M>) event;
 			listener.received(__event.getEvent());
+			messagePublisher.publish(__event.getEvent());
 		} else if (EventType.CONNECTED.equals(type)) {
 			final Event<IConnection> __event = (Event<IConnection>) event;
 			listener.connected(__event.getEvent());
+			eventPublisher.publish(event);
 		} else if (EventType.DISCONNECTED.equals(type)) {
 			final Event<IConnection> __event= (Event<IConnection>) event;
 			listener.disconnected(__event.getEvent());
+			eventPublisher.publish(event);
 		} else if (EventType.ERROR.equals(type)) {
 			final Event<CommunicationException> __event = (Event<CommunicationException>) event;
 			listener.error(__event.getEvent());
+			eventPublisher.publish(event);
 		} else {
 			Log.error(this, PrintUtils.format("No se puede procesar evento de tipo desconocido: %s", event));
 		}
 	}
+
+	/*
+	 * Carril de notificación: un hilo con su propia cola que notifica en orden los mensajes recibidos que se le 
+	 * asignan.
+	 */
+	private class Lane implements Runnable {
+		private final String name;
+		private final BlockingQueue<Event<?>> queue;
+		private Thread laneThread;
+
+		private Lane(final String name) {
+			this.name = name;
+			this.queue = new LinkedBlockingQueue<Event<?>>();
+		}
+
+		private void start() {
+			laneThread = ThreadUtils.newThread(this, name, virtual);
+			laneThread.start();
+		}
+
+		private void add(final Event<?> event) {
+			laneMessages.incrementAndGet();
+			queue.offer(event);
+		}
+
+		/* Interrumpe el hilo del carril, que notifica antes los mensajes que le queden. */
+		private void stop() {
+			laneThread.interrupt();
+		}
+
+		@Override
+		public void run() {
+			while (!laneThread.isInterrupted()) {
+				try {
+					notifyLane(queue.take());
+				} catch (InterruptedException e) {
+					laneThread.interrupt();
+				}
+			}
+			Event<?> event;
+			while ((event = queue.poll()) != null) {
+				notifyLane(event);
+			}
+		}
+
+		/* Notifica un mensaje del carril y descuenta los pendientes, despertando a quien espera si no queda ninguno. */
+		private void notifyLane(final Event<?> event) {
+			try {
+				processEvent(event);
+			} catch (Throwable t) {
+				Log.error(this, PrintUtils.format("Error al notificar '%s' en '%s'", event, name), t);
+			} finally {
+				notified(event);
+				if (laneMessages.decrementAndGet() == 0) {
+					synchronized (lanesLock) {
+						lanesLock.notifyAll();
+					}
+				}
+			}
+		}
+	}
 }
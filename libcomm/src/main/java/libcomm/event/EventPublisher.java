@@ -0,0 +1,227 @@
+package libcomm.event;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Publicador de los eventos que notifica el {@link EventNotifier}. Cada
+ * elemento se encola en la suscripción de cada suscriptor y se le entrega en
+ * cuanto tiene demanda, en el hilo que lo publica o en el que pide más
+ * elementos. Las entregas a un mismo suscriptor nunca se solapan y se hacen
+ * fuera del monitor de la suscripción, de forma que el suscriptor puede pedir
+ * o cancelar desde cualquier hilo.
+ * <p>
+ * Sin cola configurada, si un suscriptor no tiene demanda la publicación
+ * espera a que pida más elementos o cancele. Mientras, el hilo de notificación
+ * no avanza: se llenan los mensajes pendientes de notificar y, al alcanzar su
+ * marca alta, se detiene la lectura del socket. Así la demanda del suscriptor
+ * más lento marca el ritmo de recepción.
+ * </p>
+ * <p>
+ * Con cola configurada la publicación nunca espera: se guardan hasta tantos
+ * elementos sin demanda como su capacidad. Si se desborda, la suscripción se
+ * cancela y se notifica el error al suscriptor.
+ * </p>
+ * <p>
+ * La publicación no termina al desconectar, ya que se puede volver a conectar:
+ * cada suscriptor decide cuándo cancelar. Si se interrumpe la espera por
+ * demanda, al detener el notificador, el elemento se descarta para ese
+ * suscriptor.
+ * </p>
+ * <p>
+ * 20/10/2026 02:47:30
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+class EventPublisher<T> implements Flow.Publisher<T> {
+
+	/* Milisegundos máximos de cada espera por demanda, para comprobar si se ha cancelado. */
+	private static final long DEMAND_WAIT_MILLIS = 100L;
+
+	/* Nombre para trazas. */
+	private final String name;
+
+	/* Máximo de elementos sin demanda guardados por suscriptor, 0 si la publicación espera a que haya demanda. */
+	private final int capacity;
+
+	/* Suscripciones activas. */
+	private final List<DemandSubscription> subscriptions;
+
+	/*
+	 * Constructor de clase, recibe el nombre del publicador y el máximo de elementos sin demanda a guardar por
+	 * suscriptor: con 0 la publicación espera a que haya demanda.
+	 */
+	EventPublisher(final String name, final int capacity) {
+		this.name = name;
+		this.capacity = Math.max(capacity, 0);
+		this.subscriptions = new CopyOnWriteArrayList<>();
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Suscriptor nulo");
+		}
+		final DemandSubscription subscription = new DemandSubscription(subscriber);
+		subscriptions.add(subscription);
+		Log.info(this, PrintUtils.format("Nuevo suscriptor en '%s', '%s' suscriptores", name, subscriptions.size()));
+		subscription.subscribed();
+	}
+
+	/* Indica si hay algún suscriptor. */
+	boolean hasSubscribers() {
+		return !subscriptions.isEmpty();
+	}
+
+	/* Entrega un elemento a todos los suscriptores. Sin cola, espera a que cada uno tenga demanda. */
+	void publish(final T item) {
+		for (final DemandSubscription subscription : subscriptions) {
+			subscription.offer(item);
+		}
+	}
+
+	/* Suscripción con la demanda pendiente de un suscriptor y los elementos aún no entregados. */
+	private class DemandSubscription implements Flow.Subscription {
+		private final Flow.Subscriber<? super T> subscriber;
+		/* Elementos pedidos y no entregados. Protegido por la propia suscripción. */
+		private long demand;
+		/* Elementos publicados y no entregados, en orden. Protegido por la propia suscripción. */
+		private final ArrayDeque<T> pending;
+		/* Error a notificar en lugar de los pendientes, null si no hay. Protegido por la propia suscripción. */
+		private Throwable failure;
+		/*
+		 * Indica si algún hilo está entregando. Empieza a true para no entregar nada hasta notificar la suscripción.
+		 * Protegido por la propia suscripción.
+		 */
+		private boolean emitting;
+		private volatile boolean cancelled;
+
+		private DemandSubscription(final Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+			this.pending = new ArrayDeque<>();
+			this.emitting = true;
+		}
+
+		/* Notifica la suscripción al suscriptor y entrega lo publicado entre tanto. */
+		private void subscribed() {
+			try {
+				subscriber.onSubscribe(this);
+			} catch (Throwable t) {
+				Log.error(this, PrintUtils.format("Error al notificar suscripción en '%s'", name), t);
+				cancel();
+			}
+			synchronized (this) {
+				emitting = false;
+			}
+			drain();
+		}
+
+		@Override
+		public void request(final long n) {
+			synchronized (this) {
+				if (n <= 0) {
+					fail(new IllegalArgumentException(PrintUtils.format("Petición no positiva '%s' en '%s'", n, name)));
+				} else {
+					demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+					notifyAll();
+				}
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				subscriptions.remove(this);
+				synchronized (this) {
+					pending.clear();
+					notifyAll();
+				}
+			}
+		}
+
+		/*
+		 * Encola un elemento y lo entrega si hay demanda. Sin cola, espera antes a que haya demanda para él, salvo que
+		 * se cancele o se interrumpa la espera. Con cola, si se desborda se notifica el error.
+		 */
+		private void offer(final T item) {
+			synchronized (this) {
+				try {
+					while (capacity == 0 && pending.size() >= demand && !cancelled) {
+						wait(DEMAND_WAIT_MILLIS);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					Log.error(this, PrintUtils.format("Se descarta '%s' en '%s' sin demanda del suscriptor", item, name));
+					return;
+				}
+				if (cancelled || failure != null) {
+					return;
+				}
+				if (capacity > 0 && pending.size() >= capacity) {
+					Log.error(this, PrintUtils.format("Se desborda la cola del suscriptor de '%s' con '%s', se cancela",
+						name, item));
+					fail(new IllegalStateException(PrintUtils.format(
+						"Desbordados '%s' elementos sin demanda en '%s'", capacity, name)));
+				} else {
+					pending.add(item);
+				}
+			}
+			drain();
+		}
+
+		/* Sustituye los elementos pendientes por un error a notificar. */
+		private void fail(final Throwable error) {
+			if (failure == null) {
+				failure = error;
+				pending.clear();
+			}
+		}
+
+		/*
+		 * Entrega los elementos pendientes mientras haya demanda, o el error si lo hay. Sólo entrega un hilo a la vez:
+		 * si ya hay otro entregando, él recogerá lo nuevo antes de terminar.
+		 */
+		private void drain() {
+			synchronized (this) {
+				if (emitting) {
+					return;
+				}
+				emitting = true;
+			}
+			while (true) {
+				final T item;
+				final Throwable error;
+				synchronized (this) {
+					error = failure;
+					item = error == null && !cancelled && demand > 0 ? pending.poll() : null;
+					if (error == null && item == null) {
+						emitting = false;
+						return;
+					}
+					if (item != null && demand != Long.MAX_VALUE) {
+						demand--;
+					}
+				}
+				if (error != null) {
+					cancel();
+					subscriber.onError(error);
+					return; /* el error termina la suscripción: ningún otro hilo vuelve a entregar */
+				}
+				try {
+					subscriber.onNext(item);
+				} catch (Throwable t) {
+					Log.error(this, PrintUtils.format("Error del suscriptor de '%s' con '%s', se cancela", name, item), t);
+					cancel();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package libcomm.event;
+
+/**
+ * Interfaces de publicación y suscripción con control de demanda, con la
+ * misma forma que <code>java.util.concurrent.Flow</code> de Java 9. La
+ * librería compila para Java 8, donde no existe; un adaptador trivial permite
+ * usarlas con cualquier implementación de <i>reactive streams</i>.
+ * <p>
+ * El publicador sólo entrega a cada suscriptor tantos elementos como haya
+ * pedido con {@link Subscription#request(long)}.
+ * </p>
+ * <p>
+ * 20/10/2026 02:41:12
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public final class Flow {
+
+	private Flow() {
+	}
+
+	/**
+	 * Productor de elementos que reciben sus suscriptores.
+	 * 
+	 * @param <T>
+	 *            Tipo de elemento publicado.
+	 */
+	@FunctionalInterface
+	public static interface Publisher<T> {
+		/**
+		 * Añade un suscriptor, que recibe en {@link Subscriber#onSubscribe}
+		 * su suscripción.
+		 * 
+		 * @param subscriber
+		 *            Suscriptor a añadir.
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * Receptor de los elementos de un publicador. Los métodos de un mismo
+	 * suscriptor nunca se invocan concurrentemente.
+	 * 
+	 * @param <T>
+	 *            Tipo de elemento recibido.
+	 */
+	public static interface Subscriber<T> {
+		/**
+		 * Notifica la suscripción, antes que ningún elemento.
+		 * 
+		 * @param subscription
+		 *            Suscripción con la que pedir elementos o cancelarla.
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Notifica el siguiente elemento pedido.
+		 * 
+		 * @param item
+		 *            Elemento publicado.
+		 */
+		void onNext(T item);
+
+		/**
+		 * Notifica un error que termina la suscripción.
+		 * 
+		 * @param throwable
+		 *            Error producido.
+		 */
+		void onError(Throwable throwable);
+
+		/** Notifica que no se publicarán más elementos. */
+		void onComplete();
+	}
+
+	/** Enlace entre un publicador y un suscriptor. */
+	public static interface Subscription {
+		/**
+		 * Pide hasta <code>n</code> elementos más. Una petición no positiva
+		 * termina la suscripción con un error.
+		 * 
+		 * @param n
+		 *            Elementos pedidos, {@link Long#MAX_VALUE} para no limitar.
+		 */
+		void request(long n);
+
+		/** Cancela la suscripción: no se entregan más elementos. */
+		void cancel();
+	}
+}
@@ -30,7 +30,8 @@ public enum CommErrorType {
 	TPKT_TOO_LONG ("TPKT de RFC1006 demasiado largo"), 
 	REMOTE_DISCONNECTION ("Desconexión del sisema remoto"),
 	TIMEOUT ("Desconexión por timeout"),
-	FLOW_CONTROL ("Error en control de flujo");
+	FLOW_CONTROL ("Error en control de flujo"),
+	JOURNAL ("Error en diario de mensajes");
 
 	/* Tipos de errores que se consideran fatales y tras los que NO se intenta reconectar (debe hacerse manualmente) */
 	public final static CommErrorType [] FATAL_ERRORS = {TSAPS, AK_FAILURE, TPKT_TOO_LONG};
@@ -0,0 +1,24 @@
+package libcomm.journal;
+
+/**
+ * Recibe los registros recorridos en un {@link MappedLog}.
+ * <p>
+ * 19/10/2026 10:14:05
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface IRecordVisitor {
+
+	/**
+	 * Visita un registro del log.
+	 *
+	 * @param record
+	 *            Registro leído.
+	 * @return <code>true</code> para continuar con el siguiente registro,
+	 *         <code>false</code> para detener el recorrido.
+	 */
+	boolean visit(JournalRecord record);
+}
@@ -0,0 +1,143 @@
+package libcomm.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import libcomm.message.SequenceNumber;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Diario de mensajes entrantes, para auditoría y análisis de incidencias. Cada
+ * cuerpo de DT recibido se añade tal cual, sin decodificar, a un
+ * {@link MappedLog} con índice disperso, junto con su marca de tiempo de
+ * recepción. Escribir un mensaje es una copia en memoria, por lo que el diario
+ * puede permanecer activo en producción.
+ * <p>
+ * La clave de cada registro es un número de secuencia extendido que no
+ * decrece: los 16 bits bajos son el número de secuencia del mensaje y los
+ * altos una época que se incrementa cada vez que la secuencia vuelve a empezar
+ * (al superar <code>FFFF</code> o al reconectar). Los mensajes sin número de
+ * secuencia válido, como los AK, conservan la clave del anterior. La marca de
+ * tiempo tampoco decrece aunque el reloj del sistema retroceda. Ver
+ * {@link #reader(File)} para consultar el diario.
+ * </p>
+ * <p>
+ * 19/10/2026 13:48:10
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class InboundJournal implements Closeable {
+
+	/** Nombre del log de mensajes entrantes. */
+	public static final String LOG_NAME = "inbound";
+
+	/* Máscara del número de secuencia dentro de la clave extendida. */
+	private static final long SEQUENCE_MASK = 0xFFFFL;
+
+	/* Bits del número de secuencia dentro de la clave extendida. */
+	private static final int SEQUENCE_BITS = 16;
+
+	/* Log con los mensajes recibidos. */
+	private final MappedLog log;
+
+	/* Marca de tiempo del último mensaje registrado. */
+	private long lastTimestamp;
+
+	/* Clave extendida del último mensaje registrado. */
+	private long lastKey;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param directory
+	 *            Directorio del diario.
+	 * @param segmentSize
+	 *            Tamaño de cada segmento del log en bytes.
+	 * @param forceMillis
+	 *            Milisegundos entre escrituras forzadas a disco.
+	 * @param indexInterval
+	 *            Se indexa uno de cada <code>indexInterval</code> mensajes.
+	 * @throws IOException
+	 *             en caso de error abriendo el diario.
+	 */
+	public InboundJournal(final File directory, final int segmentSize, final long forceMillis, final int indexInterval)
+			throws IOException {
+		this.log = new MappedLog(directory, LOG_NAME, segmentSize, forceMillis, Math.max(indexInterval, 1));
+		this.lastTimestamp = log.getLastTimestamp();
+		this.lastKey = log.getLastKey();
+		Log.info(this, PrintUtils.format("Diario de entrada '%s' abierto", directory));
+	}
+
+	/**
+	 * Registra el cuerpo de un DT recibido.
+	 *
+	 * @param body
+	 *            Bytes del mensaje, sin cabeceras de RFC1006.
+	 * @throws IOException
+	 *             en caso de error escribiendo en el log.
+	 */
+	public synchronized void append(final byte[] body) throws IOException {
+		final long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+		final int sequence = parseSequence(body);
+		long key = lastKey;
+		if (sequence > 0) {
+			final long epoch = sequence < sequenceOf(lastKey) ? (lastKey >>> SEQUENCE_BITS) + 1 : lastKey >>> SEQUENCE_BITS;
+			key = (epoch << SEQUENCE_BITS) | sequence;
+		}
+		log.append(timestamp, key, body);
+		lastTimestamp = timestamp;
+		lastKey = key;
+	}
+
+	/** Cierra el diario. */
+	@Override
+	public void close() {
+		log.close();
+	}
+
+	/**
+	 * Obtiene un lector para el diario de entrada de un directorio. Permite
+	 * recorrer un rango de tiempo ({@link MappedLogReader#readByTime}) o de
+	 * claves extendidas ({@link MappedLogReader#readByKey}).
+	 *
+	 * @param directory
+	 *            Directorio del diario.
+	 * @return Lector del diario.
+	 */
+	public static MappedLogReader reader(final File directory) {
+		return new MappedLogReader(directory, LOG_NAME);
+	}
+
+	/**
+	 * Obtiene el número de secuencia del mensaje a partir de una clave
+	 * extendida.
+	 *
+	 * @param key
+	 *            Clave extendida de un registro.
+	 * @return Número de secuencia.
+	 */
+	public static int sequenceOf(final long key) {
+		return (int) (key & SEQUENCE_MASK);
+	}
+
+	/* Interpreta los primeros caracteres del mensaje como número de secuencia hexadecimal. -1 si no es válido. */
+	private static int parseSequence(final byte[] body) {
+		if (body == null || body.length < SequenceNumber.LENGTH) {
+			return -1;
+		}
+		int sequence = 0;
+		for (int i = 0; i < SequenceNumber.LENGTH; i++) {
+			final int digit = Character.digit(body[i], 16);
+			if (digit < 0) {
+				return -1;
+			}
+			sequence = (sequence << 4) | digit;
+		}
+		return sequence;
+	}
+}
@@ -0,0 +1,90 @@
+package libcomm.journal;
+
+import commons.util.PrintUtils;
+
+/**
+ * Registro leído de un {@link MappedLog}. Contiene la posición que ocupa en el
+ * log, una marca de tiempo, una clave numérica y los bytes del registro.
+ * <p>
+ * 19/10/2026 10:12:41
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class JournalRecord {
+
+	/* Posición del registro dentro del log. */
+	private final long position;
+
+	/* Marca de tiempo, milisegundos desde epoch. */
+	private final long timestamp;
+
+	/* Clave del registro, por ejemplo el número de secuencia. */
+	private final long key;
+
+	/* Bytes del registro. */
+	private final byte[] payload;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param position
+	 *            Posición del registro dentro del log.
+	 * @param timestamp
+	 *            Marca de tiempo en milisegundos.
+	 * @param key
+	 *            Clave del registro.
+	 * @param payload
+	 *            Bytes del registro.
+	 */
+	JournalRecord(final long position, final long timestamp, final long key, final byte[] payload) {
+		this.position = position;
+		this.timestamp = timestamp;
+		this.key = key;
+		this.payload = payload;
+	}
+
+	/**
+	 * Obtiene la posición del registro dentro del log.
+	 *
+	 * @return Posición del registro.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Obtiene la marca de tiempo del registro.
+	 *
+	 * @return Marca de tiempo en milisegundos desde epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Obtiene la clave del registro.
+	 *
+	 * @return Clave del registro.
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * Obtiene los bytes del registro.
+	 *
+	 * @return Bytes del registro.
+	 */
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	@Override
+	public String toString() {
+		return PrintUtils.format("Posición[%s-%s] Tiempo[%s] Clave[%s] Bytes[%s]",
+			MappedLog.segmentOf(position), MappedLog.offsetOf(position), timestamp, key,
+			payload != null ? payload.length : 0);
+	}
+}
@@ -0,0 +1,614 @@
+package libcomm.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Log de sólo escritura al final (<i>append-only</i>) sobre ficheros mapeados
+ * en memoria. El log se divide en segmentos de tamaño fijo,
+ * <code>&lt;nombre&gt;-NNNNNNNNNN.log</code>, de forma que al llenarse uno se
+ * continúa en el siguiente y los segmentos antiguos pueden borrarse enteros.
+ * <p>
+ * Cada registro se compone de una cabecera de {@value #RECORD_HEADER_SIZE}
+ * bytes (longitud, marca de tiempo y clave) seguida de los bytes del registro.
+ * La longitud se escribe en último lugar, por lo que un registro a medio
+ * escribir nunca se considera válido. Una longitud cero indica el final de los
+ * datos escritos y una longitud {@value #END_OF_SEGMENT} el final de un
+ * segmento.
+ * </p>
+ * <p>
+ * Opcionalmente se mantiene un índice disperso por segmento,
+ * <code>&lt;nombre&gt;-NNNNNNNNNN.idx</code>, con la marca de tiempo, la clave
+ * y el desplazamiento de uno de cada N registros (siempre el primero de cada
+ * segmento). Si las marcas de tiempo y las claves no decrecen, el índice
+ * permite localizar un registro mediante búsqueda binaria, ver
+ * {@link MappedLogReader}.
+ * </p>
+ * <p>
+ * Escribir en el log es copiar en memoria: los datos sobreviven a la caída del
+ * proceso porque residen en la caché de páginas del sistema operativo. Para
+ * sobrevivir también a una caída del sistema se fuerza la escritura a disco
+ * cada cierto tiempo, agrupando en una sola llamada todos los registros
+ * escritos desde la anterior. Esta escritura periódica se realiza sin
+ * bloquear a quien añade registros.
+ * </p>
+ * <p>
+ * 19/10/2026 10:16:37
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class MappedLog implements Closeable {
+
+	/** Tamaño de la cabecera de cada registro: longitud (int), marca de tiempo (long) y clave (long). */
+	public static final int RECORD_HEADER_SIZE = 20;
+
+	/* Tamaño de la cabecera del índice: número de entradas (int). */
+	static final int INDEX_HEADER_SIZE = 4;
+
+	/* Tamaño de cada entrada del índice: marca de tiempo (long), clave (long) y desplazamiento (int). */
+	static final int INDEX_ENTRY_SIZE = 20;
+
+	/* Marca de fin de segmento, el siguiente registro está en el segmento siguiente. */
+	private static final int END_OF_SEGMENT = -1;
+
+	/* Formato del nombre de cada segmento. */
+	private static final String SEGMENT_FORMAT = "%s-%010d.log";
+
+	/* Formato del nombre del índice de cada segmento. */
+	private static final String INDEX_FORMAT = "%s-%010d.idx";
+
+	/* Expresión para reconocer los segmentos de un log. */
+	private static final String SEGMENT_REGEX = "%s-(\\d{10})\\.log";
+
+	/* Nombre del temporizador de escritura a disco. */
+	private static final String FLUSHER_NAME = "Journal-Flush [%s]";
+
+	/* Directorio del log. */
+	private final File directory;
+
+	/* Nombre del log, prefijo de sus segmentos. */
+	private final String name;
+
+	/* Tamaño de cada segmento en bytes. */
+	private final int segmentSize;
+
+	/* Segmentos existentes, ordenados por índice. */
+	private final TreeMap<Integer, File> segments;
+
+	/* Forzar escritura a disco en cada registro. */
+	private final boolean forceEachRecord;
+
+	/* Se indexa uno de cada N registros, 0 si no hay índice. */
+	private final int indexInterval;
+
+	/* Temporizador para forzar escritura a disco periódicamente, puede ser null. */
+	private final Timer flusher;
+
+	/* Índice del segmento actual. */
+	private int currentSegment;
+
+	/* Segmento actual mapeado en memoria. */
+	private MappedByteBuffer buffer;
+
+	/* Índice del segmento actual mapeado en memoria, null si no hay índice. */
+	private MappedByteBuffer index;
+
+	/* Número de registros del segmento actual. */
+	private int segmentRecords;
+
+	/* Marca de tiempo del último registro escrito. */
+	private long lastTimestamp;
+
+	/* Clave del último registro escrito. */
+	private long lastKey;
+
+	/* Indica si hay datos escritos aún no forzados a disco. */
+	private boolean dirty;
+
+	/* Indica si el log está cerrado. */
+	private boolean closed;
+
+	/* Escrituras a disco periódicas en curso, fuera del monitor. */
+	private int forcing;
+
+	/* Buffers ya sin uso que se liberarán al terminar las escrituras a disco en curso. */
+	private final List<MappedByteBuffer> retired;
+
+	/**
+	 * Constructor de clase. Abre el log existente en el directorio, o lo crea
+	 * si no existe, y sitúa la escritura tras el último registro válido. El log
+	 * no tendrá índice.
+	 *
+	 * @param directory
+	 *            Directorio del log, se crea si no existe.
+	 * @param name
+	 *            Nombre del log, prefijo de los ficheros de segmento.
+	 * @param segmentSize
+	 *            Tamaño de cada segmento en bytes.
+	 * @param forceMillis
+	 *            Milisegundos entre escrituras forzadas a disco. Con
+	 *            <code>0</code> se fuerza tras cada registro, con un valor
+	 *            negativo nunca se fuerza y se delega en el sistema operativo.
+	 * @throws IOException
+	 *             en caso de error abriendo el log.
+	 */
+	public MappedLog(final File directory, final String name, final int segmentSize, final long forceMillis)
+			throws IOException {
+		this(directory, name, segmentSize, forceMillis, 0);
+	}
+
+	/**
+	 * Constructor de clase. Abre el log existente en el directorio, o lo crea
+	 * si no existe, y sitúa la escritura tras el último registro válido.
+	 *
+	 * @param directory
+	 *            Directorio del log, se crea si no existe.
+	 * @param name
+	 *            Nombre del log, prefijo de los ficheros de segmento.
+	 * @param segmentSize
+	 *            Tamaño de cada segmento en bytes.
+	 * @param forceMillis
+	 *            Milisegundos entre escrituras forzadas a disco. Con
+	 *            <code>0</code> se fuerza tras cada registro, con un valor
+	 *            negativo nunca se fuerza y se delega en el sistema operativo.
+	 * @param indexInterval
+	 *            Se indexa uno de cada <code>indexInterval</code> registros.
+	 *            Con <code>0</code> el log no tiene índice.
+	 * @throws IOException
+	 *             en caso de error abriendo el log.
+	 */
+	public MappedLog(final File directory, final String name, final int segmentSize, final long forceMillis,
+			final int indexInterval) throws IOException {
+		if (segmentSize <= RECORD_HEADER_SIZE) {
+			throw new IOException(PrintUtils.format("Tamaño de segmento '%s' no válido", segmentSize));
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException(PrintUtils.format("No se puede crear el directorio '%s'", directory));
+		}
+		this.directory = directory;
+		this.name = name;
+		this.segmentSize = segmentSize;
+		this.segments = findSegments(directory, name);
+		this.forceEachRecord = forceMillis == 0;
+		this.indexInterval = Math.max(indexInterval, 0);
+		this.retired = new ArrayList<>();
+
+		final int last = segments.isEmpty() ? 0 : segments.lastKey();
+		openSegment(last);
+		recover();
+
+		if (forceMillis > 0) {
+			this.flusher = new Timer(PrintUtils.format(FLUSHER_NAME, name), Boolean.TRUE);
+			this.flusher.schedule(new TimerTask() {
+				@Override
+				public void run() {
+					force();
+				}
+			}, forceMillis, forceMillis);
+		} else {
+			this.flusher = null;
+		}
+		Log.debug(this, PrintUtils.format("Log '%s' abierto en '%s', %s segmento(s), posición de escritura [%s-%s]",
+			name, directory, segments.size(), currentSegment, buffer.position()));
+	}
+
+	/**
+	 * Añade un registro al final del log.
+	 *
+	 * @param timestamp
+	 *            Marca de tiempo del registro.
+	 * @param key
+	 *            Clave del registro.
+	 * @param payload
+	 *            Bytes del registro.
+	 * @return Posición en la que se ha escrito el registro.
+	 * @throws IOException
+	 *             en caso de error o si el registro no cabe en un segmento.
+	 */
+	public synchronized long append(final long timestamp, final long key, final byte[] payload) throws IOException {
+		checkOpen();
+		final int recordSize = RECORD_HEADER_SIZE + payload.length;
+		if (recordSize > segmentSize) {
+			throw new IOException(
+				PrintUtils.format("Registro de %s bytes no cabe en segmento de %s bytes", recordSize, segmentSize));
+		}
+		if (buffer.remaining() < recordSize) {
+			rollSegment();
+		}
+
+		final int offset = buffer.position();
+		buffer.putLong(offset + 4, timestamp);
+		buffer.putLong(offset + 12, key);
+		buffer.position(offset + RECORD_HEADER_SIZE);
+		buffer.put(payload);
+		buffer.putInt(offset, payload.length); /* La longitud en último lugar valida el registro. */
+		dirty = true;
+
+		if (index != null && segmentRecords % indexInterval == 0) {
+			addIndexEntry(timestamp, key, offset);
+		}
+		segmentRecords++;
+		lastTimestamp = timestamp;
+		lastKey = key;
+
+		if (forceEachRecord) {
+			forceNow();
+		}
+		return position(currentSegment, offset);
+	}
+
+	/* Añade una entrada al índice del segmento actual, si hay hueco. El contador se escribe en último lugar. */
+	private void addIndexEntry(final long timestamp, final long key, final int offset) {
+		final int count = index.getInt(0);
+		final int entry = INDEX_HEADER_SIZE + count * INDEX_ENTRY_SIZE;
+		if (entry + INDEX_ENTRY_SIZE <= index.limit()) {
+			index.putLong(entry, timestamp);
+			index.putLong(entry + 8, key);
+			index.putInt(entry + 16, offset);
+			index.putInt(0, count + 1);
+		}
+	}
+
+	/**
+	 * Recorre los registros del log desde una posición, en orden de escritura.
+	 *
+	 * @param from
+	 *            Posición del primer registro a visitar. Si es anterior al
+	 *            primer segmento existente se empieza por éste.
+	 * @param visitor
+	 *            Visitante que recibe cada registro.
+	 * @throws IOException
+	 *             en caso de error leyendo los segmentos.
+	 */
+	public synchronized void read(final long from, final IRecordVisitor visitor) throws IOException {
+		checkOpen();
+		final Integer first = segments.ceilingKey(segmentOf(from));
+		if (first == null) {
+			return;
+		}
+
+		for (final Map.Entry<Integer, File> entry : segments.tailMap(first).entrySet()) {
+			final int segment = entry.getKey();
+			final int offset = segment == segmentOf(from) ? offsetOf(from) : 0;
+			final boolean current = segment == currentSegment;
+			final MappedByteBuffer segmentBuffer = current ? buffer : mapReadOnly(entry.getValue());
+			try {
+				if (!readSegment(segment, current ? buffer.duplicate() : segmentBuffer, offset, visitor)) {
+					return;
+				}
+			} finally {
+				if (!current) {
+					unmap(segmentBuffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Borra los segmentos completos anteriores al segmento de una posición. El
+	 * segmento actual nunca se borra.
+	 *
+	 * @param position
+	 *            Posición a partir de la cual deben conservarse los registros.
+	 */
+	public synchronized void deleteBefore(final long position) {
+		final int segment = Math.min(segmentOf(position), currentSegment);
+		while (!segments.isEmpty() && segments.firstKey() < segment) {
+			final Map.Entry<Integer, File> first = segments.pollFirstEntry();
+			final File indexFile = indexFile(directory, name, first.getKey());
+			if (!first.getValue().delete() || (indexFile.exists() && !indexFile.delete())) {
+				Log.error(this, PrintUtils.format("No se ha podido borrar el segmento '%s'", first.getValue()));
+			} else {
+				Log.debug(this, PrintUtils.format("Borrado segmento '%s'", first.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Obtiene la posición en la que se escribirá el siguiente registro.
+	 *
+	 * @return Posición de escritura.
+	 */
+	public synchronized long getWritePosition() {
+		return position(currentSegment, buffer.position());
+	}
+
+	/**
+	 * Obtiene la posición del primer registro conservado en el log.
+	 *
+	 * @return Posición del primer segmento existente.
+	 */
+	public synchronized long getFirstPosition() {
+		return position(segments.isEmpty() ? currentSegment : segments.firstKey(), 0);
+	}
+
+	/**
+	 * Obtiene la marca de tiempo del último registro escrito.
+	 *
+	 * @return Marca de tiempo, <code>0</code> si el segmento actual está vacío.
+	 */
+	public synchronized long getLastTimestamp() {
+		return lastTimestamp;
+	}
+
+	/**
+	 * Obtiene la clave del último registro escrito.
+	 *
+	 * @return Clave, <code>0</code> si el segmento actual está vacío.
+	 */
+	public synchronized long getLastKey() {
+		return lastKey;
+	}
+
+	/**
+	 * Fuerza la escritura a disco de los registros pendientes, si los hay. La
+	 * escritura se realiza fuera del monitor del log, de forma que no bloquea
+	 * a quien añade registros mientras dura.
+	 */
+	public void force() {
+		final MappedByteBuffer segment;
+		final MappedByteBuffer segmentIndex;
+		synchronized (this) {
+			if (!dirty || closed) {
+				return;
+			}
+			segment = buffer;
+			segmentIndex = index;
+			dirty = false;
+			forcing++;
+		}
+		try {
+			segment.force();
+			if (segmentIndex != null) {
+				segmentIndex.force();
+			}
+		} finally {
+			synchronized (this) {
+				if (--forcing == 0) {
+					for (final MappedByteBuffer mapped : retired) {
+						unmap(mapped);
+					}
+					retired.clear();
+				}
+			}
+		}
+	}
+
+	/** Cierra el log, forzando antes la escritura de los registros pendientes. */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		if (flusher != null) {
+			flusher.cancel();
+		}
+		forceNow();
+		closed = true;
+		release(buffer);
+		release(index);
+		buffer = null;
+		index = null;
+	}
+
+	/* Pasa al siguiente segmento, marcando el final del actual. */
+	private void rollSegment() throws IOException {
+		if (buffer.remaining() >= 4) {
+			buffer.putInt(buffer.position(), END_OF_SEGMENT);
+		}
+		dirty = true;
+		forceNow();
+		release(buffer);
+		release(index);
+		openSegment(currentSegment + 1);
+	}
+
+	/* Fuerza la escritura a disco de los registros pendientes sin salir del monitor. */
+	private void forceNow() {
+		if (dirty && !closed) {
+			buffer.force();
+			if (index != null) {
+				index.force();
+			}
+			dirty = false;
+		}
+	}
+
+	/* Libera un buffer que deja de usarse, o lo aparta hasta que terminen las escrituras a disco en curso. */
+	private void release(final MappedByteBuffer mapped) {
+		if (mapped == null) {
+			return;
+		} else if (forcing > 0) {
+			retired.add(mapped);
+		} else {
+			unmap(mapped);
+		}
+	}
+
+	/* Abre (o crea) un segmento para escritura, junto con su índice, y lo convierte en el actual. */
+	private void openSegment(final int segment) throws IOException {
+		final File file = new File(directory, PrintUtils.format(SEGMENT_FORMAT, name, segment));
+		this.buffer = mapReadWrite(file, segmentSize);
+		this.index = indexInterval > 0 ? mapReadWrite(indexFile(directory, name, segment), indexSize()) : null;
+		this.currentSegment = segment;
+		this.segmentRecords = 0;
+		this.segments.put(segment, file);
+	}
+
+	/* Tamaño del índice de un segmento: una entrada por cada indexInterval registros de tamaño mínimo. */
+	private int indexSize() {
+		return INDEX_HEADER_SIZE + (segmentSize / (RECORD_HEADER_SIZE * indexInterval) + 1) * INDEX_ENTRY_SIZE;
+	}
+
+	/* Sitúa la escritura tras el último registro válido del segmento actual y recupera su estado. */
+	private void recover() {
+		int offset = 0;
+		while (offset + RECORD_HEADER_SIZE <= buffer.limit()) {
+			final int length = buffer.getInt(offset);
+			if (length <= 0 || offset + RECORD_HEADER_SIZE + length > buffer.limit()) {
+				break;
+			}
+			lastTimestamp = buffer.getLong(offset + 4);
+			lastKey = buffer.getLong(offset + 12);
+			segmentRecords++;
+			offset += RECORD_HEADER_SIZE + length;
+		}
+		buffer.position(offset);
+	}
+
+	/* Comprueba que el log no esté cerrado. */
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException(PrintUtils.format("Log '%s' cerrado", name));
+		}
+	}
+
+	/* Recorre los registros de un segmento. Devuelve false si el visitante ha pedido detener el recorrido. */
+	static boolean readSegment(final int segment, final ByteBuffer segmentBuffer, final int from,
+			final IRecordVisitor visitor) {
+		int offset = from;
+		while (offset + RECORD_HEADER_SIZE <= segmentBuffer.limit()) {
+			final int length = segmentBuffer.getInt(offset);
+			if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segmentBuffer.limit()) {
+				break; /* fin de datos o fin de segmento */
+			}
+			final byte[] payload = new byte[length];
+			final ByteBuffer view = segmentBuffer.duplicate();
+			view.position(offset + RECORD_HEADER_SIZE);
+			view.get(payload);
+
+			final JournalRecord record = new JournalRecord(position(segment, offset),
+				segmentBuffer.getLong(offset + 4), segmentBuffer.getLong(offset + 12), payload);
+			if (!visitor.visit(record)) {
+				return false;
+			}
+			offset += RECORD_HEADER_SIZE + length;
+		}
+		return true;
+	}
+
+	/* Busca los segmentos existentes de un log en un directorio. */
+	static TreeMap<Integer, File> findSegments(final File directory, final String name) {
+		final TreeMap<Integer, File> found = new TreeMap<>();
+		final Pattern pattern = Pattern.compile(PrintUtils.format(SEGMENT_REGEX, Pattern.quote(name)));
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				final Matcher matcher = pattern.matcher(file.getName());
+				if (matcher.matches()) {
+					found.put(Integer.valueOf(matcher.group(1)), file);
+				}
+			}
+		}
+		return found;
+	}
+
+	/* Obtiene el fichero de índice de un segmento. */
+	static File indexFile(final File directory, final String name, final int segment) {
+		return new File(directory, PrintUtils.format(INDEX_FORMAT, name, segment));
+	}
+
+	/* Mapea un fichero en modo lectura y escritura, creándolo si no existe. */
+	private static MappedByteBuffer mapReadWrite(final File file, final int size) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return channel.map(MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	/* Mapea un fichero en modo sólo lectura. */
+	static MappedByteBuffer mapReadOnly(final File file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	/**
+	 * Libera un fichero mapeado sin esperar al recolector de basura. Si la
+	 * máquina virtual no lo permite el mapeo se liberará al recolectarse.
+	 *
+	 * @param mapped
+	 *            Buffer mapeado a liberar.
+	 */
+	static void unmap(final MappedByteBuffer mapped) {
+		if (mapped == null) {
+			return;
+		}
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			final Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			invokeCleaner.invoke(field.get(null), mapped); /* Java 9 y posteriores */
+		} catch (final NoSuchMethodException e) {
+			try {
+				final Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				final Object cleaner = cleanerMethod.invoke(mapped); /* Java 8 */
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			} catch (final Exception ex) {
+				Log.debug(MappedLog.class, PrintUtils.format("No se puede liberar buffer mapeado: %s", ex.getMessage()));
+			}
+		} catch (final Exception e) {
+			Log.debug(MappedLog.class, PrintUtils.format("No se puede liberar buffer mapeado: %s", e.getMessage()));
+		}
+	}
+
+	/**
+	 * Compone una posición a partir de un segmento y un desplazamiento.
+	 *
+	 * @param segment
+	 *            Índice de segmento.
+	 * @param offset
+	 *            Desplazamiento dentro del segmento.
+	 * @return Posición en el log.
+	 */
+	public static long position(final int segment, final int offset) {
+		return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Obtiene el índice de segmento de una posición.
+	 *
+	 * @param position
+	 *            Posición en el log.
+	 * @return Índice de segmento.
+	 */
+	public static int segmentOf(final long position) {
+		return (int) (position >>> 32);
+	}
+
+	/**
+	 * Obtiene el desplazamiento dentro del segmento de una posición.
+	 *
+	 * @param position
+	 *            Posición en el log.
+	 * @return Desplazamiento dentro del segmento.
+	 */
+	public static int offsetOf(final long position) {
+		return (int) position;
+	}
+}
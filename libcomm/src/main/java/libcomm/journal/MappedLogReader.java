@@ -0,0 +1,209 @@
+package libcomm.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Lector de un {@link MappedLog} cuyas marcas de tiempo y claves no decrecen.
+ * Permite recorrer un rango de tiempo o de claves localizando el primer
+ * registro en tiempo logarítmico: búsqueda binaria entre segmentos por su
+ * primer registro y, dentro del segmento, búsqueda binaria en su índice
+ * disperso. Desde la entrada de índice encontrada sólo se recorren, como
+ * máximo, tantos registros como el intervalo del índice.
+ * <p>
+ * El lector no mantiene ficheros abiertos entre lecturas y puede usarse
+ * mientras otro hilo, u otro proceso, sigue escribiendo en el log.
+ * </p>
+ * <p>
+ * 19/10/2026 13:05:52
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class MappedLogReader {
+
+	/* Campos por los que se puede buscar: desplazamiento en la cabecera de registro y en la entrada de índice. */
+	private enum Field {
+		TIMESTAMP (4, 0),
+		KEY (12, 8);
+
+		private final int recordOffset;
+		private final int indexOffset;
+
+		private Field(final int recordOffset, final int indexOffset) {
+			this.recordOffset = recordOffset;
+			this.indexOffset = indexOffset;
+		}
+	}
+
+	/* Directorio del log. */
+	private final File directory;
+
+	/* Nombre del log. */
+	private final String name;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param directory
+	 *            Directorio del log.
+	 * @param name
+	 *            Nombre del log.
+	 */
+	public MappedLogReader(final File directory, final String name) {
+		this.directory = directory;
+		this.name = name;
+	}
+
+	/**
+	 * Recorre, en orden, los registros con marca de tiempo dentro de un rango.
+	 *
+	 * @param fromMillis
+	 *            Marca de tiempo inicial, incluida.
+	 * @param toMillis
+	 *            Marca de tiempo final, incluida.
+	 * @param visitor
+	 *            Visitante que recibe cada registro.
+	 * @throws IOException
+	 *             en caso de error leyendo el log.
+	 */
+	public void readByTime(final long fromMillis, final long toMillis, final IRecordVisitor visitor) throws IOException {
+		read(Field.TIMESTAMP, fromMillis, toMillis, visitor);
+	}
+
+	/**
+	 * Recorre, en orden, los registros con clave dentro de un rango.
+	 *
+	 * @param fromKey
+	 *            Clave inicial, incluida.
+	 * @param toKey
+	 *            Clave final, incluida.
+	 * @param visitor
+	 *            Visitante que recibe cada registro.
+	 * @throws IOException
+	 *             en caso de error leyendo el log.
+	 */
+	public void readByKey(final long fromKey, final long toKey, final IRecordVisitor visitor) throws IOException {
+		read(Field.KEY, fromKey, toKey, visitor);
+	}
+
+	/**
+	 * Obtiene el primer registro con una clave.
+	 *
+	 * @param key
+	 *            Clave a buscar.
+	 * @return Registro encontrado, <code>null</code> si no existe.
+	 * @throws IOException
+	 *             en caso de error leyendo el log.
+	 */
+	public JournalRecord findByKey(final long key) throws IOException {
+		final List<JournalRecord> found = new ArrayList<>(1);
+		read(Field.KEY, key, key, record -> !found.add(record));
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	/* Recorre los registros con valor del campo entre from y to, ambos incluidos. */
+	private void read(final Field field, final long from, final long to, final IRecordVisitor visitor)
+			throws IOException {
+		final TreeMap<Integer, File> segments = MappedLog.findSegments(directory, name);
+		final List<Integer> ids = new ArrayList<>(segments.keySet());
+		if (ids.isEmpty() || from > to) {
+			return;
+		}
+
+		/* Último segmento cuyo primer registro es menor que el valor buscado, los iguales pueden estar en el anterior. */
+		int low = 0;
+		int high = ids.size() - 1;
+		int start = 0;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final Long first = readFirstValue(field, segments.get(ids.get(middle)));
+			if (first != null && first < from) {
+				start = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		final boolean[] finished = {false};
+		final IRecordVisitor rangeVisitor = record -> {
+			final long value = field == Field.TIMESTAMP ? record.getTimestamp() : record.getKey();
+			if (value < from) {
+				return true;
+			}
+			if (value > to) {
+				finished[0] = true;
+				return false;
+			}
+			finished[0] = !visitor.visit(record);
+			return !finished[0];
+		};
+
+		for (int i = start; i < ids.size() && !finished[0]; i++) {
+			final int segment = ids.get(i);
+			final int offset = i == start ? findIndexedOffset(field, segment, from) : 0;
+			final MappedByteBuffer segmentBuffer = MappedLog.mapReadOnly(segments.get(segment));
+			try {
+				MappedLog.readSegment(segment, segmentBuffer, offset, rangeVisitor);
+			} finally {
+				MappedLog.unmap(segmentBuffer);
+			}
+		}
+	}
+
+	/* Obtiene el valor del campo del primer registro de un segmento, null si está vacío. */
+	private static Long readFirstValue(final Field field, final File file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < MappedLog.RECORD_HEADER_SIZE) {
+				return null;
+			}
+			final ByteBuffer header = ByteBuffer.allocate(MappedLog.RECORD_HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+				/* lectura completa de la cabecera */
+			}
+			return header.getInt(0) > 0 ? header.getLong(field.recordOffset) : null;
+		}
+	}
+
+	/* Busca en el índice del segmento el desplazamiento de la última entrada con valor menor que el buscado. */
+	private int findIndexedOffset(final Field field, final int segment, final long value) throws IOException {
+		final File indexFile = MappedLog.indexFile(directory, name, segment);
+		if (!indexFile.isFile()) {
+			return 0;
+		}
+
+		final MappedByteBuffer index;
+		try (final FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			index = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			final int capacity = (index.limit() - MappedLog.INDEX_HEADER_SIZE) / MappedLog.INDEX_ENTRY_SIZE;
+			int low = 0;
+			int high = Math.min(index.getInt(0), capacity) - 1;
+			int offset = 0;
+			while (low <= high) {
+				final int middle = (low + high) >>> 1;
+				final int entry = MappedLog.INDEX_HEADER_SIZE + middle * MappedLog.INDEX_ENTRY_SIZE;
+				if (index.getLong(entry + field.indexOffset) < value) {
+					offset = index.getInt(entry + 16);
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return offset;
+		} finally {
+			MappedLog.unmap(index);
+		}
+	}
+}
@@ -0,0 +1,343 @@
+package libcomm.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import libcomm.message.SequenceNumber;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Diario de mensajes salientes. Cada mensaje enviado se añade a un
+ * {@link MappedLog} antes de entregarse a las capas inferiores, y se confirma
+ * al recibir su AK. Un cursor persistente, también mapeado en memoria, apunta
+ * al mensaje más antiguo pendiente de confirmación, de forma que tras un
+ * reinicio se pueden recuperar los mensajes enviados que nunca recibieron AK y
+ * volver a enviarlos (entrega <i>al menos una vez</i>).
+ * <p>
+ * Los mensajes se identifican por su posición en el log, no por su número de
+ * secuencia, que vuelve a empezar al superar <code>FFFF</code>. Los AK que
+ * llegan fuera de orden se registran en un segundo log de confirmaciones, de
+ * forma que tras un reinicio sólo se reenvían los mensajes que realmente no
+ * recibieron AK. Si falla el AK de un mensaje o cae la conexión, los mensajes
+ * pendientes pasan a estar pendientes de reenviar, igual que tras un
+ * reinicio.
+ * </p>
+ * <p>
+ * Los segmentos del log anteriores al cursor, y las confirmaciones que ya no
+ * son necesarias, se borran automáticamente.
+ * </p>
+ * <p>
+ * 19/10/2026 11:02:18
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class OutboundJournal implements Closeable {
+
+	/* Nombre del log de mensajes salientes. */
+	private static final String LOG_NAME = "outbound";
+
+	/* Nombre del log de confirmaciones fuera de orden. */
+	private static final String ACK_LOG_NAME = "outbound-ack";
+
+	/* Nombre del fichero con el cursor de confirmación. */
+	private static final String CURSOR_FILE = "outbound.cursor";
+
+	/* Tamaño del fichero de cursor: una posición (long). */
+	private static final int CURSOR_SIZE = 8;
+
+	/* Log con los mensajes enviados. */
+	private final MappedLog log;
+
+	/* Log con las confirmaciones fuera de orden: la clave es la posición del mensaje confirmado. */
+	private final MappedLog acks;
+
+	/* Fichero de cursor mapeado en memoria. */
+	private final MappedByteBuffer cursor;
+
+	/* Mensajes pendientes de AK: posición en el log y número de secuencia, en orden de envío. */
+	private final TreeMap<Long, Integer> pending;
+
+	/* Posición en el log de cada mensaje pendiente de AK, por número de secuencia. */
+	private final Map<Integer, Long> positions;
+
+	/* Mensajes confirmados fuera de orden tras el cursor: posición en el log y posición de su confirmación. */
+	private final TreeMap<Long, Long> acknowledged;
+
+	/* Mensajes sin confirmar pendientes de reenviar, de una ejecución o conexión anterior, por posición. */
+	private final TreeMap<Long, JournalRecord> unacknowledged;
+
+	/* Posición del último mensaje obtenido para reenviar, -1 si no se ha obtenido ninguno. */
+	private long replaying;
+
+	/* Indica si el diario se ha cerrado: el cursor ya no está mapeado y no debe tocarse. */
+	private boolean closed;
+
+	/**
+	 * Constructor de clase. Abre el diario del directorio indicado y carga los
+	 * mensajes que quedaron sin confirmar en la ejecución anterior.
+	 *
+	 * @param directory
+	 *            Directorio del diario.
+	 * @param segmentSize
+	 *            Tamaño de cada segmento del log en bytes.
+	 * @param forceMillis
+	 *            Milisegundos entre escrituras forzadas a disco.
+	 * @throws IOException
+	 *             en caso de error abriendo el diario.
+	 */
+	public OutboundJournal(final File directory, final int segmentSize, final long forceMillis) throws IOException {
+		this.log = new MappedLog(directory, LOG_NAME, segmentSize, forceMillis);
+		this.acks = new MappedLog(directory, ACK_LOG_NAME, segmentSize, forceMillis);
+		this.cursor = mapCursor(new File(directory, CURSOR_FILE), log.getFirstPosition());
+		this.pending = new TreeMap<>();
+		this.positions = new HashMap<>();
+		this.acknowledged = new TreeMap<>();
+		this.unacknowledged = new TreeMap<>();
+		this.replaying = -1L;
+
+		final long from = cursor.getLong(0);
+		acks.read(acks.getFirstPosition(), record -> {
+			if (record.getKey() >= from) {
+				acknowledged.put(record.getKey(), record.getPosition());
+			}
+			return true;
+		});
+		log.read(from, record -> {
+			if (!acknowledged.containsKey(record.getPosition())) {
+				unacknowledged.put(record.getPosition(), record);
+			}
+			return true;
+		});
+		Log.info(this, PrintUtils.format("Diario de salida '%s' abierto, %s mensaje(s) sin confirmar",
+			directory, unacknowledged.size()));
+	}
+
+	/**
+	 * Registra un mensaje enviado, pendiente de AK. Si aún hay pendiente otro
+	 * mensaje con el mismo número de secuencia, su AK ya no podrá
+	 * distinguirse, por lo que el anterior pasa a estar pendiente de reenviar.
+	 *
+	 * @param sequenceNumber
+	 *            Número de secuencia del mensaje.
+	 * @param bytes
+	 *            Bytes del mensaje.
+	 * @return Posición del mensaje en el log.
+	 * @throws IOException
+	 *             en caso de error escribiendo en el log.
+	 */
+	public synchronized long append(final SequenceNumber sequenceNumber, final byte[] bytes) throws IOException {
+		if (closed) {
+			throw new IOException("Diario de salida cerrado");
+		}
+		final long position = log.append(System.currentTimeMillis(), sequenceNumber.getNumber(), bytes);
+		final Long previous = positions.put(sequenceNumber.getNumber(), position);
+		if (previous != null && pending.remove(previous) != null) {
+			Log.error(this, PrintUtils.format("Número de secuencia '%s' reutilizado sin AK, se reenviará el mensaje anterior",
+				sequenceNumber));
+			requeue(Collections.singleton(previous));
+		}
+		pending.put(position, sequenceNumber.getNumber());
+		if (pending.size() == 1 && unacknowledged.isEmpty()) {
+			moveCursor();
+		}
+		return position;
+	}
+
+	/**
+	 * Confirma un mensaje por recepción de su AK, avanzando el cursor si es el
+	 * más antiguo pendiente. Si no lo es, la confirmación se registra para no
+	 * reenviarlo tras un reinicio.
+	 *
+	 * @param sequenceNumber
+	 *            Número de secuencia confirmado.
+	 */
+	public synchronized void commit(final SequenceNumber sequenceNumber) {
+		if (closed) {
+			return;
+		}
+		final Long position = positions.remove(sequenceNumber.getNumber());
+		if (position == null || !pending.containsKey(position)) {
+			return;
+		}
+		final boolean oldest = position.longValue() == pending.firstKey().longValue();
+		pending.remove(position);
+		if (oldest && unacknowledged.isEmpty()) {
+			moveCursor();
+			return;
+		}
+		try {
+			final long ack = acks.append(System.currentTimeMillis(), position, 
+				ByteBuffer.allocate(4).putInt(sequenceNumber.getNumber()).array());
+			acknowledged.put(position, ack);
+		} catch (final IOException e) {
+			Log.error(this, PrintUtils.format("Error registrando AK de '%s', se reenviará tras un reinicio", 
+				sequenceNumber), e);
+		}
+	}
+
+	/**
+	 * Pasa un mensaje pendiente de AK a pendiente de reenviar, por fallo de
+	 * su AK.
+	 *
+	 * @param sequenceNumber
+	 *            Número de secuencia del mensaje.
+	 */
+	public synchronized void requeue(final SequenceNumber sequenceNumber) {
+		if (closed) {
+			return;
+		}
+		final Long position = positions.remove(sequenceNumber.getNumber());
+		if (position != null && pending.remove(position) != null) {
+			requeue(Collections.singleton(position));
+		}
+	}
+
+	/**
+	 * Pasa todos los mensajes pendientes de AK a pendientes de reenviar. Se
+	 * llama al caer la conexión: sus AK ya no llegarán.
+	 */
+	public synchronized void requeue() {
+		if (closed) {
+			return;
+		}
+		final List<Long> requeued = new ArrayList<>(pending.keySet());
+		pending.clear();
+		positions.clear();
+		requeue(requeued);
+	}
+
+	/**
+	 * Obtiene los bytes de los mensajes pendientes de reenviar, que quedaron
+	 * sin confirmar en la ejecución anterior o antes de caer la conexión, en
+	 * orden de envío.
+	 *
+	 * @return Mensajes sin confirmar. Lista vacía si no hay ninguno.
+	 */
+	public synchronized List<byte[]> getUnacknowledged() {
+		if (closed) {
+			return Collections.emptyList();
+		}
+		final List<byte[]> messages = new ArrayList<>(unacknowledged.size());
+		for (final JournalRecord record : unacknowledged.values()) {
+			messages.add(record.getPayload());
+		}
+		replaying = unacknowledged.isEmpty() ? replaying : unacknowledged.lastKey();
+		return Collections.unmodifiableList(messages);
+	}
+
+	/**
+	 * Indica que los mensajes obtenidos con {@link #getUnacknowledged()} ya se
+	 * han vuelto a enviar (y por tanto añadido de nuevo al diario), por lo que
+	 * el cursor puede avanzar más allá de ellos.
+	 */
+	public synchronized void replayed() {
+		if (!closed && !unacknowledged.isEmpty()) {
+			unacknowledged.headMap(replaying, true).clear();
+			moveCursor();
+		}
+	}
+
+	/**
+	 * Obtiene el número de mensajes pendientes de AK.
+	 *
+	 * @return Número de mensajes pendientes de AK.
+	 */
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Cierra el diario, liberando sus segmentos y su hilo de escritura a
+	 * disco. Cerrar de nuevo no tiene efecto; tras cerrarlo no se registra
+	 * ni confirma nada más.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		log.close();
+		acks.close();
+		cursor.force();
+		MappedLog.unmap(cursor);
+	}
+
+	/* Lee del log los mensajes de las posiciones indicadas y los pasa a pendientes de reenviar. */
+	private void requeue(final Collection<Long> requeued) {
+		if (requeued.isEmpty()) {
+			return;
+		}
+		final Set<Long> wanted = new HashSet<>(requeued);
+		try {
+			log.read(Collections.min(requeued), record -> {
+				if (wanted.remove(record.getPosition())) {
+					unacknowledged.put(record.getPosition(), record);
+				}
+				return !wanted.isEmpty();
+			});
+		} catch (final IOException e) {
+			Log.error(this, PrintUtils.format("Error leyendo '%s' mensaje(s) sin AK del diario de salida", 
+				wanted.size()), e);
+		}
+		Log.info(this, PrintUtils.format("%s mensaje(s) sin AK pendientes de reenviar", requeued.size()));
+		moveCursor();
+	}
+
+	/*
+	 * Sitúa el cursor en el mensaje pendiente más antiguo, de reenviar o de AK, y borra los segmentos anteriores y 
+	 * las confirmaciones que ya no hacen falta.
+	 */
+	private void moveCursor() {
+		long position = log.getWritePosition();
+		if (!unacknowledged.isEmpty()) {
+			position = Math.min(position, unacknowledged.firstKey());
+		}
+		if (!pending.isEmpty()) {
+			position = Math.min(position, pending.firstKey());
+		}
+
+		if (MappedLog.segmentOf(position) != MappedLog.segmentOf(cursor.getLong(0))) {
+			log.deleteBefore(position);
+		}
+		cursor.putLong(0, position);
+
+		if (!acknowledged.isEmpty() && acknowledged.firstKey() < position) {
+			acknowledged.headMap(position).clear();
+			acks.deleteBefore(acknowledged.isEmpty() ? acks.getWritePosition() : Collections.min(acknowledged.values()));
+		}
+	}
+
+	/* Mapea el fichero de cursor, inicializándolo si es nuevo. */
+	private static MappedByteBuffer mapCursor(final File file, final long initial) throws IOException {
+		final boolean exists = file.isFile() && file.length() >= CURSOR_SIZE;
+		try (final FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, 0, CURSOR_SIZE);
+			if (!exists) {
+				mapped.putLong(0, initial);
+				mapped.force();
+			}
+			return mapped;
+		}
+	}
+}
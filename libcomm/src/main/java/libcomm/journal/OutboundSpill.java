@@ -0,0 +1,180 @@
+package libcomm.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Cola FIFO en disco para los mensajes salientes que no caben en memoria
+ * mientras la conexión está caída. Los mensajes se añaden al final de un
+ * {@link MappedLog} y se extraen en el mismo orden; un cursor persistente,
+ * también mapeado en memoria, apunta al siguiente mensaje a extraer, de forma
+ * que los mensajes pendientes sobreviven a un reinicio.
+ * <p>
+ * Los segmentos del log anteriores al cursor se borran automáticamente.
+ * </p>
+ * <p>
+ * 19/10/2026 23:48:12
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class OutboundSpill implements Closeable {
+
+	/* Nombre del log de mensajes desbordados. */
+	private static final String LOG_NAME = "spill";
+
+	/* Nombre del fichero con el cursor de lectura. */
+	private static final String CURSOR_FILE = "spill.cursor";
+
+	/* Tamaño del fichero de cursor: una posición (long). */
+	private static final int CURSOR_SIZE = 8;
+
+	/* Log con los mensajes desbordados. */
+	private final MappedLog log;
+
+	/* Fichero de cursor mapeado en memoria: posición del siguiente mensaje a extraer. */
+	private final MappedByteBuffer cursor;
+
+	/* Número de mensajes pendientes de extraer. */
+	private int count;
+
+	/* Indica si la cola se ha cerrado: el cursor ya no está mapeado y no debe tocarse. */
+	private boolean closed;
+
+	/**
+	 * Constructor de clase. Abre la cola del directorio indicado, con los
+	 * mensajes que quedaron sin extraer en la ejecución anterior.
+	 *
+	 * @param directory
+	 *            Directorio de la cola.
+	 * @param segmentSize
+	 *            Tamaño de cada segmento del log en bytes.
+	 * @param forceMillis
+	 *            Milisegundos entre escrituras forzadas a disco.
+	 * @throws IOException
+	 *             en caso de error abriendo la cola.
+	 */
+	public OutboundSpill(final File directory, final int segmentSize, final long forceMillis) throws IOException {
+		this.log = new MappedLog(directory, LOG_NAME, segmentSize, forceMillis);
+		this.cursor = mapCursor(new File(directory, CURSOR_FILE), log.getFirstPosition());
+
+		final int[] pending = {0};
+		log.read(cursor.getLong(0), record -> {
+			pending[0]++;
+			return true;
+		});
+		this.count = pending[0];
+		Log.info(this, PrintUtils.format("Cola de desbordamiento '%s' abierta, %s mensaje(s) pendiente(s)",
+			directory, count));
+	}
+
+	/**
+	 * Añade un mensaje al final de la cola.
+	 *
+	 * @param bytes
+	 *            Bytes del mensaje.
+	 * @throws IOException
+	 *             en caso de error escribiendo en el log.
+	 */
+	public synchronized void append(final byte[] bytes) throws IOException {
+		if (closed) {
+			throw new IOException("Cola de desbordamiento cerrada");
+		}
+		log.append(System.currentTimeMillis(), 0L, bytes);
+		count++;
+	}
+
+	/**
+	 * Extrae, en orden, los mensajes más antiguos de la cola.
+	 *
+	 * @param max
+	 *            Número máximo de mensajes a extraer.
+	 * @return Bytes de los mensajes extraídos. Lista vacía si no hay ninguno.
+	 * @throws IOException
+	 *             en caso de error leyendo el log.
+	 */
+	public synchronized List<byte[]> poll(final int max) throws IOException {
+		final List<byte[]> messages = new ArrayList<>(Math.min(max, count));
+		if (count == 0 || max <= 0) {
+			return messages;
+		}
+		if (closed) {
+			throw new IOException("Cola de desbordamiento cerrada");
+		}
+		final long[] next = {cursor.getLong(0)};
+		log.read(next[0], record -> {
+			messages.add(record.getPayload());
+			next[0] = record.getPosition() + MappedLog.RECORD_HEADER_SIZE + record.getPayload().length;
+			return messages.size() < max;
+		});
+		count -= messages.size();
+		moveCursor(next[0]);
+		return messages;
+	}
+
+	/**
+	 * Obtiene el número de mensajes pendientes de extraer.
+	 *
+	 * @return Número de mensajes en la cola.
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Indica si la cola está vacía.
+	 *
+	 * @return <code>true</code> si no hay mensajes pendientes.
+	 */
+	public synchronized boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Cierra la cola, liberando sus segmentos y su hilo de escritura a disco.
+	 * Cerrar de nuevo no tiene efecto.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		log.close();
+		cursor.force();
+		MappedLog.unmap(cursor);
+	}
+
+	/* Sitúa el cursor en una posición y borra los segmentos anteriores. */
+	private void moveCursor(final long position) {
+		if (MappedLog.segmentOf(position) != MappedLog.segmentOf(cursor.getLong(0))) {
+			log.deleteBefore(position);
+		}
+		cursor.putLong(0, position);
+	}
+
+	/* Mapea el fichero de cursor, inicializándolo si es nuevo. */
+	private static MappedByteBuffer mapCursor(final File file, final long initial) throws IOException {
+		final boolean exists = file.isFile() && file.length() >= CURSOR_SIZE;
+		try (final FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, 0, CURSOR_SIZE);
+			if (!exists) {
+				mapped.putLong(0, initial);
+				mapped.force();
+			}
+			return mapped;
+		}
+	}
+}
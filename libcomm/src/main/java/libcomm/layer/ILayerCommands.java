@@ -16,4 +16,8 @@ public interface ILayerCommands<M> extends ISender<M> {
 	
 	/** Corta la conexión. */
 	void disconnect();
+
+	/** Libera los recursos de la capa. Por defecto no tiene ninguno que liberar. */
+	default void close() {
+	}
 }
@@ -1,6 +1,7 @@
 package libcomm.layer;
 
 import libcomm.exception.CommunicationException;
+import libcomm.message.rfc1006.IBytes;
 
 /**
  * Observador de eventos en una capa de comunicación.
@@ -35,4 +36,45 @@ public interface ILayerObserver<M> extends IReceiver<M> {
 	 *            Causa del error.
 	 */
 	void error(String error, CommunicationException cause);
+
+	/**
+	 * Notificación de mensaje confirmado por su AK. Por defecto no hace nada.
+	 * 
+	 * @param message
+	 *            Mensaje confirmado, el mismo objeto que se envió.
+	 */
+	default void acknowledged(final M message) {
+	}
+
+	/**
+	 * Notificación de mensaje que no ha recibido su AK tras el máximo de
+	 * intentos. Por defecto no hace nada.
+	 * 
+	 * @param message
+	 *            Mensaje sin confirmar, el mismo objeto que se envió.
+	 * @param cause
+	 *            Causa del error.
+	 */
+	default void unacknowledged(final M message, final CommunicationException cause) {
+	}
+
+	/**
+	 * Notificación de mensaje enviado que se descarta de la cola de salida
+	 * llena, con política {@link libcomm.util.OverflowPolicy#DROP_OLDEST}. No
+	 * llegará a enviarse. Por defecto no hace nada.
+	 * 
+	 * @param message
+	 *            Mensaje descartado, el mismo objeto que se ofreció a la capa.
+	 */
+	default void dropped(final IBytes message) {
+	}
+
+	/**
+	 * Notificación de que pueden no quedar mensajes en curso en la capa: se
+	 * ha vaciado su cola de salida o se ha confirmado el último mensaje
+	 * pendiente de AK. Sólo sirve para despertar a quien espera, que debe
+	 * comprobar de nuevo el estado. Por defecto no hace nada.
+	 */
+	default void drained() {
+	}
 }
@@ -1,5 +1,7 @@
 package libcomm.layer;
 
+import java.util.List;
+
 /**
  * Proporciona métodos para enviar un mensaje.
  * <p>
@@ -17,4 +19,61 @@ public interface ISender<M> {
 	 *            Mensaje.
 	 */
 	void send (M message);
+	
+	/**
+	 * Envía un mensaje si la conexión puede aceptarlo según la política de su
+	 * cola de salida. Por defecto equivale a {@link #send(Object)}.
+	 * 
+	 * @param message
+	 *            Mensaje.
+	 * @return <code>true</code> si se acepta el mensaje, <code>false</code>
+	 *         si se rechaza por estar llena la cola de salida o por no poder
+	 *         codificarse; en ese caso el mensaje no se envía.
+	 */
+	default boolean offer (final M message) {
+		send(message);
+		return true;
+	}
+	
+	/**
+	 * Envía varios mensajes de una vez, en orden, si la conexión puede
+	 * aceptarlos según la política de su cola de salida. Por defecto los
+	 * ofrece uno a uno con {@link #offer(Object)} hasta el primero que se
+	 * rechace.
+	 * 
+	 * @param messages
+	 *            Mensajes.
+	 * @return Número de mensajes aceptados, siempre los primeros de la
+	 *         lista. Los siguientes no se envían.
+	 */
+	default int offer (final List<M> messages) {
+		int accepted = 0;
+		for (final M message : messages) {
+			if (!offer(message)) {
+				break;
+			}
+			accepted++;
+		}
+		return accepted;
+	}
+	
+	/**
+	 * Obtiene el número de mensajes en la cola de salida pendientes de
+	 * escribirse en la conexión.
+	 * 
+	 * @return Mensajes pendientes de envío, 0 si no hay cola de salida.
+	 */
+	default int getQueueDepth () {
+		return 0;
+	}
+	
+	/**
+	 * Obtiene el número de mensajes enviados pendientes de confirmación por
+	 * el otro extremo.
+	 * 
+	 * @return Mensajes sin confirmar, 0 si no se confirman los mensajes.
+	 */
+	default int getUnacknowledged () {
+		return 0;
+	}
 }
@@ -0,0 +1,45 @@
+package libcomm.layer;
+
+import libcomm.context.ConnectionContext;
+import libcomm.message.rfc1006.IBytes;
+
+/**
+ * Proveedor de un transporte bajo la capa RFC1006. Crea la capa que conecta,
+ * envía y recibe los bytes de los telegramas RFC1006, notificando a la capa
+ * superior.
+ * <p>
+ * Los transportes se eligen por nombre con la propiedad
+ * <code>transport</code> de la conexión. Además de los incluidos en Libcomm,
+ * se pueden añadir otros registrándolos como servicio de
+ * {@link java.util.ServiceLoader} (fichero
+ * <code>META-INF/services/libcomm.layer.ITransportProvider</code>) o con
+ * {@link TransportFactory#register(ITransportProvider)}.
+ * </p>
+ * <p>
+ * 19/10/2026 16:40:18
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public interface ITransportProvider {
+	/**
+	 * Obtiene el nombre del transporte, tal y como se indica en la
+	 * configuración de la conexión.
+	 * 
+	 * @return Nombre del transporte.
+	 */
+	String getName();
+
+	/**
+	 * Crea la capa de transporte de una conexión.
+	 * 
+	 * @param context
+	 *            Contexto de la conexión.
+	 * @param observer
+	 *            Observador a quien notificar los eventos de conexión y
+	 *            desconexión, y recepción de bytes.
+	 * @return Comandos de la capa de transporte.
+	 */
+	ILayerCommands<IBytes> create(ConnectionContext context, ILayerObserver<IBytes> observer);
+}
@@ -0,0 +1,63 @@
+package libcomm.layer;
+
+import java.util.List;
+
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.OverflowPolicy;
+
+import commons.util.PrintUtils;
+
+/**
+ * Telegrama saliente ya codificado con mensajes de la aplicación ofrecidos
+ * según la política de la cola de salida. Es el único telegrama que puede
+ * descartarse con la cola llena y política
+ * {@link OverflowPolicy#DROP_OLDEST}: los de control (CR/CC, AK) y los
+ * reenvíos nunca se descartan. Conserva los mensajes que contiene para
+ * notificar su descarte a las capas superiores.
+ * <p>
+ * 20/10/2026 05:14:08
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class OutboundFrame implements IBytes {
+
+	/* Bytes del telegrama, o de varios telegramas agrupados. */
+	private final byte[] bytes;
+
+	/* Mensajes contenidos, tal y como se ofrecieron a la capa. */
+	private final List<IBytes> messages;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param bytes
+	 *            Bytes codificados del telegrama.
+	 * @param messages
+	 *            Mensajes contenidos en el telegrama, en orden.
+	 */
+	public OutboundFrame(final byte[] bytes, final List<IBytes> messages) {
+		this.bytes = bytes;
+		this.messages = messages;
+	}
+
+	@Override
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Obtiene los mensajes contenidos en el telegrama.
+	 *
+	 * @return Mensajes, los mismos objetos que se ofrecieron a la capa.
+	 */
+	public List<IBytes> getMessages() {
+		return messages;
+	}
+
+	@Override
+	public String toString() {
+		return PrintUtils.format("%s mensaje(s): %s", messages.size(), PrintUtils.print(bytes));
+	}
+}
@@ -0,0 +1,122 @@
+package libcomm.layer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import libcomm.context.ConnectionContext;
+import libcomm.layer.memory.MemoryTransportProvider;
+import libcomm.layer.socket.SocketTransportProvider;
+import libcomm.message.rfc1006.IBytes;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Factoría de transportes. Crea la capa bajo RFC1006 según el transporte
+ * configurado en la conexión, buscando su {@link ITransportProvider} por
+ * nombre. Incluye los transportes <code>socket</code> (NIO sobre TCP, por
+ * defecto) y <code>memory</code> (misma JVM), más los que se encuentren con
+ * {@link ServiceLoader} la primera vez que se usa.
+ * <p>
+ * 19/10/2026 16:44:52
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransportFactory {
+
+	/** Nombre del transporte por defecto. */
+	public static final String DEFAULT_TRANSPORT = SocketTransportProvider.NAME;
+
+	/* Proveedores de transporte registrados, por nombre. */
+	private static final Map<String, ITransportProvider> PROVIDERS = new ConcurrentHashMap<>();
+
+	static {
+		register(new SocketTransportProvider());
+		register(new MemoryTransportProvider());
+		loadServices();
+	}
+
+	/**
+	 * Crea la capa de transporte configurada en la conexión.
+	 * 
+	 * @param context
+	 *            Contexto de la conexión.
+	 * @param observer
+	 *            Observador a quien notificará la capa de transporte.
+	 * @return Comandos de la capa de transporte.
+	 * @throws IllegalArgumentException
+	 *             si no hay ningún proveedor para el transporte configurado.
+	 */
+	public static ILayerCommands<IBytes> create(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		final String name = context.getTransport() != null ? context.getTransport() : DEFAULT_TRANSPORT;
+		final ITransportProvider provider = PROVIDERS.get(normalize(name));
+		if (provider == null) {
+			throw new IllegalArgumentException(PrintUtils.format("Transporte '%s' desconocido, disponibles: %s", name, getNames()));
+		}
+		Log.debug(TransportFactory.class, PrintUtils.format("Transporte '%s' para '%s'", provider.getName(), context.printConnection()));
+		return provider.create(context, observer);
+	}
+
+	/**
+	 * Registra un proveedor de transporte. Si ya existe otro con el mismo
+	 * nombre se mantiene el anterior.
+	 * 
+	 * @param provider
+	 *            Proveedor de transporte.
+	 * @return <code>true</code> si se ha registrado.
+	 */
+	public static boolean register(final ITransportProvider provider) {
+		final ITransportProvider previous = PROVIDERS.putIfAbsent(normalize(provider.getName()), provider);
+		if (previous != null) {
+			Log.error(TransportFactory.class, PrintUtils.format("Transporte '%s' ya registrado por '%s', se ignora '%s'", 
+				provider.getName(), previous.getClass().getName(), provider.getClass().getName()));
+		}
+		return previous == null;
+	}
+
+	/**
+	 * Indica si hay un proveedor para un transporte.
+	 * 
+	 * @param name
+	 *            Nombre del transporte.
+	 * @return <code>true</code> si está disponible.
+	 */
+	public static boolean isAvailable(final String name) {
+		return name != null && PROVIDERS.containsKey(normalize(name));
+	}
+
+	/**
+	 * Obtiene los nombres de los transportes disponibles.
+	 * 
+	 * @return Nombres de transporte, ordenados.
+	 */
+	public static List<String> getNames() {
+		final List<String> names = new ArrayList<>(PROVIDERS.keySet());
+		Collections.sort(names);
+		return names;
+	}
+
+	/* Registra los proveedores declarados como servicio. Un proveedor que no se puede cargar se ignora. */
+	private static void loadServices() {
+		try {
+			for (final ITransportProvider provider : ServiceLoader.load(ITransportProvider.class)) {
+				register(provider);
+			}
+		} catch (final ServiceConfigurationError e) {
+			Log.error(TransportFactory.class, "Error cargando proveedores de transporte, se ignoran", e);
+		}
+	}
+
+	/* Los nombres de transporte no distinguen mayúsculas. */
+	private static String normalize(final String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+}
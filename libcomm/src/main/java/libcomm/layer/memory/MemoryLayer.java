@@ -0,0 +1,336 @@
+package libcomm.layer.memory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.ILayerCommands;
+import libcomm.layer.ILayerObserver;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.BufferUtils;
+import libcomm.util.RingBuffer;
+import libcomm.util.ThreadUtils;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Transporte en memoria que sustituye a la capa de sockets cuando cliente y
+ * servidor están en la misma JVM: pruebas de rendimiento de las capas de
+ * protocolo, AK y codificación sin el coste del núcleo, o un autómata simulado
+ * embebido en la propia aplicación.
+ * <p>
+ * El servidor queda escuchando en su puerto, dentro de la JVM, y el cliente
+ * lo busca por el mismo puerto hasta agotar el tiempo de conexión. Una vez
+ * emparejados, cada extremo escribe directamente en la {@link RingBuffer} de
+ * entrada del otro, y un hilo por extremo entrega los mensajes a su
+ * observador en el mismo orden en que se enviaron. Al desconectar un extremo,
+ * el otro recibe una desconexión remota tras entregar los mensajes
+ * pendientes, igual que con sockets.
+ * </p>
+ * <p>
+ * 19/10/2026 15:31:07
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class MemoryLayer implements ILayerCommands<IBytes> {
+
+	/* Capacidad de la cola de entrada de cada extremo. */
+	private static final int RING_CAPACITY = 4096;
+
+	/* Milisegundos entre intentos del cliente de encontrar al servidor. */
+	private static final long CONNECT_RETRY_MILLIS = 50L;
+
+	/* Marca de fin de conexión, encolada tras los mensajes pendientes al desconectar el otro extremo. */
+	private static final IBytes END_OF_STREAM = BufferUtils.getIBytes(new byte[0]);
+
+	/* Servidores escuchando en la JVM, por puerto. */
+	private static final ConcurrentMap<Integer, MemoryLayer> LISTENING = new ConcurrentHashMap<>();
+
+	/* Contexto de la conexión. */
+	private final ConnectionContext context;
+
+	/* Observador a quien notifica la capa. */
+	private final ILayerObserver<IBytes> observer;
+
+	/* Modo cliente o servidor. */
+	private final ConnectionMode mode;
+
+	/* Mensajes recibidos del otro extremo, pendientes de entregar. */
+	private final RingBuffer<IBytes> inbound;
+
+	/* Extremo con el que estamos conectados, null si no hay conexión. */
+	private volatile MemoryLayer peer;
+
+	/* Hilo que entrega los mensajes recibidos, null si no hay conexión. */
+	private volatile Thread receiverThread;
+
+	/* Hilo del cliente que busca al servidor, null si no está conectando. */
+	private volatile Thread connectionThread;
+
+	/* Indica si el servidor está esperando un cliente. */
+	private volatile boolean listening;
+
+	/* Indica si el hilo receptor está detenido esperando mensajes. */
+	private volatile boolean waiting;
+
+	/* Hilos del otro extremo detenidos esperando hueco en la cola de entrada llena. */
+	private final Queue<Thread> producers;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param context
+	 *            Contexto de la conexión.
+	 * @param observer
+	 *            Observador a quien notificar los eventos de conexión y
+	 *            desconexión, y recepción de mensajes.
+	 */
+	public MemoryLayer(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		this.context = context;
+		this.observer = observer;
+		this.mode = context.getConnectionMode();
+		this.inbound = new RingBuffer<>(RING_CAPACITY);
+		this.producers = new ConcurrentLinkedQueue<>();
+	}
+
+	@Override
+	public void connect() {
+		Log.debug(this, getText("Iniciando conexión en memoria '%s'", context.printConnection()));
+		synchronized (this) {
+			if (connectionThread != null || listening || peer != null) {
+				final String error = getText("No se puede conectar '%s', ya existe una conexión activa", context.printConnection());
+				observer.error(error, new CommunicationException(CommErrorType.CONNECTION_ERROR, error));
+				return;
+			}
+
+			if (ConnectionMode.SERVER.equals(mode)) {
+				listening = LISTENING.putIfAbsent(context.getPort(), this) == null;
+				if (listening) {
+					return;
+				}
+			} else {
+				connectionThread = ThreadUtils.newThread(this::connectToServer, getThreadName(), context.isVirtualThreads());
+				connectionThread.start();
+				return;
+			}
+		}
+
+		final String error = getText("Ya existe un servidor en memoria en el puerto '%s'", context.getPort());
+		observer.error(error, new CommunicationException(CommErrorType.CONNECTION_ERROR, error));
+		observer.disconnected();
+	}
+
+	@Override
+	public void disconnect() {
+		Log.debug(this, getText("Iniciando desconexión en memoria '%s'", context.printConnection()));
+		final MemoryLayer __peer;
+		synchronized (this) {
+			if (connectionThread == null && !listening && peer == null) {
+				return;
+			}
+			if (connectionThread != null) {
+				connectionThread.interrupt();
+				connectionThread = null;
+			}
+			if (listening) {
+				listening = false;
+				LISTENING.remove(context.getPort(), this);
+			}
+			__peer = peer;
+			peer = null;
+			stopReceiver();
+		}
+
+		if (__peer != null) {
+			__peer.deliver(END_OF_STREAM);
+		}
+		observer.disconnected();
+	}
+
+	@Override
+	public void send(final IBytes message) {
+		final MemoryLayer __peer = peer;
+		if (__peer == null) {
+			Log.error(this, getText("Conexión en memoria no establecida, no se puede enviar '%s'", message));
+			return;
+		}
+
+		final byte[] bytes = message != null ? message.getBytes() : null;
+		if (bytes != null && bytes.length > 0) {
+			__peer.deliver(BufferUtils.getIBytes(bytes));
+		}
+	}
+
+	/* Hilo del cliente: busca al servidor hasta que acepta o hasta agotar el tiempo de conexión. */
+	private void connectToServer() {
+		final long deadline = System.currentTimeMillis() + context.getConnectionTimeout();
+		MemoryLayer server = null;
+		try {
+			while (server == null) {
+				server = LISTENING.remove(context.getPort());
+				if (server != null && !server.accept(this)) {
+					server = null;
+				}
+				final long remaining = deadline - System.currentTimeMillis();
+				if (server == null && remaining <= 0) {
+					break;
+				} else if (server == null) {
+					TimeUnit.MILLISECONDS.sleep(Math.min(CONNECT_RETRY_MILLIS, remaining));
+				}
+			}
+		} catch (final InterruptedException e) {
+			Log.debug(this, getText("Interrumpida la conexión en memoria '%s'", context.printConnection()));
+			return; /* la desconexión ya se ha notificado */
+		}
+
+		synchronized (this) {
+			if (connectionThread != Thread.currentThread()) {
+				if (server != null) { /* desconectados mientras el servidor aceptaba */
+					server.deliver(END_OF_STREAM);
+				}
+				return;
+			}
+			connectionThread = null;
+			if (server != null) {
+				peer = server;
+				startReceiver();
+			}
+		}
+
+		if (server != null) {
+			Log.debug(this, getText("Establecida conexión en memoria '%s'", context.printConnection()));
+			observer.connected();
+		} else {
+			final String error = getText("Error durante espera de conexión '%s'", context.printConnection());
+			observer.error(error, new CommunicationException(CommErrorType.CONNECTION_ERROR,
+				new CommunicationException(CommErrorType.TIMEOUT)));
+			observer.disconnected();
+		}
+	}
+
+	/* El servidor acepta a un cliente, si sigue escuchando. */
+	private boolean accept(final MemoryLayer client) {
+		synchronized (this) {
+			if (!listening) {
+				return false;
+			}
+			listening = false;
+			peer = client;
+			startReceiver();
+		}
+		Log.debug(this, getText("Establecida conexión en memoria '%s'", context.printConnection()));
+		observer.connected();
+		return true;
+	}
+
+	/*
+	 * Encola un mensaje para este extremo. Si la cola está llena se detiene hasta que el hilo receptor extraiga un 
+	 * mensaje y le despierte; se registra antes de reintentar para que el receptor no pueda extraer sin verlo.
+	 */
+	private void deliver(final IBytes message) {
+		if (!inbound.offer(message)) {
+			final Thread current = Thread.currentThread();
+			producers.add(current);
+			try {
+				while (!inbound.offer(message)) {
+					if (receiverThread == null) {
+						return; /* desconectado, se descarta */
+					}
+					LockSupport.park(this);
+				}
+			} finally {
+				producers.remove(current);
+			}
+		}
+		if (waiting) {
+			LockSupport.unpark(receiverThread);
+		}
+	}
+
+	/* Despierta a los hilos detenidos con la cola de entrada llena, para que reintenten. */
+	private void wakeProducers() {
+		if (producers.isEmpty()) {
+			return;
+		}
+		for (final Thread producer : producers) {
+			LockSupport.unpark(producer);
+		}
+	}
+
+	/* Inicia el hilo receptor, descartando lo que quedase de una conexión anterior. */
+	private void startReceiver() {
+		inbound.clear();
+		final Thread thread = ThreadUtils.newThread(this::receiveMessages, PrintUtils.format("Rx %s", getThreadName()),
+			context.isVirtualThreads());
+		receiverThread = thread;
+		thread.start();
+	}
+
+	/* Detiene el hilo receptor. */
+	private void stopReceiver() {
+		final Thread thread = receiverThread;
+		receiverThread = null;
+		LockSupport.unpark(thread);
+		wakeProducers();
+	}
+
+	/* Hilo receptor: entrega los mensajes al observador en orden, hasta desconectar. */
+	private void receiveMessages() {
+		final Thread current = Thread.currentThread();
+		while (receiverThread == current) {
+			final IBytes message = inbound.poll();
+			if (message == null) {
+				waiting = true;
+				if (inbound.isEmpty() && receiverThread == current) {
+					LockSupport.park(this);
+				}
+				waiting = false;
+				continue;
+			}
+			wakeProducers();
+			if (message == END_OF_STREAM) {
+				remoteDisconnected(current);
+			} else {
+				try {
+					observer.receive(message);
+				} catch (final Throwable t) {
+					Log.error(this, getText("Error al procesar mensaje '%s'", PrintUtils.print(message.getBytes())), t);
+				}
+			}
+		}
+	}
+
+	/* El otro extremo se ha desconectado. */
+	private void remoteDisconnected(final Thread current) {
+		synchronized (this) {
+			if (receiverThread != current) {
+				return;
+			}
+			receiverThread = null;
+			peer = null;
+		}
+		wakeProducers();
+		Log.error(this, getText("Desconexión inesperada de '%s'", context.printConnection()));
+		observer.disconnected(new CommunicationException(CommErrorType.REMOTE_DISCONNECTION));
+	}
+
+	/* Obtiene el nombre de los hilos de la conexión. */
+	private String getThreadName() {
+		return PrintUtils.format("%s (%s, memoria:%s)", context.getConnectionName(), mode, context.getPort());
+	}
+
+	/* Devuelve el texto facilitado con sus parámetros y siempre precedido del modo de conexión. */
+	private String getText(final String message, final Object... params) {
+		return PrintUtils.format("[%s] %s", mode, PrintUtils.format(message, params));
+	}
+}
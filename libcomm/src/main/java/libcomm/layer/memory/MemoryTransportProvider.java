@@ -0,0 +1,33 @@
+package libcomm.layer.memory;
+
+import libcomm.context.ConnectionContext;
+import libcomm.layer.ILayerCommands;
+import libcomm.layer.ILayerObserver;
+import libcomm.layer.ITransportProvider;
+import libcomm.message.rfc1006.IBytes;
+
+/**
+ * Proveedor del transporte en memoria: {@link MemoryLayer}, cliente y servidor
+ * en la misma JVM.
+ * <p>
+ * 19/10/2026 16:51:27
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class MemoryTransportProvider implements ITransportProvider {
+
+	/** Nombre del transporte. */
+	public static final String NAME = "memory";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ILayerCommands<IBytes> create(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		return new MemoryLayer(context, observer);
+	}
+}
@@ -1,5 +1,6 @@
 package libcomm.layer.message;
 
+import java.util.Map;
 import java.util.Timer;
 
 import libcomm.connection.ConnectionMode;
@@ -74,8 +75,27 @@ public class AKController<K, M> extends Timer {
 		this.task.messageSent(key, message);
 	}
 	
-	/* Notificación de AK recibido. Confirma mensaje en espera y lo retira de la cola de pendientes. */
-	void receiveAK (final K key) {
-		this.task.receiveAK(key);
+	/* Notificación de varios mensajes enviados de una vez. Pasan a esperar recibir AK. */
+	void messagesSent(final Map<K, M> messages) {
+		this.task.messagesSent(messages);
+	}
+	
+	/* Notificación de mensaje no enviado finalmente. Deja de esperar su AK. */
+	void messageCancelled(final K key) {
+		this.task.messageCancelled(key);
+	}
+	
+	/* Obtiene el número de mensajes enviados pendientes de AK, 0 si no se ha arrancado. */
+	int pending() {
+		final AKTimerTask<K, M> __task = this.task;
+		return __task != null ? __task.pendingCount() : 0;
+	}
+	
+	/*
+	 * Notificación de AK recibido. Confirma mensaje en espera y lo retira de la cola de pendientes. Devuelve el mensaje
+	 * confirmado, null si no estaba pendiente.
+	 */
+	M receiveAK (final K key) {
+		return this.task.receiveAK(key);
 	}
 }
@@ -86,12 +86,31 @@ class AKTimerTask<K, M> extends TimerTask {
 		}
 	}
 	
+	/* Añade varios mensajes al mapa de pendientes de AK de una vez, bloqueando el mapa una sola vez. */
+	void messagesSent (final Map<K, M> messages) {
+		try {
+			writeLock.lock();
+			for (final Entry<K, M> entry : messages.entrySet()) {
+				ColUtils.requireNonNull(entry.getKey(), entry.getValue());
+				AKWaitingItem<K, M> item = pendingAKMessages.get(entry.getKey());
+				if (item == null) {
+					item = new AKWaitingItem<K, M>(entry.getKey(), entry.getValue());
+					pendingAKMessages.put(entry.getKey(), item);
+				}
+				item.increment();
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+	
 	/*
 	 * Retira un mensaje del mapa de pendientes. Esto ocurre cada vez que se
 	 * recibe un AK. Si se recibe un AK de un mensaje que no estaba en
-	 * pendientes simplemente se logea y se ignora.
+	 * pendientes simplemente se logea y se ignora. Devuelve el mensaje
+	 * confirmado, null si no estaba pendiente.
 	 */
-	void receiveAK (final K key) {
+	M receiveAK (final K key) {
 		Objects.requireNonNull(key);
 
 		AKWaitingItem<K, M> item = null; 
@@ -106,6 +125,18 @@ class AKTimerTask<K, M> extends TimerTask {
 				key)
 			);
 		}
+		return message;
+	}
+
+	/* Retira un mensaje que finalmente no se ha enviado, por ejemplo por estar llena la cola de salida. */
+	void messageCancelled (final K key) {
+		Objects.requireNonNull(key);
+		retireItem(key);
+	}
+
+	/* Obtiene el número de mensajes pendientes de AK. */
+	int pendingCount () {
+		return pendingAKMessages.size();
 	}
 
 	/* Elimina un item de la cola de espera por AK. Se hace tanto al recibir el AK como al darlo por perdido y notificar fallo por AK no recibido */
@@ -1,11 +1,22 @@
 package libcomm.layer.message;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import libcomm.context.ConnectionContext;
 import libcomm.exception.CommErrorType;
 import libcomm.exception.CommunicationException;
 import libcomm.layer.AbstractLayer;
 import libcomm.layer.ILayerCommands;
 import libcomm.layer.ILayerObserver;
+import libcomm.journal.InboundJournal;
+import libcomm.journal.OutboundJournal;
+import libcomm.journal.OutboundSpill;
 import libcomm.layer.rfc1006.Rfc1006Layer;
 import libcomm.message.Message;
 import libcomm.message.MessageAK;
@@ -14,6 +25,7 @@ import libcomm.message.MessageType;
 import libcomm.message.SequenceNumber;
 import libcomm.message.rfc1006.DataTsdu;
 import libcomm.message.rfc1006.IBytes;
+import libcomm.util.ThreadUtils;
 
 import commons.log.Log;
 import commons.util.PrintUtils;
@@ -26,6 +38,28 @@ import commons.util.StrUtils;
  * de 5 segundos. Si aun así no se recibe su AK se produce una desconexión que
  * forzará a revisar el problema.
  * <p>
+ * Si se configura un diario de salida ({@link OutboundJournal}), cada mensaje
+ * nuevo se registra en él antes de enviarse y se confirma al recibir su AK. Los
+ * mensajes que quedaron sin AK en una ejecución anterior se reenvían, con un
+ * nuevo número de secuencia, en la primera conexión.
+ * </p>
+ * <p>
+ * Si se configura un diario de entrada ({@link InboundJournal}), cada DT
+ * recibido se registra en él antes de decodificarse y notificarse.
+ * </p>
+ * <p>
+ * Si se configura desbordamiento ({@link OutboundSpill}), los mensajes
+ * enviados con la conexión caída se retienen, primero en memoria y después en
+ * disco, y se envían en orden en cuanto se restablece la conexión. Mientras
+ * quedan retenidos por enviar, los mensajes nuevos se retienen tras ellos.
+ * </p>
+ * <p>
+ * Los diarios y el desbordamiento se abren en la primera conexión y se
+ * mantienen entre reconexiones hasta {@link #close()}. Cada directorio
+ * pertenece a un único manejador vivo: dos abiertos a la vez sobre el mismo
+ * directorio se pisarían el cursor y los segmentos.
+ * </p>
+ * <p>
  * 21/02/2016 14:18:23
  * </p>
  * 
@@ -60,6 +94,27 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 
 	/* Error para desconexiónes por fallo de AK. */
 	private volatile String akFailureError;
+
+	/* Contexto de la conexión. */
+	private final ConnectionContext context;
+
+	/* Diario de mensajes salientes, null si no está configurado o no se ha podido abrir. */
+	private volatile OutboundJournal journal;
+
+	/* Diario de mensajes entrantes, null si no está configurado o no se ha podido abrir. */
+	private volatile InboundJournal inboundJournal;
+
+	/* Mensajes retenidos con la conexión caída, null si no hay desbordamiento configurado o no se ha podido abrir. */
+	private volatile OutboundBacklog backlog;
+
+	/* Sincroniza la retención de mensajes con su envío al restablecerse la conexión. */
+	private final Object backlogLock;
+
+	/* Indica si la conexión está establecida, tras CR/CC. */
+	private boolean linkUp;
+
+	/* Indica si se están enviando los mensajes retenidos. */
+	private boolean draining;
 	
 	/**
 	 * Constructor de clase.
@@ -76,19 +131,91 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 		this.akEnabled = context.isAKEnabled();
 		this.akController = akEnabled ? new AKController<>(this, context.getConnectionMode()) : null;
 		this.sequenceNumber = new SequenceNumber(0x00);
+		this.context = context;
+		this.backlogLock = new Object();
 		akFailureError = null;
 	}
 
 	@Override
 	public void connect() {
 		Log.info(this, (akEnabled ? "AK habilitado" : "AK deshabilitado, no se esperará ni se enviará confirmación a los mensajes"));
+		openJournal();
+		openInboundJournal();
+		openBacklog();
 		commands.connect();
 	}
 
+	/*
+	 * Abre el diario de salida la primera vez que se conecta, si está
+	 * configurado. Sin AK no tiene sentido: nunca se confirmaría ningún mensaje.
+	 */
+	private void openJournal() {
+		final String directory = context.getOutboundJournalDir();
+		if (journal != null || directory == null) {
+			return;
+		}
+		if (!akEnabled) {
+			Log.info(this, PrintUtils.format("AK deshabilitado, se ignora el diario de salida '%s'", directory));
+			return;
+		}
+		try {
+			journal = new OutboundJournal(new File(directory), context.getJournalSegmentBytes(), context.getJournalForceMillis());
+		} catch (final IOException e) {
+			final String error = PrintUtils.format("No se puede abrir el diario de salida '%s'", directory);
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+		}
+	}
+
+	/* Abre el desbordamiento de mensajes salientes la primera vez que se conecta, si está configurado. */
+	private void openBacklog() {
+		final String directory = context.getSpillDir();
+		if (backlog != null || directory == null) {
+			return;
+		}
+		try {
+			final OutboundSpill spill = 
+				new OutboundSpill(new File(directory), context.getJournalSegmentBytes(), context.getJournalForceMillis());
+			backlog = new OutboundBacklog(spill, context.getSpillMemoryMessages(), 
+				bytes -> extractMessage(new DataTsdu(null, bytes)));
+		} catch (final IOException e) {
+			final String error = PrintUtils.format("No se puede abrir el desbordamiento de mensajes '%s'", directory);
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+		}
+	}
+
 	@Override
 	public void disconnect() {
 		commands.disconnect();
 	}
+
+	/**
+	 * Cierra los diarios y el desbordamiento, liberando sus segmentos mapeados
+	 * y sus hilos de escritura a disco. Una conexión posterior los vuelve a
+	 * abrir.
+	 */
+	@Override
+	public void close() {
+		final OutboundJournal __journal = journal;
+		journal = null;
+		if (__journal != null) {
+			__journal.close();
+		}
+		final InboundJournal __inboundJournal = inboundJournal;
+		inboundJournal = null;
+		if (__inboundJournal != null) {
+			__inboundJournal.close();
+		}
+		synchronized (backlogLock) { /* el hilo que envía los retenidos los extrae con el mismo bloqueo */
+			if (backlog != null) {
+				backlog.close();
+				backlog = null;
+			}
+			draining = false;
+		}
+		commands.close();
+	}
 	
 	@Override
 	public void connected() {
@@ -96,11 +223,156 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 			akController.start();
 		}
 		observer.connected();
+		synchronized (backlogLock) {
+			linkUp = true;
+			draining = backlog != null; /* los mensajes nuevos esperan tras el diario y los retenidos */
+		}
+		replayJournal();
+		drainBacklog();
+	}
+
+	/*
+	 * Envía en un hilo propio, y en orden, los mensajes retenidos con la conexión caída. Se detiene si la conexión
+	 * vuelve a caer, conservando los que queden, o si se cierra el desbordamiento.
+	 */
+	private void drainBacklog() {
+		final OutboundBacklog __backlog = backlog;
+		if (__backlog == null) {
+			return;
+		}
+		synchronized (backlogLock) {
+			if (__backlog.isEmpty()) {
+				draining = false;
+				return;
+			}
+		}
+		final Runnable drain = () -> {
+			int sent = 0;
+			while (true) {
+				synchronized (backlogLock) {
+					final Message<?> message = linkUp && backlog == __backlog ? pollBacklog(__backlog) : null;
+					if (message == null) {
+						draining = false;
+						break;
+					}
+					deliver(message);
+				}
+				sent++;
+			}
+			Log.info(this, PrintUtils.format("Enviados %s mensaje(s) retenidos con la conexión caída", sent));
+		};
+		ThreadUtils.newThread(drain, PrintUtils.format("Backlog %s", context.getConnectionName()), 
+			context.isVirtualThreads()).start();
+	}
+
+	/* Extrae el siguiente mensaje retenido, null si no quedan o no se pueden leer. */
+	private Message<?> pollBacklog(final OutboundBacklog __backlog) {
+		try {
+			return __backlog.poll();
+		} catch (final IOException e) {
+			final String error = "Error leyendo mensajes desbordados, se detiene su envío";
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+			return null;
+		}
+	}
+
+	/*
+	 * Retiene un mensaje si la conexión está caída o aún quedan retenidos por enviar, para mantener el orden. Devuelve 
+	 * false si no hay desbordamiento configurado o el mensaje puede enviarse ya.
+	 */
+	private boolean retain(final Message<?> message) {
+		final OutboundBacklog __backlog = backlog;
+		if (__backlog == null) {
+			return false;
+		}
+		synchronized (backlogLock) {
+			if ((linkUp && !draining) || backlog != __backlog) {
+				return false;
+			}
+			try {
+				__backlog.add(message);
+				Log.debug(this, PrintUtils.format("Conexión no disponible, se retiene mensaje '%s'", message));
+			} catch (final IOException e) {
+				final String error = PrintUtils.format("Error desbordando a disco el mensaje '%s', se descarta", message);
+				Log.error(this, error, e);
+				error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+			}
+			return true;
+		}
+	}
+
+	/* Indica si los mensajes nuevos se están reteniendo, por estar la conexión caída o quedar retenidos por enviar. */
+	private boolean retaining() {
+		if (backlog == null) {
+			return false;
+		}
+		synchronized (backlogLock) {
+			return !linkUp || draining;
+		}
+	}
+
+	/*
+	 * Marca la conexión como caída: los mensajes nuevos se retienen. Los mensajes del diario de salida pendientes de 
+	 * AK pasan a reenviarse al reconectar, ya que sus AK no llegarán.
+	 */
+	private void linkDown() {
+		synchronized (backlogLock) {
+			linkUp = false;
+		}
+		final OutboundJournal __journal = journal;
+		if (__journal != null) {
+			__journal.requeue();
+		}
+	}
+
+	/*
+	 * Reenvía los mensajes que quedaron sin AK en la ejecución o conexión
+	 * anterior. Se envían como mensajes nuevos, con su propio número de
+	 * secuencia, ya que la numeración de la conexión anterior no tiene validez
+	 * en ésta.
+	 */
+	private void replayJournal() {
+		final OutboundJournal __journal = journal;
+		if (__journal == null) {
+			return;
+		}
+		final List<byte[]> unacknowledged = __journal.getUnacknowledged();
+		if (unacknowledged.isEmpty()) {
+			return;
+		}
+		
+		Log.info(this, PrintUtils.format("Reenviando %s mensaje(s) sin AK del diario de salida", unacknowledged.size()));
+		for (final byte[] bytes : unacknowledged) {
+			final Message<?> message = extractMessage(new DataTsdu(null, bytes));
+			if (message != null) {
+				message.setSequenceNumber(new SequenceNumber());
+				deliver(message);
+			}
+		}
+		__journal.replayed();
+	}
+
+	/* Abre el diario de entrada la primera vez que se conecta, si está configurado. */
+	private void openInboundJournal() {
+		final String directory = context.getInboundJournalDir();
+		if (inboundJournal != null || directory == null) {
+			return;
+		}
+		try {
+			inboundJournal = new InboundJournal(new File(directory), context.getJournalSegmentBytes(), 
+				context.getJournalForceMillis(), context.getJournalIndexInterval());
+		} catch (final IOException e) {
+			final String error = PrintUtils.format("No se puede abrir el diario de entrada '%s'", directory);
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+		}
 	}
 
 	/* Evento de desconexión, simplemente lo notificamos a la capa superior. */
 	@Override
 	public void disconnected() {
+		linkDown();
 		CommunicationException akFailureCause = null;
 		if(akEnabled) {
 			akFailureCause = checkAkFailureCause(akFailureError, null);
@@ -117,6 +389,7 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 	/* Evento de desconexión con error, simplemente lo notificamos a la capa superior. */
 	@Override
 	public void disconnected(final CommunicationException cause) {
+		linkDown();
 		CommunicationException akFailureCause = null;
 		if (akEnabled) {
 			akFailureCause = checkAkFailureCause(akFailureError, cause);
@@ -151,12 +424,168 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 		observer.error(error, cause);
 	}
 
-	/* Envia un mensaje, asignando primero un número de secuencia en caso de que aun no lo tenga definido. */
+	/*
+	 * Envia un mensaje, asignando primero un número de secuencia en caso de que
+	 * aun no lo tenga definido. Si hay diario de salida el mensaje se registra
+	 * antes de enviarlo. Con la conexión caída y desbordamiento configurado, el
+	 * mensaje se retiene hasta que se restablezca.
+	 */
 	@Override
 	public void send(final Message<?> message) {
+		if (!retain(message)) {
+			deliver(message);
+		}
+	}
+
+	/* Envía un mensaje ya, asignando número de secuencia y registrándolo en el diario. */
+	private void deliver(final Message<?> message) {
 		if (message.getSequenceNumber().isNotDefined()) {
 			message.setSequenceNumber(sequenceNumber.incrementAndGet());
 		}
+		journal(message);
+		transmit(message);
+	}
+
+	/*
+	 * Envía un mensaje como send si la capa inferior lo acepta según la política de su cola de salida. Si lo rechaza, 
+	 * el mensaje deja de esperar AK, se confirma en el diario y recupera su número de secuencia sin definir.
+	 */
+	@Override
+	public boolean offer(final Message<?> message) {
+		if (retain(message)) {
+			return true;
+		}
+		final boolean assignSequenceNumber = message.getSequenceNumber().isNotDefined();
+		if (assignSequenceNumber) {
+			message.setSequenceNumber(sequenceNumber.incrementAndGet());
+		}
+		final SequenceNumber messageSN = message.getSequenceNumber();
+		journal(message);
+		if (akEnabled) {
+			akController.messageSent(messageSN, message);	
+		}
+		Log.debug(this, PrintUtils.format("Enviando mensaje: '%s'", message));
+		if (this.commands.offer(message)) {
+			return true;
+		}
+		cancel(message, assignSequenceNumber);
+		return false;
+	}
+
+	/*
+	 * Envía varios mensajes de una vez, como offer para cada uno pero reservando de una vez sus números de secuencia, 
+	 * registrándolos juntos en espera de AK y codificándolos en bloque en la capa inferior. Si la capa inferior 
+	 * rechaza parte de ellos, éstos se anulan como en offer. Con mensajes retenidos o la conexión caída, cada 
+	 * mensaje sigue el camino de offer para respetar el orden.
+	 */
+	@Override
+	public int offer(final List<Message<?>> messages) {
+		if (retaining()) {
+			return super.offer(messages);
+		}
+		
+		final boolean[] assigned = new boolean[messages.size()];
+		int undefined = 0;
+		for (final Message<?> message : messages) {
+			undefined += message.getSequenceNumber().isNotDefined() ? 1 : 0;
+		}
+		final Iterator<SequenceNumber> reserved = sequenceNumber.incrementAndGet(undefined).iterator();
+		final Map<SequenceNumber, Message<?>> sent = new LinkedHashMap<>();
+		for (int i = 0; i < messages.size(); i++) {
+			final Message<?> message = messages.get(i);
+			assigned[i] = message.getSequenceNumber().isNotDefined();
+			if (assigned[i]) {
+				message.setSequenceNumber(reserved.next());
+			}
+			journal(message);
+			sent.put(message.getSequenceNumber(), message);
+		}
+		if (akEnabled) {
+			akController.messagesSent(sent);
+		}
+		
+		Log.debug(this, PrintUtils.format("Enviando bloque de '%s' mensajes", messages.size()));
+		final int accepted = this.commands.offer(new ArrayList<IBytes>(messages));
+		for (int i = accepted; i < messages.size(); i++) {
+			cancel(messages.get(i), assigned[i]);
+		}
+		return accepted;
+	}
+
+	/*
+	 * Anula un mensaje que la capa inferior no ha aceptado: deja de esperar AK, se confirma en el diario y, si se le 
+	 * asignó número de secuencia al enviarlo, lo recupera sin definir.
+	 */
+	private void cancel(final Message<?> message, final boolean assignedSequenceNumber) {
+		final SequenceNumber messageSN = message.getSequenceNumber();
+		if (akEnabled) {
+			akController.messageCancelled(messageSN);
+			drainedAcks();
+		}
+		final OutboundJournal __journal = journal;
+		if (__journal != null) {
+			__journal.commit(messageSN);
+		}
+		if (assignedSequenceNumber) {
+			message.setSequenceNumber(new SequenceNumber());
+		}
+	}
+
+	/*
+	 * Mensaje descartado de la cola de salida llena: no llegará a enviarse, por lo que deja de esperar AK y se confirma 
+	 * en el diario. Se notifica a la capa superior.
+	 */
+	@Override
+	public void dropped(final IBytes message) {
+		if (message instanceof Message) {
+			cancel((Message<?>) message, Boolean.FALSE);
+		}
+		observer.dropped(message);
+	}
+
+	/* Cola de salida de la capa inferior vacía, se notifica a la capa superior. */
+	@Override
+	public void drained() {
+		observer.drained();
+	}
+
+	/* Avisa a la capa superior si ya no queda ningún mensaje pendiente de AK. */
+	private void drainedAcks() {
+		if (akController.pending() == 0) {
+			observer.drained();
+		}
+	}
+
+	/* Obtiene los mensajes pendientes en la cola de salida de la capa inferior, más los retenidos (orientativo). */
+	@Override
+	public int getQueueDepth() {
+		final OutboundBacklog __backlog = backlog;
+		return commands.getQueueDepth() + (__backlog != null ? __backlog.size() : 0);
+	}
+
+	/* Obtiene los mensajes enviados pendientes de AK, 0 si no se confirman con AK. */
+	@Override
+	public int getUnacknowledged() {
+		return akEnabled ? akController.pending() : 0;
+	}
+
+	/* Registra un mensaje en el diario de salida, si lo hay. Un fallo del diario no impide el envío. */
+	private void journal(final Message<?> message) {
+		final OutboundJournal __journal = journal;
+		if (__journal == null) {
+			return;
+		}
+		try {
+			__journal.append(message.getSequenceNumber(), message.getBytes());
+		} catch (final IOException e) {
+			final String error = PrintUtils.format("Error registrando mensaje '%s' en el diario de salida", message);
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+		}
+	}
+
+	/* Entrega un mensaje a la capa inferior, esperando su AK si está habilitado. */
+	private void transmit(final Message<?> message) {
 		if (akEnabled) { /* nos aseguramos de que el mensaje espera ak antes de enviarlo */
 			akController.messageSent(message.getSequenceNumber(), message);	
 		}
@@ -169,6 +598,7 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 	 */
 	@Override
 	public void receive(final DataTsdu tsdu) {
+		journal(tsdu);
 		final Message<?> message = extractMessage(tsdu);
 		if (message != null) {
 			if (!akEnabled) {
@@ -181,7 +611,15 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 			if (isAk(message)) {
 				/* Si es AK no se notifica a capa superior sino al controlador. */
 				final MessageAK ak = (MessageAK) message;
-				akController.receiveAK(ak.getConfirmedSequenceNumber());
+				final Message<?> confirmed = akController.receiveAK(ak.getConfirmedSequenceNumber());
+				final OutboundJournal __journal = journal; /* se anula al cerrar */
+				if (__journal != null) {
+					__journal.commit(ak.getConfirmedSequenceNumber());
+				}
+				if (confirmed != null) {
+					observer.acknowledged(confirmed);
+				}
+				drainedAcks();
 			} else {
 				/* Si es un mensaje normal confirmamos con un AK y notificamos a la capa superior. */
 				observer.receive(message);
@@ -190,6 +628,21 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 		}
 	}
 
+	/* Registra un DT recibido en el diario de entrada, si lo hay. Un fallo del diario no impide la recepción. */
+	private void journal(final DataTsdu tsdu) {
+		final InboundJournal __journal = inboundJournal;
+		if (__journal == null || tsdu == null || tsdu.getBody() == null) {
+			return;
+		}
+		try {
+			__journal.append(tsdu.getBody());
+		} catch (final IOException e) {
+			final String error = "Error registrando mensaje recibido en el diario de entrada";
+			Log.error(this, error, e);
+			error(error, new CommunicationException(CommErrorType.JOURNAL, error, e));
+		}
+	}
+
 	/* Envía un mensaje de confirmación con número de secuencia cero y cuyo contenido es el número de secuencia del mensaje confirmado. */
 	private void sendAk(final Message<?> message) {
 		final SequenceNumber confirmedSN = new SequenceNumber(message.getSequenceNumber());
@@ -225,7 +678,7 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 	@Override
 	public void resendMessage(final Message<?> message) {
 		Log.debug(this, PrintUtils.format("Se reenvía mensaje '%s'", message));
-		send(message); /* Se respetará su número de secuencia. */
+		transmit(message); /* Se respetará su número de secuencia, y ya consta en el diario. */
 	}
 
 	/** Se notifica un error por no recibir AK tras el máximo de intentos. Se desconecta la librería. */
@@ -238,6 +691,11 @@ public class MessageLayer extends AbstractLayer<DataTsdu, Message<?>> implements
 		if (akFailureError == null) {
 			akFailureError = error;
 		}
+		final OutboundJournal __journal = journal;
+		if (__journal != null) {
+			__journal.requeue(key);
+		}
+		observer.unacknowledged(message, new CommunicationException(CommErrorType.AK_FAILURE, error));
 		disconnect();
 	}
 }
@@ -0,0 +1,103 @@
+package libcomm.layer.message;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+import libcomm.journal.OutboundSpill;
+import libcomm.message.Message;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Mensajes salientes retenidos mientras la conexión está caída, en orden de
+ * envío. Los primeros se retienen en memoria hasta un umbral; a partir de él
+ * se desbordan a un {@link OutboundSpill} en disco, de forma que la memoria
+ * usada no crece por larga que sea la caída.
+ * <p>
+ * Al extraer, los mensajes desbordados se leen por lotes a memoria cuando ésta
+ * se vacía. Un mensaje nuevo sólo se retiene en memoria si no queda ninguno en
+ * disco, lo que mantiene el orden de envío.
+ * </p>
+ * <p>
+ * No es seguro entre hilos: quien lo usa debe sincronizar el acceso.
+ * </p>
+ * <p>
+ * 19/10/2026 23:58:40
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+class OutboundBacklog {
+
+	/* Mensajes desbordados que se leen de disco de una vez. */
+	private static final int READ_BATCH = 64;
+
+	/* Mensajes retenidos en memoria, los más antiguos. */
+	private final ArrayDeque<Message<?>> memory;
+
+	/* Máximo de mensajes retenidos en memoria. */
+	private final int memoryMessages;
+
+	/* Desbordamiento a disco. */
+	private final OutboundSpill spill;
+
+	/* Obtiene un mensaje a partir de sus bytes desbordados, null si no se puede. */
+	private final Function<byte[], Message<?>> decoder;
+
+	/*
+	 * Constructor de clase. Recibe el desbordamiento a disco, el máximo de mensajes en memoria y cómo obtener de nuevo
+	 * un mensaje a partir de sus bytes.
+	 */
+	OutboundBacklog(final OutboundSpill spill, final int memoryMessages, final Function<byte[], Message<?>> decoder) {
+		this.spill = spill;
+		this.memoryMessages = memoryMessages;
+		this.decoder = decoder;
+		this.memory = new ArrayDeque<>(Math.min(memoryMessages, READ_BATCH));
+	}
+
+	/* Retiene un mensaje al final. */
+	void add(final Message<?> message) throws IOException {
+		if (spill.isEmpty() && memory.size() < memoryMessages) {
+			memory.add(message);
+		} else {
+			spill.append(message.getBytes());
+		}
+	}
+
+	/* Extrae el mensaje retenido más antiguo, null si no queda ninguno. */
+	Message<?> poll() throws IOException {
+		while (memory.isEmpty() && !spill.isEmpty()) {
+			for (final byte[] bytes : spill.poll(READ_BATCH)) {
+				final Message<?> message = decoder.apply(bytes);
+				if (message != null) {
+					memory.add(message);
+				} else {
+					Log.error(this, PrintUtils.format("Se descarta mensaje desbordado ilegible '%s'", PrintUtils.print(bytes)));
+				}
+			}
+		}
+		return memory.poll();
+	}
+
+	/* Indica si no queda ningún mensaje retenido. */
+	boolean isEmpty() {
+		return memory.isEmpty() && spill.isEmpty();
+	}
+
+	/* Obtiene el número de mensajes retenidos, en memoria y en disco. */
+	int size() {
+		return memory.size() + spill.size();
+	}
+
+	/* Cierra el desbordamiento a disco. Los retenidos en memoria se pierden, como en una caída del proceso. */
+	void close() {
+		if (!memory.isEmpty()) {
+			Log.error(this, PrintUtils.format("Se descartan '%s' mensaje(s) retenidos en memoria", memory.size()));
+			memory.clear();
+		}
+		spill.close();
+	}
+}
@@ -27,6 +27,11 @@ import commons.util.PrintUtils;
  * permite crear mensajes RFC1006 a partir de bytes y leer los campos que
  * interesen de cada uno.
  * <p>
+ * La lectura acumula estado y sólo debe hacerse desde el hilo que recibe. La
+ * creación de mensajes no usa ningún estado compartido, de modo que varios
+ * hilos pueden crear mensajes a la vez.
+ * </p>
+ * <p>
  * 15/02/2016 00:16:03
  * </p>
  * 
@@ -1,5 +1,7 @@
 package libcomm.layer.rfc1006;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -11,7 +13,8 @@ import libcomm.exception.MalformedMessageException;
 import libcomm.layer.AbstractLayer;
 import libcomm.layer.ILayerCommands;
 import libcomm.layer.ILayerObserver;
-import libcomm.layer.socket.SocketLayer;
+import libcomm.layer.OutboundFrame;
+import libcomm.layer.TransportFactory;
 import libcomm.message.rfc1006.CcTsdu;
 import libcomm.message.rfc1006.CrTsdu;
 import libcomm.message.rfc1006.DataTsdu;
@@ -19,6 +22,7 @@ import libcomm.message.rfc1006.IBytes;
 import libcomm.message.rfc1006.ITsdu;
 import libcomm.message.rfc1006.Tpkt;
 import libcomm.util.MessageUtils;
+import libcomm.util.ThreadUtils;
 
 import commons.log.Log;
 import commons.util.ColUtils;
@@ -40,6 +44,12 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 									/* Observador de la capa de sockets, recibirá un IBytes como mensaje. */ 
 									/* Recibe mensajes de la capa superior en forma de bytes. */
 	
+	/*
+	 * Máximo de bytes de los telegramas que se agrupan en una sola escritura al enviar varios mensajes de una vez.
+	 * Debe caber holgadamente en el buffer de escritura del socket.
+	 */
+	private static final int MAX_BATCH_BYTES = 4096;
+	
 	/* Observador a quien notifica la capa de RFC1006 */
 	private final ILayerObserver<DataTsdu> observer;
 	
@@ -64,9 +74,10 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 	
 	/*
 	 * La rececepción siempre será desde el hilo que recibe, pero el envío
-	 * podría ser desde varios hilos si varios hilos distintos compartiesen el
-	 * objeto de que controla la conexión. No es lo habitual, pero nos
-	 * protegemos sincronizando el envío.
+	 * puede ser desde varios hilos: los de la aplicación, el de recepción al
+	 * enviar AK y el temporizador de AK al reenviar. Cada hilo codifica su
+	 * mensaje por su cuenta, sin bloquear a los demás, y sólo se sincroniza el
+	 * paso del telegrama ya codificado a la capa inferior.
 	 */
 	private final Object sendLock;
 	
@@ -88,7 +99,7 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 		this.observer = observer;
 		this.flagCR = new AtomicBoolean(Boolean.FALSE);
 		this.flagCC = new AtomicBoolean(Boolean.FALSE);
-		this.commands = new SocketLayer(context, this);
+		this.commands = TransportFactory.create(context, this);
 		this.ioMessage = new Rfc1006IOMessage();
 		this.clientMode = ConnectionMode.CLIENT.equals(context.getConnectionMode());
 		this.sendLock = new Object();
@@ -144,7 +155,7 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 	}
 
 	private void waitForCC() {
-		final Thread waitCc = new Thread(new Runnable () {
+		final Thread waitCc = ThreadUtils.newThread(new Runnable () {
 			@Override
 			public void run() {
 				long remainingTime = context.getConnectionTimeout() - (System.currentTimeMillis() - startConnectionTime);
@@ -166,9 +177,8 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 					);
 				}
 			}
-		});
+		}, PrintUtils.format("CC %s", context.getConnectionName()), context.isVirtualThreads());
 		
-		waitCc.setDaemon(Boolean.TRUE);
 		waitCc.start();
 	}
 
@@ -210,10 +220,24 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 		observer.error(error, cause);
 	}
 
-	/* Envia un mensaje IBytes, debe transformarlo antes a un formato entendible para el protocolo RFC1006. */
+	/* Mensaje descartado de la cola de salida llena, se notifica a la capa superior. */
 	@Override
-	/* se sincroniza dado que puede recibirse desde varios hilos (envío normal y envío de AK) */
-	public synchronized void send(final IBytes message) { 
+	public void dropped(final IBytes message) {
+		observer.dropped(message);
+	}
+
+	/* Cola de salida vacía, se notifica a la capa superior. */
+	@Override
+	public void drained() {
+		observer.drained();
+	}
+
+	/*
+	 * Envia un mensaje IBytes, debe transformarlo antes a un formato entendible para el protocolo RFC1006. La
+	 * codificación se hace en el hilo que envía, fuera de la sección sincronizada.
+	 */
+	@Override
+	public void send(final IBytes message) { 
 		try {
 			final Tpkt<DataTsdu> tpkt = ioMessage.createDt(message);
 			send(tpkt);
@@ -225,6 +249,90 @@ public class Rfc1006Layer extends AbstractLayer<IBytes, IBytes> {
 		}
 	}
 
+	/*
+	 * Ofrece un mensaje IBytes a la capa inferior según la política de su cola de salida. Como en el envío, sólo se
+	 * sincroniza el paso del telegrama ya codificado, que conserva el mensaje por si se descarta de la cola. Si no se 
+	 * puede codificar se notifica el error y se rechaza, como el bloque.
+	 */
+	@Override
+	public boolean offer(final IBytes message) { 
+		try {
+			final Tpkt<DataTsdu> tpkt = ioMessage.createDt(message);
+			final OutboundFrame frame = new OutboundFrame(tpkt.getBytes(), Collections.singletonList(message));
+			synchronized (sendLock) {
+				return commands.offer(frame);
+			}
+		} catch (Exception e) {
+			final String error = PrintUtils.format("Error enviando mensaje '%s' bytes '%s'.", message, 
+				(message != null ? PrintUtils.print(message.getBytes()) : StrUtils.NULL_STRING));
+			Log.error(this, error, e);
+			this.error(error, new CommunicationException(CommErrorType.SENDING, e));
+		}
+		return false; /* no se ha enviado: la capa superior deja de esperar su AK */
+	}
+
+	/*
+	 * Ofrece varios mensajes IBytes de una vez. Se codifican todos en el hilo que envía y se agrupan en bloques de
+	 * hasta MAX_BATCH_BYTES bytes, cada uno de los cuales llega a la capa inferior como una sola escritura. Devuelve
+	 * cuántos mensajes, los primeros, acepta la capa inferior.
+	 */
+	@Override
+	public int offer(final List<IBytes> messages) {
+		final List<OutboundFrame> frames = new ArrayList<>();
+		try {
+			final List<byte[]> pending = new ArrayList<>();
+			int pendingBytes = 0;
+			int first = 0; /* primer mensaje del bloque en curso */
+			for (int i = 0; i < messages.size(); i++) {
+				final byte[] tpkt = ioMessage.createDt(messages.get(i)).getBytes();
+				if (!pending.isEmpty() && pendingBytes + tpkt.length > MAX_BATCH_BYTES) {
+					frames.add(frame(pending, pendingBytes, messages.subList(first, i)));
+					pending.clear();
+					pendingBytes = 0;
+					first = i;
+				}
+				pending.add(tpkt);
+				pendingBytes += tpkt.length;
+			}
+			if (!pending.isEmpty()) {
+				frames.add(frame(pending, pendingBytes, messages.subList(first, messages.size())));
+			}
+		} catch (Exception e) {
+			final String error = PrintUtils.format("Error codificando bloque de '%s' mensajes.", messages.size());
+			Log.error(this, error, e);
+			this.error(error, new CommunicationException(CommErrorType.SENDING, e));
+			return 0;
+		}
+
+		int accepted = 0;
+		synchronized (sendLock) {
+			for (int i = 0; i < frames.size(); i++) {
+				if (!commands.offer(frames.get(i))) {
+					break;
+				}
+				accepted += frames.get(i).getMessages().size();
+			}
+		}
+		return accepted;
+	}
+
+	/* Une varios telegramas ya codificados en un solo bloque de bytes, que conserva los mensajes que contiene. */
+	private static OutboundFrame frame(final List<byte[]> tpkts, final int size, final List<IBytes> messages) {
+		final byte[] bytes = new byte[size];
+		int position = 0;
+		for (final byte[] tpkt : tpkts) {
+			System.arraycopy(tpkt, 0, bytes, position, tpkt.length);
+			position += tpkt.length;
+		}
+		return new OutboundFrame(bytes, new ArrayList<>(messages));
+	}
+
+	/* Obtiene los mensajes pendientes en la cola de salida de la capa inferior. */
+	@Override
+	public int getQueueDepth() {
+		return commands.getQueueDepth();
+	}
+
 	/* Envía un mensaje RFC1006 a la capa de sockets. */
 	private void send(final Tpkt<?> tpkt) {
 		synchronized (sendLock) {
@@ -3,9 +3,11 @@ package libcomm.layer.socket;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.Iterator;
 import java.util.concurrent.Semaphore;
@@ -20,6 +22,8 @@ import libcomm.layer.IReceiver;
 import libcomm.layer.ISender;
 import libcomm.message.rfc1006.IBytes;
 import libcomm.util.BufferUtils;
+import libcomm.util.ThreadUtils;
+import libcomm.util.WaitStrategy;
 
 import commons.log.Log;
 import commons.util.Constants;
@@ -41,6 +45,9 @@ import commons.util.StrUtils;
  * @version 1.0
  */
 abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, ISender<IBytes> { 
+	/* Milisegundos máximos de cada espera por hueco en el buffer de escritura en modo en línea, para comprobar si se ha cerrado. */
+	private static final long INLINE_WRITE_WAIT_MILLIS = 100L;
+	
 	/* Contexto de conexión.*/
 	private final ConnectionContext context;
 	
@@ -56,8 +63,8 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 	/* Datos del Socket construido. */
 	private volatile SocketData socket;
 	
-	/* Dirección de conexión. */
-	private InetSocketAddress address;
+	/* Dirección de conexión: IP y puerto o socket de dominio Unix. */
+	private SocketAddress address;
 	
 	/* Semáforo para controlar el envío de mensajes junto con readyToSend. */
 	private final Semaphore outputSemaphore;
@@ -65,6 +72,9 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 	/* AtomicBoolean para controlar el envío de mensajes junto con outputSemaphore. */
 	private final AtomicBoolean readyToSend;
 	
+	/* Sincroniza la escritura directa en el canal en modo en línea, desde varios hilos, y avisa al vaciarse el buffer. */
+	private final Object inlineWriteLock;
+	
 	/* Constructor, recibe el contexto y el observador de la conexión. */
 	AbstractChannelHandler (final ConnectionContext context, final Class<? extends AbstractChannelHandler> logClass, 
 			final ILayerObserver<IBytes> observer) {
@@ -74,6 +84,7 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 		
 		outputSemaphore = new Semaphore(Constants.ZERO);
 		readyToSend = new AtomicBoolean(Boolean.FALSE);
+		inlineWriteLock = new Object();
 	}
 	
 	/** Inicia el hilo de conexión de los canales.*/
@@ -89,9 +100,7 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 		
 		try {
 			socket = new SocketData();
-			connectionThread = new Thread(this, getThreadName());
-			connectionThread.setDaemon(Boolean.TRUE);
-			connectionThread.setPriority(Thread.MAX_PRIORITY);
+			connectionThread = ThreadUtils.newThread(this, getThreadName(), context.isVirtualThreads());
 			connectionThread.start();
 		} catch (final Exception e) {
 			notifyErrorDuringConnection(PrintUtils.format("No se puede conectar '%s'", context.printConnection()), e);
@@ -142,11 +151,13 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 			return;
 		}
 		
+		final WaitStrategy waitStrategy = context.getWaitStrategy();
+		final int waitSpins = context.getWaitSpins();
 		Iterator<SelectionKey> selectedKeys;
 		SelectionKey key;
 		while (stillAlive(connectionThread)) {
 			try {
-				final int readyChannels = selector.select();
+				final int readyChannels = select(selector, waitStrategy, waitSpins);
 				if (readyChannels == 0) {
 					continue;
 				}
@@ -179,6 +190,21 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 		}
 	}
 
+	/* Espera canales listos según la estrategia: sondea sin bloquear mientras la estrategia lo indique y después se bloquea. */
+	private int select(final Selector selector, final WaitStrategy waitStrategy, final int waitSpins) throws IOException {
+		if (WaitStrategy.BLOCK.equals(waitStrategy)) {
+			return selector.select();
+		}
+		int idleCount = 0;
+		int readyChannels;
+		while ((readyChannels = selector.selectNow()) == 0 && stillAlive(connectionThread)) {
+			if (waitStrategy.idle(idleCount++, waitSpins)) {
+				return selector.select();
+			}
+		}
+		return readyChannels;
+	}
+
 	protected boolean stillAlive(final Thread thread) {
 		return thread != null && thread.isAlive() && !thread.isInterrupted();
 	}
@@ -201,6 +227,23 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 		}
 	}
 
+	/* Deja de leer del canal de entrada, de forma que TCP frena al otro extremo. */
+	void pauseReading() {
+		final SocketData __socket = socket;
+		if (__socket != null) {
+			__socket.inputInterest(0);
+		}
+	}
+
+	/* Reanuda la lectura del canal de entrada, despertando al selector para que la tenga en cuenta. */
+	void resumeReading() {
+		final SocketData __socket = socket;
+		if (__socket != null) {
+			__socket.inputInterest(SelectionKey.OP_READ);
+			__socket.wakeup();
+		}
+	}
+
 	/* Escribe los datos en un canal. */
 	private void writeIntoChannel(final SelectionKey key) throws IOException {
 		final SocketChannel channel = (SocketChannel) key.channel();
@@ -209,6 +252,11 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 			return;
 		}
 		
+		if (context.isPipelineInline()) {
+			writePendingInline();
+			return;
+		}
+		
 		if (readyToSend.getAndSet(Boolean.FALSE)) {
 			final ByteBuffer buffer = (ByteBuffer) key.attachment();
 			socket.write(buffer);
@@ -241,6 +289,11 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 			return;
 		}
 
+		if (context.isPipelineInline()) {
+			writeInline(messageBytes);
+			return;
+		}
+
 		final ByteBuffer buffer = socket.writeBuffer();
 		BufferUtils.writeInToBuffer(buffer, messageBytes, Boolean.TRUE);
 		
@@ -250,6 +303,81 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 		
 	}
 
+	/*
+	 * Escribe en el canal de salida desde el hilo que envía, sin pasar por el
+	 * hilo de eventos: en modo en línea el propio hilo de eventos envía los AK
+	 * y no puede esperar a sí mismo. Lo que el socket no admite queda en el
+	 * buffer de escritura y lo termina de escribir el hilo de eventos cuando
+	 * el canal vuelve a admitir escritura, sin que nadie gire esperando. Si
+	 * no cabe el mensaje, un hilo distinto al de eventos espera a que se vacíe
+	 * el buffer; el hilo de eventos no puede esperar, y lo amplía.
+	 */
+	private void writeInline(final byte[] messageBytes) {
+		final SocketData __socket = socket;
+		if (__socket == null) {
+			return;
+		}
+		final boolean eventThread = Thread.currentThread() == connectionThread;
+		try {
+			synchronized (inlineWriteLock) {
+				ByteBuffer buffer = __socket.writeBuffer();
+				while (!eventThread && buffer.hasRemaining() && !fits(buffer, messageBytes) && !__socket.isClosed()) {
+					inlineWriteLock.wait(INLINE_WRITE_WAIT_MILLIS); /* buffer del socket lleno */
+					buffer = __socket.writeBuffer();
+				}
+				if (__socket.isClosed()) {
+					return;
+				}
+				buffer = append(__socket, buffer, messageBytes);
+				__socket.write(buffer);
+				if (buffer.hasRemaining()) {
+					__socket.outputInterest(SelectionKey.OP_WRITE);
+					if (!eventThread) {
+						__socket.wakeup();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Log.error(loggerClass, "Error esperando hueco para escribir en el canal, hilo interrumpido", e);
+			Thread.currentThread().interrupt();
+			disconnect(new CommunicationException(CommErrorType.SOCKET_ERROR, e));
+		} catch (IOException e) {
+			Log.error(loggerClass, "Error escribiendo en el canal de salida", e);
+			disconnect(new CommunicationException(CommErrorType.SOCKET_ERROR, e));
+		}
+	}
+	
+	/* Escribe en modo en línea lo pendiente en el buffer de escritura, desde el hilo de eventos. */
+	private void writePendingInline() throws IOException {
+		synchronized (inlineWriteLock) {
+			final ByteBuffer buffer = socket.writeBuffer();
+			socket.write(buffer);
+			if (!buffer.hasRemaining()) {
+				socket.outputInterest(SelectionKey.OP_READ);
+			}
+			inlineWriteLock.notifyAll();
+		}
+	}
+	
+	/* Indica si caben los bytes en el buffer de escritura tras lo pendiente de escribir. */
+	private static boolean fits(final ByteBuffer buffer, final byte[] bytes) {
+		return buffer.capacity() - buffer.remaining() >= bytes.length;
+	}
+	
+	/* Añade los bytes tras lo pendiente de escribir, ampliando el buffer si no caben. Devuelve el buffer listo para leer. */
+	private static ByteBuffer append(final SocketData __socket, final ByteBuffer buffer, final byte[] bytes) {
+		if (!fits(buffer, bytes)) {
+			final ByteBuffer larger = ByteBuffer.allocate(buffer.remaining() + bytes.length);
+			larger.put(buffer).put(bytes).flip();
+			__socket.writeBuffer(larger);
+			return larger;
+		}
+		buffer.compact();
+		buffer.put(bytes);
+		buffer.flip();
+		return buffer;
+	}
+
 	/* Fuerza la escritura en el canal. */
 	private void forceWritingChannel () {
 		if (!readyToSend.getAndSet(Boolean.TRUE)) {
@@ -309,23 +437,59 @@ abstract class AbstractChannelHandler implements Runnable, IReceiver<IBytes>, IS
 	
 	/**
 	 * Obtiene la dirección de conexión, según estemos en modo cliente o
-	 * servidor.
+	 * servidor, o la del socket de dominio Unix si está configurado.
 	 * 
 	 * @return Objeto
 	 *            con los datos de dirección de la conexión.
+	 * @throws IOException
+	 *             si la dirección de socket Unix no es válida o no está
+	 *             soportada.
 	 */
-	protected InetSocketAddress getAddress() {
+	protected SocketAddress getAddress() throws IOException {
 		if (this.address == null) {
 			setAddress();
 		}
 		return this.address;
 	}
 	
+	/**
+	 * Indica si la conexión es por socket de dominio Unix en lugar de TCP.
+	 * 
+	 * @return <code>true</code> si se usa socket de dominio Unix.
+	 */
+	protected boolean isUnixSocket() {
+		return context.getUnixSocketPath() != null;
+	}
+	
+	/**
+	 * Abre un canal de socket, TCP o de dominio Unix según la configuración.
+	 * 
+	 * @return Canal abierto, sin conectar.
+	 * @throws IOException
+	 *             en caso de error.
+	 */
+	protected SocketChannel openChannel() throws IOException {
+		return isUnixSocket() ? UnixSockets.openSocketChannel() : SocketChannel.open();
+	}
+	
+	/**
+	 * Abre un canal servidor, TCP o de dominio Unix según la configuración.
+	 * 
+	 * @return Canal abierto, sin enlazar.
+	 * @throws IOException
+	 *             en caso de error.
+	 */
+	protected ServerSocketChannel openServerChannel() throws IOException {
+		return isUnixSocket() ? UnixSockets.openServerSocketChannel() : ServerSocketChannel.open();
+	}
+	
 	/* Establece y obtiene internamente la dirección de conexión, según estemos en modo cliente o servidor. */
-	private void setAddress() {
-		final InetSocketAddress inetAddress;
+	private void setAddress() throws IOException {
+		final SocketAddress inetAddress;
 		
-		if (ConnectionMode.CLIENT.equals(context.getConnectionMode())) {
+		if (isUnixSocket()) {
+			inetAddress = UnixSockets.address(context.getUnixSocketPath());
+		} else if (ConnectionMode.CLIENT.equals(context.getConnectionMode())) {
 			inetAddress = new InetSocketAddress(context.getHost(), context.getPort());
 		} else if (ConnectionMode.SERVER.equals(context.getConnectionMode())) {
 			inetAddress = new InetSocketAddress(context.getPort());
@@ -1,7 +1,8 @@
 package libcomm.layer.socket;
 
 import java.io.IOException;
-import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -32,6 +33,9 @@ class ClientChannelHandler extends AbstractChannelHandler {
 	/* Formato para el nombre de la conexión: nombre [contador] (CLIENT, ip:puerto) */
 	private final static String THREAD_NAME_FORMAT = "%s [%s] (%s, %s:%s)";
 
+	/* Milisegundos de pausa antes de reintentar una conexión rechazada de inmediato. */
+	private final static long REFUSED_RETRY_MILLIS = 100L;
+
 	/* Integer con operaciones atómicas para establecer el contador. */
 	private final static AtomicInteger counter = new AtomicInteger(0);
 	
@@ -165,7 +169,7 @@ class ClientChannelHandler extends AbstractChannelHandler {
 	 * en caso contrario.
 	 */
 	private SocketChannel connectionWait(final long timeout) throws IOException {
-		final InetSocketAddress socketAddress = getAddress();
+		final SocketAddress socketAddress = getAddress();
 		
 		final Selector selector = Selector.open();
 		SocketChannel channel = null;
@@ -177,14 +181,17 @@ class ClientChannelHandler extends AbstractChannelHandler {
 		
 		do {
 			Log.debug(this, PrintUtils.format("Quedan '%s' milisegundos para establecer la conexión", remainingTimeout));
-			channel = SocketChannel.open();
+			channel = openChannel();
 			channel.configureBlocking(Boolean.FALSE);
 			channel.register(selector, SelectionKey.OP_CONNECT);
 			
-			channel.connect(socketAddress);
-			int selectedChannels = selector.select(remainingTimeout);
-
-			if (selectedChannels == 1) {
+			if (startConnection(channel, socketAddress)) { /* inmediata, habitual en sockets de dominio Unix */
+				channel.keyFor(selector).cancel();
+				connected = true;
+				Log.debug(this, "Canal conectado");
+			} else if (!channel.isConnectionPending()) { /* rechazada, se reintenta tras una pausa */
+				selector.select(Math.min(remainingTimeout, REFUSED_RETRY_MILLIS));
+			} else if (selector.select(remainingTimeout) == 1) {
 				final Iterator<SelectionKey> selectionIterator = selector.selectedKeys().iterator();
 				final SelectionKey selectedKey = selectionIterator.hasNext() ? selectionIterator.next() : null;
 				
@@ -211,6 +218,22 @@ class ClientChannelHandler extends AbstractChannelHandler {
 		return connected ? channel : null;
 	}
 
+	/*
+	 * Inicia la conexión de un canal. Devuelve true si conecta inmediatamente.
+	 * Con sockets de dominio Unix el rechazo, o la ausencia del fichero de
+	 * socket, también es inmediato: se cierra el canal y se devuelve false
+	 * para reintentar.
+	 */
+	private boolean startConnection(final SocketChannel channel, final SocketAddress socketAddress) throws IOException {
+		try {
+			return channel.connect(socketAddress);
+		} catch (final SocketException e) {
+			Log.error(this, e.getMessage());
+			closeAll(channel);
+			return false;
+		}
+	}
+
 	/* Obtiene el nombre del hilo. */
 	@Override
 	String getThreadName() {
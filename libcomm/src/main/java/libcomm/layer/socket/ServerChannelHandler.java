@@ -76,8 +76,11 @@ class ServerChannelHandler extends AbstractChannelHandler {
 		SocketChannel inputChannel = null, outputChannel = null;
 		boolean connected = false;
 		try {
-			serverChannel = ServerSocketChannel.open();
-			serverChannel.socket().bind(getAddress());
+			serverChannel = openServerChannel();
+			if (isUnixSocket()) { /* fichero de socket de una ejecución anterior */
+				UnixSockets.deleteSocketFile(getContext().getUnixSocketPath());
+			}
+			serverChannel.bind(getAddress());
 			
 			inputChannel = serverChannel.accept();
 			if (inputChannel == null) {
@@ -100,7 +103,7 @@ class ServerChannelHandler extends AbstractChannelHandler {
 				socketData.close();
 			}
 			
-			serverChannel.close(); /* conectados o no, no aceptaremos más conexiones en esta ejecución del hilo */
+			closeServerChannel(); /* conectados o no, no aceptaremos más conexiones en esta ejecución del hilo */
 		} catch (Exception e) {
 			connectingError(inputChannel, outputChannel, e);
 		} finally {
@@ -121,7 +124,8 @@ class ServerChannelHandler extends AbstractChannelHandler {
 
 	private void connectingError(final SocketChannel inputChannel, final SocketChannel outputChannel, final Exception e) {
 		try {
-			closeAll(socketData, serverChannel, inputChannel, outputChannel);
+			closeAll(socketData, inputChannel, outputChannel);
+			closeServerChannel();
 		} catch (IOException io) {
 			Log.error(this, PrintUtils.format("Error cerrando canales, sockets, selectores para conexión '%s'", 
 				connection.printConnection()), e);
@@ -148,7 +152,18 @@ class ServerChannelHandler extends AbstractChannelHandler {
 	protected void interruptConnection() throws IOException {
 		if (isConnecting() && serverChannel != null) {
 			connectionInterrupted = Boolean.TRUE;
-			serverChannel.close();
+			closeServerChannel();
+		}
+	}
+	
+	/* Cierra el canal servidor y, con socket de dominio Unix, borra su fichero. */
+	private void closeServerChannel() throws IOException {
+		final ServerSocketChannel channel = serverChannel;
+		if (channel != null && channel.isOpen()) {
+			channel.close();
+			if (isUnixSocket()) {
+				UnixSockets.deleteSocketFile(getContext().getUnixSocketPath());
+			}
 		}
 	}
 	
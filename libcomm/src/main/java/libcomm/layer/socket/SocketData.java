@@ -2,6 +2,7 @@ package libcomm.layer.socket;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -81,11 +82,11 @@ class SocketData implements Closeable {
 			
 			this.selector = Selector.open();
 			
-			readBuffer = ByteBuffer.allocate(inputChannel.socket().getReceiveBufferSize());
+			readBuffer = ByteBuffer.allocate(inputChannel.getOption(StandardSocketOptions.SO_RCVBUF));
 			readBuffer.flip();
 			inputKey = inputChannel.register(selector, SelectionKey.OP_READ, readBuffer);
 			
-			writeBuffer = ByteBuffer.allocate(outputChannel.socket().getSendBufferSize());
+			writeBuffer = ByteBuffer.allocate(outputChannel.getOption(StandardSocketOptions.SO_SNDBUF));
 			writeBuffer.flip();
 			outputKey = outputChannel.register(selector, SelectionKey.OP_READ, writeBuffer);
 		} catch (IOException e) {
@@ -116,6 +117,14 @@ class SocketData implements Closeable {
 	ByteBuffer writeBuffer() {
 		return this.writeBuffer;
 	}
+	
+	/* Sustituye el buffer de escritura, por ejemplo por otro mayor con lo pendiente de escribir. */
+	void writeBuffer(final ByteBuffer buffer) {
+		this.writeBuffer = buffer;
+		if (outputKey != null) {
+			outputKey.attach(buffer);
+		}
+	}
 
 	/* Establece los intereses de escucha de un SelectionKey. */
 	private void setInterest (final SelectionKey key, final int interest) {
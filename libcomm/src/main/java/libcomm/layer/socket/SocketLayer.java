@@ -1,11 +1,17 @@
 package libcomm.layer.socket;
 
+import java.io.File;
+import java.io.IOException;
+
+import libcomm.capture.CaptureDirection;
+import libcomm.capture.CaptureWriter;
 import libcomm.connection.ConnectionMode;
 import libcomm.context.ConnectionContext;
 import libcomm.exception.CommErrorType;
 import libcomm.exception.CommunicationException;
 import libcomm.layer.AbstractLayer;
 import libcomm.layer.ILayerObserver;
+import libcomm.layer.OutboundFrame;
 import libcomm.message.rfc1006.IBytes;
 
 import commons.log.Log;
@@ -14,6 +20,16 @@ import commons.util.PrintUtils;
 /**
  * Capa de comunicación a nivel de sockets.
  * <p>
+ * Si se configura un fichero de captura, todos los bytes recibidos y enviados
+ * por esta capa se escriben en él, con su sentido y un instante en
+ * nanosegundos (ver {@link CaptureWriter}).
+ * </p>
+ * <p>
+ * En modo en línea no se arrancan los procesadores de envío y recepción: lo
+ * recibido pasa a la capa superior en el hilo que lee del socket, y lo
+ * enviado se escribe en el canal en el hilo que envía.
+ * </p>
+ * <p>
  * 31/01/2016 13:01:23
  * </p>
  * 
@@ -21,6 +37,9 @@ import commons.util.PrintUtils;
  * @version 1.0
  */
 public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
+	/* Capacidad de la cola de bytes recibidos pendientes de notificar. */
+	private static final int INBOUND_QUEUE_CAPACITY = 4096;
+
 	/* Observador de los hilos de sockets. Recibirá un IBytes como mensaje. */
 	/* Recibe mensajes de la capa superior en forma de IBytes */
 
@@ -42,6 +61,15 @@ public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
 	/* Procesador-recibidor de mensajes. */
 	private SocketMessageProcessor receiver;
 
+	/* Indica si se ha dejado de leer del socket por superar la marca alta de mensajes recibidos pendientes. */
+	private volatile boolean readingPaused;
+
+	/* Sincroniza la pausa y reanudación de la lectura entre el hilo de eventos y el procesador de recepción. */
+	private final Object readingLock = new Object();
+
+	/* Captura de tráfico, null si no está configurada. */
+	private volatile CaptureWriter capture;
+
 	/**
 	 * Constructor de clase.
 	 * 
@@ -73,15 +101,23 @@ public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
 		}
 		Log.debug(this, getText("Iniciando conexión '%s'", context.printConnection()));
 
+		openCapture();
+		startMessageProcessors(); /* antes que el hilo de conexión, que envía el CR en cuanto conecta el canal */
 		channelHandler.connect();
-		startMessageProcessors();
 	}
 
-	/* Inicia los procesadores de mensajes, enviador y recibidor. */
+	/* Inicia los procesadores de mensajes, enviador y recibidor. En modo en línea no hay procesadores. */
 	private void startMessageProcessors() {
+		if (context.isPipelineInline()) {
+			sender = receiver = null;
+			return;
+		}
+		readingPaused = false;
 		final String threadName = channelHandler.getThreadName();
-		sender = new SocketMessageProcessor(PrintUtils.format("Tx %s", threadName), new SocketMessageSender(this.channelHandler));
-		receiver = new SocketMessageProcessor(PrintUtils.format("Rx %s", threadName), new SocketMessageReceiver(this.observer));
+		sender = new SocketMessageProcessor(PrintUtils.format("Tx %s", threadName), new SocketMessageSender(this.channelHandler), context,
+			context.getOutboundQueueCapacity(), this::dropped, observer::drained);
+		receiver = new SocketMessageProcessor(PrintUtils.format("Rx %s", threadName), new SocketMessageReceiver(this::processReceived), 
+			context, Math.max(INBOUND_QUEUE_CAPACITY, 2 * context.getInboundHighWatermark()));
 
 		sender.start();
 		receiver.start();
@@ -98,16 +134,164 @@ public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
 		}
 	}
 
+	/* Abre la captura de tráfico la primera vez que se conecta, si está configurada. */
+	private void openCapture() {
+		final String file = context.getCaptureFile();
+		if (capture != null || file == null) {
+			return;
+		}
+		try {
+			capture = new CaptureWriter(new File(file), mode);
+		} catch (final IOException e) {
+			final String error = getText("No se puede abrir el fichero de captura '%s'", file);
+			Log.error(this, error, e);
+			observer.error(error, new CommunicationException(CommErrorType.COMMUNICATION_ERROR, error, e));
+		}
+	}
+
+	/* Escribe en la captura los bytes recibidos o enviados, si hay captura. Un error deja de capturar. */
+	private void capture(final CaptureDirection direction, final IBytes message) {
+		final CaptureWriter __capture = capture;
+		if (__capture == null) {
+			return;
+		}
+		try {
+			__capture.write(direction, System.nanoTime(), message.getBytes());
+		} catch (final IOException e) {
+			Log.error(this, getText("Error escribiendo en la captura, se detiene la captura"), e);
+			capture = null;
+			closeCapture(__capture);
+		}
+	}
+
+	/* Vuelca la captura a disco, por ejemplo al desconectar. */
+	private void flushCapture() {
+		final CaptureWriter __capture = capture;
+		if (__capture != null) {
+			try {
+				__capture.flush();
+			} catch (final IOException e) {
+				Log.error(this, getText("Error volcando la captura a disco"), e);
+			}
+		}
+	}
+
+	/* Cierra una captura, ignorando errores. */
+	private void closeCapture(final CaptureWriter __capture) {
+		try {
+			__capture.close();
+		} catch (final IOException e) {
+			Log.error(this, getText("Error cerrando la captura"), e);
+		}
+	}
+
 	@Override
 	public void receive(final IBytes message) {
 		Log.debug(this, getText("Recibidos bytes de mensaje '%s'", PrintUtils.print(message.getBytes())));
-		receiver.addMessage(message);
+		capture(CaptureDirection.INBOUND, message);
+		final SocketMessageProcessor __receiver = receiver;
+		if (__receiver != null) {
+			__receiver.addMessage(message);
+			if (!readingPaused && __receiver.size() >= context.getInboundHighWatermark()) {
+				pauseReading(__receiver);
+			}
+			return;
+		}
+		try {
+			observer.receive(message);
+		} catch (final Throwable t) {
+			Log.error(this, getText("Error al procesar mensaje '%s'", PrintUtils.print(message.getBytes())), t);
+		}
+	}
+
+	/* Procesa en el hilo de recepción unos bytes recibidos y reanuda la lectura si estaba detenida y hay hueco. */
+	private void processReceived(final IBytes message) {
+		try {
+			observer.receive(message);
+		} finally {
+			final SocketMessageProcessor __receiver = receiver;
+			if (readingPaused && __receiver != null && __receiver.size() <= context.getInboundLowWatermark()) {
+				resumeReading(__receiver);
+			}
+		}
+	}
+
+	/*
+	 * Deja de leer del socket al alcanzar la marca alta. El hilo de recepción puede vaciar la cola entre la comprobación 
+	 * y la marca de lectura detenida, sin verla y sin reanudar: se vuelve a comprobar tras detener la lectura. Si vacía 
+	 * la cola después, ya ve la marca y reanuda él.
+	 */
+	private void pauseReading(final SocketMessageProcessor __receiver) {
+		synchronized (readingLock) {
+			if (!readingPaused && __receiver.size() >= context.getInboundHighWatermark()) {
+				readingPaused = true;
+				channelHandler.pauseReading();
+				Log.debug(this, getText("Recibidos '%s' mensajes pendientes de procesar, se deja de leer del socket", 
+					__receiver.size())
+				);
+				resumeReading(__receiver);
+			}
+		}
+	}
+
+	/* Reanuda la lectura del socket al bajar de la marca baja. */
+	private void resumeReading(final SocketMessageProcessor __receiver) {
+		synchronized (readingLock) {
+			if (readingPaused && __receiver.size() <= context.getInboundLowWatermark()) {
+				readingPaused = false;
+				channelHandler.resumeReading();
+				Log.debug(this, getText("Quedan '%s' mensajes pendientes de procesar, se reanuda la lectura del socket", 
+					__receiver.size())
+				);
+			}
+		}
 	}
 
 	@Override
 	public void send(final IBytes message) {
 		Log.debug(this, getText("Enviando bytes de mensajes '%s'", PrintUtils.print(message.getBytes())));
-		sender.addMessage(message);
+		capture(CaptureDirection.OUTBOUND, message);
+		final SocketMessageProcessor __sender = sender;
+		if (__sender != null) {
+			__sender.addMessage(message);
+		} else {
+			channelHandler.send(message);
+		}
+	}
+
+	/** Envía según la política de la cola de salida; en modo en línea no hay cola y siempre se acepta. */
+	@Override
+	public boolean offer(final IBytes message) {
+		final SocketMessageProcessor __sender = sender;
+		if (__sender == null) {
+			send(message);
+			return true;
+		}
+		Log.debug(this, getText("Enviando bytes de mensajes '%s'", PrintUtils.print(message.getBytes())));
+		if (!__sender.offerMessage(message, context.getOutboundQueuePolicy())) {
+			Log.error(this, getText("Cola de salida llena en '%s', se rechaza el mensaje", context.printConnection()));
+			return false;
+		}
+		capture(CaptureDirection.OUTBOUND, message);
+		return true;
+	}
+
+	/* Telegrama descartado de la cola de salida llena: se notifica a la capa superior cada mensaje que contenía. */
+	private void dropped(final OutboundFrame frame) {
+		for (final IBytes message : frame.getMessages()) {
+			observer.dropped(message);
+		}
+	}
+
+	/* Indica si se ha dejado de leer del socket por superar la marca alta. */
+	boolean isReadingPaused() {
+		return readingPaused;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		final SocketMessageProcessor __sender = sender;
+		return __sender != null ? __sender.size() : 0;
 	}
 
 	@Override
@@ -139,6 +323,7 @@ public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
 	public void disconnected() {
 		Log.debug(this, getText("Desconexión de '%s'", context.printConnection()));
 		stopMessageProcessors();
+		flushCapture();
 		observer.disconnected();
 	}
 
@@ -146,6 +331,7 @@ public class SocketLayer extends AbstractLayer<IBytes, IBytes> {
 	public void disconnected(final CommunicationException cause) {
 		Log.error(this, getText("Desconexión inesperada de '%s'", context.printConnection()));
 		stopMessageProcessors();
+		flushCapture();
 		observer.disconnected(cause);
 	}
 
@@ -1,17 +1,44 @@
 package libcomm.layer.socket;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
+import libcomm.context.ConnectionContext;
+import libcomm.layer.OutboundFrame;
 import libcomm.message.rfc1006.IBytes;
+import libcomm.util.OverflowPolicy;
+import libcomm.util.RingBuffer;
+import libcomm.util.ThreadUtils;
+import libcomm.util.WaitStrategy;
 
 import commons.log.Log;
 import commons.util.PrintUtils;
 
 /**
  * Inicia un hilo para procesar los mensajes a nivel de socket y evitar esperas.
- * 
+ * <p>
+ * Los mensajes se encolan en una {@link RingBuffer} preasignada, sin
+ * candados ni reserva de memoria por mensaje, en la que pueden añadir varios
+ * hilos a la vez (aplicación, AK del hilo de recepción y reenvíos de AK) y
+ * de la que sólo extrae el hilo del procesador. Si la cola se llena, quien
+ * añade se detiene hasta que el procesador extraiga un mensaje y le despierte,
+ * salvo que se ofrezca el mensaje con otra {@link OverflowPolicy}.
+ * </p>
+ * <p>
+ * Con {@link OverflowPolicy#DROP_OLDEST} sólo se descartan telegramas de
+ * mensajes de la aplicación, {@link OutboundFrame}, y se notifica su descarte.
+ * Si el más antiguo es de control (CR/CC, AK) o un reenvío, no se descarta:
+ * pasa a una cola prioritaria que el procesador atiende antes, de forma que
+ * sigue siendo el siguiente en enviarse.
+ * </p>
+ * <p>
+ * Sin mensajes, el procesador avisa de que se ha vaciado la cola y espera
+ * según la {@link WaitStrategy} configurada en la conexión antes de
+ * detenerse.
+ * </p>
  * <p>
  * 12/03/2016 23:06:22
  * </p>
@@ -21,15 +48,47 @@ import commons.util.PrintUtils;
  */
 class SocketMessageProcessor implements Runnable {
 	private final IMessageProcessor<IBytes> messageProcessor;
-	private final BlockingQueue<IBytes> messages;
-	private Thread thread;
+	private final RingBuffer<IBytes> messages;
+	/* Telegramas que no pueden descartarse, sacados de la cola llena para hacer hueco. Se procesan antes que la cola. */
+	private final Queue<IBytes> urgent;
+	/* Recibe los telegramas descartados de la cola llena. */
+	private final Consumer<OutboundFrame> dropped;
+	/* Se avisa cada vez que el procesador se queda sin mensajes. */
+	private final Runnable drained;
+	/* Productores detenidos esperando hueco en la cola llena, el procesador los despierta al extraer. */
+	private final Queue<Thread> producers;
+	private volatile Thread thread;
+	/* Indica si el hilo del procesador está detenido esperando mensajes. */
+	private volatile boolean waiting;
+	/*
+	 * Mensaje extraído de la cola y aún en proceso, 1 o 0. Se marca antes de extraer, de forma que la cola y el mensaje 
+	 * en proceso nunca parezcan vacíos a la vez mientras queda alguno por procesar.
+	 */
+	private volatile int processing;
 	private final AtomicBoolean running;
 	private final String threadName;
+	private final boolean virtual;
+	private final WaitStrategy waitStrategy;
+	private final int waitSpins;
 
-	SocketMessageProcessor(final String threadName, final IMessageProcessor<IBytes> messageProcessor) {
+	SocketMessageProcessor(final String threadName, final IMessageProcessor<IBytes> messageProcessor, 
+			final ConnectionContext context, final int capacity) {
+		this(threadName, messageProcessor, context, capacity, frame -> { }, () -> { });
+	}
+
+	SocketMessageProcessor(final String threadName, final IMessageProcessor<IBytes> messageProcessor, 
+			final ConnectionContext context, final int capacity, final Consumer<OutboundFrame> dropped, 
+			final Runnable drained) {
 		this.messageProcessor = messageProcessor;
+		this.dropped = dropped;
+		this.drained = drained;
+		this.urgent = new ConcurrentLinkedQueue<>();
+		this.producers = new ConcurrentLinkedQueue<>();
 		this.threadName = threadName;
-		this.messages = new LinkedBlockingQueue<IBytes>();
+		this.virtual = context.isVirtualThreads();
+		this.waitStrategy = context.getWaitStrategy();
+		this.waitSpins = context.getWaitSpins();
+		this.messages = new RingBuffer<IBytes>(capacity);
 		this.running = new AtomicBoolean(Boolean.FALSE);
 	}
 	
@@ -42,9 +101,7 @@ class SocketMessageProcessor implements Runnable {
 			return;
 		}
 		Log.debug(this, PrintUtils.format("Iniciando hilo de proceso de mensajes-socket '%s'", threadName));
-		thread = new Thread(this, threadName);
-		thread.setDaemon(Boolean.TRUE);
-		thread.setPriority(Thread.MAX_PRIORITY);
+		thread = ThreadUtils.newThread(this, threadName, virtual);
 		thread.start();
 	}
 
@@ -52,15 +109,80 @@ class SocketMessageProcessor implements Runnable {
 		return thread != null && thread.isAlive() && running.get();
 	}
 	
-	/* Añade un mensaje para ser procesado en cuanto sea posible. */
-	synchronized void addMessage(final IBytes message) {
-		if (isRunning()) {
-			messages.offer(message);
-		} else {
-			Log.error(this, PrintUtils.format(
-				"Procesador de mensajes en socket no iniciado, no se puede procesar '%s'", message)
-			);
+	/*
+	 * Añade un mensaje para ser procesado en cuanto sea posible. Si la cola está llena se detiene hasta que haya hueco; 
+	 * se registra antes de reintentar, de forma que el procesador no pueda extraer sin verlo y despertarlo.
+	 */
+	void addMessage(final IBytes message) {
+		if (isRunning() && offer(message)) {
+			return;
+		}
+		final Thread current = Thread.currentThread();
+		producers.add(current);
+		try {
+			while (isRunning()) {
+				if (offer(message)) {
+					return;
+				}
+				LockSupport.park(this); /* cola llena */
+			}
+		} finally {
+			producers.remove(current);
+		}
+		logNotRunning(message);
+	}
+
+	/*
+	 * Añade un mensaje aplicando una política si la cola está llena. Devuelve false sólo si se rechaza por cola llena; 
+	 * con el procesador detenido el mensaje se descarta como en addMessage.
+	 */
+	boolean offerMessage(final IBytes message, final OverflowPolicy policy) {
+		if (OverflowPolicy.BLOCK.equals(policy)) {
+			addMessage(message);
+			return true;
+		}
+		while (isRunning()) {
+			if (offer(message)) {
+				return true;
+			}
+			if (OverflowPolicy.REJECT.equals(policy)) {
+				return false;
+			}
+			final IBytes oldest = messages.poll(); /* DROP_OLDEST */
+			if (oldest instanceof OutboundFrame) {
+				Log.error(this, PrintUtils.format("Cola de '%s' llena, se descarta el telegrama más antiguo '%s'", 
+					threadName, oldest)
+				);
+				dropped.accept((OutboundFrame) oldest);
+			} else if (oldest != null) {
+				urgent.add(oldest); /* no se descarta, sigue siendo el siguiente en enviarse */
+			}
+		}
+		logNotRunning(message);
+		return true;
+	}
+
+	/* Obtiene el número de mensajes pendientes de procesar, incluido el que está en proceso. */
+	int size() {
+		final int queued = messages.size() + urgent.size();
+		return queued + processing;
+	}
+
+	/* Añade un mensaje a la cola si hay hueco, despertando al procesador si está detenido. */
+	private boolean offer(final IBytes message) {
+		if (!messages.offer(message)) {
+			return false;
+		}
+		if (waiting) {
+			LockSupport.unpark(thread);
 		}
+		return true;
+	}
+
+	private void logNotRunning(final IBytes message) {
+		Log.error(this, PrintUtils.format(
+			"Procesador de mensajes en socket no iniciado, no se puede procesar '%s'", message)
+		);
 	}
 	
 	@Override
@@ -69,23 +191,58 @@ class SocketMessageProcessor implements Runnable {
 		/* Esperamos por mensajes a enviar */
 		Log.debug(this, PrintUtils.format("Esperando mensajes a procesar '%s'", threadName));
 		
-		while (!thread.isInterrupted()) {
+		final Thread current = Thread.currentThread();
+		int idleCount = 0;
+		while (!current.isInterrupted()) {
 			try {
-				message = messages.take();
+				processing = 1;
+				message = urgent.poll();
+				if (message == null && (message = messages.poll()) != null) {
+					wakeProducers();
+				}
 				if (message == null) {
-					continue; /* no debería ocurrir */
+					processing = 0;
+					if (idleCount == 0) {
+						drained.run(); /* sólo al quedarse sin mensajes, no en cada espera */
+					}
+					if (waitStrategy.idle(idleCount++, waitSpins)) {
+						waitForMessages();
+						idleCount = 0;
+					}
+					continue;
 				}
+				idleCount = 0;
 				messageProcessor.process(message);
-			} catch (InterruptedException e) {
-				thread.interrupt();
 			} catch (Throwable t) {
 				Log.error(this, PrintUtils.format("Error al procesar mensaje '%s'", 
 					(message != null && message.getBytes() != null ? PrintUtils.print(message.getBytes()) : message)), t);
+			} finally {
+				processing = 0;
 			}
 		}
 		Log.debug(this, "Hilo de procesamiento de mensajes interrumpido. Dejan de procesarse los mensajes.");
 
 		running.set(Boolean.FALSE);
+		wakeProducers();
+	}
+
+	/* Despierta a los productores detenidos con la cola llena, para que reintenten. */
+	private void wakeProducers() {
+		if (producers.isEmpty()) {
+			return;
+		}
+		for (final Thread producer : producers) {
+			LockSupport.unpark(producer);
+		}
+	}
+
+	/* Espera a que se añada un mensaje o se detenga el procesador. */
+	private void waitForMessages() {
+		waiting = true;
+		if (messages.isEmpty() && urgent.isEmpty() && !Thread.currentThread().isInterrupted()) {
+			LockSupport.park(this);
+		}
+		waiting = false;
 	}
 
 	/* Detiene el hilo de procesamiento de mensajes. */
@@ -0,0 +1,33 @@
+package libcomm.layer.socket;
+
+import libcomm.context.ConnectionContext;
+import libcomm.layer.ILayerCommands;
+import libcomm.layer.ILayerObserver;
+import libcomm.layer.ITransportProvider;
+import libcomm.message.rfc1006.IBytes;
+
+/**
+ * Proveedor del transporte por defecto: {@link SocketLayer}, sockets TCP con
+ * NIO.
+ * <p>
+ * 19/10/2026 16:50:03
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class SocketTransportProvider implements ITransportProvider {
+
+	/** Nombre del transporte. */
+	public static final String NAME = "socket";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public ILayerCommands<IBytes> create(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+		return new SocketLayer(context, observer);
+	}
+}
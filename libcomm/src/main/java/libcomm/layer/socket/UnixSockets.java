@@ -0,0 +1,154 @@
+package libcomm.layer.socket;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Acceso a los sockets de dominio Unix de NIO (JDK 16 o superior) sin
+ * depender de ellos al compilar: la librería se compila para Java 8, por lo
+ * que <code>UnixDomainSocketAddress</code> y la familia
+ * <code>StandardProtocolFamily.UNIX</code> se obtienen por reflexión. En una
+ * JVM anterior, abrir un canal lanza una {@link IOException} que indica la
+ * versión necesaria.
+ * <p>
+ * 19/10/2026 17:26:44
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+class UnixSockets {
+
+	/* Familia de protocolo UNIX, null si la JVM no la soporta. */
+	private static final ProtocolFamily UNIX = findUnixFamily();
+
+	/* Método UnixDomainSocketAddress.of(String), null si la JVM no lo soporta. */
+	private static final Method ADDRESS_OF = findAddressFactory();
+
+	/* Clase de utilidades, no instanciable. */
+	private UnixSockets() {
+	}
+
+	/**
+	 * Indica si la JVM soporta sockets de dominio Unix.
+	 *
+	 * @return <code>true</code> si están soportados.
+	 */
+	static boolean isSupported() {
+		return UNIX != null && ADDRESS_OF != null;
+	}
+
+	/**
+	 * Obtiene la dirección de un socket de dominio Unix.
+	 *
+	 * @param path
+	 *            Ruta del fichero de socket.
+	 * @return Dirección del socket.
+	 * @throws IOException
+	 *             si la JVM no soporta sockets de dominio Unix.
+	 */
+	static SocketAddress address(final String path) throws IOException {
+		checkSupported();
+		try {
+			return (SocketAddress) ADDRESS_OF.invoke(null, path);
+		} catch (final IllegalAccessException e) {
+			throw new IOException(PrintUtils.format("No se puede crear la dirección de socket Unix '%s'", path), e);
+		} catch (final InvocationTargetException e) {
+			throw new IOException(PrintUtils.format("Ruta de socket Unix no válida '%s'", path), e.getCause());
+		}
+	}
+
+	/**
+	 * Abre un canal de socket de dominio Unix, sin conectar.
+	 *
+	 * @return Canal abierto.
+	 * @throws IOException
+	 *             en caso de error o si la JVM no soporta sockets de dominio
+	 *             Unix.
+	 */
+	static SocketChannel openSocketChannel() throws IOException {
+		checkSupported();
+		return (SocketChannel) invokeOpen(SocketChannel.class);
+	}
+
+	/**
+	 * Abre un canal servidor de socket de dominio Unix, sin enlazar.
+	 *
+	 * @return Canal abierto.
+	 * @throws IOException
+	 *             en caso de error o si la JVM no soporta sockets de dominio
+	 *             Unix.
+	 */
+	static ServerSocketChannel openServerSocketChannel() throws IOException {
+		checkSupported();
+		return (ServerSocketChannel) invokeOpen(ServerSocketChannel.class);
+	}
+
+	/**
+	 * Borra el fichero de un socket de dominio Unix, si existe. Es necesario
+	 * antes de enlazar el servidor, si quedó de una ejecución anterior, y al
+	 * cerrarlo.
+	 *
+	 * @param path
+	 *            Ruta del fichero de socket.
+	 */
+	static void deleteSocketFile(final String path) {
+		try {
+			Files.deleteIfExists(Paths.get(path));
+		} catch (final IOException e) {
+			Log.error(UnixSockets.class, PrintUtils.format("No se puede borrar el fichero de socket Unix '%s'", path), e);
+		}
+	}
+
+	/* Invoca el método estático open(ProtocolFamily) de la clase de canal indicada. */
+	private static Object invokeOpen(final Class<?> channelClass) throws IOException {
+		try {
+			return channelClass.getMethod("open", ProtocolFamily.class).invoke(null, UNIX);
+		} catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new IOException(PrintUtils.format("No se puede abrir canal de socket Unix '%s'", channelClass.getSimpleName()), e);
+		} catch (final InvocationTargetException e) {
+			final Throwable cause = e.getCause();
+			throw cause instanceof IOException ? (IOException) cause
+				: new IOException("Error abriendo canal de socket Unix", cause);
+		}
+	}
+
+	/* Lanza un error si la JVM no soporta sockets de dominio Unix. */
+	private static void checkSupported() throws IOException {
+		if (!isSupported()) {
+			throw new IOException(PrintUtils.format(
+				"Los sockets de dominio Unix requieren Java 16 o superior, versión actual '%s'",
+				System.getProperty("java.version")));
+		}
+	}
+
+	/* Busca la familia de protocolo UNIX. */
+	private static ProtocolFamily findUnixFamily() {
+		for (final StandardProtocolFamily family : StandardProtocolFamily.values()) {
+			if ("UNIX".equals(family.name())) {
+				return family;
+			}
+		}
+		return null;
+	}
+
+	/* Busca el método UnixDomainSocketAddress.of(String). */
+	private static Method findAddressFactory() {
+		try {
+			return Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+		} catch (final ClassNotFoundException | NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
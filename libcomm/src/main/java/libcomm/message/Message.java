@@ -73,6 +73,16 @@ public abstract class Message<C extends IMessageContent> implements IBytes {
 		return this.sequenceNumber;
 	}
 
+	/**
+	 * Obtiene la clave que agrupa los mensajes que deben notificarse en orden
+	 * entre sí, por ejemplo los de una misma posición.
+	 * 
+	 * @return Clave del mensaje, null si no tiene.
+	 */
+	public Object getKey() {
+		return null;
+	}
+
 	/**
 	 * Obtiene una representación del objeto como array de bytes unidimensional.
 	 * 
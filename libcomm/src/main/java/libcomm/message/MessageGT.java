@@ -56,4 +56,17 @@ public class MessageGT extends Message<ContentGT> {
 	public void setPosition(String position) {
 		getContent().setPosition(position);
 	}
+
+
+	/**
+	 * Obtiene la posición como clave del mensaje o, si no la tiene, el
+	 * paquete.
+	 * 
+	 * @return Clave del mensaje.
+	 */
+	@Override
+	public Object getKey() {
+		final String position = getPosition();
+		return position != null ? position : getPackageId();
+	}
 }
@@ -94,4 +94,17 @@ public class MessagePR extends Message<ContentPR> {
 	public void setRequiredReply(final Boolean requiredReply) {
 		getContent().setRequiredReply(requiredReply);
 	}
+
+
+	/**
+	 * Obtiene la posición como clave del mensaje o, si no la tiene, el
+	 * paquete.
+	 * 
+	 * @return Clave del mensaje.
+	 */
+	@Override
+	public Object getKey() {
+		final String position = getPosition();
+		return position != null ? position : getPackageId();
+	}
 }
@@ -55,4 +55,15 @@ public class MessageST extends Message<ContentST> {
 	public void setEnabledPosition(final Boolean enabledPosition) {
 		getContent().setEnabledPosition(enabledPosition);
 	}
+
+
+	/**
+	 * Obtiene la posición como clave del mensaje.
+	 * 
+	 * @return Clave del mensaje.
+	 */
+	@Override
+	public Object getKey() {
+		return getPosition();
+	}
 }
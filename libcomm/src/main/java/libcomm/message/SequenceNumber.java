@@ -1,5 +1,8 @@
 package libcomm.message;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import libcomm.util.MessageUtils;
 
 import org.apache.commons.lang3.StringUtils;
@@ -127,6 +130,24 @@ public class SequenceNumber implements IPrintForMessage{
 		return new SequenceNumber(number);
 	}	
 	
+	/**
+	 * Reserva de una vez un rango de números de secuencia consecutivos, como
+	 * si se llamase <code>count</code> veces a {@link #incrementAndGet()}. Se
+	 * reservan atómicamente, por lo que ningún otro hilo obtiene un número
+	 * intermedio.
+	 * 
+	 * @param count
+	 *            Números de secuencia a reservar.
+	 * @return Copia de cada número de secuencia reservado, en orden.
+	 */
+	public synchronized List<SequenceNumber> incrementAndGet (final int count) {
+		final List<SequenceNumber> result = new ArrayList<>(Math.max(count, 0));
+		for (int i = 0; i < count; i++) {
+			result.add(incrementAndGet());
+		}
+		return result;
+	}
+	
 	/*
 	 * Imprime el número de secuencia como un String hexadecimal.
 	 * 
@@ -0,0 +1,43 @@
+package libcomm.util;
+
+/**
+ * Política a aplicar cuando se envía un mensaje y la cola de salida de la
+ * conexión está llena.
+ * <ul>
+ * <li>{@link #BLOCK}: quien envía espera a que haya hueco en la cola.
+ * <li>{@link #REJECT}: el mensaje se rechaza, no se envía y se notifica un
+ * error de control de flujo.
+ * <li>{@link #DROP_OLDEST}: se descarta el mensaje más antiguo de la cola para
+ * dejar hueco al nuevo. El mensaje descartado no se reenvía: deja de esperar
+ * AK y se notifica un error de control de flujo, o se completa con error su
+ * futuro si se envió con <code>sendAsync</code>. Los telegramas de control
+ * (CR/CC, AK) y los reenvíos nunca se descartan.
+ * </ul>
+ * <p>
+ * 19/10/2026 22:41:15
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public enum OverflowPolicy {
+	BLOCK, REJECT, DROP_OLDEST;
+
+	/**
+	 * Permite obtener el enumerado correspondiente a un String, sin distinguir
+	 * mayúsculas/minúsculas y admitiendo guion en lugar de guion bajo.
+	 *
+	 * @param policyStr
+	 *            Política en formato {@link String}.
+	 * @return Política enumerada, <code>null</code> si no la encuentra.
+	 */
+	public static OverflowPolicy getPolicy(final String policyStr) {
+		final String policyUp = policyStr != null ? policyStr.trim().toUpperCase().replace('-', '_') : null;
+		try {
+			return OverflowPolicy.valueOf(policyUp);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			/* Si se pasa un valor que no corresponde al enumerado simplemente null */
+		}
+		return null;
+	}
+}
@@ -0,0 +1,167 @@
+package libcomm.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola acotada sin bloqueos sobre un array circular, segura con varios
+ * productores y varios consumidores. Cada celda guarda una secuencia que
+ * indica si está libre para el productor o lista para el consumidor, de forma
+ * que añadir y extraer sólo requiere una operación CAS sobre el índice
+ * correspondiente, sin candados ni reserva de memoria por elemento.
+ * <p>
+ * La capacidad se redondea a la siguiente potencia de dos, mínimo dos. Cuando
+ * la cola está llena {@link #offer(Object)} devuelve <code>false</code> y
+ * cuando está vacía {@link #poll()} devuelve <code>null</code>; la espera, si
+ * se desea, es responsabilidad de quien la usa.
+ * </p>
+ * <p>
+ * 19/10/2026 15:02:40
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ *
+ * @param <E>
+ *            Tipo de los elementos de la cola.
+ */
+public class RingBuffer<E> {
+
+	/* Capacidad máxima admitida, potencia de dos. */
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	/* Máscara para obtener la celda a partir de una posición. */
+	private final int mask;
+
+	/* Elementos de la cola. */
+	private final Object[] elements;
+
+	/* Secuencia de cada celda: igual a la posición si está libre, posición + 1 si contiene un elemento. */
+	private final AtomicLongArray sequences;
+
+	/* Siguiente posición en la que añadir. */
+	private final AtomicLong tail;
+
+	/* Siguiente posición de la que extraer. */
+	private final AtomicLong head;
+
+	/**
+	 * Constructor de clase.
+	 *
+	 * @param capacity
+	 *            Capacidad mínima de la cola, se redondea a potencia de dos.
+	 */
+	public RingBuffer(final int capacity) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Capacidad de la cola fuera de rango: " + capacity);
+		}
+		final int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = size - 1;
+		this.elements = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.tail = new AtomicLong();
+		this.head = new AtomicLong();
+	}
+
+	/**
+	 * Añade un elemento al final de la cola si hay hueco.
+	 *
+	 * @param element
+	 *            Elemento a añadir, no nulo.
+	 * @return <code>true</code> si se ha añadido, <code>false</code> si la
+	 *         cola está llena.
+	 */
+	public boolean offer(final E element) {
+		if (element == null) {
+			throw new NullPointerException("No se admiten elementos nulos");
+		}
+		long position = tail.get();
+		while (true) {
+			final int index = (int) position & mask;
+			final long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					elements[index] = element;
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false; /* llena */
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Extrae el elemento al principio de la cola.
+	 *
+	 * @return Elemento extraído, <code>null</code> si la cola está vacía.
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long position = head.get();
+		while (true) {
+			final int index = (int) position & mask;
+			final long difference = sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					final E element = (E) elements[index];
+					elements[index] = null;
+					sequences.lazySet(index, position + mask + 1);
+					return element;
+				}
+				position = head.get();
+			} else if (difference < 0) {
+				return null; /* vacía */
+			} else {
+				position = head.get();
+			}
+		}
+	}
+
+	/**
+	 * Obtiene el número aproximado de elementos en la cola. Con productores o
+	 * consumidores concurrentes es sólo orientativo.
+	 *
+	 * @return Número de elementos.
+	 */
+	public int size() {
+		while (true) {
+			final long before = head.get();
+			final long last = tail.get();
+			if (head.get() == before) {
+				return (int) Math.max(0, Math.min(last - before, elements.length));
+			}
+		}
+	}
+
+	/**
+	 * Indica si la cola está vacía.
+	 *
+	 * @return <code>true</code> si no hay elementos.
+	 */
+	public boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	/**
+	 * Obtiene la capacidad de la cola.
+	 *
+	 * @return Capacidad, potencia de dos.
+	 */
+	public int capacity() {
+		return elements.length;
+	}
+
+	/** Vacía la cola, descartando los elementos pendientes. */
+	public void clear() {
+		while (poll() != null) {
+			/* descarta */
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package libcomm.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import commons.log.Log;
+import commons.util.PrintUtils;
+
+/**
+ * Utilidades para crear los hilos de Libcomm.
+ * <p>
+ * Por defecto se crean hilos de plataforma, demonio y de máxima prioridad.
+ * Si se piden hilos virtuales (Java 21 o superior) se crean mediante
+ * <code>Thread.ofVirtual()</code>, obtenido por reflexión porque la librería
+ * se compila para Java 8: cada hilo bloqueado en una cola, en un
+ * <code>accept</code> o en una espera de conexión cuesta entonces unos pocos
+ * KB de memoria en lugar de una pila de sistema operativo. En una JVM sin
+ * hilos virtuales se crean hilos de plataforma.
+ * </p>
+ * <p>
+ * 19/10/2026 20:41:26
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ThreadUtils {
+
+	/* Thread.ofVirtual(), null si la JVM no soporta hilos virtuales. */
+	private static final MethodHandle OF_VIRTUAL;
+
+	/* Thread.Builder.name(String). */
+	private static final MethodHandle BUILDER_NAME;
+
+	/* Thread.Builder.unstarted(Runnable). */
+	private static final MethodHandle BUILDER_UNSTARTED;
+
+	/* Thread.isVirtual(). */
+	private static final MethodHandle IS_VIRTUAL;
+
+	static {
+		MethodHandle ofVirtual = null;
+		MethodHandle builderName = null;
+		MethodHandle builderUnstarted = null;
+		MethodHandle isVirtual = null;
+		try {
+			final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+			final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			ofVirtual = lookup.findStatic(Thread.class, "ofVirtual",
+				MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+			builderName = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+			builderUnstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+			isVirtual = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+		} catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+			ofVirtual = null; /* JVM anterior a Java 21 */
+		}
+		OF_VIRTUAL = ofVirtual;
+		BUILDER_NAME = builderName;
+		BUILDER_UNSTARTED = builderUnstarted;
+		IS_VIRTUAL = isVirtual;
+	}
+
+	/* Clase de utilidades, no instanciable. */
+	private ThreadUtils() {
+	}
+
+	/**
+	 * Indica si la JVM soporta hilos virtuales.
+	 *
+	 * @return <code>true</code> si se pueden crear hilos virtuales.
+	 */
+	public static boolean isVirtualSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Indica si un hilo es virtual.
+	 *
+	 * @param thread
+	 *            Hilo.
+	 * @return <code>true</code> si es un hilo virtual; siempre
+	 *         <code>false</code> en una JVM sin hilos virtuales.
+	 */
+	public static boolean isVirtual(final Thread thread) {
+		if (IS_VIRTUAL == null) {
+			return false;
+		}
+		try {
+			return (boolean) IS_VIRTUAL.invoke(thread);
+		} catch (final Throwable t) {
+			Log.error(ThreadUtils.class, PrintUtils.format("No se puede comprobar si '%s' es virtual", thread.getName()), t);
+			return false;
+		}
+	}
+
+	/**
+	 * Crea un hilo sin arrancarlo. Los hilos de plataforma son demonio y de
+	 * máxima prioridad; los virtuales siempre son demonio y la prioridad no
+	 * les afecta.
+	 *
+	 * @param task
+	 *            Tarea del hilo.
+	 * @param name
+	 *            Nombre del hilo.
+	 * @param virtual
+	 *            Indica si se quiere un hilo virtual. Si la JVM no los
+	 *            soporta, se crea un hilo de plataforma.
+	 * @return Hilo creado, sin arrancar.
+	 */
+	public static Thread newThread(final Runnable task, final String name, final boolean virtual) {
+		if (virtual && isVirtualSupported()) {
+			try {
+				final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(), name);
+				return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+			} catch (final Throwable t) {
+				Log.error(ThreadUtils.class, PrintUtils.format("No se puede crear hilo virtual '%s', se usa hilo de plataforma", name), t);
+			}
+		}
+		final Thread thread = new Thread(task, name);
+		thread.setDaemon(Boolean.TRUE);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		return thread;
+	}
+}
@@ -0,0 +1,70 @@
+package libcomm.util;
+
+/**
+ * Estrategias de espera de los hilos consumidores (procesadores de mensajes,
+ * notificador de eventos y selector) cuando no tienen nada que procesar.
+ * <ul>
+ * <li>{@link #BLOCK}: se bloquean en cuanto se quedan sin trabajo y necesitan
+ * que se les despierte. No consume CPU en reposo, pero el primer mensaje tras
+ * un periodo de inactividad sufre la latencia de despertar al hilo.
+ * <li>{@link #YIELD}: ceden la CPU y vuelven a comprobar, sin bloquearse
+ * nunca.
+ * <li>{@link #SPIN}: comprueban en bucle un número configurable de veces y
+ * después se bloquean.
+ * <li>{@link #BUSY_SPIN}: comprueban en bucle sin bloquearse ni ceder la CPU.
+ * Ocupa un núcleo por hilo a cambio de la menor latencia.
+ * </ul>
+ * <p>
+ * 19/10/2026 22:04:19
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public enum WaitStrategy {
+	BLOCK, YIELD, SPIN, BUSY_SPIN;
+
+	/**
+	 * Espera activa de una iteración sin trabajo, según la estrategia, e
+	 * indica si el hilo debe bloquearse ya hasta que se le despierte.
+	 *
+	 * @param idleCount
+	 *            Iteraciones consecutivas sin trabajo, empezando en 0.
+	 * @param spins
+	 *            Iteraciones de espera activa antes de bloquearse, para
+	 *            {@link #SPIN}.
+	 * @return <code>true</code> si el hilo debe bloquearse.
+	 */
+	public boolean idle(final int idleCount, final int spins) {
+		switch (this) {
+		case YIELD:
+			Thread.yield();
+			return false;
+		case SPIN:
+			return idleCount >= spins;
+		case BUSY_SPIN:
+			return false;
+		case BLOCK:
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Permite obtener el enumerado correspondiente a un String, sin distinguir
+	 * mayúsculas/minúsculas y admitiendo guion en lugar de guion bajo.
+	 *
+	 * @param strategyStr
+	 *            Estrategia en formato {@link String}.
+	 * @return Estrategia enumerada, <code>null</code> si no la encuentra.
+	 */
+	public static WaitStrategy getStrategy(final String strategyStr) {
+		final String strategyUp = strategyStr != null ? strategyStr.trim().toUpperCase().replace('-', '_') : null;
+		try {
+			return WaitStrategy.valueOf(strategyUp);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			/* Si se pasa un valor que no corresponde al enumerado simplemente null */
+		}
+		return null;
+	}
+}
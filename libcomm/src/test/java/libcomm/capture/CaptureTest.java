@@ -0,0 +1,119 @@
+package libcomm.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import libcomm.connection.ConnectionMode;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para probar la escritura, lectura y reproducción de capturas de
+ * tráfico.
+ * <p>
+ * 19/10/2026 16:30:18
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class CaptureTest {
+
+	private static final int REPLAY_PORT = 11102;
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("libcomm", ".cap");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void write_and_read() throws IOException {
+		try (final CaptureWriter writer = new CaptureWriter(file, ConnectionMode.SERVER)) {
+			writer.write(CaptureDirection.INBOUND, 1000L, "CR".getBytes());
+			writer.write(CaptureDirection.OUTBOUND, 1500L, "CC".getBytes());
+			writer.write(CaptureDirection.INBOUND, 3000000000L, new byte[300]);
+		}
+
+		try (final CaptureReader reader = new CaptureReader(file)) {
+			Assert.assertEquals(ConnectionMode.SERVER, reader.getMode());
+			CaptureRecord record = reader.next();
+			Assert.assertEquals(CaptureDirection.INBOUND, record.getDirection());
+			Assert.assertEquals(0L, record.getNanos());
+			Assert.assertArrayEquals("CR".getBytes(), record.getBytes());
+
+			record = reader.next();
+			Assert.assertEquals(CaptureDirection.OUTBOUND, record.getDirection());
+			Assert.assertEquals(500L, record.getNanos());
+
+			record = reader.next();
+			Assert.assertEquals(2999999000L, record.getNanos());
+			Assert.assertEquals(300, record.getBytes().length);
+
+			Assert.assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void replay_inbound_as_server() throws Exception {
+		try (final CaptureWriter writer = new CaptureWriter(file, ConnectionMode.CLIENT)) {
+			writer.write(CaptureDirection.OUTBOUND, 0L, "SENT".getBytes());
+			writer.write(CaptureDirection.INBOUND, 1000L, "HELLO".getBytes());
+			writer.write(CaptureDirection.INBOUND, 2000L, "WORLD".getBytes());
+		}
+
+		final CaptureReplayer replayer = new CaptureReplayer(file, 0);
+		final Thread replay = new Thread(() -> {
+			try {
+				replayer.replay(null, REPLAY_PORT, 0);
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		replay.start();
+
+		/* Como la librería en modo cliente: primero el canal de salida, después el de entrada */
+		final InetSocketAddress address = new InetSocketAddress("localhost", REPLAY_PORT);
+		final SocketChannel output = connect(address);
+		final SocketChannel input = connect(address);
+		output.write(ByteBuffer.wrap("PING".getBytes()));
+
+		final ByteArrayOutputStream received = new ByteArrayOutputStream();
+		final ByteBuffer buffer = ByteBuffer.allocate(64);
+		while (received.size() < 10 && input.read(buffer) >= 0) {
+			received.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+		replay.join(5000);
+
+		Assert.assertEquals("HELLOWORLD", received.toString());
+		Assert.assertEquals(2, replayer.getReplayedRecords());
+		replayer.close();
+		output.close();
+		input.close();
+	}
+
+	private static SocketChannel connect(final InetSocketAddress address) throws InterruptedException {
+		for (int i = 0; i < 50; i++) {
+			try {
+				return SocketChannel.open(address);
+			} catch (final IOException e) {
+				Thread.sleep(100);
+			}
+		}
+		throw new IllegalStateException("No se ha podido conectar con el reproductor");
+	}
+}
@@ -0,0 +1,129 @@
+package libcomm.communication.connection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.connection.ConnectionState;
+import libcomm.exception.CommunicationException;
+import libcomm.journal.OutboundJournal;
+import libcomm.utils.JournalCommTest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import commons.log.ConfigureLog;
+import commons.log.LogSystem;
+import commons.util.Constants;
+
+/**
+ * Tests de cierre de un servidor con diarios configurados: al cerrarlo se
+ * liberan los diarios abiertos al conectar, con sus hilos de escritura a
+ * disco, y una conexión posterior los vuelve a abrir.
+ * <p>
+ * 20/10/2026 10:51:07
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ConnectingServerCloseTest {
+
+	/* Prefijo del nombre de los hilos de escritura a disco de los diarios. */
+	private static final String FLUSHER_PREFIX = "Journal-Flush [";
+
+	/* Prefijo del nombre del hilo de notificación del servidor. */
+	private static final String NOTIFIER_PREFIX = "NotifierThread [Test-closeServer";
+
+	/* Tamaño de segmento al volver a abrir el diario desde el test. */
+	private static final int SEGMENT_BYTES = 64 * 1024;
+
+	private File directory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("libcomm-close").toFile();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (final Stream<Path> paths = Files.walk(directory.toPath())) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * Servidor: conecta, abriendo los diarios, y se cierra sin llegar a
+	 * establecer la conexión. Comprueba que no queda ningún hilo de escritura
+	 * a disco ni de notificación, que el diario puede abrirse de nuevo y que
+	 * una nueva conexión vuelve a abrir los diarios.
+	 * 
+	 * @throws Exception
+	 *             en caso de producirse algún error.
+	 */
+	@Test
+	public void closeServer() throws Exception {
+		final int flushers = countThreads(FLUSHER_PREFIX);
+		final JournalCommTest server = new JournalCommTest("closeServer", ConnectionMode.SERVER, directory);
+		
+		// desconectado -> conectando, con los diarios abiertos
+		server.connect();
+		Thread.sleep(Constants.SECOND);
+		assertEquals("Estamos conectando", ConnectionState.CONNECTING, server.getConnectionState());
+		Assert.assertTrue("Hilos de escritura de los diarios", countThreads(FLUSHER_PREFIX) > flushers);
+		Assert.assertEquals("Hilo de notificación", 1, countThreads(NOTIFIER_PREFIX));
+		
+		// conectando -> cerrado
+		server.close();
+		Thread.sleep(Constants.SECOND);
+		assertEquals("Cerrado", ConnectionState.DISCONNECTED, server.getConnectionState());
+		Assert.assertTrue("Hay evento de desconexión", server.disconnectionEvent());
+		Assert.assertEquals("Sin hilos de escritura de los diarios", flushers, countThreads(FLUSHER_PREFIX));
+		Assert.assertEquals("Sin hilo de notificación", 0, countThreads(NOTIFIER_PREFIX));
+		Assert.assertNull("No hay error", server.error());
+		
+		// el diario de salida queda libre
+		final OutboundJournal journal = new OutboundJournal(
+			new File(directory, JournalCommTest.OUTBOUND_DIR), SEGMENT_BYTES, -1);
+		Assert.assertTrue("Sin mensajes sin confirmar", journal.getUnacknowledged().isEmpty());
+		journal.close();
+		
+		// cerrado -> conectando, con los diarios abiertos de nuevo
+		server.connect();
+		Thread.sleep(Constants.SECOND);
+		assertEquals("Estamos conectando de nuevo", ConnectionState.CONNECTING, server.getConnectionState());
+		Assert.assertTrue("Hilos de escritura de los diarios de nuevo", countThreads(FLUSHER_PREFIX) > flushers);
+		
+		// un segundo cierre
+		server.close();
+		Thread.sleep(Constants.SECOND);
+		assertEquals("Cerrado de nuevo", ConnectionState.DISCONNECTED, server.getConnectionState());
+		Assert.assertEquals("Sin hilos de escritura de los diarios de nuevo", flushers, countThreads(FLUSHER_PREFIX));
+		Assert.assertNull("No hay error", server.error());
+	}
+
+	/* Cuenta los hilos vivos cuyo nombre empieza por el prefijo indicado. */
+	private static int countThreads(final String prefix) {
+		int count = 0;
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && thread.getName().startsWith(prefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
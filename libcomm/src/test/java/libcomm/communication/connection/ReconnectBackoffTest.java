@@ -0,0 +1,105 @@
+package libcomm.communication.connection;
+
+import static org.junit.Assert.assertEquals;
+import libcomm.connection.ConnectionMode;
+import libcomm.connection.ConnectionState;
+import libcomm.exception.CommunicationException;
+import libcomm.utils.AbstractCommTest;
+import libcomm.utils.CommTest;
+import libcomm.utils.ReconnectCommTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+
+/**
+ * Tests de reconexión de un cliente tras la caída del servidor, reintentando
+ * con esperas crecientes hasta que el servidor vuelve a estar a la escucha.
+ * <p>
+ * 20/10/2026 04:27:15
+ * </p>
+ * 
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ReconnectBackoffTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	/**
+	 * Conecta cliente y servidor y desconecta el servidor. El cliente
+	 * reintenta la reconexión, fallando por timeout, hasta que el servidor
+	 * vuelve a estar a la escucha. Al desconectar voluntariamente el cliente
+	 * no vuelve a reintentar.
+	 * 
+	 * @throws CommunicationException
+	 *             en caso de producrse algún error de comunicaciones.
+	 * @throws InterruptedException
+	 *             en caso de producirse la interrupción del hilo.
+	 */
+	@Test
+	public void reconnectBackoff() throws CommunicationException, InterruptedException {
+		final CommTest server = new CommTest("reconnectBackoffServer", ConnectionMode.SERVER);
+		final ReconnectCommTest client = new ReconnectCommTest("reconnectBackoffClient", ConnectionMode.CLIENT);
+		
+		Log.info(this, "1. servidor y cliente conectados ################################################################");
+		server.connect();
+		Thread.sleep(Constants.SECOND);
+		client.connect();
+		waitForState(client, ConnectionState.CONNECTED, 3*Constants.SECOND);
+		waitForState(server, ConnectionState.CONNECTED, Constants.SECOND);
+		Assert.assertTrue("Hay evento de conexión en cliente", client.connectionEvent());
+		Assert.assertTrue("Hay evento de conexión en servidor", server.connectionEvent());
+		Assert.assertNull("No hay error en cliente", client.error());
+		
+		Log.info(this, "2. servidor desconectado, el cliente reintenta sin conseguirlo ##################################");
+		server.disconnect();
+		waitForState(server, ConnectionState.DISCONNECTED, 3*Constants.SECOND);
+		Thread.sleep(4*Constants.SECOND);
+		Assert.assertNotEquals("Cliente sin conectar", ConnectionState.CONNECTED, client.getConnectionState());
+		Assert.assertTrue("Hay evento de desconexión en cliente", client.disconnectionEvent());
+		Assert.assertNotNull("Hay error en cliente", client.error());
+		Assert.assertFalse("No hay evento de conexión en cliente", client.connectionEvent());
+		Assert.assertTrue("Hay evento de desconexión en servidor", server.disconnectionEvent());
+		
+		Log.info(this, "3. servidor a la escucha, el cliente reconecta ##################################################");
+		server.connect();
+		waitForState(client, ConnectionState.CONNECTED, 
+			ReconnectCommTest.MAX_MILLIS + 2*ReconnectCommTest.TIMEOUT_MILLIS + Constants.SECOND);
+		waitForState(server, ConnectionState.CONNECTED, Constants.SECOND);
+		Thread.sleep(Constants.SECOND);
+		Assert.assertTrue("Hay evento de conexión en cliente", client.connectionEvent());
+		Assert.assertTrue("Hay evento de conexión en servidor", server.connectionEvent());
+		client.error(); /* último intento fallido antes de reconectar */
+		Assert.assertNull("No hay error en servidor", server.error());
+		
+		Log.info(this, "4. cliente desconectado voluntariamente, no reintenta ###########################################");
+		client.disconnect();
+		waitForState(client, ConnectionState.DISCONNECTED, 3*Constants.SECOND);
+		server.disconnect();
+		Thread.sleep(ReconnectCommTest.MAX_MILLIS + 2*ReconnectCommTest.TIMEOUT_MILLIS);
+		assertEquals("Cliente sigue desconectado", ConnectionState.DISCONNECTED, client.getConnectionState());
+		assertEquals("Servidor desconectado", ConnectionState.DISCONNECTED, server.getConnectionState());
+		Assert.assertTrue("Hay evento de desconexión en cliente", client.disconnectionEvent());
+		Assert.assertFalse("No hay evento de conexión en cliente", client.connectionEvent());
+		Assert.assertNull("No hay error en cliente", client.error());
+	}
+	
+	/* Espera como mucho los milisegundos indicados a que la conexión pase al estado indicado, y lo comprueba. */
+	private void waitForState(final AbstractCommTest comm, final ConnectionState state, final long millis) 
+			throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + millis;
+		while (!state.equals(comm.getConnectionState()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals("Estado de la conexión", state, comm.getConnectionState());
+	}
+}
@@ -0,0 +1,124 @@
+package libcomm.communication.transmission;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.connection.ConnectionState;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.message.MessagePR;
+import libcomm.message.SequenceNumber;
+import libcomm.util.ErrorUtils;
+import libcomm.utils.AKDisabedCommTest;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de envío asíncrono de la misma instancia de un mensaje PR mientras la
+ * primera sigue pendiente de AK: el segundo envío se rechaza y el futuro del
+ * primero se completa igualmente. El servidor tiene el AK deshabilitado, de
+ * forma que el primer envío no se confirma nunca.
+ * <p>
+ * 20/10/2026 11:26:43
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRAsyncDuplicateTest extends AbstractTransmissionTest {
+
+	public TransmissionPRAsyncDuplicateTest() throws CommunicationException {
+		super (
+			TransmissionPRAsyncDuplicateTest.class,
+			new AKDisabedCommTest("PR-async-duplicate-server", ConnectionMode.SERVER),
+			new CommTest("PR-async-duplicate-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía de cliente a servidor un mensaje PR con sendAsync.
+	 * <li>Vuelve a enviar la misma instancia con sendAsync y comprueba que se
+	 * rechaza de inmediato, sin afectar al futuro del primer envío.
+	 * <li>Se producen 3 envíos del primero por no recibirse su AK, y se
+	 * desconecta por fallo de AK.
+	 * <li>Comprueba que el futuro del primer envío se completa con error y que
+	 * el servidor sólo ha recibido los envíos del primero.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final MessagePR pr = MessageFactoryTest.getRandomPR();
+		for (int i = 0; i < AKController.MAX_ATTEMPTS; i++) {
+			addClientToServerMessage(pr);
+		}
+
+		Log.info(this, PrintUtils.format("Se envía dos veces CLIENTE -> SERVIDOR: %s", pr));
+		final CompletableFuture<Message<?>> first = getClient().sendAsync(pr);
+		final CompletableFuture<Message<?>> second = getClient().sendAsync(pr);
+		Assert.assertTrue("Segundo envío rechazado", second.isCompletedExceptionally());
+		try {
+			second.get();
+			Assert.fail("El segundo envío no debe completarse con éxito");
+		} catch (final ExecutionException e) {
+			Assert.assertTrue("Error de envío", 
+				ErrorUtils.findErrorType((CommunicationException) e.getCause(), CommErrorType.SENDING));
+		}
+		Assert.assertFalse("Primer envío pendiente de AK", first.isDone());
+		
+		/* Se reenviará el mismo mensaje 3 veces, con el mismo número de secuencia. */
+		for (final Message<?> msg : getClientSendsToServerMessages()) {
+			msg.setSequenceNumber(new SequenceNumber(0x1));
+		}
+
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		
+		Assert.assertTrue("Primer envío completado con error", first.isCompletedExceptionally());
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+		Assert.assertNotNull("Error en cliente por mensaje no confirmado desde servidor", getClient().findError(CommErrorType.AK_FAILURE));
+		Assert.assertNotNull("Error por desconexión remota en servidor", getServer().findError(CommErrorType.REMOTE_DISCONNECTION));
+		assertEquals("Desconectados en cliente", ConnectionState.DISCONNECTED, getClient().getConnectionState());
+		assertEquals("Conectando en servidor", ConnectionState.CONNECTING, getServer().getConnectionState());
+
+		assertNoErrors();
+	}
+	
+
+	/* Desconecta los sistemas. */
+	@Override
+	void disconnection() throws InterruptedException {
+		Log.info(this, "Servidor desconectado, el cliente ya está desconectado #######################################");
+		assertEquals("Estamos desconectados en cliente", ConnectionState.DISCONNECTED, getClient().getConnectionState());
+		assertEquals("Estamos conectando en servidor", ConnectionState.CONNECTING, getServer().getConnectionState());
+		
+		getServer().disconnect();
+		Thread.sleep(2*Constants.SECOND);
+		Assert.assertTrue("Hay evento de desconexión en servidor", getServer().disconnectionEvent());
+		assertEquals("Estamos desconectados en servidor", ConnectionState.DISCONNECTED, getServer().getConnectionState());
+
+		assertNoErrors();
+	}
+}
@@ -0,0 +1,111 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.message.MessagePR;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+import libcomm.util.ErrorUtils;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de envío asíncrono de mensajes PR de cliente a servidor: cada futuro se
+ * completa con su mensaje al recibir el AK.
+ * <p>
+ * 20/10/2026 00:41:27
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRAsyncTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar sin esperar confirmación. */
+	private static final int MESSAGES = 50;
+
+	public TransmissionPRAsyncTest() throws CommunicationException {
+		super (
+			TransmissionPRAsyncTest.class,
+			new CommTest("PR-async-server", ConnectionMode.SERVER),
+			new CommTest("PR-async-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía de cliente a servidor varios mensajes PR con sendAsync, sin
+	 * esperar entre ellos.
+	 * <li>Espera a que se completen todos los futuros y comprueba que cada uno
+	 * se completa con su propio mensaje.
+	 * <li>Comprueba los mensajes recibidos en el servidor.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final List<CompletableFuture<Message<?>>> futures = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			final MessagePR pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			futures.add(getClient().sendAsync(pr));
+		}
+		Log.info(this, PrintUtils.format("Enviados '%s' mensajes PR de forma asíncrona", MESSAGES));
+
+		final long akWaitMillis = AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS);
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+			.get(akWaitMillis, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < MESSAGES; i++) {
+			Assert.assertSame("Futuro completado con su mensaje", getClientSendsToServerMessages().get(i), futures.get(i).get());
+		}
+		
+		Thread.sleep(Constants.SECOND);
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+		Assert.assertTrue("Sin mensajes en cliente", getClient().receivedMessages().isEmpty());
+	}
+
+	/**
+	 * Sin conexión, el futuro se completa con error de envío de inmediato.
+	 * 
+	 * @throws Exception si se produce algún error.
+	 */
+	@Test
+	public void sendAsyncDisconnected() throws Exception {
+		final CommTest client = new CommTest("PR-async-disconnected", ConnectionMode.CLIENT);
+		final CompletableFuture<Message<?>> future = client.sendAsync(MessageFactoryTest.getRandomPR());
+		Assert.assertTrue("Futuro completado con error", future.isCompletedExceptionally());
+		try {
+			future.get();
+			Assert.fail("El futuro no debe completarse con éxito");
+		} catch (final ExecutionException e) {
+			Assert.assertTrue("Error de comunicación", e.getCause() instanceof CommunicationException);
+			Assert.assertTrue("Error de envío", 
+				ErrorUtils.findErrorType((CommunicationException) e.getCause(), CommErrorType.SENDING));
+		}
+		Assert.assertNull("Sin error notificado al listener", client.error());
+	}
+}
@@ -0,0 +1,85 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.utils.BatchListenerCommTest;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, con un servidor
+ * que recibe los mensajes por bloques.
+ * <p>
+ * 20/10/2026 01:52:40
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRBatchListenerTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 300;
+
+	public TransmissionPRBatchListenerTest() throws CommunicationException {
+		super (
+			TransmissionPRBatchListenerTest.class,
+			new BatchListenerCommTest("PR-batch-listener-server", ConnectionMode.SERVER),
+			new CommTest("PR-batch-listener-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía de una vez un bloque de mensajes PR de cliente a servidor.
+	 * <li>Comprueba que el servidor los recibe todos y en orden.
+	 * <li>Comprueba que el servidor los recibe agrupados en bloques que no
+	 * superan el máximo configurado.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final List<Message<?>> batch = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			batch.add(MessageFactoryTest.getRandomPR());
+		}
+		batch.forEach(this::addClientToServerMessage);
+
+		Log.info(this, PrintUtils.format("Se envian '%s' mensajes CLIENTE -> SERVIDOR", MESSAGES));
+		getClient().send(batch);
+
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+
+		final List<Integer> sizes = ((BatchListenerCommTest) getServer()).batchSizes();
+		Log.info(this, PrintUtils.format("Recibidos '%s' bloques: %s", sizes.size(), sizes));
+		Assert.assertTrue("Algún bloque agrupa varios mensajes", Collections.max(sizes) > 1);
+		Assert.assertTrue("Ningún bloque supera el máximo", Collections.max(sizes) <= BatchListenerCommTest.BATCH_SIZE);
+		Assert.assertEquals("Todos los mensajes en bloques", MESSAGES, sizes.stream().mapToInt(Integer::intValue).sum());
+	}
+}
@@ -0,0 +1,85 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.message.SequenceNumber;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de envío en bloque de mensajes PR de cliente a servidor: los números de
+ * secuencia se reservan consecutivos y el servidor recibe todos en orden.
+ * <p>
+ * 20/10/2026 01:12:53
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRBatchTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes del bloque, suficientes para ocupar varias escrituras. */
+	private static final int MESSAGES = 300;
+
+	public TransmissionPRBatchTest() throws CommunicationException {
+		super (
+			TransmissionPRBatchTest.class,
+			new CommTest("PR-batch-server", ConnectionMode.SERVER),
+			new CommTest("PR-batch-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Genera un bloque de mensajes PR sin número de secuencia y lo envía
+	 * de cliente a servidor de una vez.
+	 * <li>Comprueba que cada mensaje tiene el número de secuencia que le
+	 * corresponde por su posición en el bloque.
+	 * <li>Comprueba los mensajes recibidos en el servidor.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final List<Message<?>> batch = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			batch.add(MessageFactoryTest.getRandomPR());
+		}
+		batch.forEach(this::addClientToServerMessage);
+
+		Log.info(this, PrintUtils.format("Se envia bloque de '%s' mensajes CLIENTE -> SERVIDOR", MESSAGES));
+		getClient().send(batch);
+
+		for (int i = 0; i < MESSAGES; i++) {
+			Assert.assertEquals("Números de secuencia consecutivos", new SequenceNumber(i + 1), batch.get(i).getSequenceNumber());
+		}
+
+		/* Esperamos el tiempo maximo de AK + 3 segundos */
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+		Assert.assertTrue("Sin mensajes en cliente", getClient().receivedMessages().isEmpty());
+	}
+}
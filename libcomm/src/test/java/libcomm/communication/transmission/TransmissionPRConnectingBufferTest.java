@@ -0,0 +1,110 @@
+package libcomm.communication.transmission;
+
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.connection.ConnectionState;
+import libcomm.exception.CommErrorType;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.utils.CommTest;
+import libcomm.utils.ConnectingBufferCommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor enviados
+ * mientras el cliente reconecta tras una caída, con retención durante la
+ * conexión.
+ * <p>
+ * 20/10/2026 03:58:40
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRConnectingBufferTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 100;
+
+	public TransmissionPRConnectingBufferTest() throws CommunicationException {
+		super (
+			TransmissionPRConnectingBufferTest.class,
+			new CommTest("PR-connecting-buffer-server", ConnectionMode.SERVER),
+			new ConnectingBufferCommTest("PR-connecting-buffer-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Desconecta el servidor, de forma que el cliente espera para
+	 * reconectar, y vuelve a ponerlo a la escucha.
+	 * <li>Envía mensajes PR de cliente a servidor mientras el cliente
+	 * reconecta.
+	 * <li>Comprueba que el cliente no notifica errores de envío, que reconecta
+	 * y que el servidor recibe todos los mensajes en orden.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		Log.info(this, "Servidor desconectado, el cliente espera para reconectar ####################################");
+		getServer().disconnect();
+		while (!getServer().disconnectionEvent()) { /* notificado, el notificador del servidor termina */
+			Thread.sleep(10L);
+		}
+		Thread.sleep(100L);
+		getServer().connect();
+		Assert.assertNotEquals("Cliente no conectado", ConnectionState.CONNECTED, getClient().getConnectionState());
+		
+		for (int i = 0; i < MESSAGES; i++) {
+			final Message<?> pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			getClient().send(pr);
+		}
+		Assert.assertEquals("Mensajes retenidos en cliente", MESSAGES, getClient().handler().getQueueDepth());
+		
+		final long reconnectMillis = client().context().getConnectionTimeout() + 2*Constants.SECOND;
+		final long deadline = System.currentTimeMillis() + reconnectMillis;
+		while (!ConnectionState.CONNECTED.equals(getClient().getConnectionState()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertEquals("Cliente reconectado", ConnectionState.CONNECTED, getClient().getConnectionState());
+		Assert.assertTrue("Mensajes retenidos enviados y confirmados", 
+			getClient().handler().awaitQuiescence(AKController.MAX_WAITING_MILLIS, TimeUnit.MILLISECONDS)
+		);
+		
+		Thread.sleep(Constants.SECOND); /* notificación al listener del servidor */
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+		Log.info(this, PrintUtils.format("Recibidos '%s' mensajes enviados durante la reconexión", MESSAGES));
+		
+		Assert.assertNotNull("Sólo error de desconexión remota en cliente", 
+			getClient().findError(CommErrorType.REMOTE_DISCONNECTION)
+		);
+		Assert.assertTrue("Hay evento de desconexión en cliente", getClient().disconnectionEvent());
+		Assert.assertTrue("Hay evento de conexión en cliente", getClient().connectionEvent());
+		Assert.assertTrue("Hay evento de conexión en servidor", getServer().connectionEvent());
+		assertNoErrors();
+	}
+	
+	/* Cliente con retención durante la conexión. */
+	private ConnectingBufferCommTest client() {
+		return (ConnectingBufferCommTest) getClient();
+	}
+}
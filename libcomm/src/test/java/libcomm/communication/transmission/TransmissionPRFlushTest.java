@@ -0,0 +1,80 @@
+package libcomm.communication.transmission;
+
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, esperando a que
+ * se confirmen todos en lugar de esperar un tiempo fijo.
+ * <p>
+ * 20/10/2026 03:34:46
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRFlushTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 200;
+
+	public TransmissionPRFlushTest() throws CommunicationException {
+		super (
+			TransmissionPRFlushTest.class,
+			new CommTest("PR-flush-server", ConnectionMode.SERVER),
+			new CommTest("PR-flush-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía mensajes PR de cliente a servidor.
+	 * <li>Espera a que el cliente no tenga mensajes en curso y comprueba que
+	 * no tarda lo que tardaría en darse por perdido un AK.
+	 * <li>Comprueba que el servidor ha recibido todos los mensajes.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		for (int i = 0; i < MESSAGES; i++) {
+			final Message<?> pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			getClient().send(pr);
+		}
+		
+		final long start = System.nanoTime();
+		Assert.assertTrue("Cliente sin mensajes en curso", 
+			getClient().handler().awaitQuiescence(AKController.MAX_WAITING_MILLIS, TimeUnit.MILLISECONDS)
+		);
+		final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		Log.info(this, PrintUtils.format("Confirmados '%s' mensajes en '%s' milisegundos", MESSAGES, elapsedMillis));
+		Assert.assertTrue("Sin mensajes en cola", getClient().handler().getQueueDepth() == 0);
+		Assert.assertTrue("Sin mensajes pendientes de AK", getClient().handler().getUnacknowledged() == 0);
+		Assert.assertTrue("Flush sin mensajes en curso vuelve inmediatamente", getClient().handler().flush());
+		
+		Thread.sleep(Constants.SECOND); /* notificación al listener del servidor */
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+	}
+}
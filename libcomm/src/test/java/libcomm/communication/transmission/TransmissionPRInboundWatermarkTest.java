@@ -0,0 +1,116 @@
+package libcomm.communication.transmission;
+
+import java.util.List;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.event.EventNotifier;
+import libcomm.exception.CommunicationException;
+import libcomm.message.Message;
+import libcomm.utils.CommTest;
+import libcomm.utils.InboundWatermarkCommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, con marcas
+ * mínimas en la cola de entrada del servidor y un listener que se bloquea
+ * hasta que se libera: la recepción se detiene y se reanuda.
+ * <p>
+ * 19/10/2026 23:28:05
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRInboundWatermarkTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar, muy por encima de la marca alta. */
+	private static final int MESSAGES = 20;
+	
+	/* Milisegundos entre envíos, para que el servidor los lea por separado. */
+	private static final long SEND_PAUSE_MILLIS = 20L;
+
+	public TransmissionPRInboundWatermarkTest() throws CommunicationException {
+		super (
+			TransmissionPRInboundWatermarkTest.class,
+			new InboundWatermarkCommTest("PR-watermark-server", ConnectionMode.SERVER),
+			new CommTest("PR-watermark-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía mensajes PR de cliente a servidor, más de los que admite la
+	 * marca alta, con el listener del servidor bloqueado en el primero.
+	 * <li>Comprueba que la recepción se detiene: el hilo de recepción del
+	 * servidor espera a que baje la marca y el listener sólo ha recibido el
+	 * primero. Se hace antes de que venza la espera de AK.
+	 * <li>Libera el listener y comprueba que llegan todos los mensajes y en
+	 * orden.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final InboundWatermarkCommTest server = (InboundWatermarkCommTest) getServer();
+		for (int i = 0; i < MESSAGES; i++) {
+			final Message<?> pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			getClient().send(pr);
+			Thread.sleep(SEND_PAUSE_MILLIS);
+		}
+		
+		Assert.assertTrue("Listener bloqueado en el primer mensaje", server.awaitReceiving(Constants.SECOND));
+		Thread.sleep(Constants.SECOND / 2);
+		final Thread receiver = receiverThread();
+		Assert.assertNotNull("Hilo de recepción del servidor", receiver);
+		Assert.assertTrue("Recepción detenida en la marca alta", awaitsWatermark(receiver));
+		Assert.assertTrue("Ningún mensaje entregado con el listener bloqueado", server.receivedMessages().isEmpty());
+		
+		Log.info(this, "Se libera el listener del servidor");
+		server.release();
+		
+		Thread.sleep(2*Constants.SECOND);
+		final List<Message<?>> received = server.receivedMessages();
+		Log.info(this, PrintUtils.format("Recibidos '%s' mensajes tras liberar el listener", received.size()));
+		
+		Assert.assertEquals("Mensajes recibidos en orden", 
+			getClientSendsToServerMessages().toString(), received.toString()
+		);
+	}
+	
+	/* Indica si el hilo espera a que los mensajes pendientes de notificar bajen de la marca. */
+	private static boolean awaitsWatermark(final Thread thread) {
+		for (final StackTraceElement element : thread.getStackTrace()) {
+			if (EventNotifier.class.getName().equals(element.getClassName()) 
+					&& "awaitWatermark".equals(element.getMethodName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/* Obtiene el hilo de recepción del servidor. */
+	private static Thread receiverThread() {
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("Rx ") && thread.getName().contains("PR-watermark-server")) {
+				return thread;
+			}
+		}
+		return null;
+	}
+}
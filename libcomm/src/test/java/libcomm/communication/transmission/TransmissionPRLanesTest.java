@@ -0,0 +1,115 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.message.MessagePR;
+import libcomm.utils.CommTest;
+import libcomm.utils.LaneListenerCommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, con un servidor
+ * que notifica los mensajes recibidos en varios carriles según su posición.
+ * <p>
+ * 20/10/2026 02:24:05
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRLanesTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 200;
+	
+	/* Número de posiciones distintas entre las que se reparten los mensajes. */
+	private static final int POSITIONS = 16;
+
+	public TransmissionPRLanesTest() throws CommunicationException {
+		super (
+			TransmissionPRLanesTest.class,
+			new LaneListenerCommTest("PR-lanes-server", ConnectionMode.SERVER),
+			new CommTest("PR-lanes-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía mensajes PR de cliente a servidor repartidos entre varias
+	 * posiciones.
+	 * <li>Comprueba que el servidor los recibe todos.
+	 * <li>Comprueba que los mensajes de cada posición se reciben en orden y
+	 * desde un único hilo, y que se usa más de un hilo.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final List<String> positions = new ArrayList<>();
+		while (positions.size() < POSITIONS) {
+			final String position = MessageFactoryTest.getRandomPR().getPosition();
+			if (!positions.contains(position)) {
+				positions.add(position);
+			}
+		}
+		
+		final Map<Object, List<Message<?>>> sentByKey = new LinkedHashMap<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			final MessagePR pr = MessageFactoryTest.getRandomPR();
+			pr.setPosition(positions.get(i % POSITIONS));
+			sentByKey.computeIfAbsent(pr.getKey(), key -> new ArrayList<>()).add(pr);
+			getClient().send(pr);
+		}
+		Log.info(this, PrintUtils.format("Enviados '%s' mensajes CLIENTE -> SERVIDOR en '%s' posiciones", 
+			MESSAGES, POSITIONS)
+		);
+
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		
+		final LaneListenerCommTest server = (LaneListenerCommTest) getServer();
+		Assert.assertEquals("Todos los mensajes recibidos", MESSAGES, server.receivedMessages().size());
+		
+		final Map<Object, List<Message<?>>> receivedByKey = server.receivedByKey();
+		final Map<Object, Set<String>> threadsByKey = server.threadsByKey();
+		final Set<String> threads = new HashSet<>();
+		for (final Map.Entry<Object, List<Message<?>>> sent : sentByKey.entrySet()) {
+			final List<Message<?>> received = receivedByKey.get(sent.getKey());
+			Assert.assertNotNull(PrintUtils.format("Mensajes recibidos de '%s'", sent.getKey()), received);
+			Assert.assertEquals(PrintUtils.format("Mensajes de '%s' en orden", sent.getKey()), 
+				sent.getValue().toString(), received.toString()
+			);
+			Assert.assertEquals(PrintUtils.format("Mensajes de '%s' notificados en un único hilo", sent.getKey()), 
+				1, threadsByKey.get(sent.getKey()).size()
+			);
+			threads.addAll(threadsByKey.get(sent.getKey()));
+		}
+		Log.info(this, PrintUtils.format("Mensajes notificados en los hilos %s", threads));
+		Assert.assertTrue("Mensajes notificados en varios hilos", threads.size() > 1);
+	}
+}
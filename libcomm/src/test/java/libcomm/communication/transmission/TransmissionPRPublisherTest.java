@@ -0,0 +1,115 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.event.Flow;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, consumiendo los
+ * mensajes recibidos en el servidor mediante su publicador, con demanda
+ * limitada.
+ * <p>
+ * 20/10/2026 02:58:19
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRPublisherTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 50;
+	
+	/* Mensajes pedidos inicialmente por el suscriptor. */
+	private static final int INITIAL_DEMAND = 10;
+
+	public TransmissionPRPublisherTest() throws CommunicationException {
+		super (
+			TransmissionPRPublisherTest.class,
+			new CommTest("PR-publisher-server", ConnectionMode.SERVER),
+			new CommTest("PR-publisher-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Se suscribe a los mensajes recibidos por el servidor pidiendo sólo
+	 * unos pocos.
+	 * <li>Envía mensajes PR de cliente a servidor.
+	 * <li>Comprueba que el suscriptor recibe sólo los pedidos.
+	 * <li>Pide el resto y comprueba que los recibe todos y en orden.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		final List<Message<?>> published = Collections.synchronizedList(new ArrayList<>());
+		final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+		getServer().handler().messages().subscribe(new Flow.Subscriber<Message<?>>() {
+			@Override
+			public void onSubscribe(final Flow.Subscription s) {
+				subscription.set(s);
+				s.request(INITIAL_DEMAND);
+			}
+
+			@Override
+			public void onNext(final Message<?> item) {
+				published.add(item);
+			}
+
+			@Override
+			public void onError(final Throwable throwable) {
+				Log.error(this, "Error en suscripción", throwable);
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+		
+		for (int i = 0; i < MESSAGES; i++) {
+			final Message<?> pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			getClient().send(pr);
+		}
+		
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		Assert.assertEquals("Sólo se publican los mensajes pedidos", INITIAL_DEMAND, published.size());
+		
+		subscription.get().request(Long.MAX_VALUE);
+		Thread.sleep(Constants.SECOND);
+		
+		Assert.assertEquals("Se publican todos los mensajes tras pedirlos", MESSAGES, published.size());
+		checkMessages(getClientSendsToServerMessages(), getServer().receivedMessages());
+		Assert.assertEquals("Mensajes publicados en orden", 
+			getClientSendsToServerMessages().toString(), published.toString()
+		);
+		subscription.get().cancel();
+	}
+}
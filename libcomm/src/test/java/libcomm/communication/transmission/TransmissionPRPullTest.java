@@ -0,0 +1,130 @@
+package libcomm.communication.transmission;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import libcomm.LibcommHandler;
+import libcomm.connection.ConnectionMode;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.message.AKController;
+import libcomm.message.Message;
+import libcomm.utils.CommTest;
+import libcomm.utils.MessageFactoryTest;
+import libcomm.utils.PullCommTest;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+
+import commons.log.ConfigureLog;
+import commons.log.Log;
+import commons.log.LogSystem;
+import commons.util.Constants;
+import commons.util.PrintUtils;
+
+/**
+ * Tests de transmisión de mensajes PR de cliente a servidor, con un servidor
+ * que extrae los mensajes recibidos por consulta.
+ * <p>
+ * 20/10/2026 03:16:07
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransmissionPRPullTest extends AbstractTransmissionTest {
+
+	/* Número de mensajes a enviar. */
+	private static final int MESSAGES = 100;
+	
+	/* Máximo de mensajes a extraer en cada consulta. */
+	private static final int POLL_MAX = 8;
+
+	public TransmissionPRPullTest() throws CommunicationException {
+		super (
+			TransmissionPRPullTest.class,
+			new PullCommTest("PR-pull-server", ConnectionMode.SERVER),
+			new CommTest("PR-pull-client", ConnectionMode.CLIENT)
+		);
+	}
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ConfigureLog.configure(LogSystem.DEFAULT);
+	}
+
+	
+	/**
+	 * Realiza los siguientes pasos:
+	 * <ul>
+	 * <li>Envía mensajes PR de cliente a servidor, más de los que caben en la
+	 * cola de recepción por consulta.
+	 * <li>Comprueba que, sin extraer, la cola se llena y el hilo de recepción
+	 * queda detenido, sin girar.
+	 * <li>Extrae los mensajes en el servidor por consulta, unos pocos cada vez.
+	 * <li>Comprueba que se extraen todos y en orden, sin notificarse al
+	 * listener.
+	 * <li>Comprueba que el cliente no puede extraer, ya que no recibe por
+	 * consulta.
+	 * </ul>
+	 * @throws Exception si se produce algún error.
+	 */
+	@Override
+	void concreteTransmissionTest() throws Exception {
+		for (int i = 0; i < MESSAGES; i++) {
+			final Message<?> pr = MessageFactoryTest.getRandomPR();
+			addClientToServerMessage(pr);
+			getClient().send(pr);
+		}
+		
+		Thread.sleep(Constants.SECOND);
+		final Thread receiver = receiverThread();
+		Assert.assertNotNull("Hilo de recepción del servidor", receiver);
+		Assert.assertEquals("Hilo de recepción detenido", Thread.State.WAITING, receiver.getState());
+		Assert.assertTrue("Detenido con la cola de recepción llena", waitsToPull(receiver));
+		
+		final List<Message<?>> polled = new ArrayList<>();
+		final long deadline = System.currentTimeMillis() + 10*Constants.SECOND;
+		while (polled.size() < MESSAGES && System.currentTimeMillis() < deadline) {
+			final int count = getServer().handler().poll(POLL_MAX, polled::add);
+			Assert.assertTrue("No se extraen más mensajes de los pedidos", count <= POLL_MAX);
+			Thread.sleep(1L);
+		}
+		Log.info(this, PrintUtils.format("Extraídos '%s' mensajes por consulta", polled.size()));
+		
+		final long akWaitMillis = (AKController.MAX_WAITING_MILLIS*(1+AKController.MAX_ATTEMPTS)) + 3*Constants.SECOND;
+		Log.info(this, PrintUtils.format("Esperando '%s' milisegundos antes de comprobar mensajes", akWaitMillis));
+		Thread.sleep(akWaitMillis);
+		Assert.assertEquals("No quedan mensajes por extraer", 0, getServer().handler().drainTo(polled));
+		
+		Assert.assertEquals("Mensajes extraídos en orden", 
+			getClientSendsToServerMessages().toString(), polled.toString()
+		);
+		Assert.assertTrue("No se notifica ningún mensaje al listener", getServer().receivedMessages().isEmpty());
+		
+		try {
+			getClient().handler().drainTo(new ArrayList<>());
+			Assert.fail("El cliente no recibe por consulta");
+		} catch (IllegalStateException e) {
+			Log.info(this, PrintUtils.format("Error esperado: %s", e.getMessage()));
+		}
+	}
+	
+	/* Indica si el hilo está detenido dejando un mensaje en la cola de recepción por consulta. */
+	private static boolean waitsToPull(final Thread thread) {
+		for (final StackTraceElement element : thread.getStackTrace()) {
+			if (LibcommHandler.class.getName().equals(element.getClassName()) && "pull".equals(element.getMethodName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/* Obtiene el hilo de recepción del servidor. */
+	private static Thread receiverThread() {
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("Rx ") && thread.getName().contains("PR-pull-server")) {
+				return thread;
+			}
+		}
+		return null;
+	}
+}
@@ -1,5 +1,8 @@
 package libcomm.communication.transmission;
 
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
 import java.util.Arrays;
 
 import libcomm.connection.ConnectionMode;
@@ -9,8 +12,17 @@ import libcomm.message.MessagePR;
 import libcomm.message.SequenceNumber;
 import libcomm.utils.CommTest;
 import libcomm.utils.MessageFactoryTest;
+import libcomm.util.ThreadUtils;
+import libcomm.utils.TransmissionMode;
 
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 import commons.log.ConfigureLog;
 import commons.log.Log;
@@ -19,27 +31,60 @@ import commons.util.Constants;
 import commons.util.PrintUtils;
 
 /**
- * Tests de transmisión de mensaje PR en ambos sentidos. 
+ * Tests de transmisión de mensaje PR en ambos sentidos, con cada variante de
+ * transmisión (ver {@link TransmissionMode}).
  * <p>
  * 17/03/2016 20:20:25
  * </p>
  * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
  * @version 1.0
  */
+@RunWith(Parameterized.class)
 public class TransmissionPRTest extends AbstractTransmissionTest {
+	
+	/* Milisegundos de espera de conexión en el puerto TCP ocupado por el test. */
+	private static final int ACCEPT_TIMEOUT_MILLIS = 100;
+	
+	/* Variante de transmisión. */
+	private final TransmissionMode transmission;
+	
+	/* Puerto TCP de la configuración, ocupado por el test en las variantes sin TCP para comprobar que no se usa. */
+	private ServerSocket tcpPort;
 
-	public TransmissionPRTest() throws CommunicationException {
+	public TransmissionPRTest(final TransmissionMode transmission) throws CommunicationException {
 		super (
 			TransmissionPRTest.class,
-			new CommTest("PR-server", ConnectionMode.SERVER),
-			new CommTest("PR-client", ConnectionMode.CLIENT)
+			new CommTest("PR-server", ConnectionMode.SERVER, transmission),
+			new CommTest("PR-client", ConnectionMode.CLIENT, transmission)
 		);
+		this.transmission = transmission;
+	}
+	
+	@Parameters(name = "{0}")
+	public static Object[] transmissionModes() {
+		return TransmissionMode.values();
 	}
 	
 	@BeforeClass
 	public static void setUpBeforeClass() throws Exception {
 		ConfigureLog.configure(LogSystem.DEFAULT);
 	}
+	
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeTrue(PrintUtils.format("Variante '%s' no soportada", transmission), transmission.isSupported());
+		if (!transmission.isTcp()) {
+			tcpPort = new ServerSocket(getServer().context().getPort());
+			tcpPort.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+		}
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if (tcpPort != null) {
+			tcpPort.close();
+		}
+	}
 
 	
 	/**
@@ -51,6 +96,7 @@ public class TransmissionPRTest extends AbstractTransmissionTest {
 	 * <li>Recoge los mensajes recibidos en cada lado de la conexión y los
 	 * compara con los esperados. Debe tenerse en cuenta que ahora sí tendrán
 	 * numero de secuencia.
+	 * <li>Comprueba lo propio de la variante de transmisión.
 	 * </ul>
 	 * @throws Exception si se produce algún error.
 	 */
@@ -86,5 +132,37 @@ public class TransmissionPRTest extends AbstractTransmissionTest {
 		
 		checkMessages(Arrays.asList(prCl2Srv), getServer().receivedMessages());
 		checkMessages(Arrays.asList(prSrv2Cl), getClient().receivedMessages());
+		
+		assertTransmissionMode();
+	}
+	
+	/* Comprueba lo propio de la variante de transmisión. */
+	private void assertTransmissionMode() throws IOException {
+		final Thread receiving = getServer().receivingThread();
+		Assert.assertEquals(PrintUtils.format("Listener notificado en hilo '%s' virtual", receiving.getName()),
+			TransmissionMode.VIRTUAL_THREADS.equals(transmission), ThreadUtils.isVirtual(receiving)
+		);
+		if (TransmissionMode.INLINE.equals(transmission)) {
+			/* el hilo de conexión, que atiende el selector, se nombra a partir del nombre de la conexión */
+			Assert.assertTrue(PrintUtils.format("Listener notificado en el hilo del selector, no en '%s'", receiving.getName()),
+				receiving.getName().startsWith(getServer().context().getConnectionName() + " [")
+			);
+		} else {
+			Assert.assertTrue(PrintUtils.format("Listener notificado en el notificador, no en '%s'", receiving.getName()),
+				receiving.getName().startsWith("NotifierThread")
+			);
+		}
+		if (tcpPort != null) {
+			try {
+				tcpPort.accept().close();
+				Assert.fail(PrintUtils.format("Variante '%s' sin conexiones TCP", transmission));
+			} catch (final SocketTimeoutException e) {
+				Log.info(this, PrintUtils.format("Ninguna conexión TCP en variante '%s'", transmission));
+			}
+		}
+		if (TransmissionMode.UNIX_SOCKET.equals(transmission)) {
+			Assert.assertFalse("Se borra el fichero de socket al conectar", TransmissionMode.SOCKET_FILE.exists());
+		}
 	}
 }
+
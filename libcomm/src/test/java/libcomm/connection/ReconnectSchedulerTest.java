@@ -0,0 +1,99 @@
+package libcomm.connection;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test de las esperas entre intentos de reconexión y de su programación.
+ * <p>
+ * 20/10/2026 04:18:52
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ReconnectSchedulerTest {
+
+	/* Por defecto, un único intento tras un segundo. */
+	@Test
+	public void defaultSingleAttempt() {
+		final ReconnectScheduler scheduler = new ReconnectScheduler("test", 1000L, 1000L, 0, 1, false, () -> {});
+		Assert.assertEquals(1000L, scheduler.delay(1));
+		Assert.assertFalse(scheduler.isRetrying());
+		Assert.assertTrue("Primer intento programado", scheduler.schedule());
+		Assert.assertTrue(scheduler.isRetrying());
+		Assert.assertFalse("Sin más intentos", scheduler.schedule());
+		Assert.assertFalse(scheduler.isRetrying());
+	}
+
+	/* La espera se duplica hasta el máximo. */
+	@Test
+	public void exponentialBackoff() {
+		final ReconnectScheduler scheduler = new ReconnectScheduler("test", 100L, 1000L, 0, 0, false, () -> {});
+		Assert.assertEquals(100L, scheduler.delay(1));
+		Assert.assertEquals(200L, scheduler.delay(2));
+		Assert.assertEquals(400L, scheduler.delay(3));
+		Assert.assertEquals(800L, scheduler.delay(4));
+		Assert.assertEquals(1000L, scheduler.delay(5));
+		Assert.assertEquals(1000L, scheduler.delay(100));
+	}
+
+	/* El primer intento no espera, y la espera inicial se aplica a partir del segundo. */
+	@Test
+	public void immediateFirstAttempt() {
+		final ReconnectScheduler scheduler = new ReconnectScheduler("test", 100L, 1000L, 0, 0, true, () -> {});
+		Assert.assertEquals(0L, scheduler.delay(1));
+		Assert.assertEquals(100L, scheduler.delay(2));
+		Assert.assertEquals(200L, scheduler.delay(3));
+	}
+
+	/* La espera se reduce al azar como mucho el porcentaje indicado. */
+	@Test
+	public void jitter() {
+		final ReconnectScheduler scheduler = new ReconnectScheduler("test", 1000L, 1000L, 50, 0, false, () -> {});
+		for (int i = 0; i < 100; i++) {
+			final long delay = scheduler.delay(1);
+			Assert.assertTrue("Espera reducida como mucho a la mitad: " + delay, delay >= 500L && delay <= 1000L);
+		}
+	}
+
+	/* El intento se ejecuta tras la espera, y no se ejecuta si se cancela antes. */
+	@Test
+	public void scheduleAndReset() throws InterruptedException {
+		final CountDownLatch attempts = new CountDownLatch(1);
+		final ReconnectScheduler scheduler = 
+			new ReconnectScheduler("test", 200L, 200L, 0, 0, false, attempts::countDown);
+		Assert.assertTrue(scheduler.schedule());
+		scheduler.reset();
+		Assert.assertFalse("Intento cancelado", attempts.await(500L, TimeUnit.MILLISECONDS));
+
+		Assert.assertTrue(scheduler.schedule());
+		Assert.assertTrue("Intento ejecutado", attempts.await(2L, TimeUnit.SECONDS));
+	}
+
+	/* Al reiniciar la cuenta se cancela el temporizador, sin dejar su hilo vivo. */
+	@Test
+	public void resetCancelsTimer() throws InterruptedException {
+		final ReconnectScheduler scheduler = new ReconnectScheduler("timer", 10000L, 10000L, 0, 0, false, () -> {});
+		Assert.assertTrue(scheduler.schedule());
+		Assert.assertTrue("Hilo del temporizador vivo", timerAlive());
+		scheduler.reset();
+		final long deadline = System.currentTimeMillis() + 2000L;
+		while (timerAlive() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertFalse("Hilo del temporizador terminado", timerAlive());
+	}
+
+	private static boolean timerAlive() {
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("Reconnect-Timer [timer]") && thread.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
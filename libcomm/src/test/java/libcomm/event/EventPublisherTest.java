@@ -0,0 +1,161 @@
+package libcomm.event;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test del publicador de eventos: con cola, la publicación nunca espera y el
+ * desbordamiento cancela la suscripción con error; sin cola, la publicación
+ * espera a que haya demanda. En ambos casos se entrega fuera del monitor de
+ * la suscripción.
+ * <p>
+ * 20/10/2026 11:58:12
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class EventPublisherTest {
+
+	/* Milisegundos máximos de espera de cada comprobación. */
+	private static final long WAIT_MILLIS = 5000L;
+
+	@Test
+	public void buffered_until_requested() {
+		final EventPublisher<Integer> publisher = new EventPublisher<>("test-events", 4);
+		final Recorder recorder = new Recorder(0);
+		publisher.subscribe(recorder);
+
+		for (int i = 0; i < 3; i++) {
+			publisher.publish(i);
+		}
+		Assert.assertTrue("Nada entregado sin demanda", recorder.items.isEmpty());
+
+		recorder.subscription.get().request(2);
+		Assert.assertEquals("Entregados los pedidos, en orden", listOf(0, 1), recorder.items);
+		recorder.subscription.get().request(1);
+		publisher.publish(3);
+		Assert.assertEquals("Entregados todos", listOf(0, 1, 2), recorder.items);
+		Assert.assertNull("Sin error", recorder.error.get());
+	}
+
+	@Test
+	public void overflow_cancels_with_error() {
+		final EventPublisher<Integer> publisher = new EventPublisher<>("test-events", 2);
+		final Recorder recorder = new Recorder(0);
+		publisher.subscribe(recorder);
+
+		for (int i = 0; i < 3; i++) {
+			publisher.publish(i); /* nunca espera */
+		}
+		Assert.assertTrue("Error por desbordamiento", recorder.error.get() instanceof IllegalStateException);
+		Assert.assertFalse("Suscripción cancelada", publisher.hasSubscribers());
+
+		recorder.subscription.get().request(10);
+		Assert.assertTrue("Nada entregado tras el error", recorder.items.isEmpty());
+	}
+
+	@Test
+	public void unbuffered_waits_for_demand() throws InterruptedException {
+		final EventPublisher<Integer> publisher = new EventPublisher<>("test-messages", 0);
+		final Recorder recorder = new Recorder(1);
+		publisher.subscribe(recorder);
+
+		final Thread publishing = new Thread(() -> {
+			publisher.publish(0);
+			publisher.publish(1);
+		}, "publishing");
+		publishing.start();
+		Assert.assertTrue("Espera a que haya demanda", await(() -> publishing.getState() == Thread.State.TIMED_WAITING));
+		Assert.assertEquals("Entregado sólo el pedido", listOf(0), recorder.items);
+
+		recorder.subscription.get().request(1);
+		publishing.join(WAIT_MILLIS);
+		Assert.assertFalse("Publicación terminada", publishing.isAlive());
+		Assert.assertEquals("Entregados todos", listOf(0, 1), recorder.items);
+	}
+
+	@Test
+	public void delivered_outside_the_monitor() throws InterruptedException {
+		final EventPublisher<Integer> publisher = new EventPublisher<>("test-messages", 0);
+		final AtomicReference<Thread> requesting = new AtomicReference<>();
+		final Recorder recorder = new Recorder(1) {
+			@Override
+			public void onNext(final Integer item) {
+				super.onNext(item);
+				final Thread thread = new Thread(() -> subscription.get().request(1), "requesting");
+				requesting.set(thread);
+				thread.start();
+				try {
+					thread.join(WAIT_MILLIS); /* con la entrega dentro del monitor, la petición no podría terminar */
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		publisher.subscribe(recorder);
+
+		publisher.publish(0);
+		Assert.assertFalse("Petición desde otro hilo durante la entrega", requesting.get().isAlive());
+		publisher.publish(1);
+		Assert.assertEquals("Entregados todos", listOf(0, 1), recorder.items);
+	}
+
+	/* Espera a que se cumpla la condición, como máximo WAIT_MILLIS. */
+	private static boolean await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			TimeUnit.MILLISECONDS.sleep(10L);
+		}
+		return true;
+	}
+
+	private static List<Integer> listOf(final Integer... items) {
+		return Arrays.asList(items);
+	}
+
+	/* Suscriptor que guarda lo recibido, pidiendo inicialmente los elementos indicados. */
+	private static class Recorder implements Flow.Subscriber<Integer> {
+
+		private final long initialDemand;
+		final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+		final List<Integer> items = new CopyOnWriteArrayList<>();
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+
+		Recorder(final long initialDemand) {
+			this.initialDemand = initialDemand;
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription s) {
+			subscription.set(s);
+			if (initialDemand > 0) {
+				s.request(initialDemand);
+			}
+		}
+
+		@Override
+		public void onNext(final Integer item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error.set(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package libcomm.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para probar el diario de mensajes entrantes y su lectura por rango de
+ * tiempo y por clave.
+ * <p>
+ * 19/10/2026 14:10:31
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class InboundJournalTest {
+
+	private static final int SEGMENT_BYTES = 1024;
+
+	private static final int INDEX_INTERVAL = 4;
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("libcomm-journal").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void find_by_key_across_segments() throws IOException {
+		final InboundJournal journal = new InboundJournal(directory, SEGMENT_BYTES, -1, INDEX_INTERVAL);
+		for (int i = 1; i <= 200; i++) {
+			journal.append(body(i));
+		}
+		journal.close();
+
+		Assert.assertTrue(MappedLog.findSegments(directory, InboundJournal.LOG_NAME).size() > 1);
+		final MappedLogReader reader = InboundJournal.reader(directory);
+		for (final int sequence : new int[] {1, 2, 57, 128, 199, 200}) {
+			final JournalRecord record = reader.findByKey(sequence);
+			Assert.assertNotNull(record);
+			Assert.assertArrayEquals(body(sequence), record.getPayload());
+		}
+		Assert.assertNull(reader.findByKey(201));
+	}
+
+	@Test
+	public void read_key_range_in_order() throws IOException {
+		final InboundJournal journal = new InboundJournal(directory, SEGMENT_BYTES, -1, INDEX_INTERVAL);
+		for (int i = 1; i <= 100; i++) {
+			journal.append(body(i));
+		}
+		journal.close();
+
+		final List<Integer> sequences = new ArrayList<>();
+		InboundJournal.reader(directory).readByKey(40, 60, record -> sequences.add(InboundJournal.sequenceOf(record.getKey())));
+		Assert.assertEquals(21, sequences.size());
+		for (int i = 0; i < sequences.size(); i++) {
+			Assert.assertEquals(Integer.valueOf(40 + i), sequences.get(i));
+		}
+	}
+
+	@Test
+	public void read_time_range() throws IOException, InterruptedException {
+		final InboundJournal journal = new InboundJournal(directory, SEGMENT_BYTES, -1, INDEX_INTERVAL);
+		for (int i = 1; i <= 30; i++) {
+			journal.append(body(i));
+		}
+		Thread.sleep(20);
+		final long from = System.currentTimeMillis();
+		for (int i = 31; i <= 60; i++) {
+			journal.append(body(i));
+		}
+		journal.close();
+
+		final List<JournalRecord> records = new ArrayList<>();
+		InboundJournal.reader(directory).readByTime(from, Long.MAX_VALUE, record -> records.add(record));
+		Assert.assertEquals(30, records.size());
+		Assert.assertEquals(31, InboundJournal.sequenceOf(records.get(0).getKey()));
+	}
+
+	@Test
+	public void sequence_restart_increments_epoch() throws IOException {
+		final InboundJournal journal = new InboundJournal(directory, SEGMENT_BYTES, -1, INDEX_INTERVAL);
+		journal.append(body(0xFFFE));
+		journal.append(body(0xFFFF));
+		journal.append(body(0x0001));
+		journal.close();
+
+		final JournalRecord record = InboundJournal.reader(directory).findByKey((1L << 16) | 0x0001);
+		Assert.assertNotNull(record);
+		Assert.assertEquals(1, InboundJournal.sequenceOf(record.getKey()));
+	}
+
+	private static byte[] body(final int sequence) {
+		return String.format("%04XGT0000001234560001", sequence).getBytes();
+	}
+}
@@ -0,0 +1,77 @@
+package libcomm.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test del log mapeado en memoria: escritura a disco concurrente con la
+ * escritura de registros y el paso de un segmento al siguiente.
+ * <p>
+ * 20/10/2026 05:02:31
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class MappedLogTest {
+
+	private static final int SEGMENT_BYTES = 512;
+
+	private static final int RECORDS = 5000;
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("libcomm-log").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void force_while_appending() throws Exception {
+		final MappedLog log = new MappedLog(directory, "test", SEGMENT_BYTES, -1);
+		final AtomicBoolean appending = new AtomicBoolean(true);
+		final Thread flusher = new Thread(() -> {
+			while (appending.get()) {
+				log.force();
+			}
+		});
+		flusher.start();
+		try {
+			for (int i = 0; i < RECORDS; i++) {
+				log.append(i, i, ("RECORD-" + i).getBytes());
+			}
+		} finally {
+			appending.set(false);
+			flusher.join();
+		}
+		log.force();
+
+		final AtomicInteger next = new AtomicInteger();
+		log.read(log.getFirstPosition(), record -> {
+			Assert.assertEquals(next.get(), record.getKey());
+			Assert.assertArrayEquals(("RECORD-" + next.getAndIncrement()).getBytes(), record.getPayload());
+			return true;
+		});
+		Assert.assertEquals(RECORDS, next.get());
+		log.close();
+	}
+}
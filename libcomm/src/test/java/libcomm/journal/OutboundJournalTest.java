@@ -0,0 +1,193 @@
+package libcomm.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import libcomm.message.SequenceNumber;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para probar el diario de mensajes salientes.
+ * <p>
+ * 19/10/2026 12:20:44
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class OutboundJournalTest {
+
+	private static final int SEGMENT_BYTES = 256;
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("libcomm-journal").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void unacknowledged_survive_reopen() throws IOException {
+		OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.append(new SequenceNumber(2), bytes("0002GT"));
+		journal.append(new SequenceNumber(3), bytes("0003GT"));
+		journal.commit(new SequenceNumber(1));
+		journal.commit(new SequenceNumber(3));
+		Assert.assertEquals(1, journal.getPendingCount());
+		journal.close();
+
+		journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		final List<byte[]> unacknowledged = journal.getUnacknowledged();
+		Assert.assertEquals("Sólo el mensaje sin AK, no el confirmado fuera de orden", 1, unacknowledged.size());
+		Assert.assertArrayEquals(bytes("0002GT"), unacknowledged.get(0));
+		journal.close();
+	}
+
+	@Test
+	public void requeue_on_disconnection() throws IOException {
+		final OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.append(new SequenceNumber(2), bytes("0002GT"));
+		journal.append(new SequenceNumber(3), bytes("0003GT"));
+		journal.commit(new SequenceNumber(2));
+		journal.requeue();
+		Assert.assertEquals(0, journal.getPendingCount());
+
+		final List<byte[]> unacknowledged = journal.getUnacknowledged();
+		Assert.assertEquals(2, unacknowledged.size());
+		Assert.assertArrayEquals(bytes("0001GT"), unacknowledged.get(0));
+		Assert.assertArrayEquals(bytes("0003GT"), unacknowledged.get(1));
+
+		journal.commit(new SequenceNumber(1)); /* AK tardío de la conexión anterior, se ignora */
+		journal.append(new SequenceNumber(1), unacknowledged.get(0)); /* reenvío */
+		journal.append(new SequenceNumber(2), unacknowledged.get(1));
+		journal.replayed();
+		Assert.assertTrue(journal.getUnacknowledged().isEmpty());
+		journal.commit(new SequenceNumber(1));
+		journal.commit(new SequenceNumber(2));
+		Assert.assertEquals(0, journal.getPendingCount());
+		journal.close();
+	}
+
+	@Test
+	public void requeue_on_ak_failure() throws IOException {
+		OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.append(new SequenceNumber(2), bytes("0002GT"));
+		journal.requeue(new SequenceNumber(1));
+		journal.commit(new SequenceNumber(2));
+		Assert.assertEquals(0, journal.getPendingCount());
+		journal.close();
+
+		journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		final List<byte[]> unacknowledged = journal.getUnacknowledged();
+		Assert.assertEquals(1, unacknowledged.size());
+		Assert.assertArrayEquals(bytes("0001GT"), unacknowledged.get(0));
+		journal.close();
+	}
+
+	@Test
+	public void reused_sequence_number_is_requeued() throws IOException {
+		final OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.append(new SequenceNumber(1), bytes("0001PR")); /* la secuencia ha dado la vuelta */
+		Assert.assertEquals(1, journal.getPendingCount());
+		journal.commit(new SequenceNumber(1));
+		Assert.assertEquals(0, journal.getPendingCount());
+
+		final List<byte[]> unacknowledged = journal.getUnacknowledged();
+		Assert.assertEquals(1, unacknowledged.size());
+		Assert.assertArrayEquals(bytes("0001GT"), unacknowledged.get(0));
+		journal.close();
+	}
+
+	@Test
+	public void out_of_order_acks_are_deleted() throws IOException {
+		final OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		for (int i = 1; i <= 50; i++) {
+			journal.append(new SequenceNumber(2*i - 1), bytes("SEGMENT-ROLL-TEST"));
+			journal.append(new SequenceNumber(2*i), bytes("SEGMENT-ROLL-TEST"));
+			journal.commit(new SequenceNumber(2*i));
+			journal.commit(new SequenceNumber(2*i - 1));
+		}
+		Assert.assertEquals(1, directory.list((dir, name) -> name.startsWith("outbound-ack")).length);
+		Assert.assertEquals(1, directory.list((dir, name) -> name.matches("outbound-\\d+\\.log")).length);
+		journal.close();
+	}
+
+	@Test
+	public void replayed_moves_cursor() throws IOException {
+		OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, 0);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.close();
+
+		journal = new OutboundJournal(directory, SEGMENT_BYTES, 0);
+		Assert.assertEquals(1, journal.getUnacknowledged().size());
+		journal.append(new SequenceNumber(1), journal.getUnacknowledged().get(0)); /* reenvío */
+		journal.replayed();
+		journal.commit(new SequenceNumber(1));
+		journal.close();
+
+		journal = new OutboundJournal(directory, SEGMENT_BYTES, 0);
+		Assert.assertTrue(journal.getUnacknowledged().isEmpty());
+		journal.close();
+	}
+
+	@Test
+	public void committed_segments_are_deleted() throws IOException {
+		final OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		for (int i = 1; i <= 50; i++) {
+			journal.append(new SequenceNumber(i), bytes("SEGMENT-ROLL-TEST"));
+			journal.commit(new SequenceNumber(i));
+		}
+		final String[] segments = directory.list((dir, name) -> name.matches("outbound-\\d+\\.log"));
+		Assert.assertEquals(1, segments.length);
+		journal.close();
+	}
+
+	@Test
+	public void closed_journal_is_left_untouched() throws IOException {
+		final OutboundJournal journal = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		journal.append(new SequenceNumber(1), bytes("0001GT"));
+		journal.close();
+		journal.close();
+
+		journal.commit(new SequenceNumber(1));
+		journal.requeue(new SequenceNumber(1));
+		journal.requeue();
+		Assert.assertTrue(journal.getUnacknowledged().isEmpty());
+		journal.replayed();
+		try {
+			journal.append(new SequenceNumber(2), bytes("0002GT"));
+			Assert.fail("Diario cerrado");
+		} catch (final IOException e) {
+			/* esperado */
+		}
+
+		final OutboundJournal reopened = new OutboundJournal(directory, SEGMENT_BYTES, -1);
+		Assert.assertEquals(1, reopened.getUnacknowledged().size());
+		reopened.close();
+	}
+
+	private static byte[] bytes(final String text) {
+		return text.getBytes();
+	}
+}
@@ -0,0 +1,118 @@
+package libcomm.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para probar la cola de desbordamiento a disco de mensajes salientes.
+ * <p>
+ * 20/10/2026 00:12:36
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class OutboundSpillTest {
+
+	private static final int SEGMENT_BYTES = 256;
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("libcomm-spill").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = directory.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void fifo_across_segments() throws IOException {
+		final OutboundSpill spill = new OutboundSpill(directory, SEGMENT_BYTES, -1);
+		for (int i = 0; i < 100; i++) {
+			spill.append(bytes(i));
+		}
+		Assert.assertEquals(100, spill.size());
+
+		final List<byte[]> polled = new ArrayList<>();
+		List<byte[]> batch;
+		while (!(batch = spill.poll(7)).isEmpty()) {
+			polled.addAll(batch);
+		}
+		Assert.assertTrue(spill.isEmpty());
+		Assert.assertEquals(100, polled.size());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertArrayEquals(bytes(i), polled.get(i));
+		}
+		final String[] segments = directory.list((dir, name) -> name.endsWith(".log"));
+		Assert.assertEquals(1, segments.length);
+		spill.close();
+	}
+
+	@Test
+	public void pending_survive_reopen() throws IOException {
+		OutboundSpill spill = new OutboundSpill(directory, SEGMENT_BYTES, 0);
+		for (int i = 0; i < 5; i++) {
+			spill.append(bytes(i));
+		}
+		Assert.assertEquals(2, spill.poll(2).size());
+		spill.close();
+
+		spill = new OutboundSpill(directory, SEGMENT_BYTES, 0);
+		Assert.assertEquals(3, spill.size());
+		final List<byte[]> pending = spill.poll(10);
+		Assert.assertEquals(3, pending.size());
+		Assert.assertArrayEquals(bytes(2), pending.get(0));
+		Assert.assertArrayEquals(bytes(4), pending.get(2));
+		spill.close();
+
+		spill = new OutboundSpill(directory, SEGMENT_BYTES, 0);
+		Assert.assertTrue(spill.isEmpty());
+		spill.close();
+	}
+
+	@Test
+	public void closed_spill_is_left_untouched() throws IOException {
+		final OutboundSpill spill = new OutboundSpill(directory, SEGMENT_BYTES, -1);
+		spill.append(bytes(0));
+		spill.close();
+		spill.close();
+
+		try {
+			spill.poll(1);
+			Assert.fail("Cola cerrada");
+		} catch (final IOException e) {
+			/* esperado */
+		}
+		try {
+			spill.append(bytes(1));
+			Assert.fail("Cola cerrada");
+		} catch (final IOException e) {
+			/* esperado */
+		}
+
+		final OutboundSpill reopened = new OutboundSpill(directory, SEGMENT_BYTES, -1);
+		Assert.assertEquals(1, reopened.size());
+		reopened.close();
+	}
+
+	private static byte[] bytes(final int number) {
+		return String.format("%04dGT-SPILL", number).getBytes();
+	}
+}
@@ -0,0 +1,86 @@
+package libcomm.layer;
+
+import java.util.Properties;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.memory.MemoryLayer;
+import libcomm.layer.socket.SocketLayer;
+import libcomm.message.rfc1006.IBytes;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para probar la selección de transporte por configuración.
+ * <p>
+ * 19/10/2026 17:02:36
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class TransportFactoryTest {
+
+	@Test
+	public void default_transport_is_socket() throws CommunicationException {
+		final ConnectionContext context = ConnectionContext.createContext(properties(null));
+		Assert.assertTrue(TransportFactory.create(context, null) instanceof SocketLayer);
+	}
+
+	@Test
+	public void memory_transport_by_name() throws CommunicationException {
+		final ConnectionContext context = ConnectionContext.createContext(properties(" Memory "));
+		Assert.assertTrue(TransportFactory.create(context, null) instanceof MemoryLayer);
+	}
+
+	@Test
+	public void registered_provider_is_selectable() throws CommunicationException {
+		final ILayerCommands<IBytes> layer = new ILayerCommands<IBytes>() {
+			@Override
+			public void send(final IBytes message) {
+			}
+
+			@Override
+			public void connect() {
+			}
+
+			@Override
+			public void disconnect() {
+			}
+		};
+		TransportFactory.register(new ITransportProvider() {
+			@Override
+			public String getName() {
+				return "test";
+			}
+
+			@Override
+			public ILayerCommands<IBytes> create(final ConnectionContext context, final ILayerObserver<IBytes> observer) {
+				return layer;
+			}
+		});
+
+		Assert.assertTrue(TransportFactory.getNames().contains("test"));
+		final ConnectionContext context = ConnectionContext.createContext(properties("test"));
+		Assert.assertSame(layer, TransportFactory.create(context, null));
+	}
+
+	@Test(expected = CommunicationException.class)
+	public void unknown_transport_is_rejected() throws CommunicationException {
+		ConnectionContext.createContext(properties("carrier-pigeon"));
+	}
+
+	private static Properties properties(final String transport) {
+		final Properties properties = new Properties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_MODE, ConnectionMode.CLIENT.toString());
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLING_TSAP, "SG-to-SCF");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLED_TSAP, "SCF-to-SG");
+		if (transport != null) {
+			properties.setProperty(ConnectionProperties.KEY_TRANSPORT, transport);
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,180 @@
+package libcomm.layer.socket;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.ILayerObserver;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.BufferUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de la escritura en modo en línea con el socket lleno. El hilo de
+ * eventos del servidor, que en modo en línea notifica lo recibido, se
+ * bloquea con la primera lectura, de forma que el cliente llena los buffers
+ * del socket: el hilo que envía debe esperar sin girar y, al desbloquear el
+ * servidor, debe llegar todo en orden.
+ * <p>
+ * 20/10/2026 12:07:51
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class InlineWriteTest {
+
+	/* Tamaño de cada envío. Se envía hasta llenar los buffers del socket. */
+	private static final int CHUNK = 16 * 1024;
+
+	/* Milisegundos máximos de espera de cada comprobación. */
+	private static final long WAIT_MILLIS = 20000L;
+
+	private SocketLayer server;
+	private SocketLayer client;
+	private Observer serverObserver;
+	private Observer clientObserver;
+	private CountDownLatch release;
+	private Thread sender;
+
+	@Before
+	public void setUp() throws CommunicationException, InterruptedException {
+		release = new CountDownLatch(1);
+		serverObserver = new Observer(release);
+		clientObserver = new Observer(new CountDownLatch(0));
+		server = new SocketLayer(ConnectionContext.createContext(properties(ConnectionMode.SERVER)), serverObserver);
+		client = new SocketLayer(ConnectionContext.createContext(properties(ConnectionMode.CLIENT)), clientObserver);
+
+		server.connect();
+		client.connect();
+		Assert.assertTrue("Conectado el servidor", serverObserver.connected.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		Assert.assertTrue("Conectado el cliente", clientObserver.connected.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		release.countDown();
+		if (sender != null) {
+			sender.join(WAIT_MILLIS);
+		}
+		client.disconnect();
+		server.disconnect();
+	}
+
+	@Test
+	public void wait_for_room_without_spinning() throws InterruptedException {
+		final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+		final AtomicBoolean full = new AtomicBoolean();
+		sender = new Thread(() -> {
+			for (int i = 0; !full.get(); i++) {
+				final byte[] bytes = new byte[CHUNK];
+				for (int j = 0; j < CHUNK; j++) {
+					bytes[j] = (byte) ((i + j) % 251);
+				}
+				sent.write(bytes, 0, bytes.length);
+				client.send(BufferUtils.getIBytes(bytes));
+			}
+		}, "inline-sender");
+		sender.start();
+
+		Assert.assertTrue("El envío espera con el socket lleno", await(() -> waitsForRoom(sender)));
+		Thread.sleep(200L);
+		Assert.assertTrue("Sigue esperando sin girar", waitsForRoom(sender));
+
+		full.set(true); /* termina con el envío en curso */
+		release.countDown();
+		sender.join(WAIT_MILLIS);
+		Assert.assertFalse("Todo enviado", sender.isAlive());
+		Assert.assertTrue("Se reciben todos los bytes", await(() -> serverObserver.received.size() == sent.size()));
+		Assert.assertArrayEquals("Bytes recibidos en orden", sent.toByteArray(), serverObserver.received.toByteArray());
+	}
+
+	/* Indica si el hilo espera hueco en el buffer de escritura. */
+	private static boolean waitsForRoom(final Thread thread) {
+		if (thread.getState() != Thread.State.TIMED_WAITING) {
+			return false;
+		}
+		for (final StackTraceElement element : thread.getStackTrace()) {
+			if (AbstractChannelHandler.class.getName().equals(element.getClassName()) 
+					&& "writeInline".equals(element.getMethodName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/* Espera a que se cumpla la condición, como máximo WAIT_MILLIS. */
+	private static boolean await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10L);
+		}
+		return true;
+	}
+
+	private static Properties properties(final ConnectionMode mode) {
+		final Properties properties = new Properties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_NAME, "Test-inline-write");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_HOST, "localhost");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_PORT, "102");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_MODE, mode.toString());
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLING_TSAP, "SG-to-SCF");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLED_TSAP, "SCF-to-SG");
+		properties.setProperty(ConnectionProperties.KEY_PIPELINE_INLINE, "true");
+		return properties;
+	}
+
+	/* Observador que acumula los bytes recibidos, bloqueándose con la primera lectura hasta que se libere. */
+	private static class Observer implements ILayerObserver<IBytes> {
+
+		private final CountDownLatch release;
+		private final CountDownLatch connected = new CountDownLatch(1);
+		private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+		Observer(final CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void receive(final IBytes message) {
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			final byte[] bytes = message.getBytes();
+			received.write(bytes, 0, bytes.length);
+		}
+
+		@Override
+		public void connected() {
+			connected.countDown();
+		}
+
+		@Override
+		public void disconnected() {
+		}
+
+		@Override
+		public void disconnected(final CommunicationException cause) {
+		}
+
+		@Override
+		public void error(final String error, final CommunicationException cause) {
+		}
+	}
+}
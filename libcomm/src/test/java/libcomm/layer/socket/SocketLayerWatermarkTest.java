@@ -0,0 +1,160 @@
+package libcomm.layer.socket;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.ILayerObserver;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.BufferUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de las marcas de la cola de entrada de la capa de sockets. El
+ * observador del servidor se bloquea con los primeros bytes recibidos, de
+ * forma que los siguientes se acumulan hasta la marca alta y se deja de leer
+ * del socket. Al desbloquearlo se reanuda la lectura y llega todo en orden.
+ * <p>
+ * 20/10/2026 09:14:37
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class SocketLayerWatermarkTest {
+
+	/* Marcas alta y baja de la cola de entrada del servidor. */
+	private static final int HIGH = 2;
+	private static final int LOW = 1;
+
+	/* Número de envíos del cliente, y pausa entre ellos para que el servidor los lea por separado. */
+	private static final int MESSAGES = 20;
+	private static final long SEND_PAUSE_MILLIS = 20L;
+
+	/* Milisegundos máximos de espera de cada comprobación. */
+	private static final long WAIT_MILLIS = 5000L;
+
+	private SocketLayer server;
+	private SocketLayer client;
+	private Observer serverObserver;
+	private Observer clientObserver;
+	private CountDownLatch release;
+
+	@Before
+	public void setUp() throws CommunicationException, InterruptedException {
+		release = new CountDownLatch(1);
+		serverObserver = new Observer(release);
+		clientObserver = new Observer(new CountDownLatch(0));
+		server = new SocketLayer(ConnectionContext.createContext(properties(ConnectionMode.SERVER)), serverObserver);
+		client = new SocketLayer(ConnectionContext.createContext(properties(ConnectionMode.CLIENT)), clientObserver);
+
+		server.connect();
+		client.connect();
+		Assert.assertTrue("Conectado el servidor", serverObserver.connected.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		Assert.assertTrue("Conectado el cliente", clientObserver.connected.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		client.disconnect();
+		server.disconnect();
+	}
+
+	@Test
+	public void pause_and_resume_reading() throws InterruptedException {
+		final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+		for (int i = 0; i < MESSAGES; i++) {
+			final byte[] bytes = {(byte) i, (byte) (i + 1), (byte) (i + 2)};
+			sent.write(bytes, 0, bytes.length);
+			client.send(BufferUtils.getIBytes(bytes));
+			Thread.sleep(SEND_PAUSE_MILLIS);
+		}
+
+		Assert.assertTrue("Se deja de leer del socket", await(() -> server.isReadingPaused()));
+		Assert.assertEquals("Sólo se ha entregado la primera lectura", 1, serverObserver.receiving.get());
+
+		release.countDown();
+		Assert.assertTrue("Se reciben todos los bytes", await(() -> serverObserver.received.size() == sent.size()));
+		Assert.assertArrayEquals("Bytes recibidos en orden", sent.toByteArray(), serverObserver.received.toByteArray());
+		Assert.assertFalse("Se reanuda la lectura del socket", server.isReadingPaused());
+	}
+
+	/* Espera a que se cumpla la condición, como máximo WAIT_MILLIS. */
+	private static boolean await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10L);
+		}
+		return true;
+	}
+
+	private static Properties properties(final ConnectionMode mode) {
+		final Properties properties = new Properties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_NAME, "Test-watermark");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_HOST, "localhost");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_PORT, "102");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_MODE, mode.toString());
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLING_TSAP, "SG-to-SCF");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLED_TSAP, "SCF-to-SG");
+		properties.setProperty(ConnectionProperties.KEY_QUEUE_INBOUND_HIGH, String.valueOf(HIGH));
+		properties.setProperty(ConnectionProperties.KEY_QUEUE_INBOUND_LOW, String.valueOf(LOW));
+		return properties;
+	}
+
+	/* Observador que acumula los bytes recibidos, bloqueándose con la primera lectura hasta que se libere. */
+	private static class Observer implements ILayerObserver<IBytes> {
+
+		private final CountDownLatch release;
+		private final CountDownLatch connected = new CountDownLatch(1);
+		private final AtomicInteger receiving = new AtomicInteger();
+		private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+		Observer(final CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void receive(final IBytes message) {
+			receiving.incrementAndGet();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			final byte[] bytes = message.getBytes();
+			received.write(bytes, 0, bytes.length);
+		}
+
+		@Override
+		public void connected() {
+			connected.countDown();
+		}
+
+		@Override
+		public void disconnected() {
+		}
+
+		@Override
+		public void disconnected(final CommunicationException cause) {
+		}
+
+		@Override
+		public void error(final String error, final CommunicationException cause) {
+		}
+	}
+}
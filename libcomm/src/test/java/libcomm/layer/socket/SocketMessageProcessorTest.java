@@ -0,0 +1,248 @@
+package libcomm.layer.socket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.layer.OutboundFrame;
+import libcomm.message.rfc1006.IBytes;
+import libcomm.util.BufferUtils;
+import libcomm.util.OverflowPolicy;
+import libcomm.util.ThreadUtils;
+import libcomm.util.WaitStrategy;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import commons.util.PrintUtils;
+
+/**
+ * Test de las políticas de la cola de salida llena del procesador de
+ * mensajes a nivel de socket. El procesador se bloquea con el primer mensaje
+ * para que la cola se llene con telegramas de mensajes de la aplicación.
+ * También se comprueba, con procesadores propios, el hilo en el que se
+ * procesa y su estado en reposo según la estrategia de espera.
+ * <p>
+ * 19/10/2026 23:02:18
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class SocketMessageProcessorTest {
+
+	/* Capacidad de la cola de las pruebas. */
+	private static final int CAPACITY = 2;
+
+	private CountDownLatch processing;
+	private CountDownLatch release;
+	private SocketMessageProcessor processor;
+	private List<IBytes> processed;
+	private List<OutboundFrame> dropped;
+	private AtomicInteger drained;
+
+	@Before
+	public void setUp() throws CommunicationException, InterruptedException {
+		processing = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		processed = Collections.synchronizedList(new ArrayList<IBytes>());
+		dropped = Collections.synchronizedList(new ArrayList<OutboundFrame>());
+		drained = new AtomicInteger();
+		processor = new SocketMessageProcessor("Tx test", message -> {
+			processing.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			processed.add(message);
+		}, ConnectionContext.createContext(properties()), CAPACITY, dropped::add, drained::incrementAndGet);
+		processor.start();
+
+		/* El primer mensaje queda en proceso, bloqueado */
+		processor.addMessage(frame(0));
+		Assert.assertTrue("Procesando primer mensaje", processing.await(5, TimeUnit.SECONDS));
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		processor.stop();
+	}
+
+	@Test
+	public void reject_when_full() {
+		fill(frame(1), frame(2));
+		Assert.assertFalse(processor.offerMessage(frame(3), OverflowPolicy.REJECT));
+		Assert.assertEquals(CAPACITY + 1, processor.size()); /* más el que está en proceso */
+	}
+
+	@Test
+	public void block_when_full() throws InterruptedException {
+		fill(frame(1), frame(2));
+		final Thread producer = new Thread(() -> processor.addMessage(frame(3)), "Productor test");
+		producer.start();
+
+		/* El productor queda detenido, no girando, hasta que el procesador extrae un mensaje */
+		final long deadline = System.currentTimeMillis() + 5000L;
+		while (producer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertEquals("Productor detenido", Thread.State.WAITING, producer.getState());
+
+		release.countDown();
+		producer.join(5000L);
+		Assert.assertFalse("Productor despertado", producer.isAlive());
+		assertProcessed(0, 1, 2, 3);
+	}
+
+	@Test
+	public void drained_when_empty() throws InterruptedException {
+		fill(frame(1), frame(2));
+		final int before = drained.get();
+		release.countDown();
+		assertProcessed(0, 1, 2);
+
+		/* Se avisa al quedarse sin mensajes, ya sin ninguno en proceso */
+		final long deadline = System.currentTimeMillis() + 5000L;
+		while (drained.get() == before && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertTrue("Aviso de cola vacía", drained.get() > before);
+		Assert.assertEquals(0, processor.size());
+	}
+
+	@Test
+	public void drop_oldest_when_full() throws InterruptedException {
+		fill(frame(1), frame(2));
+		Assert.assertTrue(processor.offerMessage(frame(3), OverflowPolicy.DROP_OLDEST));
+		Assert.assertTrue(processor.offerMessage(frame(4), OverflowPolicy.DROP_OLDEST));
+		Assert.assertEquals(CAPACITY + 1, processor.size()); /* más el que está en proceso */
+
+		release.countDown();
+		assertProcessed(0, 3, 4);
+		assertDropped(1, 2);
+	}
+
+	@Test
+	public void drop_oldest_keeps_control_frames() throws InterruptedException {
+		/* El más antiguo es de control (CR/CC, AK), no se descarta y sigue siendo el siguiente en enviarse */
+		fill(bytes(1), frame(2));
+		Assert.assertTrue(processor.offerMessage(frame(3), OverflowPolicy.DROP_OLDEST));
+		Assert.assertTrue(processor.offerMessage(frame(4), OverflowPolicy.DROP_OLDEST));
+
+		release.countDown();
+		assertProcessed(0, 1, 3, 4);
+		assertDropped(2);
+	}
+
+	/* Llena la cola del procesador, bloqueado en el primer mensaje. */
+	@Test
+	public void virtual_thread() throws CommunicationException, InterruptedException {
+		Assume.assumeTrue("Hilos virtuales no soportados", ThreadUtils.isVirtualSupported());
+		final Properties properties = properties();
+		properties.setProperty(ConnectionProperties.KEY_THREADS_VIRTUAL, "true");
+		final AtomicReference<Thread> thread = new AtomicReference<>();
+		final CountDownLatch done = new CountDownLatch(1);
+		final SocketMessageProcessor virtual = new SocketMessageProcessor("Tx virtual", message -> {
+			thread.set(Thread.currentThread());
+			done.countDown();
+		}, ConnectionContext.createContext(properties), CAPACITY);
+		virtual.start();
+		try {
+			virtual.addMessage(frame(0));
+			Assert.assertTrue("Mensaje procesado", done.await(5, TimeUnit.SECONDS));
+			Assert.assertTrue("Procesado en hilo virtual", ThreadUtils.isVirtual(thread.get()));
+		} finally {
+			virtual.stop();
+		}
+	}
+
+	@Test
+	public void park_when_idle() throws CommunicationException, InterruptedException {
+		Assert.assertEquals("Bloqueado en reposo", Thread.State.WAITING, idleState(WaitStrategy.BLOCK));
+		Assert.assertEquals("Bloqueado tras la espera activa", Thread.State.WAITING, idleState(WaitStrategy.SPIN));
+	}
+
+	@Test
+	public void never_park_when_busy_spinning() throws CommunicationException, InterruptedException {
+		Assert.assertEquals("Sin bloquearse en reposo", Thread.State.RUNNABLE, idleState(WaitStrategy.BUSY_SPIN));
+		Assert.assertEquals("Sin bloquearse en reposo", Thread.State.RUNNABLE, idleState(WaitStrategy.YIELD));
+	}
+
+	private void fill(final IBytes... messages) {
+		for (final IBytes message : messages) {
+			Assert.assertTrue(processor.offerMessage(message, OverflowPolicy.REJECT));
+		}
+		Assert.assertEquals("Cola llena, más el mensaje en proceso", CAPACITY + 1, processor.size());
+	}
+
+	private void assertProcessed(final int... values) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 5000L;
+		while (processed.size() < values.length && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertEquals("Mensajes procesados", values.length, processed.size());
+		for (int i = 0; i < values.length; i++) {
+			Assert.assertEquals("Orden de envío", values[i], processed.get(i).getBytes()[0]);
+		}
+	}
+
+	private void assertDropped(final int... values) {
+		Assert.assertEquals("Mensajes descartados", values.length, dropped.size());
+		for (int i = 0; i < values.length; i++) {
+			Assert.assertEquals(values[i], dropped.get(i).getBytes()[0]);
+		}
+	}
+
+	/* Estado del hilo de un procesador con la estrategia de espera indicada, en reposo tras procesar un mensaje. */
+	private static Thread.State idleState(final WaitStrategy strategy) throws CommunicationException, InterruptedException {
+		final Properties properties = properties();
+		properties.setProperty(ConnectionProperties.KEY_WAIT_STRATEGY, strategy.toString());
+		properties.setProperty(ConnectionProperties.KEY_WAIT_SPINS, "100");
+		final AtomicReference<Thread> thread = new AtomicReference<>();
+		final CountDownLatch done = new CountDownLatch(1);
+		final SocketMessageProcessor idle = new SocketMessageProcessor(PrintUtils.format("Tx %s", strategy), message -> {
+			thread.set(Thread.currentThread());
+			done.countDown();
+		}, ConnectionContext.createContext(properties), CAPACITY);
+		idle.start();
+		try {
+			idle.addMessage(frame(0));
+			Assert.assertTrue("Mensaje procesado", done.await(5, TimeUnit.SECONDS));
+			Thread.sleep(200L);
+			return thread.get().getState();
+		} finally {
+			idle.stop();
+		}
+	}
+
+	private static IBytes bytes(final int value) {
+		return BufferUtils.getIBytes(new byte[] {(byte) value});
+	}
+
+	private static OutboundFrame frame(final int value) {
+		final IBytes message = bytes(value);
+		return new OutboundFrame(message.getBytes(), Collections.singletonList(message));
+	}
+
+	private static Properties properties() {
+		final Properties properties = new Properties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_MODE, ConnectionMode.CLIENT.toString());
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLING_TSAP, "SG-to-SCF");
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_CALLED_TSAP, "SCF-to-SG");
+		return properties;
+	}
+}
@@ -0,0 +1,57 @@
+package libcomm.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import commons.util.PrintUtils;
+
+/**
+ * Test de las estrategias de espera: cuándo debe bloquearse un hilo
+ * consumidor sin trabajo.
+ * <p>
+ * 20/10/2026 10:31:44
+ * </p>
+ *
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class WaitStrategyTest {
+
+	/* Iteraciones de espera activa de las pruebas. */
+	private static final int SPINS = 100;
+
+	/* Se bloquea en cuanto se queda sin trabajo. */
+	@Test
+	public void blockAtOnce() {
+		Assert.assertTrue(WaitStrategy.BLOCK.idle(0, SPINS));
+		Assert.assertTrue(WaitStrategy.BLOCK.idle(SPINS, SPINS));
+	}
+
+	/* Comprueba en bucle el número de veces indicado y después se bloquea. */
+	@Test
+	public void spinThenBlock() {
+		for (int i = 0; i < SPINS; i++) {
+			Assert.assertFalse(PrintUtils.format("Iteración '%s' en espera activa", i), WaitStrategy.SPIN.idle(i, SPINS));
+		}
+		Assert.assertTrue("Bloqueo tras la espera activa", WaitStrategy.SPIN.idle(SPINS, SPINS));
+		Assert.assertTrue("Sin espera activa", WaitStrategy.SPIN.idle(0, 0));
+	}
+
+	/* Ceder la CPU o comprobar en bucle no se bloquea nunca. */
+	@Test
+	public void yieldAndBusySpinNeverBlock() {
+		for (final int idleCount : new int[] {0, SPINS, Integer.MAX_VALUE}) {
+			Assert.assertFalse(WaitStrategy.YIELD.idle(idleCount, SPINS));
+			Assert.assertFalse(WaitStrategy.BUSY_SPIN.idle(idleCount, SPINS));
+		}
+	}
+
+	/* Sin distinguir mayúsculas y con guion en lugar de guion bajo. */
+	@Test
+	public void getStrategy() {
+		Assert.assertEquals(WaitStrategy.BUSY_SPIN, WaitStrategy.getStrategy(" busy-spin "));
+		Assert.assertEquals(WaitStrategy.SPIN, WaitStrategy.getStrategy("Spin"));
+		Assert.assertNull(WaitStrategy.getStrategy("sleep"));
+		Assert.assertNull(WaitStrategy.getStrategy(null));
+	}
+}
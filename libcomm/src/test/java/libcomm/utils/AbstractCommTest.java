@@ -1,7 +1,9 @@
 package libcomm.utils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import libcomm.LibcommHandler;
 import libcomm.LibcommInterface;
@@ -50,6 +52,9 @@ public abstract class AbstractCommTest implements LibcommListener<Message<?>>, L
 	/* Mensajes recibidos. */
 	private final List<Message<?>> receivedMessages;
 	
+	/* Hilo en el que se ha notificado el último mensaje recibido. */
+	private volatile Thread receivingThread;
+	
 	/* Constructor, recibe el modo: cliente o servidor */
 	AbstractCommTest(ConnectionContext context) {
 		this.mode = context.getConnectionMode();
@@ -62,6 +67,11 @@ public abstract class AbstractCommTest implements LibcommListener<Message<?>>, L
 	public ConnectionContext context() {
 		return this.context;
 	}
+
+	/* Devuelve el manejador de Libcomm, para acceder a lo que no expone la interfaz. */
+	public LibcommHandler handler() {
+		return (LibcommHandler) this.Libcomm;
+	}
 	
 	@Override
 	public void connect() {
@@ -78,6 +88,21 @@ public abstract class AbstractCommTest implements LibcommListener<Message<?>>, L
 		Libcomm.send(message);
 	}
 
+	@Override
+	public void send(Collection<Message<?>> messages) {
+		Libcomm.send(messages);
+	}
+
+	@Override
+	public CompletableFuture<Message<?>> sendAsync(Message<?> message) {
+		return Libcomm.sendAsync(message);
+	}
+
+	@Override
+	public void close() {
+		Libcomm.close();
+	}
+
 	@Override
 	public ConnectionState getConnectionState() {
 		return Libcomm.getConnectionState();
@@ -108,6 +133,7 @@ public abstract class AbstractCommTest implements LibcommListener<Message<?>>, L
 	
 	@Override
 	public void received(final Message<?> message) {
+		this.receivingThread = Thread.currentThread();
 		this.receivedMessages.add(message);
 	}
 
@@ -125,6 +151,11 @@ public abstract class AbstractCommTest implements LibcommListener<Message<?>>, L
 		return result;
 	}
 
+	/* Devuelve el hilo en el que se ha notificado el último mensaje recibido, null si no se ha recibido ninguno. */
+	public Thread receivingThread() {
+		return this.receivingThread;
+	}
+
 	/* Devuelve el evento de conexión si lo hay, y en cualquier caso lo setea a falso. */
 	public boolean connectionEvent() {
 		final boolean result = this.connectionEvent;
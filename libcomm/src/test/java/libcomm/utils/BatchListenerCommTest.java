@@ -0,0 +1,61 @@
+package libcomm.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import libcomm.BatchLibcommListener;
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.message.Message;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * con un listener que recibe los mensajes por bloques. Registra el tamaño de
+ * cada bloque recibido.
+ * 
+ * <p>
+ * 20/10/2026 01:48:16
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class BatchListenerCommTest extends AbstractCommTest implements BatchLibcommListener<Message<?>> {
+
+	/** Máximo de mensajes por bloque configurado. */
+	public static final int BATCH_SIZE = 16;
+	
+	/* Tamaño de cada bloque recibido. */
+	private final List<Integer> batchSizes;
+	
+	/* Constructor, recibe el modo: cliente o servidor */
+	public BatchListenerCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+		this.batchSizes = new ArrayList<>();
+	}
+
+	/* Configuración de test con bloques pequeños y una espera breve a completarlos. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_LISTENER_BATCH_SIZE, String.valueOf(BATCH_SIZE));
+		properties.setProperty(ConnectionProperties.KEY_LISTENER_BATCH_LINGER_MICROS, "2000");
+		return properties;
+	}
+
+	@Override
+	public void receivedBatch(final List<Message<?>> messages) {
+		this.batchSizes.add(messages.size());
+		for (final Message<?> message : messages) {
+			super.received(message);
+		}
+	}
+
+	/* Devuelve el tamaño de los bloques recibidos y en cualquier caso los limpia. */
+	public List<Integer> batchSizes() {
+		final List<Integer> result = new ArrayList<>(this.batchSizes);
+		this.batchSizes.clear();
+		return result;
+	}
+}
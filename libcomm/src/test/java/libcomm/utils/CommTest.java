@@ -1,5 +1,7 @@
 package libcomm.utils;
 
+import java.util.Properties;
+
 import libcomm.connection.ConnectionMode;
 import libcomm.context.ConnectionContext;
 import libcomm.exception.CommunicationException;
@@ -17,6 +19,20 @@ public class CommTest extends AbstractCommTest {
 	
 	/* Constructor, recibe el modo: cliente o servidor */
 	public CommTest(final String name, final ConnectionMode mode) throws CommunicationException {
-		super (ConnectionContext.createContext(new ConfigurationTest(name, mode).getProperties()));
+		this(name, mode, TransmissionMode.SOCKET);
+	}
+	
+	/* Constructor, recibe el modo: cliente o servidor, y la variante de transmisión */
+	public CommTest(final String name, final ConnectionMode mode, final TransmissionMode transmission) 
+			throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode, transmission)));
+	}
+
+	/* Configuración de test con las propiedades de la variante de transmisión. */
+	private static Properties getProperties(final String name, final ConnectionMode mode, 
+			final TransmissionMode transmission) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		transmission.configure(properties);
+		return properties;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package libcomm.utils;
+
+import java.util.Properties;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * reteniendo los mensajes enviados mientras se conecta hasta completar la
+ * conexión.
+ * 
+ * <p>
+ * 20/10/2026 03:52:21
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ConnectingBufferCommTest extends AbstractCommTest {
+
+	/** Máximo de mensajes retenidos mientras se conecta. */
+	public static final int BUFFER_MESSAGES = 1000;
+
+	/* Constructor, recibe el modo: cliente o servidor */
+	public ConnectingBufferCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+	}
+
+	/* Configuración de test con retención de mensajes durante la conexión. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTING_BUFFER_MESSAGES, String.valueOf(BUFFER_MESSAGES));
+		return properties;
+	}
+}
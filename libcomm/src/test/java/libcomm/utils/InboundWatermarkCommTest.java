@@ -0,0 +1,65 @@
+package libcomm.utils;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.message.Message;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * con marcas mínimas en la cola de entrada y un listener que se bloquea con
+ * el primer mensaje recibido hasta que se libere, de forma que los mensajes
+ * pendientes superan la marca alta y se deja de leer del socket.
+ * 
+ * <p>
+ * 19/10/2026 23:26:31
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class InboundWatermarkCommTest extends AbstractCommTest {
+	
+	/* Se abre al recibir el primer mensaje y al liberar el listener, respectivamente. */
+	private final CountDownLatch receiving = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	
+	/* Constructor, recibe el modo: cliente o servidor */
+	public InboundWatermarkCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+	}
+
+	/* Configuración de test con marcas alta y baja mínimas. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_QUEUE_INBOUND_HIGH, "2");
+		properties.setProperty(ConnectionProperties.KEY_QUEUE_INBOUND_LOW, "1");
+		return properties;
+	}
+
+	/* Se bloquea hasta que se libere el listener. */
+	@Override
+	public void received(final Message<?> message) {
+		receiving.countDown();
+		try {
+			release.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		super.received(message);
+	}
+
+	/* Espera a que el listener reciba el primer mensaje y quede bloqueado. */
+	public boolean awaitReceiving(final long millis) throws InterruptedException {
+		return receiving.await(millis, TimeUnit.MILLISECONDS);
+	}
+
+	/* Libera el listener. */
+	public void release() {
+		release.countDown();
+	}
+}
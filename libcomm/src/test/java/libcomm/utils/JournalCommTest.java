@@ -0,0 +1,51 @@
+package libcomm.utils;
+
+import java.io.File;
+import java.util.Properties;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * con diario de salida, diario de entrada y desbordamiento a disco en
+ * subdirectorios del directorio indicado.
+ * 
+ * <p>
+ * 20/10/2026 10:42:18
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class JournalCommTest extends AbstractCommTest {
+
+	/** Subdirectorio del diario de salida. */
+	public static final String OUTBOUND_DIR = "outbound";
+
+	/** Subdirectorio del diario de entrada. */
+	public static final String INBOUND_DIR = "inbound";
+
+	/** Subdirectorio del desbordamiento a disco. */
+	public static final String SPILL_DIR = "spill";
+
+	/* Tamaño de cada segmento de los logs. */
+	private static final int SEGMENT_BYTES = 64 * 1024;
+
+	/* Constructor, recibe el modo: cliente o servidor, y el directorio de los diarios */
+	public JournalCommTest(final String name, final ConnectionMode mode, final File directory) 
+			throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode, directory)));
+	}
+
+	/* Configuración de test con diarios y desbordamiento en subdirectorios del indicado. */
+	private static Properties getProperties(final String name, final ConnectionMode mode, final File directory) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_JOURNAL_OUTBOUND_DIR, new File(directory, OUTBOUND_DIR).getPath());
+		properties.setProperty(ConnectionProperties.KEY_JOURNAL_INBOUND_DIR, new File(directory, INBOUND_DIR).getPath());
+		properties.setProperty(ConnectionProperties.KEY_SPILL_DIR, new File(directory, SPILL_DIR).getPath());
+		properties.setProperty(ConnectionProperties.KEY_JOURNAL_SEGMENT_BYTES, String.valueOf(SEGMENT_BYTES));
+		return properties;
+	}
+}
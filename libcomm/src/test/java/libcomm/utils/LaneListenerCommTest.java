@@ -0,0 +1,80 @@
+package libcomm.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+import libcomm.message.Message;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * notificando los mensajes recibidos en varios carriles. Simula un listener
+ * lento y registra los mensajes recibidos por clave y los hilos que los
+ * notifican.
+ * 
+ * <p>
+ * 20/10/2026 02:18:37
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class LaneListenerCommTest extends AbstractCommTest {
+
+	/** Carriles de notificación configurados. */
+	public static final int LANES = 4;
+	
+	/* Milisegundos que tarda el listener en procesar cada mensaje. */
+	private static final long RECEIVED_MILLIS = 2L;
+	
+	/* Mensajes recibidos por clave, en orden de notificación. */
+	private final Map<Object, List<Message<?>>> receivedByKey;
+	
+	/* Hilos que han notificado mensajes de cada clave. */
+	private final Map<Object, Set<String>> threadsByKey;
+	
+	/* Constructor, recibe el modo: cliente o servidor */
+	public LaneListenerCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+		this.receivedByKey = new HashMap<>();
+		this.threadsByKey = new HashMap<>();
+	}
+
+	/* Configuración de test con varios carriles de notificación. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_LISTENER_LANES, String.valueOf(LANES));
+		return properties;
+	}
+
+	@Override
+	public void received(final Message<?> message) {
+		try {
+			Thread.sleep(RECEIVED_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			super.received(message);
+			receivedByKey.computeIfAbsent(message.getKey(), key -> new ArrayList<>()).add(message);
+			threadsByKey.computeIfAbsent(message.getKey(), key -> new HashSet<>()).add(Thread.currentThread().getName());
+		}
+	}
+
+	/* Devuelve los mensajes recibidos por clave. */
+	public synchronized Map<Object, List<Message<?>>> receivedByKey() {
+		return new HashMap<>(this.receivedByKey);
+	}
+
+	/* Devuelve los hilos que han notificado mensajes de cada clave. */
+	public synchronized Map<Object, Set<String>> threadsByKey() {
+		return new HashMap<>(this.threadsByKey);
+	}
+}
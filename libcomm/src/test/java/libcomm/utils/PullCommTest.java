@@ -0,0 +1,38 @@
+package libcomm.utils;
+
+import java.util.Properties;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * con recepción por consulta: los mensajes recibidos se extraen con
+ * {@link libcomm.LibcommHandler#poll} en lugar de notificarse.
+ * 
+ * <p>
+ * 20/10/2026 03:11:52
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class PullCommTest extends AbstractCommTest {
+
+	/* Capacidad de la cola de recepción por consulta, la marca de agua alta de entrada. */
+	public static final int PULL_CAPACITY = 16;
+
+	/* Constructor, recibe el modo: cliente o servidor */
+	public PullCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+	}
+
+	/* Configuración de test con recepción por consulta. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_RECEIVE_PULL, Boolean.TRUE.toString());
+		properties.setProperty(ConnectionProperties.KEY_QUEUE_INBOUND_HIGH, String.valueOf(PULL_CAPACITY));
+		return properties;
+	}
+}
@@ -0,0 +1,48 @@
+package libcomm.utils;
+
+import java.util.Properties;
+
+import libcomm.connection.ConnectionMode;
+import libcomm.context.ConnectionContext;
+import libcomm.context.ConnectionProperties;
+import libcomm.exception.CommunicationException;
+
+/**
+ * Inicia un servidor o cliente con Libcomm, según el modo que se le indique,
+ * que tras una caída reintenta la reconexión sin límite de intentos, con una
+ * espera creciente entre ellos.
+ * 
+ * <p>
+ * 20/10/2026 04:21:37
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public class ReconnectCommTest extends AbstractCommTest {
+
+	/** Milisegundos de espera antes del segundo intento de reconexión. */
+	public static final long INITIAL_MILLIS = 500L;
+
+	/** Máximo de milisegundos de espera entre intentos de reconexión. */
+	public static final long MAX_MILLIS = 2000L;
+
+	/** Milisegundos máximos de cada intento de conexión. */
+	public static final long TIMEOUT_MILLIS = 1000L;
+
+	/* Constructor, recibe el modo: cliente o servidor */
+	public ReconnectCommTest(final String name, final ConnectionMode mode) throws CommunicationException {
+		super (ConnectionContext.createContext(getProperties(name, mode)));
+	}
+
+	/* Configuración de test con reconexión sin límite de intentos, el primero sin esperar. */
+	private static Properties getProperties(final String name, final ConnectionMode mode) {
+		final Properties properties = new ConfigurationTest(name, mode).getProperties();
+		properties.setProperty(ConnectionProperties.KEY_CONNECTION_TIMEOUT_MILLIS, String.valueOf(TIMEOUT_MILLIS));
+		properties.setProperty(ConnectionProperties.KEY_RECONNECT_INITIAL_MILLIS, String.valueOf(INITIAL_MILLIS));
+		properties.setProperty(ConnectionProperties.KEY_RECONNECT_MAX_MILLIS, String.valueOf(MAX_MILLIS));
+		properties.setProperty(ConnectionProperties.KEY_RECONNECT_JITTER_PERCENT, "20");
+		properties.setProperty(ConnectionProperties.KEY_RECONNECT_ATTEMPTS, "0");
+		properties.setProperty(ConnectionProperties.KEY_RECONNECT_IMMEDIATE, "true");
+		return properties;
+	}
+}
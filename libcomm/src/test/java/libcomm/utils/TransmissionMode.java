@@ -0,0 +1,116 @@
+package libcomm.utils;
+
+import java.io.File;
+import java.util.Properties;
+
+import libcomm.context.ConnectionProperties;
+import libcomm.util.ThreadUtils;
+import libcomm.util.WaitStrategy;
+
+/**
+ * Variantes de configuración con las que se repiten los tests de
+ * transmisión: transporte y modelo de hilos.
+ * 
+ * <p>
+ * 20/10/2026 09:52:18
+ * </p>
+ * @author Jorge Fdez. &lt;jfmillan@gmail.com&gt;
+ * @version 1.0
+ */
+public enum TransmissionMode {
+
+	/** Sockets TCP, configuración por defecto. */
+	SOCKET,
+
+	/** Transporte en memoria en lugar de sockets. */
+	MEMORY {
+		@Override
+		void configure(final Properties properties) {
+			properties.setProperty(ConnectionProperties.KEY_TRANSPORT, "memory");
+		}
+
+		@Override
+		public boolean isTcp() {
+			return false;
+		}
+	},
+
+	/** Socket de dominio Unix en lugar de TCP, desde Java 16. */
+	UNIX_SOCKET {
+		@Override
+		void configure(final Properties properties) {
+			properties.setProperty(ConnectionProperties.KEY_CONNECTION_HOST, 
+				ConnectionProperties.UNIX_SOCKET_PREFIX + SOCKET_FILE.getAbsolutePath());
+		}
+
+		@Override
+		public boolean isSupported() {
+			try {
+				Class.forName("java.net.UnixDomainSocketAddress");
+				return true;
+			} catch (final ClassNotFoundException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public boolean isTcp() {
+			return false;
+		}
+	},
+
+	/** Hilos virtuales para los hilos que esperan, desde Java 21. */
+	VIRTUAL_THREADS {
+		@Override
+		void configure(final Properties properties) {
+			properties.setProperty(ConnectionProperties.KEY_THREADS_VIRTUAL, "true");
+		}
+
+		@Override
+		public boolean isSupported() {
+			return ThreadUtils.isVirtualSupported();
+		}
+	},
+
+	/** Procesamiento en línea en el hilo que lee del socket, sin colas ni hilos intermedios. */
+	INLINE {
+		@Override
+		void configure(final Properties properties) {
+			properties.setProperty(ConnectionProperties.KEY_PIPELINE_INLINE, "true");
+		}
+	},
+
+	/** Espera activa de los hilos consumidores antes de bloquearse. */
+	WAIT_STRATEGY {
+		@Override
+		void configure(final Properties properties) {
+			properties.setProperty(ConnectionProperties.KEY_WAIT_STRATEGY, WaitStrategy.SPIN.toString());
+			properties.setProperty(ConnectionProperties.KEY_WAIT_SPINS, "10000");
+		}
+	};
+
+	/** Fichero de socket de dominio Unix compartido por cliente y servidor. */
+	public static final File SOCKET_FILE = new File(System.getProperty("java.io.tmpdir"), "libcomm-test.sock");
+
+	/* Añade a la configuración de test las propiedades de la variante. */
+	void configure(final Properties properties) {
+	}
+
+	/**
+	 * Indica si la JVM soporta la variante.
+	 * 
+	 * @return <code>true</code> si se puede probar.
+	 */
+	public boolean isSupported() {
+		return true;
+	}
+
+	/**
+	 * Indica si la variante conecta por un socket TCP.
+	 * 
+	 * @return <code>true</code> si usa el puerto TCP de la configuración.
+	 */
+	public boolean isTcp() {
+		return true;
+	}
+}